@@ -183,7 +183,7 @@ public interface AgentExecutor {
                 stateSerializer = Serializers.STD.object();
             }
 
-            final LC4jToolService toolService = new LC4jToolService(toolMap());
+            final LC4jToolService toolService = new LC4jToolService(toolMap(), toolExecutionPolicy);
 
             return Agent.<ChatMessage,State>builder()
                     .stateSerializer(stateSerializer)
@@ -5,9 +5,14 @@ import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ResponseFormat;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
+import org.bsc.langgraph4j.langchain4j.cache.LC4jChatResponseCache;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolMapBuilder;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
+
+import static java.util.Objects.requireNonNull;
 
 public abstract class AgentExecutorBuilder<State extends MessagesState<ChatMessage>, B extends AgentExecutorBuilder<State,B> > extends LC4jToolMapBuilder<B> {
 
@@ -16,6 +21,9 @@ public abstract class AgentExecutorBuilder<State extends MessagesState<ChatMessa
     StreamingChatModel streamingChatModel;
     SystemMessage systemMessage;
     ResponseFormat responseFormat;
+    ToolExecutionPolicy toolExecutionPolicy = ToolExecutionPolicy.sequential();
+    LC4jChatResponseCache responseCache;
+    StreamingChunkPolicy streamingChunkPolicy;
 
     @SuppressWarnings("unchecked")
     protected B result() {
@@ -53,4 +61,38 @@ public abstract class AgentExecutorBuilder<State extends MessagesState<ChatMessa
         return result();
     }
 
+    /**
+     * Sets how the tokens of the streaming chat model are delivered, by default each token is emitted as soon
+     * as it arrives, without limits.
+     *
+     * @param streamingChunkPolicy the chunk policy
+     * @return the builder
+     */
+    public B streamingChunkPolicy(StreamingChunkPolicy streamingChunkPolicy ) {
+        this.streamingChunkPolicy = streamingChunkPolicy;
+        return result();
+    }
+
+    /**
+     * Sets the cache of the model responses, by default the model is called on every turn.
+     *
+     * @param responseCache the response cache, shared by the agents that use the same model
+     * @return the builder
+     */
+    public B responseCache(LC4jChatResponseCache responseCache ) {
+        this.responseCache = responseCache;
+        return result();
+    }
+
+    /**
+     * Sets how the tool calls requested in a single turn are executed, by default sequentially.
+     *
+     * @param toolExecutionPolicy the tool execution policy
+     * @return the builder
+     */
+    public B toolExecutionPolicy(ToolExecutionPolicy toolExecutionPolicy ) {
+        this.toolExecutionPolicy = requireNonNull(toolExecutionPolicy, "toolExecutionPolicy cannot be null");
+        return result();
+    }
+
 }
@@ -284,7 +284,7 @@ public interface AgentExecutorEx {
 
             var tools = toolMap();
 
-            final LC4jToolService toolService = new LC4jToolService(tools);
+            final LC4jToolService toolService = new LC4jToolService(tools, toolExecutionPolicy);
 
             return AgentEx.<ChatMessage, State, ToolSpecification>builder()
                     .stateSerializer( stateSerializer )
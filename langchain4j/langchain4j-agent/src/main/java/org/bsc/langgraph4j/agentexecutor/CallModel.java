@@ -10,8 +10,10 @@ import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.output.FinishReason;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.langchain4j.cache.LC4jChatResponseCache;
 import org.bsc.langgraph4j.langchain4j.generators.StreamingChatGenerator;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +30,8 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
     private final StreamingChatModel streamingChatModel;
     private final SystemMessage systemMessage;
     final ChatRequestParameters parameters;
+    private final LC4jChatResponseCache responseCache;
+    private final StreamingChunkPolicy streamingChunkPolicy;
 
     /**
      * Constructs a CallAgent with the specified agent.
@@ -38,6 +42,8 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
         this.chatModel = builder.chatModel;
         this.streamingChatModel = builder.streamingChatModel;
         this.systemMessage = ofNullable( builder.systemMessage ).orElseGet( () -> SystemMessage.from("You are a helpful assistant") );
+        this.responseCache = builder.responseCache;
+        this.streamingChunkPolicy = builder.streamingChunkPolicy;
 
         var parametersBuilder = ChatRequestParameters.builder()
                 .toolSpecifications( builder.toolMap().keySet().stream().toList() );
@@ -115,15 +121,23 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
                     .mapResult( this::mapResult )
                     .startingNode("agent")
                     .startingState( state )
+                    .chunkPolicy( streamingChunkPolicy )
                     .build();
-            streamingChatModel.chat(prepareRequest(messages),  generator.handler());
+            if( responseCache != null ) {
+                responseCache.chat( streamingChatModel, prepareRequest(messages), generator.handler() );
+            }
+            else {
+                streamingChatModel.chat(prepareRequest(messages), generator.handler());
+            }
 
             return Map.of( "_generator", generator);
 
 
         }
         else {
-            var response = chatModel.chat(prepareRequest(messages));
+            var response = ( responseCache != null ) ?
+                    responseCache.chat( chatModel, prepareRequest(messages) ) :
+                    chatModel.chat(prepareRequest(messages));
 
             return mapResult(response);
         }
@@ -0,0 +1,250 @@
+package org.bsc.langgraph4j.langchain4j.cache;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.internal.JsonSchemaElementUtils;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.request.json.JsonSchemaElement;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.CompleteToolCall;
+import dev.langchain4j.model.chat.response.PartialResponse;
+import dev.langchain4j.model.chat.response.PartialResponseContext;
+import dev.langchain4j.model.chat.response.PartialThinking;
+import dev.langchain4j.model.chat.response.PartialThinkingContext;
+import dev.langchain4j.model.chat.response.PartialToolCall;
+import dev.langchain4j.model.chat.response.PartialToolCallContext;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import org.bsc.langgraph4j.cache.FileSystemNodeCache;
+import org.bsc.langgraph4j.cache.InMemoryNodeCache;
+import org.bsc.langgraph4j.cache.NodeCache;
+import org.bsc.langgraph4j.cache.ResponseCache;
+import org.bsc.langgraph4j.cache.ResponseCachePolicy;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches the responses of a langchain4j chat model, so that identical requests (e.g. in evaluation runs or in
+ * fan-out workloads) don't call the model again.
+ * <p>
+ * The cache key is the SHA-256 hash of the request messages (system message included) and of the parameters the
+ * model receives, i.e. the default parameters of the model overridden by the request ones: model name, sampling
+ * parameters, max output tokens, stop sequences, tool specifications, tool choice and response format. The
+ * parameters specific to a provider (e.g. a seed) are not part of the key, use a different
+ * {@link ResponseCachePolicy#namespace()} for models that differ only in those. Identical requests in flight at
+ * the same time are coalesced: only the first one calls the model, the others wait for its response.
+ * </p>
+ * <p>
+ * The responses are kept by the {@link NodeCache} of the given {@link ResponseCachePolicy}, that also provides the
+ * time to live and the max size: by default an {@link InMemoryNodeCache}, use a {@link FileSystemNodeCache} with
+ * a {@link org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer} to keep them across restarts.
+ * Only the AI message and the finish reason are cached, the token usage of a cached response is not replayed.
+ * </p>
+ */
+public class LC4jChatResponseCache extends ResponseCache<ChatResponse> {
+
+    private static final String MESSAGE = "message";
+    private static final String FINISH_REASON = "finishReason";
+
+    /**
+     * Creates a cache that keeps the responses in memory, using the default max size and no expiration
+     */
+    public LC4jChatResponseCache() {
+        this(ResponseCachePolicy.builder().build());
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param policy the policy that provides the cache, its namespace, the time to live and the max size
+     */
+    public LC4jChatResponseCache(ResponseCachePolicy policy) {
+        super(policy);
+    }
+
+    /**
+     * Computes the cache key of a request
+     *
+     * @param request           the chat request
+     * @param defaultParameters the default parameters of the model, overridden by the request ones
+     * @return the hex encoded hash of the request
+     */
+    public static String keyOf(ChatRequest request, ChatRequestParameters defaultParameters) {
+        requireNonNull(request, "request cannot be null");
+        final var parameters = (defaultParameters != null) ?
+                defaultParameters.overrideWith(request.parameters()) :
+                request.parameters();
+
+        final var key = new KeyBuilder()
+                .add(ChatMessageSerializer.messagesToJson(request.messages()))
+                .add(parameters.modelName())
+                .add(parameters.temperature())
+                .add(parameters.topP())
+                .add(parameters.topK())
+                .add(parameters.frequencyPenalty())
+                .add(parameters.presencePenalty())
+                .add(parameters.maxOutputTokens())
+                .add(parameters.stopSequences())
+                .add(parameters.toolChoice());
+
+        final List<ToolSpecification> tools = (parameters.toolSpecifications() != null) ?
+                parameters.toolSpecifications() :
+                List.of();
+        tools.stream()
+                .sorted(Comparator.comparing(ToolSpecification::name))
+                .forEach(tool -> key.add(tool.name())
+                        .add(tool.description())
+                        .add(schemaOf(tool.parameters())));
+
+        final var responseFormat = parameters.responseFormat();
+        if (responseFormat != null) {
+            key.add(responseFormat.type());
+            if (responseFormat.jsonSchema() != null) {
+                key.add(responseFormat.jsonSchema().name())
+                        .add(schemaOf(responseFormat.jsonSchema().rootElement()));
+            }
+        }
+        return key.build();
+    }
+
+    private static Map<String, Object> schemaOf(JsonSchemaElement element) {
+        return (element != null) ? JsonSchemaElementUtils.toMap(element) : null;
+    }
+
+    @Override
+    protected ChatResponse fromData(Map<String, Object> data) {
+        final var builder = ChatResponse.builder().aiMessage((AiMessage) data.get(MESSAGE));
+        final var finishReason = (String) data.get(FINISH_REASON);
+        if (finishReason != null) {
+            builder.finishReason(FinishReason.valueOf(finishReason));
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected Map<String, Object> toData(ChatResponse response) {
+        final var data = new HashMap<String, Object>();
+        data.put(MESSAGE, response.aiMessage());
+        if (response.finishReason() != null) {
+            data.put(FINISH_REASON, response.finishReason().name());
+        }
+        return data;
+    }
+
+    /**
+     * Returns the cached response of the request or calls the model
+     *
+     * @param model   the chat model
+     * @param request the chat request
+     * @return the chat response
+     */
+    public ChatResponse chat(ChatModel model, ChatRequest request) {
+        requireNonNull(model, "model cannot be null");
+        return call(keyOf(request, model.defaultRequestParameters()), () -> model.chat(request));
+    }
+
+    /**
+     * Replays the cached response of the request to the handler or calls the model.
+     * A cached (or coalesced) response is replayed as a single partial response followed by the complete one.
+     *
+     * @param model   the streaming chat model
+     * @param request the chat request
+     * @param handler the handler that receives the response, e.g. the one of a {@code StreamingChatGenerator}
+     */
+    public void chat(StreamingChatModel model, ChatRequest request, StreamingChatResponseHandler handler) {
+        requireNonNull(model, "model cannot be null");
+        requireNonNull(handler, "handler cannot be null");
+        final var key = keyOf(request, model.defaultRequestParameters());
+
+        final var cached = lookup(key);
+        if (cached.isPresent()) {
+            replay(cached.get(), handler);
+            return;
+        }
+
+        final var flight = begin(key);
+        if (!flight.isLeader()) {
+            flight.response().whenComplete((response, error) -> {
+                if (error != null) {
+                    handler.onError(unwrap(error));
+                } else {
+                    replay(response, handler);
+                }
+            });
+            return;
+        }
+
+        try {
+            model.chat(request, new StreamingChatResponseHandler() {
+
+                @Override
+                public void onPartialResponse(String partialResponse) {
+                    handler.onPartialResponse(partialResponse);
+                }
+
+                @Override
+                public void onPartialResponse(PartialResponse partialResponse, PartialResponseContext context) {
+                    handler.onPartialResponse(partialResponse, context);
+                }
+
+                @Override
+                public void onPartialThinking(PartialThinking partialThinking) {
+                    handler.onPartialThinking(partialThinking);
+                }
+
+                @Override
+                public void onPartialThinking(PartialThinking partialThinking, PartialThinkingContext context) {
+                    handler.onPartialThinking(partialThinking, context);
+                }
+
+                @Override
+                public void onPartialToolCall(PartialToolCall partialToolCall) {
+                    handler.onPartialToolCall(partialToolCall);
+                }
+
+                @Override
+                public void onPartialToolCall(PartialToolCall partialToolCall, PartialToolCallContext context) {
+                    handler.onPartialToolCall(partialToolCall, context);
+                }
+
+                @Override
+                public void onCompleteToolCall(CompleteToolCall completeToolCall) {
+                    handler.onCompleteToolCall(completeToolCall);
+                }
+
+                @Override
+                public void onCompleteResponse(ChatResponse response) {
+                    // a store error is logged, the response is always delivered
+                    flight.complete(response);
+                    handler.onCompleteResponse(response);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    flight.fail(error);
+                    handler.onError(error);
+                }
+            });
+        } catch (Throwable ex) {
+            flight.fail(ex);
+            throw ex;
+        }
+    }
+
+    private void replay(ChatResponse response, StreamingChatResponseHandler handler) {
+        final var text = response.aiMessage().text();
+        if (text != null && !text.isEmpty()) {
+            handler.onPartialResponse(text);
+        }
+        handler.onCompleteResponse(response);
+    }
+}
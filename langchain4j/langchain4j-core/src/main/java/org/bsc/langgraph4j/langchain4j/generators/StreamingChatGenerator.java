@@ -5,14 +5,16 @@ import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import org.bsc.async.AsyncGenerator;
 import org.bsc.async.AsyncGeneratorQueue;
 import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
+import org.bsc.langgraph4j.streaming.StreamingChunkQueue;
 import org.bsc.langgraph4j.streaming.StreamingOutput;
 
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Function;
 
+import static java.util.Optional.ofNullable;
+
 
 public class StreamingChatGenerator<State extends AgentState> extends AsyncGenerator.WithResult<StreamingOutput<State>> {
 
@@ -29,46 +31,54 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
     }
 
     final StreamingChatResponseHandler handler;
+    private final StreamingChunkQueue<State> chunks;
 
     /**
      * Constructs an LLMStreamingGenerator with the specified parameters.
      *
-     * @param queue the blocking queue for async generator data
-     * @param startingNode the starting node for streaming
-     * @param startingState the initial state
+     * @param chunks the queue of the streamed chunks
      * @param mapResult a function to map the response to a Map (ie. Partial State )
      */
-    private StreamingChatGenerator( BlockingQueue<Data<StreamingOutput<State>>> queue,
-                                   String startingNode,
-                                   State startingState,
+    private StreamingChatGenerator( StreamingChunkQueue<State> chunks,
                                    Function<ChatResponse, Map<String,Object>> mapResult)
     {
-        super(new AsyncGeneratorQueue.Generator<>( Objects.requireNonNull(queue, "queue cannot be null" )  ));
+        super(new AsyncGeneratorQueue.Generator<>( chunks.queue() ));
 
+        this.chunks = chunks;
         this.handler = new StreamingChatResponseHandler() {
 
             @Override
             public void onPartialResponse(String token) {
                 log.trace("onNext: {}", token);
-                queue.add( AsyncGenerator.Data.of( new StreamingOutput<>( token, startingNode, startingState ) ) );
-
+                chunks.onToken( token );
             }
 
             @Override
             public void onCompleteResponse(ChatResponse chatResponse) {
                 log.trace("onComplete: {}", chatResponse);
-                queue.add(AsyncGenerator.Data.done( mapResult.apply(chatResponse) ));
-
+                chunks.onComplete( mapResult.apply(chatResponse) );
             }
 
             @Override
             public void onError(Throwable error) {
                 log.trace("onError", error);
-                queue.add( AsyncGenerator.Data.error(error) );
+                chunks.onError( error );
             }
         };
     }
 
+    /**
+     * Cancels the generator and releases the response handler, if it is waiting for room in a bounded queue
+     *
+     * @param mayInterruptIfRunning true to interrupt the consumer waiting for the next chunk
+     * @return true if the generator has been cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        chunks.close();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
     /**
      * Returns the StreamingResponseHandler associated with this generator.
      *
@@ -85,6 +95,7 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
      */
     public static class Builder<State extends AgentState> {
         private BlockingQueue<AsyncGenerator.Data<StreamingOutput<State>>> queue;
+        private StreamingChunkPolicy chunkPolicy;
         private Function<ChatResponse,  Map<String,Object>> mapResult;
         private String startingNode;
         private State startingState;
@@ -100,6 +111,19 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
             return this;
         }
 
+        /**
+         * Sets how the tokens are delivered: queue capacity, overflow policy, coalescing and state retention.
+         * By default each token is emitted, with the state, in an unbounded queue.
+         * It cannot be used together with {@link #queue(BlockingQueue)}.
+         *
+         * @param chunkPolicy the chunk policy
+         * @return the builder instance
+         */
+        public Builder<State> chunkPolicy(StreamingChunkPolicy chunkPolicy ) {
+            this.chunkPolicy = chunkPolicy;
+            return this;
+        }
+
         /**
          * Sets the mapping function for the builder.
          *
@@ -139,9 +163,16 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
          * @return a new instance of LLMStreamingGenerator
          */
         public StreamingChatGenerator<State> build() {
-            if( queue == null )
-                queue = new LinkedBlockingQueue<>();
-            return new StreamingChatGenerator<>( queue, startingNode, startingState, mapResult );
+            if( queue != null ) {
+                if( chunkPolicy != null ) {
+                    throw new IllegalArgumentException("queue and chunkPolicy cannot be both set!");
+                }
+                return new StreamingChatGenerator<>( new StreamingChunkQueue<>( queue, startingNode, startingState ), mapResult );
+            }
+            var chunks = new StreamingChunkQueue<>( ofNullable(chunkPolicy).orElseGet(StreamingChunkPolicy::unbounded),
+                    startingNode,
+                    startingState );
+            return new StreamingChatGenerator<>( chunks, mapResult );
         }
     }
 }
@@ -8,6 +8,7 @@ import dev.langchain4j.invocation.InvocationContext;
 import dev.langchain4j.invocation.InvocationParameters;
 import dev.langchain4j.service.tool.ToolExecutor;
 import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -79,13 +80,26 @@ public final  class LC4jToolService {
             return super.toolsFromObject( objectWithTools );
         }
 
+        private ToolExecutionPolicy executionPolicy = ToolExecutionPolicy.sequential();
+
+        /**
+         * Sets how the tool calls of a single turn are executed, by default sequentially
+         *
+         * @param executionPolicy the execution policy
+         * @return the builder
+         */
+        public Builder executionPolicy(ToolExecutionPolicy executionPolicy) {
+            this.executionPolicy = requireNonNull(executionPolicy, "executionPolicy cannot be null");
+            return this;
+        }
+
         /**
          * Builds the node
          *
          * @return the node
          */
         public LC4jToolService build() {
-            return new LC4jToolService(toolMap());
+            return new LC4jToolService(toolMap(), executionPolicy);
         }
     }
 
@@ -94,13 +108,23 @@ public final  class LC4jToolService {
     }
 
     private final Map<ToolSpecification, ToolExecutor> toolMap;
+    private final Map<String, ToolExecutor> toolsByName;
+    private final ToolExecutionPolicy executionPolicy;
 
     public LC4jToolService(  Map<ToolSpecification, ToolExecutor> toolMap ) {
+        this( toolMap, ToolExecutionPolicy.sequential() );
+    }
+
+    public LC4jToolService(  Map<ToolSpecification, ToolExecutor> toolMap, ToolExecutionPolicy executionPolicy ) {
         this.toolMap = Objects.requireNonNull(toolMap, "toolMap cannot be null");
+        this.executionPolicy = Objects.requireNonNull(executionPolicy, "executionPolicy cannot be null");
         if (toolMap.isEmpty()) {
             log.warn( "tool chain is empty!" );
             // throw new IllegalArgumentException("entries cannot be empty!");
         }
+        final var index = new HashMap<String, ToolExecutor>( toolMap.size() );
+        toolMap.forEach( (spec, executor) -> index.putIfAbsent( spec.name(), executor ) );
+        this.toolsByName = Map.copyOf(index);
     }
 
     /**
@@ -120,20 +144,31 @@ public final  class LC4jToolService {
 
         log.trace("execute: {}", requests.stream().map( ToolExecutionRequest::name ).toList() );
 
-        var toolResponses = new ArrayList<ToolExecutionResultMessage>(requests.size());
+        final var availableRequests = requests.stream()
+                .filter( request -> {
+                    if( !toolsByName.containsKey( request.name() ) ) {
+                        log.warn("tool '{}' not found!", request.name());
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+
+        return executionPolicy.execute( availableRequests,
+                        ToolExecutionRequest::name,
+                        request -> scopedToolCall( toolsByName.get( request.name() ), request, context ) )
+                .thenCompose( results -> mergeResults( results, propertyNameToUpdate ) );
+    }
+
+    private CompletableFuture<Command> mergeResults( List<ScopedToolCallResult> results, String propertyNameToUpdate ) {
+        var toolResponses = new ArrayList<ToolExecutionResultMessage>(results.size());
         Map<String,Object> update = Map.of();
         String gotoNode = null;
 
-        for( var request : requests ) {
-
-            var optionalResult = scopedToolCall(request, context);
-
-            if (optionalResult.isEmpty()) {
-                log.warn("tool '{}' not found!", request.name());
-                continue;
-            }
+        // merge in request order
+        for( var result : results ) {
 
-            var command = optionalResult.get().command();
+            var command = result.command();
 
             if (command.gotoNodeSafe().isPresent()) {
                 if (gotoNode != null) {
@@ -146,7 +181,7 @@ public final  class LC4jToolService {
 
             update = mergeMap( update, command.update(), (v1,v2) -> v2  );
 
-            toolResponses.add( optionalResult.get().toolResultMessage() );
+            toolResponses.add( result.toolResultMessage() );
 
         }
 
@@ -168,33 +203,29 @@ public final  class LC4jToolService {
         }
     }
 
-    private Optional<ScopedToolCallResult> scopedToolCall(ToolExecutionRequest request,
+    private ScopedToolCallResult scopedToolCall(ToolExecutor toolExecutor,
+                                                ToolExecutionRequest request,
                                                 InvocationContext toolContext )
     {
         final var scopedCommandResult = new AtomicReference<Command>();
 
-        return toolMap.entrySet().stream()
-            .filter(e -> Objects.equals(e.getKey().name(),request.name()))
-            .map(Map.Entry::getValue)
-            .findFirst()
-            .map(e -> {
-
-                final var contextMapData = mergeMap(
-                        ofNullable(toolContext.invocationParameters())
-                                .map( InvocationParameters::asMap )
-                                .orElseGet(Map::of),
-                        Map.of(COMMAND_RESULT, scopedCommandResult),
-                        (v1, v2) -> v2);
-
-                final var newToolContext = InvocationContext.builder()
-                        .chatMemoryId(toolContext.chatMemoryId())
-                        .invocationParameters( InvocationParameters.from(contextMapData) )
-                        .build();
-
-                return e.executeWithContext(request, newToolContext);
-            })
-            .map( result -> new ToolExecutionResultMessage(request.id(), request.name(), result.resultText()) )
-            .map( toolResultMessage -> new ScopedToolCallResult( toolResultMessage, scopedCommandResult.get() ) );
+        final var contextMapData = mergeMap(
+                ofNullable(toolContext.invocationParameters())
+                        .map( InvocationParameters::asMap )
+                        .orElseGet(Map::of),
+                Map.of(COMMAND_RESULT, scopedCommandResult),
+                (v1, v2) -> v2);
+
+        final var newToolContext = InvocationContext.builder()
+                .chatMemoryId(toolContext.chatMemoryId())
+                .invocationParameters( InvocationParameters.from(contextMapData) )
+                .build();
+
+        final var result = toolExecutor.executeWithContext(request, newToolContext);
+
+        final var toolResultMessage = new ToolExecutionResultMessage(request.id(), request.name(), result.resultText());
+
+        return new ScopedToolCallResult( toolResultMessage, scopedCommandResult.get() );
     }
 
 
@@ -9,13 +9,21 @@ import dev.langchain4j.invocation.InvocationContext;
 import dev.langchain4j.invocation.InvocationParameters;
 import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
 import dev.langchain4j.service.tool.ToolExecutor;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolResponseBuilder;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolService;
 import org.bsc.langgraph4j.utils.TypeRef;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.lastOf;
@@ -198,4 +206,66 @@ public class LC4jToolServiceTest {
 
 
     }
+
+    @Test
+    public void executeToolsConcurrently() {
+
+        final var listToolExecutionResultMessageRef = new TypeRef<List<ToolExecutionResultMessage>>() {};
+        final var allStarted = new CountDownLatch(4);
+
+        var builder = LC4jToolService.builder();
+        for (int i = 0; i < 4; ++i) {
+            final var name = "tool" + i;
+            builder.tool(ToolSpecification.builder().name(name).description(name).build(),
+                    (request, memoryId) -> {
+                        allStarted.countDown();
+                        try {
+                            // completes only if the four calls run at the same time
+                            return format("%s:%s", name, allStarted.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+        }
+        builder.tool(ToolSpecification.builder().name("slow").description("slow").build(),
+                (request, memoryId) -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return "slow";
+                });
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var toolService = builder.executionPolicy(ToolExecutionPolicy.builder()
+                            .executor(executor)
+                            .maxConcurrency(4)
+                            .timeout("slow", Duration.ofMillis(200))
+                            .build())
+                    .build();
+
+            var requests = IntStream.of(3, 1, 0, 2)
+                    .mapToObj(i -> ToolExecutionRequest.builder().id("id" + i).name("tool" + i).build())
+                    .toList();
+
+            var result = toolService.execute(requests, InvocationContext.builder().build(), "messages").join();
+
+            var messages = listToolExecutionResultMessageRef.cast(result.update().get("messages")).orElseThrow();
+            // merged in request order
+            assertEquals(List.of("tool3:true", "tool1:true", "tool0:true", "tool2:true"),
+                    messages.stream().map(ToolExecutionResultMessage::text).toList());
+            assertEquals(List.of("id3", "id1", "id0", "id2"),
+                    messages.stream().map(ToolExecutionResultMessage::id).toList());
+
+            var timedOut = toolService.execute(List.of(ToolExecutionRequest.builder().id("id").name("slow").build()),
+                    InvocationContext.builder().build(), "messages");
+            var exception = assertThrows(CompletionException.class, timedOut::join);
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,213 @@
+package org.bsc.langgraph4j.langchain4j.cache;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ResponseFormat;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import org.bsc.langgraph4j.cache.FileSystemNodeCache;
+import org.bsc.langgraph4j.cache.InMemoryNodeCache;
+import org.bsc.langgraph4j.cache.NodeCachePolicy;
+import org.bsc.langgraph4j.cache.ResponseCachePolicy;
+import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LC4jChatResponseCacheTest {
+
+    static ChatRequest request(String question) {
+        return ChatRequest.builder()
+                .messages(List.<ChatMessage>of(SystemMessage.from("You are a helpful assistant"), UserMessage.from(question)))
+                .build();
+    }
+
+    static ChatResponse answer(ChatRequest request) {
+        var question = ((UserMessage) request.messages().get(1)).singleText();
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from("answer to " + question))
+                .finishReason(FinishReason.STOP)
+                .build();
+    }
+
+    static class CountingChatModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release;
+
+        CountingChatModel(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public ChatResponse doChat(ChatRequest request) {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return answer(request);
+        }
+    }
+
+    static class CountingStreamingChatModel implements StreamingChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+            calls.incrementAndGet();
+            var response = answer(request);
+            for (var token : response.aiMessage().text().split("(?<= )")) {
+                handler.onPartialResponse(token);
+            }
+            handler.onCompleteResponse(response);
+        }
+    }
+
+    static class CollectingHandler implements StreamingChatResponseHandler {
+        final List<String> tokens = new ArrayList<>();
+        ChatResponse response;
+
+        @Override
+        public void onPartialResponse(String partialResponse) {
+            tokens.add(partialResponse);
+        }
+
+        @Override
+        public void onCompleteResponse(ChatResponse completeResponse) {
+            response = completeResponse;
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+    }
+
+    @Test
+    public void cacheKey() {
+        var model = new CountingChatModel(new CountDownLatch(0));
+
+        assertEquals(LC4jChatResponseCache.keyOf(request("hi"), model.defaultRequestParameters()),
+                LC4jChatResponseCache.keyOf(request("hi"), model.defaultRequestParameters()));
+        assertNotEquals(LC4jChatResponseCache.keyOf(request("hi"), model.defaultRequestParameters()),
+                LC4jChatResponseCache.keyOf(request("hello"), model.defaultRequestParameters()));
+
+        var withResponseFormat = ChatRequest.builder()
+                .messages(request("hi").messages())
+                .responseFormat(ResponseFormat.JSON)
+                .build();
+        assertNotEquals(LC4jChatResponseCache.keyOf(request("hi"), model.defaultRequestParameters()),
+                LC4jChatResponseCache.keyOf(withResponseFormat, model.defaultRequestParameters()));
+    }
+
+    @Test
+    public void identicalRequestsAreCoalesced() throws Exception {
+        var release = new CountDownLatch(1);
+        var model = new CountingChatModel(release);
+        var cache = new LC4jChatResponseCache();
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var responses = new ArrayList<Future<ChatResponse>>();
+            for (int i = 0; i < 4; ++i) {
+                responses.add(executor.submit(() -> cache.chat(model, request("hi"))));
+            }
+            // wait for the followers to join the leader in flight
+            for (int i = 0; i < 50 && cache.coalesced() < 3; ++i) {
+                Thread.sleep(20);
+            }
+            release.countDown();
+
+            for (var response : responses) {
+                assertEquals("answer to hi", response.get(5, TimeUnit.SECONDS).aiMessage().text());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, model.calls.get());
+        assertEquals(3, cache.coalesced());
+
+        assertEquals(FinishReason.STOP, cache.chat(model, request("hi")).finishReason());
+        assertEquals(1, model.calls.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    public void cachedResponseIsReplayedToStreamingHandler() {
+        var model = new CountingStreamingChatModel();
+        var cache = new LC4jChatResponseCache();
+
+        var first = new CollectingHandler();
+        cache.chat(model, request("hi"), first);
+        assertEquals(List.of("answer ", "to ", "hi"), first.tokens);
+
+        var second = new CollectingHandler();
+        cache.chat(model, request("hi"), second);
+        assertEquals(List.of("answer to hi"), second.tokens);
+        assertEquals(first.response.aiMessage(), second.response.aiMessage());
+        assertEquals(1, model.calls.get());
+    }
+
+    @Test
+    public void fileSystemStore(@TempDir Path folder) {
+        var serializer = new LC4jStateSerializer<>(AgentState::new);
+        var model = new CountingChatModel(new CountDownLatch(0));
+
+        new LC4jChatResponseCache(ResponseCachePolicy.builder()
+                .cache(new FileSystemNodeCache(folder, serializer))
+                .build()).chat(model, request("hi"));
+
+        // a new cache on the same folder, e.g. in the next evaluation run
+        var cache = new LC4jChatResponseCache(ResponseCachePolicy.builder()
+                .cache(new FileSystemNodeCache(folder, serializer))
+                .build());
+        var response = cache.chat(model, request("hi"));
+
+        assertEquals("answer to hi", response.aiMessage().text());
+        assertEquals(FinishReason.STOP, response.finishReason());
+        assertEquals(1, model.calls.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    public void storeErrorStillDeliversTheResponse() {
+        var model = new CountingStreamingChatModel();
+        var cache = new LC4jChatResponseCache(ResponseCachePolicy.builder()
+                .cache(new InMemoryNodeCache() {
+                    @Override
+                    public void put(String nodeId, Object key, Map<String, Object> result, NodeCachePolicy policy) {
+                        throw new IllegalStateException("store unavailable");
+                    }
+                })
+                .build());
+
+        var handler = new CollectingHandler();
+        cache.chat(model, request("hi"), handler);
+        assertEquals("answer to hi", handler.response.aiMessage().text());
+
+        // nothing has been cached, the next request calls the model again
+        var next = new CollectingHandler();
+        cache.chat(model, request("hi"), next);
+        assertEquals("answer to hi", next.response.aiMessage().text());
+        assertEquals(2, model.calls.get());
+    }
+}
@@ -0,0 +1,30 @@
+package org.bsc.langgraph4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. It accepts the standard JMH command line options and always enables the
+ * {@link GCProfiler}, so every benchmark reports its allocation rate ({@code gc.alloc.rate.norm}).
+ * <pre>
+ * java -jar langgraph4j-benchmarks/target/benchmarks.jar [JMH options] [benchmark regexp]
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        var commandLineOptions = new CommandLineOptions(args);
+
+        var options = new OptionsBuilder().parent(commandLineOptions);
+        boolean gcProfilerEnabled = commandLineOptions.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName())
+                        || profiler.getKlass().equals("gc"));
+        if (!gcProfilerEnabled) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.bsc.langgraph4j.benchmarks;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.checkpoint.FileSystemSaver;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Put/get throughput of the in-process savers when several graph threads use the same saver concurrently.
+ * The saver is recreated at every iteration, so the checkpoint lists don't grow across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CheckpointSaverBenchmark {
+
+    public enum SaverType {
+        MEMORY,
+        FILE_SYSTEM,
+        FILE_SYSTEM_APPEND_LOG
+    }
+
+    static final int THREADS = 16;
+    static final int PRELOADED_CHECKPOINTS = 20;
+
+    @Param
+    public SaverType saverType;
+
+    BaseCheckpointSaver saver;
+    private Path folder;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    /**
+     * Every benchmark thread works on its own graph thread
+     */
+    @State(Scope.Thread)
+    public static class GraphThread {
+        RunnableConfig config;
+        int step;
+
+        @Setup
+        public void setup(CheckpointSaverBenchmark benchmark) {
+            config = configOf(benchmark.nextThread.getAndIncrement() % THREADS);
+        }
+    }
+
+    static RunnableConfig configOf(int thread) {
+        return RunnableConfig.builder().threadId("thread_" + thread).build();
+    }
+
+    static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(Map.of("step", step, "messages", "message_" + step))
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+        folder = Files.createTempDirectory("lg4j-benchmark");
+        saver = switch (saverType) {
+            case MEMORY -> new MemorySaver();
+            case FILE_SYSTEM, FILE_SYSTEM_APPEND_LOG -> FileSystemSaver.builder()
+                    .targetFolder(folder)
+                    .stateSerializer(new ObjectStreamStateSerializer<>(AgentState::new))
+                    .format(saverType == SaverType.FILE_SYSTEM ?
+                            FileSystemSaver.Format.SNAPSHOT :
+                            FileSystemSaver.Format.APPEND_LOG)
+                    .build();
+        };
+        for (int thread = 0; thread < THREADS; ++thread) {
+            var config = configOf(thread);
+            for (int step = 0; step < PRELOADED_CHECKPOINTS; ++step) {
+                saver.put(config, checkpoint(step));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public RunnableConfig put(GraphThread thread) throws Exception {
+        return saver.put(thread.config, checkpoint(++thread.step));
+    }
+
+    @Benchmark
+    public Optional<Checkpoint> get(GraphThread thread) {
+        return saver.get(thread.config);
+    }
+
+    @Benchmark
+    public int list(GraphThread thread) {
+        return saver.list(thread.config).size();
+    }
+}
@@ -0,0 +1,129 @@
+package org.bsc.langgraph4j.benchmarks;
+
+import org.bsc.langgraph4j.CompiledGraph;
+import org.bsc.langgraph4j.GraphStateException;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncEdgeAction.edge_async;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+
+/**
+ * Throughput of {@link CompiledGraph#invoke(Map)} and {@link CompiledGraph#stream(Map)} over the most common graph
+ * topologies. Nodes do nothing but append a message, so the engine overhead is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphExecutionBenchmark {
+
+    public enum Topology {
+        /**
+         * START -> node_1 -> ... -> node_5 -> END
+         */
+        LINEAR,
+        /**
+         * START -> router -> (left | right) -> join -> END
+         */
+        BRANCHING,
+        /**
+         * START -> fork -> (branch_1 ... branch_4) -> join -> END
+         */
+        PARALLEL,
+        /**
+         * START -> before -> subgraph(node_1 -> node_2 -> node_3) -> after -> END
+         */
+        SUBGRAPH
+    }
+
+    static final int LINEAR_NODES = 5;
+    static final int PARALLEL_BRANCHES = 4;
+
+    @Param
+    public Topology topology;
+
+    private CompiledGraph<MessagesState<String>> graph;
+    private final Map<String, Object> input = Map.of("messages", "input");
+
+    static StateGraph<MessagesState<String>> newGraph() {
+        return new StateGraph<>(MessagesState.SCHEMA, MessagesState::new);
+    }
+
+    static StateGraph<MessagesState<String>> linear(int nodes) throws GraphStateException {
+        var graph = newGraph();
+        var previous = START;
+        for (int i = 1; i <= nodes; ++i) {
+            var nodeId = "node_" + i;
+            graph.addNode(nodeId, node_async(state -> Map.of("messages", nodeId)));
+            graph.addEdge(previous, nodeId);
+            previous = nodeId;
+        }
+        return graph.addEdge(previous, END);
+    }
+
+    static StateGraph<MessagesState<String>> of(Topology topology) throws GraphStateException {
+        return switch (topology) {
+            case LINEAR -> linear(LINEAR_NODES);
+            case BRANCHING -> newGraph()
+                    .addNode("router", node_async(state -> Map.of("messages", "router")))
+                    .addNode("left", node_async(state -> Map.of("messages", "left")))
+                    .addNode("right", node_async(state -> Map.of("messages", "right")))
+                    .addNode("join", node_async(state -> Map.of("messages", "join")))
+                    .addEdge(START, "router")
+                    .addConditionalEdges("router",
+                            edge_async(state -> state.messages().size() % 2 == 0 ? "left" : "right"),
+                            Map.of("left", "left", "right", "right"))
+                    .addEdge("left", "join")
+                    .addEdge("right", "join")
+                    .addEdge("join", END);
+            case PARALLEL -> {
+                var graph = newGraph()
+                        .addNode("fork", node_async(state -> Map.of("messages", "fork")))
+                        .addNode("join", node_async(state -> Map.of("messages", "join")))
+                        .addEdge(START, "fork")
+                        .addEdge("join", END);
+                for (int i = 1; i <= PARALLEL_BRANCHES; ++i) {
+                    var nodeId = "branch_" + i;
+                    graph.addNode(nodeId, node_async(state -> Map.of("messages", nodeId)))
+                            .addEdge("fork", nodeId)
+                            .addEdge(nodeId, "join");
+                }
+                yield graph;
+            }
+            case SUBGRAPH -> newGraph()
+                    .addNode("before", node_async(state -> Map.of("messages", "before")))
+                    .addNode("subgraph", linear(3))
+                    .addNode("after", node_async(state -> Map.of("messages", "after")))
+                    .addEdge(START, "before")
+                    .addEdge("before", "subgraph")
+                    .addEdge("subgraph", "after")
+                    .addEdge("after", END);
+        };
+    }
+
+    @Setup
+    public void setup() throws GraphStateException {
+        graph = of(topology).compile();
+    }
+
+    @Benchmark
+    public Optional<MessagesState<String>> invoke() {
+        return graph.invoke(input);
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) {
+        graph.stream(input).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,78 @@
+package org.bsc.langgraph4j.benchmarks;
+
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.gson.GsonStateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.jackson.JacksonStateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Round trip (state to bytes and back) of the bundled state serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    public enum Format {
+        OBJECT_STREAM,
+        JACKSON,
+        GSON
+    }
+
+    @Param
+    public Format format;
+
+    @Param({"10", "100"})
+    public int historySize;
+
+    private StateSerializer<AgentState> serializer;
+    private Map<String, Object> data;
+    private byte[] bytes;
+
+    static StateSerializer<AgentState> serializerOf(Format format) {
+        return switch (format) {
+            case OBJECT_STREAM -> new ObjectStreamStateSerializer<>(AgentState::new);
+            case JACKSON -> new JacksonStateSerializer<AgentState>(AgentState::new) {};
+            case GSON -> new GsonStateSerializer<AgentState>(AgentState::new) {};
+        };
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        serializer = serializerOf(format);
+
+        data = new HashMap<>();
+        data.put("messages", IntStream.range(0, historySize).mapToObj(i -> "message_" + i).toList());
+        data.put("step", historySize);
+        data.put("next", "agent");
+        data.put("metadata", Map.of("model", "model-name", "tags", List.of("a", "b", "c")));
+
+        bytes = serializer.dataToBytes(data);
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return serializer.dataToBytes(data);
+    }
+
+    @Benchmark
+    public Map<String, Object> read() throws Exception {
+        return serializer.dataFromBytes(bytes);
+    }
+
+    @Benchmark
+    public Map<String, Object> roundTrip() throws Exception {
+        return serializer.dataFromBytes(serializer.dataToBytes(data));
+    }
+}
@@ -0,0 +1,83 @@
+package org.bsc.langgraph4j.benchmarks;
+
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of {@link AgentState#updateState(Map, Map, Map)} through an {@code AppenderChannel} as the history grows,
+ * with the default and the indexed messages schema, and of building the state from the updated data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateStateBenchmark {
+
+    /**
+     * Number of consecutive appends of {@link #appendMessageToLatest()}
+     */
+    static final int STEPS = 10;
+
+    @Param({"10", "100", "1000"})
+    public int historySize;
+
+    @Param({"default", "indexed"})
+    public String schema;
+
+    private Map<String, Channel<?>> channels;
+    private Map<String, Object> state;
+    private Map<String, Object> singleMessage;
+    private Map<String, Object> messageBatch;
+
+    @Setup
+    public void setup() {
+        channels = "indexed".equals(schema) ? MessagesState.INDEXED_SCHEMA : MessagesState.SCHEMA;
+        var history = IntStream.range(0, historySize).mapToObj(i -> "message_" + i).toList();
+        state = AgentState.updateState(Map.of(), Map.of("messages", history), channels);
+        singleMessage = Map.of("messages", "new_message");
+        messageBatch = Map.of("messages", IntStream.range(0, 10).mapToObj(i -> "new_message_" + i).toList());
+    }
+
+    @Benchmark
+    public Map<String, Object> appendMessage() {
+        return AgentState.updateState(state, singleMessage, channels);
+    }
+
+    @Benchmark
+    public Map<String, Object> appendMessages() {
+        return AgentState.updateState(state, messageBatch, channels);
+    }
+
+    @Benchmark
+    public Map<String, Object> replaceValue() {
+        return AgentState.updateState(state, Map.of("step", List.of(historySize)), channels);
+    }
+
+    /**
+     * Appends to the most recent state, as the graph steps do. Every invocation starts again from the initial
+     * history, so the measured history size stays between {@code historySize} and {@code historySize + STEPS}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public Map<String, Object> appendMessageToLatest() {
+        var latestState = state;
+        for (int step = 0; step < STEPS; ++step) {
+            latestState = AgentState.updateState(latestState, singleMessage, channels);
+        }
+        return latestState;
+    }
+
+    @Benchmark
+    public MessagesState<String> appendMessageAndCreateState() {
+        return new MessagesState<>(AgentState.updateState(state, singleMessage, channels));
+    }
+}
@@ -1,10 +1,16 @@
 package org.bsc.langgraph4j;
 
 import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.internal.node.ParallelNode;
+import org.bsc.langgraph4j.utils.VirtualThreads;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -16,6 +22,41 @@ import static java.util.Optional.ofNullable;
  */
 public class CompileConfig {
 
+    /**
+     * Strategy used to snapshot the graph state between steps (node input, outputs and checkpoints).
+     */
+    public enum StateSnapshotMode {
+        /**
+         * Deep copy of the state through a serialization round-trip of the graph's {@code StateSerializer}.
+         * Values can be mutated by nodes without affecting previous snapshots, but each copy costs O(state size).
+         * This is the default.
+         */
+        DEEP_COPY,
+        /**
+         * O(1) snapshot through an immutable {@link org.bsc.langgraph4j.utils.PersistentMap} that shares structure
+         * across steps. State values are shared too, so they must be treated as immutable by nodes and reducers:
+         * a value updated in place also changes the previous snapshots and the checkpoints held in memory.
+         */
+        PERSISTENT
+    }
+
+    /**
+     * Strategy used to run the nodes of the graph.
+     */
+    public enum ExecutionMode {
+        /**
+         * One node at a time, the branches of a fan-out run as a single parallel node that must converge on
+         * a single target node.
+         */
+        SEQUENTIAL,
+        /**
+         * Superstep (Pregel/BSP) execution: at each step every active node runs concurrently on the same state,
+         * their results are merged through the channels at a barrier and the successors of all of them become
+         * the active nodes of the next step. Branches of different lengths proceed independently and may contain
+         * conditional edges. Interruptions are not supported.
+         */
+        SUPERSTEP
+    }
 
     /**
      * This class is a builder for {@link CompileConfig}. It allows for the configuration of various options
@@ -131,6 +172,105 @@ public class CompileConfig {
             return this;
         }
 
+        /**
+         * Sets the strategy used to snapshot the graph state between steps, {@link StateSnapshotMode#DEEP_COPY} by default.
+         *
+         * @param stateSnapshotMode the snapshot strategy. This value must not be {@literal null}.
+         * @return The current {@code Builder} instance for method chaining.
+         * @see StateSnapshotMode
+         */
+        public Builder stateSnapshotMode(StateSnapshotMode stateSnapshotMode) {
+            this.config.stateSnapshotMode = Objects.requireNonNull(stateSnapshotMode, "stateSnapshotMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the strategy used to run the nodes of the graph.
+         *
+         * @param executionMode the execution mode. This value must not be {@literal null}.
+         * @return The current {@code Builder} instance for method chaining.
+         * @see ExecutionMode
+         */
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.config.executionMode = Objects.requireNonNull(executionMode, "executionMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the max number of branches of a parallel node, or of work items of a dynamic fan-out
+         * ({@link org.bsc.langgraph4j.action.Send}), that run at the same time. The remaining ones start as the
+         * running ones complete. In {@link ExecutionMode#SUPERSTEP} mode it bounds the nodes of a step as well.
+         * By default, the concurrency is unbounded.
+         *
+         * @param maxConcurrency the max number of concurrent branches
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be > 0!");
+            }
+            this.config.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the executor of the branches of every parallel node and of the work items of every dynamic
+         * fan-out ({@link org.bsc.langgraph4j.action.Send}). In {@link ExecutionMode#SUPERSTEP} mode it runs the
+         * nodes of each step that have no {@link #nodeExecutor(String, Executor)}. By default, they run on the
+         * calling thread, so synchronous actions run one after the other.
+         *
+         * @param executor the default executor. This value must not be {@literal null}.
+         * @return The current {@code Builder} instance for method chaining.
+         * @see #parallelNodeExecutor(String, Executor)
+         */
+        public Builder defaultExecutor(Executor executor) {
+            this.config.defaultExecutor = Objects.requireNonNull(executor, "executor cannot be null");
+            return this;
+        }
+
+        /**
+         * Runs the branches of parallel nodes and the fan-out work items on virtual threads (Java 21 or later),
+         * or on a shared cached pool of daemon threads on earlier releases.
+         *
+         * @return The current {@code Builder} instance for method chaining.
+         * @see VirtualThreads
+         */
+        public Builder useVirtualThreads() {
+            return defaultExecutor(VirtualThreads.executor());
+        }
+
+        /**
+         * Sets the executor of the branches of the parallel node that starts from the given node, or of the work
+         * items sent to the given node. It overrides the {@link #defaultExecutor(Executor)}, while an executor set
+         * through {@link RunnableConfig.Builder#addParallelNodeExecutor(String, Executor)} overrides both.
+         *
+         * @param nodeId   the id of the node
+         * @param executor the executor. This value must not be {@literal null}.
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder parallelNodeExecutor(String nodeId, Executor executor) {
+            return putExecutor(ParallelNode.formatNodeId(nodeId), executor);
+        }
+
+        /**
+         * Sets the executor that runs the action of the given node, so a blocking action doesn't hold the
+         * thread that runs the graph.
+         *
+         * @param nodeId   the id of the node
+         * @param executor the executor. This value must not be {@literal null}.
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder nodeExecutor(String nodeId, Executor executor) {
+            return putExecutor(Objects.requireNonNull(nodeId, "nodeId cannot be null"), executor);
+        }
+
+        private Builder putExecutor(String key, Executor executor) {
+            final var executors = new HashMap<>(this.config.executors);
+            executors.put(key, Objects.requireNonNull(executor, "executor cannot be null"));
+            this.config.executors = Map.copyOf(executors);
+            return this;
+        }
+
         /**
          * Initializes the compilation configuration and returns it.
          *
@@ -167,7 +307,68 @@ public class CompileConfig {
     private boolean releaseThread = false;
     private boolean interruptBeforeEdge = false;
     private int recursionLimit = 25;
+    private StateSnapshotMode stateSnapshotMode = StateSnapshotMode.DEEP_COPY;
+    private ExecutionMode executionMode = ExecutionMode.SEQUENTIAL;
+    private int maxConcurrency = Integer.MAX_VALUE;
+    private Executor defaultExecutor;
+    private Map<String, Executor> executors = Map.of();
 
+    /**
+     * Returns the default executor of parallel branches and fan-out work items.
+     *
+     * @return the default executor, empty if they run on the calling thread
+     */
+    public Optional<Executor> defaultExecutor() {
+        return ofNullable(defaultExecutor);
+    }
+
+    /**
+     * Returns the executor of the branches of the parallel node that starts from the given node, or of the
+     * work items sent to the given node.
+     *
+     * @param nodeId the id of the node
+     * @return the executor set for the node, otherwise the default executor
+     */
+    public Optional<Executor> parallelNodeExecutor(String nodeId) {
+        return ofNullable(executors.get(ParallelNode.formatNodeId(nodeId))).or(this::defaultExecutor);
+    }
+
+    /**
+     * Returns the executor that runs the action of the given node.
+     *
+     * @param nodeId the id of the node
+     * @return the executor, empty if the action runs on the calling thread
+     */
+    public Optional<Executor> nodeExecutor(String nodeId) {
+        return ofNullable(executors.get(nodeId));
+    }
+
+    /**
+     * Returns the max number of parallel branches, or fan-out work items, that run at the same time.
+     *
+     * @return the max concurrency, {@link Integer#MAX_VALUE} if unbounded
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the strategy used to snapshot the graph state between steps.
+     *
+     * @return the state snapshot mode
+     */
+    public StateSnapshotMode stateSnapshotMode() {
+        return stateSnapshotMode;
+    }
+
+    /**
+     * Returns the strategy used to run the nodes of the graph.
+     *
+     * @return the execution mode
+     */
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
 
     public int recursionLimit() {
         return recursionLimit;
@@ -244,6 +445,11 @@ public class CompileConfig {
         this.releaseThread = config.releaseThread;
         this.interruptBeforeEdge = config.interruptBeforeEdge;
         this.recursionLimit = config.recursionLimit;
+        this.stateSnapshotMode = config.stateSnapshotMode;
+        this.executionMode = config.executionMode;
+        this.maxConcurrency = config.maxConcurrency;
+        this.defaultExecutor = config.defaultExecutor;
+        this.executors = config.executors;
 
     }
 
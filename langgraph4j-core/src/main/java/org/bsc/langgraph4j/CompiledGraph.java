@@ -3,17 +3,22 @@ package org.bsc.langgraph4j;
 import java.util.Map.Entry;
 import org.bsc.async.AsyncGenerator;
 import org.bsc.langgraph4j.action.*;
+import org.bsc.langgraph4j.cache.NodeCachePolicy;
 import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
 import org.bsc.langgraph4j.checkpoint.Checkpoint;
 import org.bsc.langgraph4j.internal.edge.Edge;
 import org.bsc.langgraph4j.internal.edge.EdgeCondition;
 import org.bsc.langgraph4j.internal.edge.EdgeValue;
+import org.bsc.langgraph4j.internal.hook.NodeHooks;
+import org.bsc.langgraph4j.internal.node.ExecutorNodeAction;
 import org.bsc.langgraph4j.internal.node.Node;
 import org.bsc.langgraph4j.internal.node.ParallelNode;
 import org.bsc.langgraph4j.action.SubCompiledGraphNodeAction;
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.AgentStateFactory;
 import org.bsc.langgraph4j.state.StateSnapshot;
+import org.bsc.langgraph4j.utils.FutureUtils;
+import org.bsc.langgraph4j.utils.PersistentMap;
 import org.bsc.langgraph4j.utils.TryFunction;
 import org.bsc.langgraph4j.utils.TypeRef;
 
@@ -21,6 +26,8 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -42,6 +49,12 @@ import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
 public final class CompiledGraph<State extends AgentState> implements GraphDefinition<State>, LG4JLoggable {
 
     private static final String INTERRUPT_AFTER = "__INTERRUPTED__";
+    private static final String SUPERSTEP = "__SUPERSTEP__";
+    /**
+     * Key of the checkpoint state holding the payloads of the pending sends to the checkpoint next node, so an
+     * interrupted fan-out is replayed on resume. It is removed from the state when the execution resumes.
+     */
+    static final String SENDS_KEY = "__sends__";
 
     /**
      * Enum representing various error messages related to graph runner.
@@ -82,6 +95,8 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
 
     private final ProcessedNodesEdgesAndConfig<State> processedData;
 
+    final ExecutionPlan<State> plan;
+
     private int maxIterations;
 
     public final CompileConfig compileConfig;
@@ -118,18 +133,39 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
                                 .build();
 
         // EVALUATES NODES
+        final var cachePolicies = new HashMap<String, NodeCachePolicy>();
         for (var n : processedData.nodes().elements ) {
             var factory = n.actionFactory();
             requireNonNull(factory, format("action factory for node id '%s' is null!", n.id()));
             nodes.put(n.id(), factory.apply(compileConfig));
+            n.cachePolicy().ifPresent( policy -> cachePolicies.put( n.id(), policy ) );
+        }
+
+        final boolean superstep = compileConfig.executionMode() == CompileConfig.ExecutionMode.SUPERSTEP;
+        if( superstep ) {
+            final var interruptions = new LinkedHashSet<String>( processedData.interruptsBefore() );
+            interruptions.addAll( processedData.interruptsAfter() );
+            nodes.forEach( ( id, action ) -> {
+                if( action instanceof InterruptableAction<?> ) {
+                    interruptions.add( id );
+                }
+            });
+            if( !interruptions.isEmpty() ) {
+                throw StateGraph.Errors.unsupportedInterruptionOnSuperstep.exception( interruptions );
+            }
         }
 
         // EVALUATE EDGES
+        final var fanOuts = new LinkedHashMap<String, List<String>>();
         for( var e : processedData.edges().elements ) {
             var targets = e.targets();
             if (targets.size() == 1) {
                 edges.put(e.sourceId(), targets.get(0));
             }
+            else if( superstep ) {
+                // the branches run independently, a fan-out has only plain targets
+                fanOuts.put( e.sourceId(), targets.stream().map( EdgeValue::id ).toList() );
+            }
             else {
                 Supplier<Stream<EdgeValue<State>>> parallelNodeStream = () ->
                         targets.stream().filter( target -> nodes.containsKey(target.id()) );
@@ -174,6 +210,8 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
             }
 
         }
+
+        this.plan = new ExecutionPlan<>( nodes, edges, fanOuts, cachePolicies, this.compileConfig, stateGraph.nodeHooks, stateGraph.edgeHooks );
     }
 
     /**
@@ -252,10 +290,17 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
 
         String nextNodeId = null;
         if( asNode != null ) {
-            final var nextNodeCommand = nextNodeId( asNode, branchCheckpoint.getState(), config );
+            final var nextNodeCommand = nextNodeId( asNode, stateWithSends( branchCheckpoint.getState(), List.of() ), config );
 
             nextNodeId = nextNodeCommand.gotoNode();
             branchCheckpoint =  branchCheckpoint.updateState( nextNodeCommand.update(), stateGraph.getChannels(), nextNodeId );
+            // the sends of the new edge evaluation replace the pending ones
+            branchCheckpoint = Checkpoint.builder()
+                    .id( branchCheckpoint.getId() )
+                    .nodeId( branchCheckpoint.getNodeId() )
+                    .nextNodeId( nextNodeId )
+                    .state( stateWithSends( branchCheckpoint.getState(), nextNodeCommand.sends() ) )
+                    .build();
 
         }
         // update checkpoint in saver
@@ -298,55 +343,73 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
     /**
      * UPDATE RUNNABLE CONFIG METADATA
      */
-    private RunnableConfig updateRunnableConfigMetadata( RunnableConfig config, String currentNodeId ) {
-        final var newMetadata = new HashMap<String,Object>(2);
-        newMetadata.put(RunnableConfig.NODE_ID, currentNodeId);
-        compileConfig.graphId()
-                .ifPresent( graphId -> {
-                    newMetadata.put(RunnableConfig.GRAPH_ID, graphId);
-                    if( config.graphPath().isEmpty() ) { // to avoid add graphId in subgraph cases
-                        newMetadata.put(RunnableConfig.GRAPH_PATH, config.graphPath().append(graphId) );
-                    }
-                });
-
-        return config.updateMetadata( newMetadata );
-
+    private RunnableConfig updateRunnableConfigMetadata( RunnableConfig config, int nodeIndex ) {
+        final var nodeMetadata = plan.metadata( nodeIndex );
+        final var graphId = compileConfig.graphId();
+        if( graphId.isPresent() && config.graphPath().isEmpty() ) { // to avoid add graphId in subgraph cases
+            final var newMetadata = new HashMap<String,Object>( nodeMetadata );
+            newMetadata.put(RunnableConfig.GRAPH_PATH, config.graphPath().append(graphId.get()) );
+            return config.updateMetadata( newMetadata );
+        }
+        return config.updateMetadata( nodeMetadata );
     }
 
-    private Command nextNodeId(EdgeValue<State> route , Map<String,Object> state, String nodeId, RunnableConfig config ) throws Exception {
+    /**
+     * Evaluates the outgoing edge of a node
+     *
+     * @param nodeIndex the source node index
+     * @param state the current state
+     * @param nodeId the source node ID
+     * @param nodeConfig the config already updated with the metadata of the source node
+     * @return the future of the next node command
+     * @throws Exception if the edge is missing or invalid
+     */
+    private CompletableFuture<Command> nextNodeIdAsync(int nodeIndex, Map<String,Object> state, String nodeId, RunnableConfig nodeConfig ) throws Exception {
+        return nextNodeIdAsync( nodeIndex, plan.edge(nodeIndex), state, nodeId, nodeConfig );
+    }
 
+    /**
+     * Evaluates the given outgoing edge of a node
+     *
+     * @param nodeIndex the source node index
+     * @param route the edge to evaluate
+     * @param state the current state
+     * @param nodeId the source node ID
+     * @param nodeConfig the config already updated with the metadata of the source node
+     * @return the future of the next node command
+     * @throws Exception if the edge is missing or invalid
+     */
+    private CompletableFuture<Command> nextNodeIdAsync(int nodeIndex, EdgeValue<State> route, Map<String,Object> state, String nodeId, RunnableConfig nodeConfig ) throws Exception {
         if( route == null ) {
             throw RunnableErrors.missingEdge.exception(nodeId);
         }
         if( route.id() != null ) {
-            return new Command(route.id(), state);
+            return completedFuture( new Command(route.id(), state) );
         }
         if( route.value() != null ) {
 
-            final var newConfig = updateRunnableConfigMetadata( config, nodeId );
-
             final State derefState = stateGraph.getStateFactory().apply(state);
 
             // var command = route.value().action().apply(derefState,config).get();
-            final var command = stateGraph.edgeHooks.applyActionWithHooks(
+            return plan.edgeHooks(nodeIndex).apply(
                     route.value().action(),
-                    nodeId,
                     derefState,
-                    newConfig,
+                    nodeConfig,
                     stateGraph.getStateFactory(),
                     stateGraph.getChannels() )
-                    .get();
+                    .thenCompose( command -> {
 
-            final var newRoute = command.gotoNode();
+                        final var newRoute = command.gotoNode();
 
-            final String result = route.value().mappings().get(newRoute);
-            if( result == null ) {
-                throw RunnableErrors.missingNodeInEdgeMapping.exception(nodeId, newRoute);
-            }
+                        final String result = route.value().mappings().get(newRoute);
+                        if( result == null ) {
+                            return CompletableFuture.failedFuture( RunnableErrors.missingNodeInEdgeMapping.exception(nodeId, newRoute) );
+                        }
 
-            final var currentState = AgentState.updateState(state, command.update(), stateGraph.getChannels());
+                        final var currentState = AgentState.updateState(state, command.update(), stateGraph.getChannels());
 
-            return new Command(result, currentState);
+                        return completedFuture( new Command(result, currentState, command.sends()) );
+                    });
         }
         throw RunnableErrors.executionError.exception( format("invalid edge value for nodeId: [%s] !", nodeId) );
     }
@@ -360,36 +423,58 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
      * @throws Exception if there is an error determining the next node ID
      */
     private Command nextNodeId(String nodeId, Map<String,Object> state, RunnableConfig config) throws Exception {
-        return nextNodeId(edges.get(nodeId), state, nodeId, config  );
-
+        try {
+            return nextNodeIdAsync(nodeId, state, config).get();
+        }
+        catch( ExecutionException ex ) {
+            if( ex.getCause() instanceof GraphRunnerException graphRunnerException ) {
+                throw graphRunnerException;
+            }
+            throw ex;
+        }
     }
 
-    private Command entryPoint(Map<String,Object> state, RunnableConfig config ) throws Exception {
-        final var entryPoint = this.edges.get(START);
-        return nextNodeId(entryPoint, state, START, config);
+    /**
+     * Determines, without blocking, the next node ID based on the current node ID and state.
+     *
+     * @param nodeId the current node ID
+     * @param state the current state
+     * @return the future of the next node command
+     * @throws Exception if the edge of the node is missing or invalid
+     */
+    private CompletableFuture<Command> nextNodeIdAsync(String nodeId, Map<String,Object> state, RunnableConfig config) throws Exception {
+        final var nodeIndex = plan.indexOf(nodeId);
+        if( nodeIndex == ExecutionPlan.NONE ) {
+            throw RunnableErrors.missingEdge.exception(nodeId);
+        }
+        return nextNodeIdAsync(nodeIndex, state, nodeId, updateRunnableConfigMetadata(config, nodeIndex) );
     }
 
-    private boolean shouldInterruptBefore( String nodeId, String previousNodeId ) {
+    private boolean shouldInterruptBefore( String nodeId, int nodeIndex, String previousNodeId ) {
         requireNonNull( nodeId, "nodeId cannot be null" );
         if( previousNodeId == null ) { // FIX RESUME ERROR
             return false;
         }
-        return compileConfig.interruptsBefore().contains(nodeId);
+        return plan.isInterruptBefore(nodeIndex);
     }
 
-    private boolean shouldInterruptAfter(String nodeId, String currentNodeId ) {
+    private boolean shouldInterruptAfter(String nodeId, int nodeIndex, String currentNodeId ) {
         if( nodeId == null || Objects.equals(nodeId, currentNodeId) ) { // FIX RESUME ERROR
             return false;
         }
         return ( compileConfig.interruptBeforeEdge() && Objects.equals(nodeId, INTERRUPT_AFTER )) ||
-                compileConfig.interruptsAfter().contains(nodeId);
+                plan.isInterruptAfter(nodeIndex);
     }
 
     private Optional<Checkpoint> addCheckpoint( RunnableConfig config, String nodeId, Map<String,Object> state, String nextNodeId ) throws Exception {
+        return addCheckpoint( config, nodeId, state, nextNodeId, List.of() );
+    }
+
+    private Optional<Checkpoint> addCheckpoint( RunnableConfig config, String nodeId, Map<String,Object> state, String nextNodeId, List<Send> sends ) throws Exception {
         if( compileConfig.checkpointSaver().isPresent() ) {
             var cp =  Checkpoint.builder()
                                 .nodeId( nodeId )
-                                .state( cloneState(state) )
+                                .state( stateWithSends( cloneState(state).data(), sends ) )
                                 .nextNodeId( nextNodeId )
                                 .build();
             compileConfig.checkpointSaver().get().put( config, cp );
@@ -399,6 +484,114 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
 
     }
 
+    /**
+     * Returns the checkpoint state holding the payloads of the given pending sends, see {@link #SENDS_KEY}
+     *
+     * @param state the state
+     * @param sends the pending sends, empty if none
+     * @return the state with the sends, the given state if there are no sends to add or remove
+     */
+    private static Map<String,Object> stateWithSends( Map<String,Object> state, List<Send> sends ) {
+        if( sends.isEmpty() && !state.containsKey( SENDS_KEY ) ) {
+            return state;
+        }
+        final var result = new HashMap<String,Object>( state );
+        if( sends.isEmpty() ) {
+            result.remove( SENDS_KEY );
+        }
+        else {
+            result.put( SENDS_KEY, sends.stream()
+                                        .map( send -> new HashMap<>( send.payload() ) )
+                                        .collect( toList() ) );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pending sends stored in the checkpoint, see {@link #SENDS_KEY}
+     *
+     * @param checkpoint the checkpoint
+     * @return the sends to the checkpoint next node, empty if none
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Send> sendsOf( Checkpoint checkpoint ) {
+        final var payloads = (Collection<Map<String,Object>>) checkpoint.getState().get( SENDS_KEY );
+        if( payloads == null ) {
+            return List.of();
+        }
+        return payloads.stream()
+                .map( payload -> new Send( checkpoint.getNextNodeId(), payload ) )
+                .toList();
+    }
+
+    /**
+     * Applies the action of the node at the given index through the node hooks. If the node has a cache policy the
+     * cache is looked up, with the key of the state updated by the before hooks, and on hit the cached result
+     * replaces the action, otherwise the action result is cached. Actions running parallel branches or sends are
+     * never cached.
+     *
+     * @param nodeIndex the node index
+     * @param action the action to apply
+     * @param state the node input state
+     * @param config the node config
+     * @param stateFactory the factory of the state updated by the before hooks
+     * @return the future of the partial state returned by the node
+     */
+    private CompletableFuture<Map<String,Object>> applyNodeAction( int nodeIndex,
+                                                                  AsyncNodeActionWithConfig<State> action,
+                                                                  State state,
+                                                                  RunnableConfig config,
+                                                                  AgentStateFactory<State> stateFactory ) {
+        final var hooks = plan.nodeHooks( nodeIndex );
+        final var cachePolicy = plan.cachePolicy( nodeIndex );
+        if( cachePolicy == null || ParallelNode.isParallelAction( action ) ) {
+            return hooks.apply( action, state, config, stateFactory, stateGraph.getChannels() );
+        }
+
+        final var nodeId = plan.id( nodeIndex );
+        // the key is computed from the state updated by the before call hooks, that is the input of the action
+        return hooks.applyResolved( ( actionState, actionConfig ) -> {
+                    final var key = cachePolicy.keyOf( actionState.data() );
+                    final var cached = cachePolicy.cache().get( nodeId, key );
+                    if( cached.isPresent() ) {
+                        return new NodeHooks.ResolvedCall<State>( ( s, c ) -> completedFuture( cached.get() ),
+                                actionConfig.updateMetadata( Map.of( RunnableConfig.NODE_CACHE_HIT, true ) ) );
+                    }
+                    final AsyncNodeActionWithConfig<State> cachingAction = ( s, c ) ->
+                            action.apply( s, c ).thenApply( partial -> {
+                                // an embedded generator can be consumed once
+                                if( partial != null && partial.values().stream().noneMatch( value -> value instanceof AsyncGenerator ) ) {
+                                    cachePolicy.cache().put( nodeId, key, partial, cachePolicy );
+                                }
+                                return partial;
+                            });
+                    return new NodeHooks.ResolvedCall<>( cachingAction,
+                            actionConfig.updateMetadata( Map.of( RunnableConfig.NODE_CACHE_HIT, false ) ) );
+                },
+                state,
+                config,
+                stateFactory,
+                stateGraph.getChannels() );
+    }
+
+    /**
+     * Checkpoint barrier invoked before the graph completes or it is interrupted
+     *
+     * @see BaseCheckpointSaver#flush(RunnableConfig)
+     */
+    private void flushCheckpoints( RunnableConfig config ) throws Exception {
+        if( compileConfig.checkpointSaver().isPresent() ) {
+            compileConfig.checkpointSaver().get().flush( config );
+        }
+    }
+
+    private Optional<BaseCheckpointSaver.Tag> releaseThread( RunnableConfig config ) throws Exception {
+        if(compileConfig.releaseThread() && compileConfig.checkpointSaver().isPresent() ) {
+            return Optional.of(compileConfig.checkpointSaver().get().release( config ));
+        }
+        return Optional.empty();
+    }
+
     Map<String,Object> initialStateFromSchema() {
         return stateGraph.getStateFactory().initialDataFromSchema(stateGraph.getChannels());
     }
@@ -412,9 +605,27 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
     }
 
     State cloneState( Map<String,Object> data ) throws IOException, ClassNotFoundException, InstantiationException, IllegalAccessException {
+        if( compileConfig.stateSnapshotMode() == CompileConfig.StateSnapshotMode.PERSISTENT ) {
+            return stateGraph.getStateFactory().apply( PersistentMap.copyOf(data) );
+        }
         return stateGraph.getStateSerializer().cloneObject(data);
     }
 
+    /**
+     * Prepares the state data to be held by the execution context.
+     * In {@link CompileConfig.StateSnapshotMode#PERSISTENT} mode the data is converted (once) in a {@link PersistentMap}
+     * so that every following update and snapshot shares its structure.
+     *
+     * @param data the state data
+     * @return the state data to be held by the execution context
+     */
+    Map<String,Object> contextStateOf( Map<String,Object> data ) {
+        if( compileConfig.stateSnapshotMode() == CompileConfig.StateSnapshotMode.PERSISTENT ) {
+            return PersistentMap.copyOf(data);
+        }
+        return data;
+    }
+
     /**
      * Creates an AsyncGenerator stream of NodeOutput based on the provided inputs.
      *
@@ -423,11 +634,31 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
      * @return an AsyncGenerator stream of NodeOutput
      */
     public AsyncGenerator.Cancellable<NodeOutput<State>> stream( GraphInput input, RunnableConfig config ) {
-        return new AsyncNodeGeneratorWithEmbed<>(
+        return newGenerator(
                 requireNonNull( input, "input cannot be null" ),
                 requireNonNull( config, "config cannot be null"));
     }
 
+    /**
+     * Creates the generator that runs the graph according to the execution mode
+     */
+    private AsyncGenerator.Cancellable<NodeOutput<State>> newGenerator( GraphInput input, RunnableConfig config ) {
+        if( compileConfig.executionMode() == CompileConfig.ExecutionMode.SUPERSTEP ) {
+            return new SuperstepGenerator<>( input, config );
+        }
+        return new AsyncNodeGeneratorWithEmbed<>( input, config );
+    }
+
+    /**
+     * Creates the steps of the graph execution according to the execution mode
+     */
+    private GraphPublisher.Steps<NodeOutput<State>> newSteps( GraphInput input, RunnableConfig config ) {
+        if( compileConfig.executionMode() == CompileConfig.ExecutionMode.SUPERSTEP ) {
+            return new SuperstepGenerator<>( input, config );
+        }
+        return new AsyncNodeGenerator<NodeOutput<State>>( input, config )::nextAsync;
+    }
+
     /**
      * Creates an AsyncGenerator stream of NodeOutput based on the provided inputs.
      *
@@ -458,7 +689,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
      */
     public AsyncGenerator.Cancellable<NodeOutput<State>> streamSnapshots( GraphInput input, RunnableConfig config )  {
         requireNonNull(config, "config cannot be null");
-        return new AsyncNodeGeneratorWithEmbed<>(
+        return newGenerator(
                 requireNonNull( input, "input cannot be null" ),
                 requireNonNull( config, "config cannot be null").withStreamMode(StreamMode.SNAPSHOTS));
 
@@ -525,6 +756,73 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
         return invokeFinal( inputs == null ? GraphInput.resume() : GraphInput.args(inputs), RunnableConfig.builder().build() ).map( NodeOutput::state);
     }
 
+    /**
+     * Creates a push-based stream of NodeOutput based on the provided inputs.
+     * <p>
+     * Unlike {@link #stream(GraphInput, RunnableConfig)}, no thread waits for the nodes: the node, edge, checkpoint
+     * and output steps are chained as {@link CompletableFuture} stages and the outputs are pushed to the subscriber
+     * on the thread that completes them. The next step starts only when the subscriber has requested more outputs.
+     * Every subscription starts a new execution.
+     * </p>
+     *
+     * @param input the input data
+     * @param config the invoke configuration
+     * @return a publisher of NodeOutput
+     */
+    public Flow.Publisher<NodeOutput<State>> streamPublisher( GraphInput input, RunnableConfig config ) {
+        requireNonNull( input, "input cannot be null" );
+        requireNonNull( config, "config cannot be null");
+        return new GraphPublisher<>( () -> newSteps( input, config ) );
+    }
+
+    /**
+     * Creates a push-based stream of NodeOutput based on the provided inputs.
+     *
+     * @param inputs the input map
+     * @param config the invoke configuration
+     * @return a publisher of NodeOutput
+     * @see #streamPublisher(GraphInput, RunnableConfig)
+     */
+    public Flow.Publisher<NodeOutput<State>> streamPublisher( Map<String,Object> inputs, RunnableConfig config ) {
+        return streamPublisher( ( inputs == null ) ? GraphInput.resume() : GraphInput.args(inputs), config );
+    }
+
+    /**
+     * Invokes the graph execution without blocking and returns the final {@link NodeOutput}.
+     *
+     * @param input the input data for the graph execution.
+     * @param config the configuration for this specific invocation.
+     * @return a future of the final {@link NodeOutput}, empty if the graph execution produced no output
+     * @see #streamPublisher(GraphInput, RunnableConfig)
+     */
+    public CompletableFuture<Optional<NodeOutput<State>>> invokeFinalAsync( GraphInput input, RunnableConfig config ) {
+        requireNonNull( input, "input cannot be null" );
+        requireNonNull( config, "config cannot be null");
+        return new GraphPublisher<>( () -> newSteps( input, config ) ).last();
+    }
+
+    /**
+     * Invokes the graph execution without blocking and returns the final state.
+     *
+     * @param input the input data
+     * @param config the invoke configuration
+     * @return a future of the final state, empty if the graph execution produced no output
+     */
+    public CompletableFuture<Optional<State>> invokeAsync( GraphInput input, RunnableConfig config ) {
+        return invokeFinalAsync( input, config ).thenApply( output -> output.map( NodeOutput::state ) );
+    }
+
+    /**
+     * Invokes the graph execution without blocking and returns the final state.
+     *
+     * @param inputs the input map
+     * @param config the invoke configuration
+     * @return a future of the final state, empty if the graph execution produced no output
+     */
+    public CompletableFuture<Optional<State>> invokeAsync( Map<String,Object> inputs, RunnableConfig config ) {
+        return invokeAsync( ( inputs == null ) ? GraphInput.resume() : GraphInput.args(inputs), config );
+    }
+
 
     /**
      * Generates a drawable graph representation of the state graph.
@@ -584,34 +882,41 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
      */
     class AsyncNodeGenerator<Output extends NodeOutput<State>> extends AsyncGenerator.BaseCancellable<Output> {
 
-        static class Context {
+        class Context {
             private Map<String,Object> currentState;
             private String currentNodeId;
             private String nextNodeId;
+            private int currentNodeIndex;
+            private int nextNodeIndex;
             private String resumeFrom;
             private GraphResult returnFromEmbed;
+            private List<Send> sends = List.of();
+            private boolean edgePending;
 
             Context( Map<String,Object> initState ) {
-                currentNodeId = START;
-                nextNodeId = null;
+                setCurrentNodeId( START );
+                setNextNodeId( null );
                 resumeFrom = null;
                 returnFromEmbed = GraphResult.empty();
-                currentState = initState;
+                currentState = contextStateOf(initState);
             }
 
             Context( Checkpoint cp ) {
-                currentNodeId = null;
-                nextNodeId = cp.getNextNodeId();
+                setCurrentNodeId( null );
+                setNextNodeId( cp.getNextNodeId() );
                 resumeFrom = cp.getNodeId();
-                currentState = cp.getState();
+                // replays the sends pending when the checkpoint was taken
+                sends = sendsOf( cp );
+                currentState = contextStateOf( stateWithSends( cp.getState(), List.of() ) );
                 returnFromEmbed = GraphResult.empty();
             }
 
             void reset() {
-                currentNodeId = null;
-                nextNodeId = null;
+                setCurrentNodeId( null );
+                setNextNodeId( null );
                 resumeFrom = null;
                 returnFromEmbed = GraphResult.empty();
+                sends = List.of();
             }
 
             Map<String,Object> currentState() {
@@ -619,7 +924,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
             }
 
             void setCurrentState( Map<String,Object> value ) {
-                currentState = value;
+                currentState = contextStateOf(value);
             }
 
             String nextNodeId() {
@@ -628,14 +933,59 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
 
             void setNextNodeId( String value ) {
                 nextNodeId = value;
+                nextNodeIndex = plan.indexOf( value );
+            }
+
+            int nextNodeIndex() {
+                return nextNodeIndex;
             }
 
             String currentNodeId() {
                 return currentNodeId;
             }
 
+            int currentNodeIndex() {
+                return currentNodeIndex;
+            }
+
+            /**
+             * Sets the next node, the state and the pending sends from the given edge command
+             *
+             * @param command the command returned by the edge evaluation
+             */
+            void setNext( Command command ) {
+                setNextNodeId( command.gotoNode() );
+                sends = command.sends();
+                setCurrentState( command.update() );
+            }
+
+            void setEdgePending() {
+                edgePending = true;
+            }
+
+            boolean getEdgePendingAndReset() {
+                final var result = edgePending;
+                edgePending = false;
+                return result;
+            }
+
+            List<Send> getSendsAndReset() {
+                final var result = sends;
+                sends = List.of();
+                return result;
+            }
+
             void setCurrentNodeId( String value ) {
                 currentNodeId = value;
+                currentNodeIndex = plan.indexOf( value );
+            }
+
+            /**
+             * Moves to the next node, reusing its already resolved index
+             */
+            void moveToNextNode() {
+                currentNodeId = nextNodeId;
+                currentNodeIndex = nextNodeIndex;
             }
 
             Optional<String> getResumeFromAndReset() {
@@ -659,6 +1009,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
         final Context context;
         int iteration = 0;
         final RunnableConfig config;
+        private final RunnableConfig[] nodeConfigs = new RunnableConfig[plan.size()];
 
         protected AsyncNodeGenerator(GraphInput input, RunnableConfig config )  {
             final var configBuilder = RunnableConfig.builder(config)
@@ -676,7 +1027,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
 
                 context = new Context(startCheckpoint);
 
-                final var startCheckpointNextNodeAction = nodes.get(startCheckpoint.getNextNodeId());
+                final var startCheckpointNextNodeAction = plan.action(context.nextNodeIndex());
                 if( startCheckpointNextNodeAction instanceof SubCompiledGraphNodeAction<State> action ) {
 
                     // RESUME FORM SUBGRAPH DETECTED
@@ -690,7 +1041,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
                             .putMetadata( RunnableConfig.SUBGRAPH_RESUME_UPDATE_DATA, resumeUpdateData )
                             .build();
 
-                    context.setCurrentState( startCheckpoint.getState() );
+                    context.setCurrentState( stateWithSends( startCheckpoint.getState(), List.of() ) );
 
                 }
                 else {
@@ -699,7 +1050,7 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
                             .removeMetadata( RunnableConfig.SUBGRAPH_RESUME_UPDATE_DATA )
                             .build();
                     // FIX ISSUE #302
-                    context.setCurrentState( AgentState.updateState( startCheckpoint.getState(),
+                    context.setCurrentState( AgentState.updateState( stateWithSends( startCheckpoint.getState(), List.of() ),
                             stateData,
                             stateGraph.getChannels() ));
 
@@ -721,6 +1072,35 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
             }
         }
 
+        /**
+         * Returns the config of the given node, the node metadata is added once for each generator
+         *
+         * @param nodeIndex the node index
+         * @return the config of the node
+         */
+        private RunnableConfig nodeConfig( int nodeIndex ) {
+            var result = nodeConfigs[nodeIndex];
+            if( result == null ) {
+                result = updateRunnableConfigMetadata( config, nodeIndex );
+                nodeConfigs[nodeIndex] = result;
+            }
+            return result;
+        }
+
+        /**
+         * Evaluates, without blocking, the outgoing edge of the node at the given index
+         */
+        private CompletableFuture<Command> nextNodeCommandAsync( int nodeIndex, String nodeId, Map<String,Object> state ) throws Exception {
+            if( nodeIndex == ExecutionPlan.NONE ) {
+                throw RunnableErrors.missingEdge.exception(nodeId);
+            }
+            final var route = plan.edge( nodeIndex );
+            if( route != null && route.id() != null ) {
+                return completedFuture( new Command(route.id(), state) );
+            }
+            return nextNodeIdAsync( nodeIndex, state, nodeId, nodeConfig( nodeIndex ) );
+        }
+
         @SuppressWarnings("unchecked")
         protected Output buildNodeOutput(String nodeId ) throws Exception {
             return  (Output)NodeOutput.of( nodeId, cloneState(context.currentState()) );
@@ -773,179 +1153,493 @@ public final class CompiledGraph<State extends AgentState> implements GraphDefin
                                 }
                             }
 
-                            var nextNodeCommand = nextNodeId(context.currentNodeId(), context.currentState(), config) ;
-                            context.setNextNodeId(nextNodeCommand.gotoNode());
-                            context.setCurrentState( nextNodeCommand.update() );
+                            // the edge is evaluated (without blocking) by the next step
+                            context.setEdgePending();
                             context.setReturnFromEmbedWithValue( GraphResult.empty() );
                         });
                     })
                     ;
         }
 
-        private Data<Output> applyAction( AsyncNodeActionWithConfig<State> action,
-                                          String nodeId,
-                                          State clonedState,
-                                          RunnableConfig runnableConfig ) throws ExecutionException, InterruptedException
+        private CompletableFuture<Data<Output>> applyAction( AsyncNodeActionWithConfig<State> action,
+                                                             State clonedState,
+                                                             RunnableConfig runnableConfig )
         {
             //return action.apply( clonedState, runnableConfig)
             final AgentStateFactory<State> stateFactory = ( data ) -> {
                 context.setCurrentState( data );
                 return stateGraph.getStateFactory().apply( data);
             };
-            return stateGraph.nodeHooks.applyActionWithHooks(  action, nodeId, clonedState, runnableConfig, stateFactory, stateGraph.getChannels() )
-                .thenApply(TryFunction.Try(partial -> {
+            return applyNodeAction( context.currentNodeIndex(), action, clonedState, runnableConfig, stateFactory )
+                .thenCompose(TryFunction.Try(partial -> {
 
                         Optional<Data<Output>> embed = embedGenerator( action, partial);
                         if (embed.isPresent()) {
-                            return embed.get();
+                            return completedFuture(embed.get());
                         }
 
-                        context.setCurrentState( AgentState.updateState(context.currentState(), partial, stateGraph.getChannels()) );
+                        if( ParallelNode.isParallelAction( action ) ) {
+                            // parallel results are already merged through the channels
+                            context.setCurrentState( AgentState.updateState(context.currentState(), partial, Map.of()) );
+                        }
+                        else {
+                            context.setCurrentState( AgentState.updateState(context.currentState(), partial, stateGraph.getChannels()) );
+                        }
 
-                        if (compileConfig.interruptBeforeEdge() && compileConfig.interruptsAfter().contains(context.currentNodeId())) {
+                        if (compileConfig.interruptBeforeEdge() && plan.isInterruptAfter(context.currentNodeIndex())) {
                             //nextNodeId = INTERRUPT_AFTER;
                             context.setNextNodeId(INTERRUPT_AFTER);
-                        } else {
-                            var nextNodeCommand = nextNodeId(context.currentNodeId(), context.currentState(), runnableConfig);
-                            context.setNextNodeId(nextNodeCommand.gotoNode());
-                            context.setCurrentState( nextNodeCommand.update() );
+                            return completedFuture(Data.of(nodeOutput()));
                         }
 
-                        return Data.of(nodeOutput());
+                        return nextNodeCommandAsync(context.currentNodeIndex(), context.currentNodeId(), context.currentState())
+                                .thenApply(TryFunction.Try(nextNodeCommand -> {
+                                    context.setNext( nextNodeCommand );
+                                    return Data.<Output>of(nodeOutput());
+                                }));
 
-                    }))
-                    .get();
+                    }));
         }
 
         private CompletableFuture<Output> nodeOutput() throws Exception {
-            Optional<Checkpoint>  cp = addCheckpoint(config, context.currentNodeId(), context.currentState(), context.nextNodeId());
+            Optional<Checkpoint>  cp = addCheckpoint(config, context.currentNodeId(), context.currentState(), context.nextNodeId(), context.sends);
             return completedFuture(( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
                     buildStateSnapshot(cp.get()) :
                     buildNodeOutput( context.currentNodeId() ))
                     ;
         }
 
+        /**
+         * Checkpoint barrier invoked before the graph completes or it is interrupted
+         *
+         * @see BaseCheckpointSaver#flush(RunnableConfig)
+         */
+        private void flushCheckpoints() throws Exception {
+            CompiledGraph.this.flushCheckpoints( config );
+        }
+
         private Optional<BaseCheckpointSaver.Tag> releaseThread() throws Exception {
-            if(compileConfig.releaseThread() && compileConfig.checkpointSaver().isPresent() ) {
-                return Optional.of(compileConfig.checkpointSaver().get().release( config ));
+            return CompiledGraph.this.releaseThread( config );
+        }
+
+        /**
+         * Evaluates the next step of the graph chaining node, edge, checkpoint and output without blocking.
+         * The returned future completes with the step result, or exceptionally if the node or the edge fail.
+         *
+         * @return the future of the next step result
+         * @throws Exception if the step cannot be started
+         */
+        CompletableFuture<Data<Output>> nextAsync() throws Exception {
+            if( context.getEdgePendingAndReset() ) {
+                // edge of a node that returned an embedded generator
+                return nextNodeCommandAsync(context.currentNodeIndex(), context.currentNodeId(), context.currentState())
+                        .thenCompose( TryFunction.Try( nextNodeCommand -> {
+                            context.setNext( nextNodeCommand );
+                            return step();
+                        }));
             }
-            return Optional.empty();
+            return step();
         }
 
-        @Override
-        public Data<Output> next() {
+        private CompletableFuture<Data<Output>> step() throws Exception {
+            // GUARD: CHECK MAX ITERATION REACHED
+            if( ++iteration > maxIterations ) {
+                // log.warn( "Maximum number of iterations ({}) reached!", maxIterations);
+                return completedFuture( Data.error( new IllegalStateException( format("Maximum number of iterations (%d) reached!", maxIterations)) ) );
+            }
 
-            try {
-                // GUARD: CHECK MAX ITERATION REACHED
-                if( ++iteration > maxIterations ) {
-                    // log.warn( "Maximum number of iterations ({}) reached!", maxIterations);
-                    return Data.error( new IllegalStateException( format("Maximum number of iterations (%d) reached!", maxIterations)) );
-                }
+            // GUARD: CHECK IF IT IS END
+            if( context.nextNodeId() == null && context.currentNodeId() == null  ) {
+                flushCheckpoints();
+                return completedFuture( releaseThread()
+                        .map(Data::<Output>done)
+                        .orElseGet( () -> Data.done(context.currentState()) ) );
+            }
+
+            final var returnFromEmbed = context.getReturnFromEmbedAndReset();
 
-                // GUARD: CHECK IF IT IS END
-                if( context.nextNodeId() == null && context.currentNodeId() == null  ) {
-                    return releaseThread()
-                            .map(Data::<Output>done)
-                            .orElseGet( () -> Data.done(context.currentState()) );
+            // IS IT A RESUME FROM EMBED ?
+            if( !returnFromEmbed.isEmpty() ) {
+
+                if( returnFromEmbed.isInterruptionMetadata() ) {
+                    flushCheckpoints();
+                    return completedFuture( Data.done( returnFromEmbed.asInterruptionMetadata() ) );
                 }
 
-                final var returnFromEmbed = context.getReturnFromEmbedAndReset();
+                return completedFuture( Data.of( nodeOutput() ) );
+            }
 
-                // IS IT A RESUME FROM EMBED ?
-                if( !returnFromEmbed.isEmpty() ) {
+            if( START.equals(context.currentNodeId()) ) {
+                return nextNodeCommandAsync(context.currentNodeIndex(), START, context.currentState())
+                        .thenApply( TryFunction.Try( nextNodeCommand -> {
+                            context.setNext( nextNodeCommand );
 
-                    if( returnFromEmbed.isInterruptionMetadata() ) {
-                        return Data.done( returnFromEmbed.asInterruptionMetadata() );
-                    }
+                            var cp = addCheckpoint( config, START, context.currentState(), context.nextNodeId(), context.sends );
 
-                    return Data.of( nodeOutput() );
-                }
+                            var output =  ( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
+                                    buildStateSnapshot(cp.get()) :
+                                    buildNodeOutput( context.currentNodeId() );
 
-                if( START.equals(context.currentNodeId()) ) {
-                    var nextNodeCommand = entryPoint(context.currentState(), config) ;
-                    context.setNextNodeId(nextNodeCommand.gotoNode());
-                    context.setCurrentState( nextNodeCommand.update() );
+                            context.moveToNextNode();
 
-                    var cp = addCheckpoint( config, START, context.currentState(), context.nextNodeId() );
+                            return Data.of( output );
+                        }));
+            }
 
-                    var output =  ( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
-                            buildStateSnapshot(cp.get()) :
-                            buildNodeOutput( context.currentNodeId() );
+            if( END.equals(context.nextNodeId()) ) {
+                context.reset();
+                return completedFuture( Data.of( buildNodeOutput( END ) ) );
+            }
 
-                    context.setCurrentNodeId(context.nextNodeId());
+            final var resumeFrom = context.getResumeFromAndReset();
+            if( resumeFrom.isPresent() ) {
 
-                    return Data.of( output );
+                if(compileConfig.interruptBeforeEdge() && Objects.equals( context.nextNodeId(), INTERRUPT_AFTER)) {
+                    return nextNodeCommandAsync( plan.indexOf(resumeFrom.get()), resumeFrom.get(), context.currentState())
+                            .thenCompose( TryFunction.Try( nextNodeCommand -> {
+                                context.setNext( nextNodeCommand );
+                                context.setCurrentNodeId( null );
+                                return evaluateNextNode();
+                            }));
                 }
+            }
 
-                if( END.equals(context.nextNodeId()) ) {
-                    context.reset();
-                    return Data.of( buildNodeOutput( END ) );
-                }
+            return evaluateNextNode();
+        }
 
-                final var resumeFrom = context.getResumeFromAndReset();
-                if( resumeFrom.isPresent() ) {
+        private CompletableFuture<Data<Output>> evaluateNextNode() throws Exception {
+            // check on previous node
+            if( shouldInterruptAfter( context.currentNodeId(), context.currentNodeIndex(), context.nextNodeId() )) {
+                flushCheckpoints();
+                return completedFuture( Data.done( InterruptionMetadata.builder(context.currentNodeId(), cloneState(context.currentState())).build() ) );
+            }
 
-                    if(compileConfig.interruptBeforeEdge() && Objects.equals( context.nextNodeId(), INTERRUPT_AFTER)) {
-                        var nextNodeCommand = nextNodeId( resumeFrom.get(), context.currentState(), config);
-                        context.setNextNodeId( nextNodeCommand.gotoNode() );
-                        context.setCurrentState(  nextNodeCommand.update() );
-                        context.setCurrentNodeId( null );
-                    }
-                }
+            if( shouldInterruptBefore( context.nextNodeId(), context.nextNodeIndex(), context.currentNodeId() ) ) {
+                // the pending sends are held by the last checkpoint and replayed on resume
+                context.getSendsAndReset();
+                flushCheckpoints();
+                return completedFuture( Data.done(InterruptionMetadata.builder(context.currentNodeId(), cloneState(context.currentState())).build() ) );
+            }
+
+            context.moveToNextNode();
+
+            //
+            // EVALUATE ACTION
+            //
+            final var nodeAction = plan.action( context.currentNodeIndex() );
+
+            if (nodeAction == null)
+                throw RunnableErrors.missingNode.exception(context.currentNodeId());
+
+            final var newConfig = nodeConfig( context.currentNodeIndex() );
+
+            final var sends = context.getSendsAndReset();
+            final AsyncNodeActionWithConfig<State> action;
+            if( !sends.isEmpty() ) {
+                action = new ParallelNode.AsyncSendNodeAction<>( context.currentNodeId(),
+                            nodeAction,
+                            sends,
+                            stateGraph.getStateFactory(),
+                            stateGraph.getChannels(),
+                            compileConfig.maxConcurrency(),
+                            compileConfig.parallelNodeExecutor( context.currentNodeId() ).orElse(null) );
+            }
+            else if( !plan.isParallel( context.currentNodeIndex() ) ) {
+                action = compileConfig.nodeExecutor( context.currentNodeId() )
+                        .<AsyncNodeActionWithConfig<State>>map( executor -> new ExecutorNodeAction<>( nodeAction, executor ) )
+                        .orElse( nodeAction );
+            }
+            else {
+                action = nodeAction;
+            }
 
-                // check on previous node
-                if( shouldInterruptAfter( context.currentNodeId(), context.nextNodeId() )) {
-                    return Data.done( InterruptionMetadata.builder(context.currentNodeId(), cloneState(context.currentState())).build() );
+            final var clonedState = cloneState(context.currentState());
+
+            if( nodeAction instanceof InterruptableAction<?>) {
+                @SuppressWarnings("unchecked")
+                final var interruption = (InterruptableAction<State>) nodeAction;
+                final var interruptMetadata = interruption.interrupt(context.currentNodeId(), clonedState, newConfig );
+                if( interruptMetadata.isPresent() ) {
+                    flushCheckpoints();
+                    return completedFuture( Data.done( interruptMetadata.get() ) );
                 }
+            }
 
-                if( shouldInterruptBefore( context.nextNodeId(), context.currentNodeId() ) ) {
-                    return Data.done(InterruptionMetadata.builder(context.currentNodeId(), cloneState(context.currentState())).build() );
+            return applyAction(action, clonedState, newConfig);
+        }
+
+        @Override
+        public Data<Output> next() {
+
+            try {
+                return nextAsync().get();
+            }
+            catch( InterruptedException ex ) {
+                if( plan.isParallel( context.currentNodeIndex() ) ) {
+                    log.info( "PARALLEL NODE {} INTERRUPTED!", context.currentNodeId() );
                 }
+                log.error( ex.getMessage(), ex );
+                return Data.error(ex);
+            }
+            catch( Throwable e ) {
+                log.error( e.getMessage(), e );
+                return Data.error(e);
+            }
 
-                context.setCurrentNodeId( context.nextNodeId() );
+        }
+    }
 
-                final var newConfig = updateRunnableConfigMetadata( config, context.currentNodeId() );
+    /**
+     * Generator of the superstep (Pregel/BSP) execution, see {@link CompileConfig.ExecutionMode#SUPERSTEP}.
+     * <p>
+     * Each step runs all the active nodes concurrently on the same state. At the barrier their partial states
+     * are merged through the channels, in the order of the nodes, then their outgoing edges are evaluated on the
+     * merged state: the targets (a node reached by several edges runs once, while each send runs on its own) are
+     * the active nodes of the next step. A branch completes when it reaches END and the graph completes when no
+     * node is active. An output, with the merged state, is emitted for each node of the step.
+     * The embedded generators returned by the nodes are consumed within the step.
+     * </p>
+     *
+     * @param <Output> the type of the output
+     */
+    class SuperstepGenerator<Output extends NodeOutput<State>> extends AsyncGenerator.BaseCancellable<Output> implements GraphPublisher.Steps<Output> {
 
-                //
-                // EVALUATE ACTION
-                //
-                final var action = nodes.get( context.currentNodeId() );
+        /**
+         * A run of a node in a step
+         *
+         * @param nodeIndex the node index
+         * @param payload the payload of the send that activated the node, null if activated by an edge
+         */
+        private record Task( int nodeIndex, Map<String,Object> payload ) {}
+
+        final RunnableConfig config;
+        private final RunnableConfig[] nodeConfigs = new RunnableConfig[plan.size()];
+        private final Deque<Output> outputs = new ArrayDeque<>();
+        private final int endIndex = plan.indexOf( END );
+        private Map<String,Object> currentState;
+        private List<Task> tasks; // null until START is evaluated
+        private boolean ended;
+        int iteration = 0;
+
+        protected SuperstepGenerator( GraphInput input, RunnableConfig config ) {
+            if( input instanceof GraphResume ) {
+                throw new IllegalStateException( "Resume request is not supported in superstep execution mode!" );
+            }
+            this.config = RunnableConfig.builder(config)
+                    .checkPointId(null) // Reset checkpoint id
+                    .removeMetadata(RunnableConfig.SUBGRAPH_RESUME_UPDATE_DATA)
+                    .build();
+
+            final var initState = initialState( ((GraphArgs)input).value(), config );
+            // patch for backward support of AppendableValue
+            this.currentState = contextStateOf( stateGraph.getStateFactory().apply(initState).data() );
+        }
+
+        private RunnableConfig nodeConfig( int nodeIndex ) {
+            var result = nodeConfigs[nodeIndex];
+            if( result == null ) {
+                result = updateRunnableConfigMetadata( config, nodeIndex );
+                nodeConfigs[nodeIndex] = result;
+            }
+            return result;
+        }
 
-                if (action == null)
-                    throw RunnableErrors.missingNode.exception(context.currentNodeId());
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Data<Output>> nextAsync() throws Exception {
+            if( !outputs.isEmpty() ) {
+                return completedFuture( Data.of( outputs.poll() ) );
+            }
+
+            if( tasks == null ) {
+                final var startIndex = plan.indexOf( START );
+                return nextTasksAsync( List.of( new Task( startIndex, null ) ) )
+                        .thenApply( TryFunction.Try( nextTasks -> {
+                            tasks = nextTasks;
+                            addOutput( startIndex );
+                            return Data.of( outputs.poll() );
+                        }));
+            }
+
+            if( tasks.isEmpty() ) {
+                if( !ended ) {
+                    ended = true;
+                    return completedFuture( Data.of( (Output)NodeOutput.of( END, cloneState(currentState) ) ) );
+                }
+                flushCheckpoints( config );
+                return completedFuture( releaseThread( config )
+                        .map(Data::<Output>done)
+                        .orElseGet( () -> Data.done(currentState) ) );
+            }
+
+            // GUARD: CHECK MAX ITERATION REACHED
+            if( ++iteration > maxIterations ) {
+                return completedFuture( Data.error( new IllegalStateException( format("Maximum number of iterations (%d) reached!", maxIterations)) ) );
+            }
+
+            final var stepTasks = tasks;
+            final var stepState = currentState;
 
-                final var clonedState = cloneState(context.currentState());
+            return FutureUtils.forkJoin( stepTasks.size(),
+                            index -> runTask( stepTasks.get(index), stepState ),
+                            compileConfig.maxConcurrency() )
+                    .thenCompose( TryFunction.Try( partials -> {
+                        // BARRIER
+                        currentState = contextStateOf( ParallelNode.mergePartialStates( stepState, partials, stateGraph.getChannels() ) );
+                        return nextTasksAsync( stepTasks );
+                    }))
+                    .thenApply( TryFunction.Try( nextTasks -> {
+                        tasks = nextTasks;
+                        for( var nodeIndex : nodeIndexesOf( stepTasks ) ) {
+                            addOutput( nodeIndex );
+                        }
+                        return Data.of( outputs.poll() );
+                    }));
+        }
 
-                if( action instanceof InterruptableAction<?>) {
-                    @SuppressWarnings("unchecked")
-                    final var interruption = (InterruptableAction<State>) action;
-                    final var interruptMetadata = interruption.interrupt(context.currentNodeId(), clonedState, newConfig );
-                    if( interruptMetadata.isPresent() ) {
-                        return Data.done( interruptMetadata.get() );
+        private CompletableFuture<Map<String,Object>> runTask( Task task, Map<String,Object> stepState ) {
+            final var nodeId = plan.id( task.nodeIndex() );
+            final var nodeAction = plan.action( task.nodeIndex() );
+            if( nodeAction == null ) {
+                return CompletableFuture.failedFuture( RunnableErrors.missingNode.exception( nodeId ) );
+            }
+            try {
+                final Optional<Executor> executor;
+                final State state;
+                if( task.payload() == null ) {
+                    executor = compileConfig.nodeExecutor( nodeId ).or( compileConfig::defaultExecutor );
+                    state = cloneState( stepState );
+                }
+                else {
+                    executor = compileConfig.parallelNodeExecutor( nodeId );
+                    // overlay the payload, channels are applied only to the results
+                    state = cloneState( AgentState.updateState( stepState, task.payload(), Map.of() ) );
+                }
+                final AsyncNodeActionWithConfig<State> action = ( actionState, actionConfig ) ->
+                        ParallelNode.evalNodeAction( nodeAction, actionState, actionConfig, executor, stateGraph.getChannels() );
+
+                return applyNodeAction( task.nodeIndex(),
+                        action,
+                        state,
+                        nodeConfig( task.nodeIndex() ),
+                        stateGraph.getStateFactory() );
+            }
+            catch( Exception ex ) {
+                return CompletableFuture.failedFuture( ex );
+            }
+        }
+
+        /**
+         * Evaluates the outgoing edges of the given tasks, one after the other since the edge commands may update
+         * the state, and returns the tasks of the next step
+         */
+        private CompletableFuture<List<Task>> nextTasksAsync( List<Task> stepTasks ) {
+            final var activated = new LinkedHashSet<Integer>();
+            final var sent = new ArrayList<Task>();
+
+            CompletableFuture<Void> result = completedFuture(null);
+            for( var nodeIndex : nodeIndexesOf( stepTasks ) ) {
+                final var fanOut = plan.fanOut( nodeIndex );
+                if( fanOut != null ) {
+                    for( var target : fanOut ) {
+                        activated.add( target );
                     }
+                    continue;
                 }
-                try {
-                    return applyAction(action, context.currentNodeId(), clonedState, newConfig);
+                result = result.thenCompose( TryFunction.Try( ignored ->
+                        nextNodeIdAsync( nodeIndex, currentState, plan.id( nodeIndex ), nodeConfig( nodeIndex ) )
+                                .thenAccept( command -> {
+                                    currentState = contextStateOf( command.update() );
+                                    final var target = plan.indexOf( command.gotoNode() );
+                                    if( command.sends().isEmpty() ) {
+                                        activated.add( target );
+                                    }
+                                    else {
+                                        command.sends().forEach( send -> sent.add( new Task( target, send.payload() ) ) );
+                                    }
+                                })));
+            }
+            return result.thenApply( ignored -> {
+                final var nextTasks = new ArrayList<Task>( activated.size() + sent.size() );
+                for( var nodeIndex : activated ) {
+                    if( nodeIndex != endIndex ) {
+                        nextTasks.add( new Task( nodeIndex, null ) );
+                    }
                 }
-                catch( InterruptedException ex ) {
-                    if( action instanceof ParallelNode.AsyncParallelNodeAction<?> parallelNodeAction ) {
-                        log.info( "PARALLEL NODE {} INTERRUPTED!", context.currentNodeId() );
+                for( var task : sent ) {
+                    if( task.nodeIndex() != endIndex ) {
+                        nextTasks.add( task );
                     }
-                    throw ex;
                 }
+                return nextTasks;
+            });
+        }
 
+        private Set<Integer> nodeIndexesOf( List<Task> stepTasks ) {
+            final var result = new LinkedHashSet<Integer>();
+            for( var task : stepTasks ) {
+                result.add( task.nodeIndex() );
+            }
+            return result;
+        }
+
+        /**
+         * Adds the checkpoint and the output of the given node. The checkpoint next node is END when no node is
+         * active, a marker when several nodes are active.
+         */
+        @SuppressWarnings("unchecked")
+        private void addOutput( int nodeIndex ) throws Exception {
+            final var nodeId = plan.id( nodeIndex );
+            final var nextNodeId = switch( tasks.size() ) {
+                case 0 -> END;
+                case 1 -> plan.id( tasks.get(0).nodeIndex() );
+                default -> SUPERSTEP;
+            };
+            final var cp = addCheckpoint( config, nodeId, currentState, nextNodeId );
+            outputs.add( ( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS ) ?
+                    (Output)StateSnapshot.of( cp.get(), config, stateGraph.getStateFactory() ) :
+                    (Output)NodeOutput.of( nodeId, cloneState(currentState) ) );
+        }
+
+        @Override
+        public Data<Output> next() {
+            try {
+                return nextAsync().get();
             }
             catch( Throwable e ) {
                 log.error( e.getMessage(), e );
                 return Data.error(e);
             }
-
         }
     }
 
-    class AsyncNodeGeneratorWithEmbed<Output extends NodeOutput<State>> extends AsyncGenerator.WithEmbed<Output> {
+    class AsyncNodeGeneratorWithEmbed<Output extends NodeOutput<State>> extends AsyncGenerator.WithEmbed<Output> implements GraphPublisher.Steps<Output> {
+        private final AsyncNodeGenerator<Output> root;
+
         public AsyncNodeGeneratorWithEmbed(GraphInput input, RunnableConfig config ) {
-            super( new AsyncNodeGenerator<>( input, config ) );
+            this( new AsyncNodeGenerator<>( input, config ) );
+        }
+
+        private AsyncNodeGeneratorWithEmbed( AsyncNodeGenerator<Output> root ) {
+            super( root );
+            this.root = root;
+        }
+
+        /**
+         * Evaluates the next step without blocking, when the generator is embedded in a {@link GraphPublisher}.
+         * The generators embedded by the nodes are returned instead of being consumed, the publisher consumes them.
+         *
+         * @return the future of the next step result
+         * @throws Exception if the step cannot be started
+         */
+        @Override
+        public CompletableFuture<Data<Output>> nextAsync() throws Exception {
+            return root.nextAsync();
+        }
+
+        @Override
+        public <U> AsyncGenerator<U> map( Function<Output, U> mapFunction ) {
+            return new GraphPublisher.MappedSteps<>( this, mapFunction );
         }
     }
 
@@ -0,0 +1,275 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.cache.NodeCachePolicy;
+import org.bsc.langgraph4j.internal.edge.EdgeValue;
+import org.bsc.langgraph4j.internal.hook.EdgeHooks;
+import org.bsc.langgraph4j.internal.hook.NodeHooks;
+import org.bsc.langgraph4j.internal.node.ParallelNode;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+
+/**
+ * Index based view of a compiled graph used by the execution loop.
+ * <p>
+ * Every node id (including {@code START}, {@code END} and the edge targets) gets a dense index at compile time,
+ * so that per step lookups of actions, edges and interruptions are array and bit set accesses instead of
+ * hash lookups. The config metadata, the hook chains and the cache policies of each node are precomputed as well.
+ * The hooks added to the {@link StateGraph} after the compilation rebuild the hook chains on their next lookup.
+ * In {@link CompileConfig.ExecutionMode#SUPERSTEP} mode the fan-outs are kept as the target indexes of their
+ * source node, instead of being compiled into parallel nodes.
+ * </p>
+ *
+ * @param <State> the type of the state associated with the graph
+ */
+final class ExecutionPlan<State extends AgentState> {
+
+    /**
+     * Index of an id that doesn't belong to the plan
+     */
+    static final int NONE = -1;
+
+    private final Map<String, Integer> indexes;
+    private final String[] ids;
+    private final AsyncNodeActionWithConfig<State>[] actions;
+    private final EdgeValue<State>[] edges;
+    private final BitSet interruptsBefore = new BitSet();
+    private final BitSet interruptsAfter = new BitSet();
+    private final BitSet parallel = new BitSet();
+    private final Map<String, Object>[] metadata;
+    private final NodeHooks<State>.Chain[] nodeHooks;
+    private final EdgeHooks<State>.Chain[] edgeHooks;
+    private final NodeHooks<State> nodeHookRegistry;
+    private final EdgeHooks<State> edgeHookRegistry;
+    private volatile int nodeHooksVersion;
+    private volatile int edgeHooksVersion;
+    private final int[][] fanOuts;
+    private final NodeCachePolicy[] cachePolicies;
+
+    ExecutionPlan(Map<String, AsyncNodeActionWithConfig<State>> nodes,
+                  Map<String, EdgeValue<State>> edges,
+                  CompileConfig compileConfig,
+                  NodeHooks<State> nodeHooks,
+                  EdgeHooks<State> edgeHooks) {
+        this(nodes, edges, Map.of(), Map.of(), compileConfig, nodeHooks, edgeHooks);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ExecutionPlan(Map<String, AsyncNodeActionWithConfig<State>> nodes,
+                  Map<String, EdgeValue<State>> edges,
+                  Map<String, List<String>> fanOuts,
+                  Map<String, NodeCachePolicy> cachePolicies,
+                  CompileConfig compileConfig,
+                  NodeHooks<State> nodeHooks,
+                  EdgeHooks<State> edgeHooks) {
+
+        final Set<String> allIds = new LinkedHashSet<>();
+        allIds.add(START);
+        allIds.addAll(nodes.keySet());
+        for (var entry : edges.entrySet()) {
+            allIds.add(entry.getKey());
+            final var edge = entry.getValue();
+            if (edge.id() != null) {
+                allIds.add(edge.id());
+            } else if (edge.value() != null) {
+                allIds.addAll(edge.value().mappings().values());
+            }
+        }
+        for (var entry : fanOuts.entrySet()) {
+            allIds.add(entry.getKey());
+            allIds.addAll(entry.getValue());
+        }
+        allIds.add(END);
+
+        final int size = allIds.size();
+        this.ids = allIds.toArray(new String[size]);
+        this.indexes = new HashMap<>(size * 2);
+        this.actions = new AsyncNodeActionWithConfig[size];
+        this.edges = new EdgeValue[size];
+        this.metadata = new Map[size];
+        this.nodeHooks = new NodeHooks.Chain[size];
+        this.edgeHooks = new EdgeHooks.Chain[size];
+        this.fanOuts = new int[size][];
+        this.cachePolicies = new NodeCachePolicy[size];
+
+        this.nodeHookRegistry = nodeHooks;
+        this.edgeHookRegistry = edgeHooks;
+        this.nodeHooksVersion = nodeHooks.version();
+        this.edgeHooksVersion = edgeHooks.version();
+
+        final var graphId = compileConfig.graphId();
+
+        for (int index = 0; index < size; ++index) {
+            final var id = ids[index];
+            indexes.put(id, index);
+
+            final var action = nodes.get(id);
+            actions[index] = action;
+            this.edges[index] = edges.get(id);
+
+            if (action != null) {
+                if (ParallelNode.isParallelAction(action)) {
+                    parallel.set(index);
+                }
+                this.nodeHooks[index] = nodeHooks.chain(id);
+                this.cachePolicies[index] = cachePolicies.get(id);
+            }
+            final var edge = this.edges[index];
+            if (edge != null && edge.value() != null) {
+                this.edgeHooks[index] = edgeHooks.chain(id);
+            }
+            if (compileConfig.interruptsBefore().contains(id)) {
+                interruptsBefore.set(index);
+            }
+            if (compileConfig.interruptsAfter().contains(id)) {
+                interruptsAfter.set(index);
+            }
+
+            metadata[index] = graphId
+                    .map(value -> Map.<String, Object>of(RunnableConfig.NODE_ID, id, RunnableConfig.GRAPH_ID, value))
+                    .orElseGet(() -> Map.of(RunnableConfig.NODE_ID, id));
+        }
+
+        fanOuts.forEach((sourceId, targetIds) ->
+                this.fanOuts[indexes.get(sourceId)] = targetIds.stream().mapToInt(indexes::get).toArray());
+    }
+
+    /**
+     * Returns the index of the given node id
+     *
+     * @param id the node id
+     * @return the index, or {@link #NONE} if the id is null or unknown
+     */
+    int indexOf(String id) {
+        if (id == null) {
+            return NONE;
+        }
+        final var index = indexes.get(id);
+        return (index != null) ? index : NONE;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    String id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the action of the node at the given index
+     *
+     * @param index the node index
+     * @return the action, or null if the index is {@link #NONE} or the node has no action (e.g. START, END)
+     */
+    AsyncNodeActionWithConfig<State> action(int index) {
+        return (index == NONE) ? null : actions[index];
+    }
+
+    /**
+     * Returns the outgoing edge of the node at the given index
+     *
+     * @param index the node index
+     * @return the edge, or null if the index is {@link #NONE} or the node has no outgoing edge
+     */
+    EdgeValue<State> edge(int index) {
+        return (index == NONE) ? null : edges[index];
+    }
+
+    /**
+     * Returns the targets of the fan-out starting from the node at the given index
+     *
+     * @param index the node index
+     * @return the target indexes, or null if the node has no fan-out
+     */
+    int[] fanOut(int index) {
+        return (index == NONE) ? null : fanOuts[index];
+    }
+
+    boolean isInterruptBefore(int index) {
+        return index != NONE && interruptsBefore.get(index);
+    }
+
+    boolean isInterruptAfter(int index) {
+        return index != NONE && interruptsAfter.get(index);
+    }
+
+    boolean isParallel(int index) {
+        return index != NONE && parallel.get(index);
+    }
+
+    /**
+     * Returns the config metadata of the node at the given index, that is, its node id and the graph id if set
+     *
+     * @param index the node index
+     * @return the immutable node metadata
+     */
+    Map<String, Object> metadata(int index) {
+        return metadata[index];
+    }
+
+    /**
+     * Returns the cache policy of the node at the given index
+     *
+     * @param index the node index
+     * @return the cache policy, or null if the node results are not cached
+     */
+    NodeCachePolicy cachePolicy(int index) {
+        return cachePolicies[index];
+    }
+
+    /**
+     * Returns the hooks of the node at the given index
+     *
+     * @param index the node index
+     * @return the hook chain, or null if the node has no action
+     */
+    NodeHooks<State>.Chain nodeHooks(int index) {
+        if (nodeHooksVersion != nodeHookRegistry.version()) {
+            rebuildNodeHooks();
+        }
+        return nodeHooks[index];
+    }
+
+    private synchronized void rebuildNodeHooks() {
+        final int version = nodeHookRegistry.version();
+        for (int index = 0; index < nodeHooks.length; ++index) {
+            if (nodeHooks[index] != null) {
+                nodeHooks[index] = nodeHookRegistry.chain(ids[index]);
+            }
+        }
+        nodeHooksVersion = version;
+    }
+
+    /**
+     * Returns the hooks of the conditional edge starting from the node at the given index
+     *
+     * @param index the node index
+     * @return the hook chain, or null if the node has no conditional edge
+     */
+    EdgeHooks<State>.Chain edgeHooks(int index) {
+        if (edgeHooksVersion != edgeHookRegistry.version()) {
+            rebuildEdgeHooks();
+        }
+        return edgeHooks[index];
+    }
+
+    private synchronized void rebuildEdgeHooks() {
+        final int version = edgeHookRegistry.version();
+        for (int index = 0; index < edgeHooks.length; ++index) {
+            if (edgeHooks[index] != null) {
+                edgeHooks[index] = edgeHookRegistry.chain(ids[index]);
+            }
+        }
+        edgeHooksVersion = version;
+    }
+}
@@ -0,0 +1,313 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.async.AsyncGenerator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+/**
+ * Push-based stream of the outputs of a graph execution.
+ * <p>
+ * Every subscription starts a new execution. The steps of the execution are chained as {@link CompletableFuture}
+ * stages, so no thread waits for a node or an edge: the execution proceeds on the thread that completes them,
+ * or on the subscriber thread that requests more outputs. A step starts only when the subscriber has requested
+ * more outputs. The outputs of the generators embedded by nodes (e.g. streaming) are pushed as well: the embedded
+ * generators are kept on a stack, so they can embed other generators in turn. The generators of a graph (e.g. a
+ * subgraph) are evaluated without blocking as well, the other ones through {@link AsyncGenerator#next()}.
+ * </p>
+ *
+ * @param <E> the type of the outputs
+ */
+final class GraphPublisher<E> implements Flow.Publisher<E> {
+
+    /**
+     * The steps of a graph execution
+     *
+     * @param <E> the type of the outputs
+     */
+    @FunctionalInterface
+    interface Steps<E> {
+        CompletableFuture<AsyncGenerator.Data<E>> nextAsync() throws Exception;
+    }
+
+    /**
+     * Generator that maps the outputs of a graph generator, and still evaluates its steps without blocking.
+     * Mapping an embedded generator maps its outputs as well.
+     *
+     * @param <T> the type of the source outputs
+     * @param <U> the type of the mapped outputs
+     */
+    static final class MappedSteps<T, U> extends AsyncGenerator.BaseCancellable<U>
+            implements Steps<U>, AsyncGenerator.HasResultValue {
+        private final AsyncGenerator<T> source;
+        private final Steps<T> sourceSteps;
+        private final Function<T, U> mapFunction;
+        private volatile Object resultValue;
+
+        <G extends AsyncGenerator<T> & Steps<T>> MappedSteps(G source, Function<T, U> mapFunction) {
+            this.source = requireNonNull(source, "source cannot be null");
+            this.sourceSteps = source;
+            this.mapFunction = requireNonNull(mapFunction, "mapFunction cannot be null");
+        }
+
+        private AsyncGenerator.Data<U> map(AsyncGenerator.Data<T> data) {
+            if (data.embed() != null) {
+                return AsyncGenerator.Data.composeWith(data.embed().generator().map(mapFunction),
+                        data.embed().onCompletion());
+            }
+            if (data.isDone()) {
+                resultValue = data.resultValue();
+                return AsyncGenerator.Data.done(data.resultValue());
+            }
+            return AsyncGenerator.Data.of(data.future().thenApply(mapFunction));
+        }
+
+        @Override
+        public CompletableFuture<AsyncGenerator.Data<U>> nextAsync() throws Exception {
+            if (isCancelled()) {
+                throw new CancellationException("generator is cancelled");
+            }
+            return sourceSteps.nextAsync().thenApply(this::map);
+        }
+
+        @Override
+        public AsyncGenerator.Data<U> next() {
+            if (isCancelled()) {
+                throw new CancellationException("generator is cancelled");
+            }
+            return map(source.next());
+        }
+
+        @Override
+        public Optional<Object> resultValue() {
+            return Optional.ofNullable(resultValue);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (super.cancel(mayInterruptIfRunning) && source instanceof AsyncGenerator.IsCancellable cancellable) {
+                return cancellable.cancel(mayInterruptIfRunning);
+            }
+            return false;
+        }
+    }
+
+    private static final Flow.Subscription NOOP_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Supplier<Steps<E>> stepsFactory;
+
+    GraphPublisher(Supplier<Steps<E>> stepsFactory) {
+        this.stepsFactory = requireNonNull(stepsFactory, "stepsFactory cannot be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        requireNonNull(subscriber, "subscriber cannot be null");
+        final Steps<E> steps;
+        try {
+            steps = stepsFactory.get();
+        } catch (Throwable ex) {
+            subscriber.onSubscribe(NOOP_SUBSCRIPTION);
+            subscriber.onError(ex);
+            return;
+        }
+        subscriber.onSubscribe(new StepsSubscription<>(subscriber, steps));
+    }
+
+    /**
+     * Subscribes requesting all the outputs and returns the last one
+     *
+     * @return the future of the last output, empty if there are no outputs
+     */
+    CompletableFuture<Optional<E>> last() {
+        final var result = new CompletableFuture<Optional<E>>();
+
+        subscribe(new Flow.Subscriber<E>() {
+            private E last;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(E item) {
+                last = item;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(Optional.ofNullable(last));
+            }
+        });
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+    }
+
+    private static final class StepsSubscription<E> implements Flow.Subscription {
+        private final Flow.Subscriber<? super E> subscriber;
+        private final Steps<E> steps;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        // accessed only by the drain loop
+        private final Deque<AsyncGenerator.Embed<E>> embeds = new ArrayDeque<>();
+        private CompletableFuture<AsyncGenerator.Data<E>> pending;
+        private boolean done;
+
+        StepsSubscription(Flow.Subscriber<? super E> subscriber, Steps<E> steps) {
+            this.subscriber = subscriber;
+            this.steps = steps;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("request must be > 0!"));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, requested) -> {
+                final long sum = current + requested;
+                return (sum < 0) ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Runs the loop on a single thread at time. A completion or a request that happens while the loop is
+         * running makes it run again, so tasks completed synchronously don't grow the stack.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                loop();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void loop() {
+            while (!done) {
+                if (cancelled) {
+                    done = true;
+                    return;
+                }
+                if (pending != null) {
+                    if (!pending.isDone()) {
+                        return; // resumed by the completion
+                    }
+                    final var completed = pending;
+                    pending = null;
+                    handle(completed);
+                    continue;
+                }
+                if (demand.get() == 0) {
+                    return; // resumed by the next request
+                }
+                pending = nextData();
+                if (!pending.isDone()) {
+                    pending.whenComplete((data, ex) -> drain());
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<AsyncGenerator.Data<E>> nextData() {
+            try {
+                final var embed = embeds.peek();
+                final CompletableFuture<AsyncGenerator.Data<E>> data;
+                if (embed == null) {
+                    data = steps.nextAsync();
+                } else if (embed.generator() instanceof Steps<?> embedSteps) {
+                    data = ((Steps<E>) embedSteps).nextAsync();
+                } else {
+                    data = completedFuture(embed.generator().next());
+                }
+                // the data completes when its output is available
+                return data.thenCompose(value -> (value.future() != null) ?
+                        value.future().thenApply(output -> value) :
+                        completedFuture(value));
+            } catch (Throwable ex) {
+                return failedFuture(ex);
+            }
+        }
+
+        private void handle(CompletableFuture<AsyncGenerator.Data<E>> completed) {
+            final AsyncGenerator.Data<E> data;
+            try {
+                data = completed.join();
+            } catch (CompletionException | CancellationException ex) {
+                terminate(unwrap(ex));
+                return;
+            }
+
+            if (data.embed() != null) {
+                embeds.push(data.embed());
+                return;
+            }
+
+            if (data.isDone()) {
+                final var completedEmbed = embeds.poll();
+                if (completedEmbed != null) {
+                    if (completedEmbed.onCompletion() != null) {
+                        try {
+                            completedEmbed.onCompletion().accept(data.resultValue());
+                        } catch (Throwable ex) {
+                            terminate(ex);
+                        }
+                    }
+                    return;
+                }
+                done = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            demand.decrementAndGet();
+            subscriber.onNext(data.future().join());
+        }
+
+        private void terminate(Throwable ex) {
+            done = true;
+            subscriber.onError(ex);
+        }
+    }
+}
@@ -30,6 +30,7 @@ public final class RunnableConfig implements HasMetadata {
     public static final String GRAPH_PATH = "LG4j_GRAPH_PATH";
     public static final String GRAPH_ID = "LG4j_GRAPH_ID";
     public static final String SUBGRAPH_RESUME_UPDATE_DATA = "LG4j_SUBGRAPH_UPDATE_DATA";
+    public static final String NODE_CACHE_HIT = "LG4j_NODE_CACHE_HIT";
 
     private final String threadId;
     private final String checkPointId;
@@ -151,6 +152,16 @@ public final class RunnableConfig implements HasMetadata {
         return (String)metadata(NODE_ID).orElseThrow();
     }
 
+    /**
+     * Tells, to the wrap and after call hooks of a node with a {@link org.bsc.langgraph4j.cache.NodeCachePolicy},
+     * if the node result comes from the cache. The cache is looked up after the before call hooks.
+     *
+     * @return true on cache hit, false on cache miss, empty if the node has no cache policy
+     */
+    public Optional<Boolean> nodeCacheHit() {
+        return metadata(NODE_CACHE_HIT).map(Boolean.class::cast);
+    }
+
     public Optional<String> graphId() {
         return metadata(GRAPH_ID).map(Object::toString);
     }
@@ -1,6 +1,7 @@
 package org.bsc.langgraph4j;
 
 import org.bsc.langgraph4j.action.*;
+import org.bsc.langgraph4j.cache.NodeCachePolicy;
 import org.bsc.langgraph4j.hook.EdgeHook;
 import org.bsc.langgraph4j.hook.NodeHook;
 import org.bsc.langgraph4j.internal.edge.Edge;
@@ -51,6 +52,7 @@ public non-sealed class StateGraph<State extends AgentState> implements GraphDef
         unsupportedConditionalEdgeOnParallelNode("parallel node doesn't support conditional branch, but on [%s] a conditional branch on %s have been found!"),
         illegalMultipleTargetsOnParallelNode("parallel node [%s] must have only one target, but %s have been found!"),
         interruptionNodeNotExist( "node '%s' configured as interruption doesn't exist!"),
+        unsupportedInterruptionOnSuperstep( "interruptions are not supported in superstep execution mode, but %s have been found!"),
         validationError( "validation error: %s")
         ;
 
@@ -231,6 +233,47 @@ public non-sealed class StateGraph<State extends AgentState> implements GraphDef
         return addNode( id, factory);
     }
 
+    /**
+     * Adds a node whose results are cached, so it is not run again with the same input.
+     *
+     * @param id the identifier of the node
+     * @param action the action to be performed by the node, it must be deterministic
+     * @param cachePolicy the cache policy of the node results
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see NodeCachePolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeActionWithConfig<State> action, NodeCachePolicy cachePolicy) throws GraphStateException {
+        requireNonNull(action, "action cannot be null");
+        requireNonNull(cachePolicy, "cachePolicy cannot be null");
+        if (Objects.equals(id, END)) {
+            throw Errors.invalidNodeIdentifier.exception(END);
+        }
+
+        var node = new Node<State>(id, config -> action, cachePolicy);
+
+        if (nodes.elements.contains(node)) {
+            throw Errors.duplicateNodeError.exception(id);
+        }
+
+        nodes.elements.add(node);
+        return this;
+    }
+
+    /**
+     * Adds a node whose results are cached, so it is not run again with the same input.
+     *
+     * @param id the identifier of the node
+     * @param action the action to be performed by the node, it must be deterministic
+     * @param cachePolicy the cache policy of the node results
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see NodeCachePolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeAction<State> action, NodeCachePolicy cachePolicy) throws GraphStateException {
+        return addNode( id, AsyncNodeActionWithConfig.of(action), cachePolicy );
+    }
+
     /**
      * Adds node that behave as conditional edges.
      *
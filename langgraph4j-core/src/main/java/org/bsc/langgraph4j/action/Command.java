@@ -2,6 +2,7 @@ package org.bsc.langgraph4j.action;
 
 import org.bsc.langgraph4j.utils.CollectionsUtils;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -18,8 +19,10 @@ import static java.util.Optional.ofNullable;
  * @param update   A {@link Map} containing key-value pairs representing updates
  *                 to be merged into the current agent state. An empty map indicates
  *                 no state updates.
+ * @param sends    the work items of a dynamic fan-out to the {@code gotoNode}, empty if the node runs once.
+ * @see Send
  */
-public record Command(String gotoNode, Map<String,Object> update) {
+public record Command(String gotoNode, Map<String,Object> update, List<Send> sends) {
     private static final Command EMPTY_COMMAND = new Command( Map.of() );
 
     public static Command emptyCommand() {
@@ -45,6 +48,21 @@ public record Command(String gotoNode, Map<String,Object> update) {
         if( gotoNode == null && update == null ) {
             throw new IllegalArgumentException("gotoNode and update cannot both be null");
         }
+        sends = ofNullable(sends).map(List::copyOf).orElseGet(List::of);
+        if( !sends.isEmpty() && gotoNode == null ) {
+            throw new IllegalArgumentException("sends require a gotoNode");
+        }
+    }
+
+    /**
+     * Constructs a {@code Command} without sends. It was the canonical constructor before the {@code sends}
+     * component was added, and it is kept for source and binary compatibility.
+     *
+     * @param gotoNode The name of the next node to transition to. Can be null.
+     * @param update   The state updates. Can be null if {@code gotoNode} is not.
+     */
+    public Command( String gotoNode, Map<String,Object> update ) {
+        this( gotoNode, update, null );
     }
 
     /**
@@ -62,11 +80,47 @@ public record Command(String gotoNode, Map<String,Object> update) {
         this( null, update );
     }
 
+    /**
+     * Constructs a {@code Command} that fans out the given work items to their target node.
+     * All the sends must target the same node.
+     *
+     * @param sends the work items, at least one
+     * @return the command
+     * @see Send
+     */
+    public static Command send( List<Send> sends ) {
+        return send( sends, null );
+    }
+
+    /**
+     * Constructs a {@code Command} that updates the state and then fans out the given work items
+     * to their target node. All the sends must target the same node.
+     *
+     * @param sends  the work items, at least one
+     * @param update the state updates applied before the fan-out. Can be null.
+     * @return the command
+     * @see Send
+     */
+    public static Command send( List<Send> sends, Map<String,Object> update ) {
+        Objects.requireNonNull( sends, "sends cannot be null" );
+        if( sends.isEmpty() ) {
+            throw new IllegalArgumentException("sends cannot be empty");
+        }
+        final var gotoNode = sends.get(0).nodeId();
+        if( sends.stream().anyMatch( send -> !gotoNode.equals(send.nodeId()) ) ) {
+            throw new IllegalArgumentException("all sends must target the same node");
+        }
+        return new Command( gotoNode, ofNullable(update).orElseGet(Map::of), sends );
+    }
+
     @Override
     public String toString() {
         if( update == null && gotoNode == null ) {
             return "empty command";
         }
+        if( !sends.isEmpty() ) {
+            return "send %d items to node '%s'%n".formatted( sends.size(), gotoNode );
+        }
         if( update == null ) {
             return "goto node '%s'%n".formatted( gotoNode );
         }
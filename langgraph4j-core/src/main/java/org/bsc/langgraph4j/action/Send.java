@@ -0,0 +1,37 @@
+package org.bsc.langgraph4j.action;
+
+import org.bsc.langgraph4j.utils.CollectionsUtils;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * A work item of a dynamic fan-out (the "map" step of a map-reduce) emitted by a conditional edge
+ * through {@link Command#send(java.util.List)}.
+ * <p>
+ * The target node is run once for each send, with the graph state overlaid by the send payload
+ * (the payload values replace the state values without applying the channels). The partial states
+ * returned by the runs are then merged into the graph state through the channels, in the order of the sends.
+ * </p>
+ * <p>
+ * Sends are not stored in checkpoints: if the graph is interrupted before the target node, on resume
+ * the node runs once against the graph state.
+ * </p>
+ *
+ * @param nodeId  the target node, as expected by the edge mappings
+ * @param payload the values that overlay the graph state for this run
+ */
+public record Send(String nodeId, Map<String, Object> payload) {
+
+    public Send {
+        requireNonNull(nodeId, "nodeId cannot be null");
+        payload = ofNullable(payload).orElseGet(Map::of);
+    }
+
+    @Override
+    public String toString() {
+        return "send to '%s' with payload %s".formatted(nodeId, CollectionsUtils.toString(payload));
+    }
+}
@@ -0,0 +1,193 @@
+package org.bsc.langgraph4j.agent;
+
+import org.bsc.langgraph4j.utils.FutureUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+/**
+ * Defines how the tool calls requested by the model in a single turn are executed.
+ * <p>
+ * By default, the calls run one after the other on the calling thread. When an executor is set, they run
+ * concurrently on it (at most {@link #maxConcurrency()} at the same time) and each call can be bound by a timeout.
+ * In both cases the results are returned in the order of the requests and the first failure fails the whole turn,
+ * cancelling the calls still running.
+ * </p>
+ */
+public final class ToolExecutionPolicy {
+
+    private static final ToolExecutionPolicy SEQUENTIAL = builder().build();
+
+    /**
+     * Builder for {@link ToolExecutionPolicy}
+     */
+    public static class Builder {
+        private Executor executor;
+        private int maxConcurrency = Integer.MAX_VALUE;
+        private Duration timeout;
+        private final Map<String, Duration> toolTimeouts = new HashMap<>();
+
+        /**
+         * Runs the tool calls concurrently on the given executor
+         *
+         * @param executor the executor
+         * @return the builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = requireNonNull(executor, "executor cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the max number of tool calls running at the same time, by default it is unbounded
+         *
+         * @param maxConcurrency the max number of concurrent calls
+         * @return the builder
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be > 0!");
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the timeout of every tool call. It applies only when an executor is set.
+         *
+         * @param timeout the timeout
+         * @return the builder
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = checkTimeout(timeout);
+            return this;
+        }
+
+        /**
+         * Sets the timeout of the calls to the given tool, it overrides {@link #timeout(Duration)}.
+         * It applies only when an executor is set.
+         *
+         * @param toolName the tool name
+         * @param timeout  the timeout
+         * @return the builder
+         */
+        public Builder timeout(String toolName, Duration timeout) {
+            toolTimeouts.put(requireNonNull(toolName, "toolName cannot be null"), checkTimeout(timeout));
+            return this;
+        }
+
+        private static Duration checkTimeout(Duration timeout) {
+            requireNonNull(timeout, "timeout cannot be null");
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("timeout must be > 0!");
+            }
+            return timeout;
+        }
+
+        public ToolExecutionPolicy build() {
+            return new ToolExecutionPolicy(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default policy, that runs the tool calls one after the other on the calling thread
+     *
+     * @return the sequential policy
+     */
+    public static ToolExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final Duration timeout;
+    private final Map<String, Duration> toolTimeouts;
+
+    private ToolExecutionPolicy(Builder builder) {
+        this.executor = builder.executor;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.timeout = builder.timeout;
+        this.toolTimeouts = Map.copyOf(builder.toolTimeouts);
+    }
+
+    public Optional<Executor> executor() {
+        return ofNullable(executor);
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the timeout of the calls to the given tool
+     *
+     * @param toolName the tool name
+     * @return the timeout, empty if the calls are not bound
+     */
+    public Optional<Duration> timeout(String toolName) {
+        return ofNullable(toolTimeouts.get(toolName)).or(() -> ofNullable(timeout));
+    }
+
+    /**
+     * Executes the tool calls according to this policy
+     *
+     * @param requests the tool call requests
+     * @param toolName extracts the tool name from a request
+     * @param call     executes a request, it may block
+     * @return the results, in the order of the requests
+     */
+    public <R, T> CompletableFuture<List<T>> execute(List<R> requests,
+                                                     Function<? super R, String> toolName,
+                                                     Function<? super R, ? extends T> call) {
+        requireNonNull(requests, "requests cannot be null");
+        requireNonNull(toolName, "toolName cannot be null");
+        requireNonNull(call, "call cannot be null");
+
+        if (executor == null) {
+            final var results = new ArrayList<T>(requests.size());
+            for (var request : requests) {
+                try {
+                    results.add(call.apply(request));
+                } catch (Throwable ex) {
+                    return failedFuture(ex);
+                }
+            }
+            return completedFuture(results);
+        }
+
+        return FutureUtils.forkJoin(requests.size(), index -> {
+            final var request = requests.get(index);
+            final var name = toolName.apply(request);
+            final CompletableFuture<T> result = FutureUtils.supplyInterruptibly(() -> completedFuture(call.apply(request)), executor);
+            // completes the call future itself, so the timeout interrupts the call. The timer is cancelled as soon
+            // as the call completes
+            timeout(name).ifPresent(value -> result.orTimeout(value.toMillis(), TimeUnit.MILLISECONDS));
+            return result;
+        }, maxConcurrency);
+    }
+
+    @Override
+    public String toString() {
+        return (executor == null) ?
+                "ToolExecutionPolicy{sequential}" :
+                format("ToolExecutionPolicy{maxConcurrency=%d, timeout=%s, toolTimeouts=%s}", maxConcurrency, timeout, toolTimeouts);
+    }
+}
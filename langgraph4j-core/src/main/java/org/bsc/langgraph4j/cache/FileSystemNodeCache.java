@@ -0,0 +1,191 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.LG4JLoggable;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link NodeCache} that persists the results in the filesystem, so they survive the process and can be shared
+ * by several processes using the same folder.
+ * <p>
+ * The results of each node are kept in a sub folder of the given folder, one file for each cache key, named by
+ * the hash of the serialized key. Keys and results are serialized through the given {@link StateSerializer}
+ * (usually the one of the graph, see {@code StateGraph.getStateSerializer()}).
+ * A cache hit refreshes the file modification time, that is used to evict the least recently used results when
+ * the max size of the node is exceeded.
+ * </p>
+ * <p>
+ * IO errors don't fail the node: they are logged and the lookup is handled as a miss.
+ * </p>
+ */
+public class FileSystemNodeCache implements NodeCache, LG4JLoggable {
+    public static final String EXTENSION = ".cache";
+
+    private static final String KEY = "key";
+
+    private final Path folder;
+    private final StateSerializer<?> serializer;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FileSystemNodeCache(Path folder, StateSerializer<?> serializer) {
+        this.folder = requireNonNull(folder, "folder cannot be null");
+        this.serializer = requireNonNull(serializer, "serializer cannot be null");
+    }
+
+    private Path nodeFolder(String nodeId) {
+        return folder.resolve(URLEncoder.encode(requireNonNull(nodeId, "nodeId cannot be null"), StandardCharsets.UTF_8));
+    }
+
+    private byte[] keyToBytes(Object key) throws IOException {
+        final var data = new HashMap<String, Object>();
+        data.put(KEY, key);
+        return serializer.dataToBytes(data);
+    }
+
+    private Path fileOf(Path nodeFolder, byte[] key) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(key);
+            return nodeFolder.resolve(HexFormat.of().formatHex(digest) + EXTENSION);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public Optional<Map<String, Object>> get(String nodeId, Object key) {
+        try {
+            final var keyBytes = keyToBytes(key);
+            final var file = fileOf(nodeFolder(nodeId), keyBytes);
+            if (Files.exists(file)) {
+                try (var in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+                    final var expiresAt = in.readLong();
+                    final var storedKey = in.readNBytes(in.readInt());
+                    if (expiresAt != 0 && System.currentTimeMillis() >= expiresAt) {
+                        Files.deleteIfExists(file);
+                        evictions.increment();
+                    } else if (Arrays.equals(keyBytes, storedKey)) {
+                        final var result = serializer.dataFromBytes(in.readAllBytes());
+                        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                        hits.increment();
+                        return Optional.of(result);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("error reading cached result of node '{}'", nodeId, ex);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String nodeId, Object key, Map<String, Object> result, NodeCachePolicy policy) {
+        requireNonNull(result, "result cannot be null");
+        requireNonNull(policy, "policy cannot be null");
+        try {
+            final var keyBytes = keyToBytes(key);
+            final var nodeFolder = nodeFolder(nodeId);
+            Files.createDirectories(nodeFolder);
+
+            final var bytes = new ByteArrayOutputStream();
+            try (var out = new DataOutputStream(bytes)) {
+                out.writeLong((policy.ttl() != null) ? System.currentTimeMillis() + policy.ttl().toMillis() : 0);
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.write(serializer.dataToBytes(result));
+            }
+            final var file = fileOf(nodeFolder, keyBytes);
+            final var tmp = Files.createTempFile(nodeFolder, "result", ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            evictLeastRecentlyUsed(nodeFolder, file, policy.maxSize());
+        } catch (Exception ex) {
+            log.warn("error caching result of node '{}'", nodeId, ex);
+        }
+    }
+
+    private List<Path> filesOf(Path nodeFolder) throws IOException {
+        if (!Files.isDirectory(nodeFolder)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(nodeFolder)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).toList();
+        }
+    }
+
+    private void evictLeastRecentlyUsed(Path nodeFolder, Path written, int maxSize) throws IOException {
+        final var files = filesOf(nodeFolder);
+        if (files.size() <= maxSize) {
+            return;
+        }
+        // the modification times have a coarse resolution, the result just written is never evicted
+        final var sorted = new ArrayList<>(files);
+        sorted.remove(written);
+        sorted.sort(Comparator.comparingLong(file -> {
+            try {
+                return Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException ex) {
+                return 0L;
+            }
+        }));
+        for (var file : sorted.subList(0, files.size() - maxSize)) {
+            if (Files.deleteIfExists(file)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    @Override
+    public void clear(String nodeId) {
+        try {
+            for (var file : filesOf(nodeFolder(nodeId))) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ex) {
+            log.warn("error clearing cached results of node '{}'", nodeId, ex);
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        long size = 0;
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> nodeFolders = Files.list(folder)) {
+                for (var nodeFolder : nodeFolders.toList()) {
+                    size += filesOf(nodeFolder).size();
+                }
+            } catch (IOException ex) {
+                log.warn("error reading cache folder '{}'", folder, ex);
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+}
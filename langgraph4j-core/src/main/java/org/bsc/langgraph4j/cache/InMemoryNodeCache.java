@@ -0,0 +1,106 @@
+package org.bsc.langgraph4j.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link NodeCache} that keeps the results in memory, in a LRU map for each node.
+ * <p>
+ * Expired results are dropped on lookup, or evicted as least recently used ones.
+ * </p>
+ */
+public class InMemoryNodeCache implements NodeCache {
+
+    private record Entry(Map<String, Object> result, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+
+    private static final class Results extends LinkedHashMap<Object, Entry> {
+        private final LongAdder evictions;
+        private int maxSize = Integer.MAX_VALUE;
+
+        Results(LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final Map<String, Results> resultsByNode = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Results resultsOf(String nodeId) {
+        return resultsByNode.computeIfAbsent(requireNonNull(nodeId, "nodeId cannot be null"), id -> new Results(evictions));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> get(String nodeId, Object key) {
+        final var results = resultsOf(nodeId);
+        synchronized (results) {
+            final var entry = results.get(key);
+            if (entry != null) {
+                if (!entry.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return Optional.of(entry.result());
+                }
+                results.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String nodeId, Object key, Map<String, Object> result, NodeCachePolicy policy) {
+        requireNonNull(result, "result cannot be null");
+        requireNonNull(policy, "policy cannot be null");
+        long expiresAt = 0;
+        if (policy.ttl() != null) {
+            // 0 means never
+            expiresAt = (System.nanoTime() + policy.ttl().toNanos()) | 1;
+        }
+        final var entry = new Entry(Collections.unmodifiableMap(new HashMap<>(result)), expiresAt);
+        final var results = resultsOf(nodeId);
+        synchronized (results) {
+            results.maxSize = policy.maxSize();
+            results.put(key, entry);
+        }
+    }
+
+    @Override
+    public void clear(String nodeId) {
+        resultsByNode.remove(nodeId);
+    }
+
+    @Override
+    public Stats stats() {
+        long size = 0;
+        for (var results : resultsByNode.values()) {
+            synchronized (results) {
+                size += results.size();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+}
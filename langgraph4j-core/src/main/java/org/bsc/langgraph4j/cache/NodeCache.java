@@ -0,0 +1,58 @@
+package org.bsc.langgraph4j.cache;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the results of the nodes that have a {@link NodeCachePolicy}.
+ * <p>
+ * The results are partitioned by node id, so a cache can be shared by several nodes. Implementations must be
+ * thread-safe.
+ * </p>
+ */
+public interface NodeCache {
+
+    /**
+     * Snapshot of the cache metrics
+     *
+     * @param hits      number of lookups that found a result
+     * @param misses    number of lookups that didn't find a result (or found an expired one)
+     * @param evictions number of results evicted by the max size limit or expired
+     * @param size      number of results currently cached
+     */
+    record Stats(long hits, long misses, long evictions, long size) {}
+
+    /**
+     * Looks up the result of the given node for the given key
+     *
+     * @param nodeId the node id
+     * @param key    the cache key
+     * @return the cached result, empty if missing or expired
+     */
+    Optional<Map<String, Object>> get(String nodeId, Object key);
+
+    /**
+     * Stores the result of the given node for the given key, applying the time to live and the max size of the
+     * given policy
+     *
+     * @param nodeId the node id
+     * @param key    the cache key
+     * @param result the node result
+     * @param policy the node cache policy
+     */
+    void put(String nodeId, Object key, Map<String, Object> result, NodeCachePolicy policy);
+
+    /**
+     * Removes all the cached results of the given node
+     *
+     * @param nodeId the node id
+     */
+    void clear(String nodeId);
+
+    /**
+     * Returns the cache metrics
+     *
+     * @return the metrics snapshot
+     */
+    Stats stats();
+}
@@ -0,0 +1,154 @@
+package org.bsc.langgraph4j.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Caches the results of a deterministic node, so that it is not run again with the same input.
+ * <p>
+ * Before running the node, the cache key is computed from its input state, as updated by the before call hooks
+ * (by default from the whole state, see {@link Builder#keys(String...)}) and, if the cache holds a result for it,
+ * the result is used in place of running the node action. The node hooks run in both cases and the wrap and after
+ * call hooks can check if the result comes from the cache through
+ * {@link org.bsc.langgraph4j.RunnableConfig#nodeCacheHit()}.
+ * </p>
+ * <p>
+ * The results are kept by a {@link NodeCache}, by default an {@link InMemoryNodeCache} owned by the policy, so
+ * they are shared by all the graphs (and threads) using the same policy instance.
+ * Results containing an embedded generator (e.g. a streaming response) are not cached.
+ * </p>
+ */
+public final class NodeCachePolicy {
+
+    /**
+     * The default max number of cached results of a node
+     */
+    public static final int DEFAULT_MAX_SIZE = 1_000;
+
+    private final Function<Map<String, Object>, Object> keyFunction;
+    private final Duration ttl;
+    private final int maxSize;
+    private final NodeCache cache;
+
+    private NodeCachePolicy(Builder builder) {
+        this.keyFunction = builder.keyFunction;
+        this.ttl = builder.ttl;
+        this.maxSize = builder.maxSize;
+        this.cache = (builder.cache != null) ? builder.cache : new InMemoryNodeCache();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Function<Map<String, Object>, Object> keyFunction = HashMap::new;
+        private Duration ttl;
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private NodeCache cache;
+
+        /**
+         * Sets the function that computes the cache key from the node input state.
+         * The key must implement {@code equals} and {@code hashCode} (and be serializable for a persistent cache).
+         *
+         * @param keyFunction the key function, it receives the state data
+         * @return this builder
+         */
+        public Builder key(Function<Map<String, Object>, Object> keyFunction) {
+            this.keyFunction = Objects.requireNonNull(keyFunction, "keyFunction cannot be null");
+            return this;
+        }
+
+        /**
+         * Uses as cache key the values of the given channels of the node input state
+         *
+         * @param channels the names of the channels read by the node
+         * @return this builder
+         */
+        public Builder keys(String... channels) {
+            Objects.requireNonNull(channels, "channels cannot be null");
+            final var names = List.of(channels);
+            return key(data -> Arrays.asList(names.stream().map(data::get).toArray()));
+        }
+
+        /**
+         * Sets the time after that a cached result expires
+         *
+         * @param ttl the time to live, null to never expire
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl) {
+            if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+                throw new IllegalArgumentException("ttl must be > 0!");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the max number of cached results of the node, the least recently used ones are evicted
+         *
+         * @param maxSize the max number of results
+         * @return this builder
+         */
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize must be > 0!");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the cache that keeps the results, by default a new {@link InMemoryNodeCache}
+         *
+         * @param cache the cache
+         * @return this builder
+         */
+        public Builder cache(NodeCache cache) {
+            this.cache = Objects.requireNonNull(cache, "cache cannot be null");
+            return this;
+        }
+
+        public NodeCachePolicy build() {
+            return new NodeCachePolicy(this);
+        }
+    }
+
+    /**
+     * Computes the cache key of the given node input state
+     *
+     * @param data the state data
+     * @return the cache key
+     */
+    public Object keyOf(Map<String, Object> data) {
+        return keyFunction.apply(data);
+    }
+
+    /**
+     * Returns the time to live of the cached results
+     *
+     * @return the time to live, null if the results never expire
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public NodeCache cache() {
+        return cache;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeCachePolicy{ttl=%s, maxSize=%d, cache=%s}".formatted(ttl, maxSize, cache.getClass().getSimpleName());
+    }
+}
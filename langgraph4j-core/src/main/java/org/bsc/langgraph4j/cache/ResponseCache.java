@@ -0,0 +1,263 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.LG4JLoggable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class of the caches of the model responses, so that identical requests (e.g. in evaluation runs or in
+ * fan-out workloads) don't call the model again.
+ * <p>
+ * Identical requests in flight at the same time are coalesced: only the first one (the leader) calls the model,
+ * the others wait for its response. The responses are kept by the {@link NodeCache} of the
+ * {@link ResponseCachePolicy}, an error storing a response is logged and doesn't fail the request.
+ * The subclasses compute the request keys and convert the responses to and from the cached data.
+ * </p>
+ *
+ * @param <R> the type of the model response
+ */
+public abstract class ResponseCache<R> implements LG4JLoggable {
+
+    private final ResponseCachePolicy policy;
+    private final Map<String, CompletableFuture<R>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    protected ResponseCache(ResponseCachePolicy policy) {
+        this.policy = requireNonNull(policy, "policy cannot be null");
+    }
+
+    /**
+     * Converts a response to the data to cache
+     *
+     * @param response the model response
+     * @return the data to cache, null if the response must not be cached
+     */
+    protected abstract Map<String, Object> toData(R response);
+
+    /**
+     * Converts the cached data to a response
+     *
+     * @param data the cached data
+     * @return the model response
+     */
+    protected abstract R fromData(Map<String, Object> data);
+
+    /**
+     * Computes a request key as the SHA-256 hash of the given request fields
+     */
+    protected static final class KeyBuilder {
+        private final MessageDigest digest;
+
+        public KeyBuilder() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        /**
+         * Adds a request field
+         *
+         * @param value the field value, a byte array is added as is, the other values as their string form
+         * @return this builder
+         */
+        public KeyBuilder add(Object value) {
+            if (value instanceof byte[] bytes) {
+                digest.update(bytes);
+            } else if (value != null) {
+                digest.update(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            // field separator, so that adjacent values cannot be confused
+            digest.update((byte) 0);
+            return this;
+        }
+
+        /**
+         * Returns the request key
+         *
+         * @return the hex encoded hash of the added fields
+         */
+        public String build() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    /**
+     * A request that didn't find its response in the cache.
+     * The leader must call the model and then {@link #complete(Object)} or {@link #fail(Throwable)} the flight,
+     * the others wait for the {@link #response()}.
+     */
+    protected final class Flight {
+        private final String key;
+        private final CompletableFuture<R> response;
+        private final boolean leader;
+
+        private Flight(String key, CompletableFuture<R> response, boolean leader) {
+            this.key = key;
+            this.response = response;
+            this.leader = leader;
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Returns the response of the leader, a copy of it so that a cancelled follower doesn't cancel the others
+         *
+         * @return the response future
+         */
+        public CompletableFuture<R> response() {
+            return response.copy();
+        }
+
+        /**
+         * Stores the response of the leader and delivers it to the others
+         *
+         * @param result the model response
+         */
+        public void complete(R result) {
+            try {
+                store(key, result);
+            } finally {
+                inFlight.remove(key, response);
+                response.complete(result);
+            }
+        }
+
+        /**
+         * Delivers the error of the leader to the others
+         *
+         * @param error the model error
+         */
+        public void fail(Throwable error) {
+            inFlight.remove(key, response);
+            response.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Looks up the cached response of a request
+     *
+     * @param key the request key
+     * @return the cached response, empty if missing, expired or unreadable
+     */
+    protected final Optional<R> lookup(String key) {
+        try {
+            return policy.cache().get(policy.namespace(), key).map(this::fromData);
+        } catch (RuntimeException ex) {
+            log.warn("error reading the cached response '{}'", key, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts a request that didn't find its response in the cache, joining an identical request in flight if any
+     *
+     * @param key the request key
+     * @return the flight of the request
+     */
+    protected final Flight begin(String key) {
+        final var response = new CompletableFuture<R>();
+        final var leader = inFlight.putIfAbsent(key, response);
+        if (leader != null) {
+            coalesced.increment();
+            return new Flight(key, leader, false);
+        }
+        return new Flight(key, response, true);
+    }
+
+    private void store(String key, R response) {
+        try {
+            final var data = toData(response);
+            if (data != null) {
+                policy.cache().put(policy.namespace(), key, data, policy.storePolicy());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("error caching the response '{}'", key, ex);
+        }
+    }
+
+    /**
+     * Unwraps the error of a coalesced request
+     *
+     * @param ex the error of the leader
+     * @return the error to throw
+     */
+    protected static RuntimeException unwrap(Throwable ex) {
+        final var cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+        return (cause instanceof RuntimeException runtime) ? runtime : new CompletionException(cause);
+    }
+
+    /**
+     * Returns the cached response of the request or calls the model
+     *
+     * @param key  the request key
+     * @param call the model call
+     * @return the model response
+     */
+    public R call(String key, Supplier<R> call) {
+        requireNonNull(key, "key cannot be null");
+        requireNonNull(call, "call cannot be null");
+
+        final var cached = lookup(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        final var flight = begin(key);
+        if (!flight.isLeader()) {
+            try {
+                return flight.response().join();
+            } catch (Exception ex) {
+                throw unwrap(ex);
+            }
+        }
+
+        final R response;
+        try {
+            response = call.get();
+        } catch (Throwable ex) {
+            // any failure, errors included, must release the followers and the key
+            flight.fail(ex);
+            throw ex;
+        }
+        flight.complete(response);
+        return response;
+    }
+
+    /**
+     * Returns the number of requests that have been coalesced with an identical request in flight
+     *
+     * @return the number of coalesced requests
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the metrics of the underlying cache
+     *
+     * @return the cache metrics
+     */
+    public NodeCache.Stats stats() {
+        return policy.cache().stats();
+    }
+
+    public ResponseCachePolicy policy() {
+        return policy;
+    }
+}
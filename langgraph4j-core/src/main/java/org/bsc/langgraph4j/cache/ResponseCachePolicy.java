@@ -0,0 +1,135 @@
+package org.bsc.langgraph4j.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configures a {@link ResponseCache}: where the responses are kept, for how long and how many of them.
+ * <p>
+ * The responses are kept by a {@link NodeCache}, by default an {@link InMemoryNodeCache} owned by the policy, in
+ * the partition named by {@link #namespace()}, so a cache can be shared by several models (or with the nodes)
+ * using different namespaces.
+ * </p>
+ */
+public final class ResponseCachePolicy {
+
+    /**
+     * The default partition of the {@link NodeCache} used for the responses
+     */
+    public static final String DEFAULT_NAMESPACE = "__chat_model__";
+
+    private final String namespace;
+    private final NodeCachePolicy storePolicy;
+
+    private ResponseCachePolicy(Builder builder) {
+        this.namespace = builder.namespace;
+        final var storePolicy = NodeCachePolicy.builder()
+                .ttl(builder.ttl)
+                .maxSize(builder.maxSize);
+        if (builder.cache != null) {
+            storePolicy.cache(builder.cache);
+        }
+        this.storePolicy = storePolicy.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String namespace = DEFAULT_NAMESPACE;
+        private Duration ttl;
+        private int maxSize = NodeCachePolicy.DEFAULT_MAX_SIZE;
+        private NodeCache cache;
+
+        /**
+         * Sets the partition of the cache where the responses are stored, by default {@link #DEFAULT_NAMESPACE}
+         *
+         * @param namespace the partition name
+         * @return this builder
+         */
+        public Builder namespace(String namespace) {
+            this.namespace = Objects.requireNonNull(namespace, "namespace cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the time after that a cached response expires
+         *
+         * @param ttl the time to live, null to never expire
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl) {
+            if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+                throw new IllegalArgumentException("ttl must be > 0!");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the max number of cached responses, the least recently used ones are evicted
+         *
+         * @param maxSize the max number of responses
+         * @return this builder
+         */
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize must be > 0!");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the cache that keeps the responses, by default a new {@link InMemoryNodeCache}
+         *
+         * @param cache the cache
+         * @return this builder
+         */
+        public Builder cache(NodeCache cache) {
+            this.cache = Objects.requireNonNull(cache, "cache cannot be null");
+            return this;
+        }
+
+        public ResponseCachePolicy build() {
+            return new ResponseCachePolicy(this);
+        }
+    }
+
+    public String namespace() {
+        return namespace;
+    }
+
+    /**
+     * Returns the time to live of the cached responses
+     *
+     * @return the time to live, null if the responses never expire
+     */
+    public Duration ttl() {
+        return storePolicy.ttl();
+    }
+
+    public int maxSize() {
+        return storePolicy.maxSize();
+    }
+
+    public NodeCache cache() {
+        return storePolicy.cache();
+    }
+
+    /**
+     * Returns the node cache policy passed to {@link NodeCache#put(String, Object, java.util.Map, NodeCachePolicy)}
+     *
+     * @return the policy with the same time to live, max size and cache
+     */
+    NodeCachePolicy storePolicy() {
+        return storePolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCachePolicy{namespace=%s, ttl=%s, maxSize=%d, cache=%s}"
+                .formatted(namespace, ttl(), maxSize(), cache().getClass().getSimpleName());
+    }
+}
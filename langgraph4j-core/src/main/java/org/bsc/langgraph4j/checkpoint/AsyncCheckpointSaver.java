@@ -0,0 +1,371 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.LG4JLoggable;
+import org.bsc.langgraph4j.RunnableConfig;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A CheckpointSaver that writes the checkpoints of another saver in background (write-behind).
+ * <p>
+ * Puts are queued in a bounded queue (a put waits when the queue is full) and a single writer thread drains it,
+ * passing up to {@link Builder#maxBatchSize(int)} checkpoints, coming from any graph thread, to
+ * {@link BaseCheckpointSaver#putAll(List)} of the target saver. Savers that override it write the whole batch in a
+ * single transaction or round trip (group commit).
+ * </p>
+ * <p>
+ * The checkpoints of a thread are written in the same order they have been put. Reading or releasing a thread
+ * ({@link #list(RunnableConfig)}, {@link #get(RunnableConfig)}, {@link #release(RunnableConfig)}) waits for its
+ * pending writes, so the pending checkpoints are always visible. When the durability requires it, the graph waits
+ * for the pending writes (through {@link #flush(RunnableConfig)}) before it completes or it is interrupted, so a
+ * resume (possibly from another process) finds the last checkpoint.
+ * </p>
+ * <p>
+ * A failed write is reported by the next barrier on the same thread (put in {@link Durability#SYNC} mode, flush, or
+ * read).
+ * </p>
+ */
+public final class AsyncCheckpointSaver implements BaseCheckpointSaver, AutoCloseable, LG4JLoggable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    /**
+     * When the graph waits for the checkpoints to be written
+     */
+    public enum Durability {
+        /**
+         * Every put waits for its checkpoint to be written, concurrent puts are still grouped in a single batch.
+         */
+        SYNC,
+        /**
+         * The graph never waits, pending checkpoints are lost if the process exits before they are written.
+         */
+        ASYNC,
+        /**
+         * The graph waits only before it completes or it is interrupted.
+         */
+        EXIT
+    }
+
+    /**
+     * Pending writes of a thread
+     */
+    private static final class PendingWrites {
+        int count;          // guarded by this
+        Throwable failure;  // guarded by this
+    }
+
+    private record Write(String threadId, PutRequest request) {}
+
+    private static final Write STOP = new Write(null, null);
+
+    private final BaseCheckpointSaver saver;
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final BlockingQueue<Write> queue;
+    private final Map<String, PendingWrites> pendingByThread = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean closed;        // no more puts are accepted
+    private volatile boolean terminated;    // the writer has drained the queue for the last time
+
+    private AsyncCheckpointSaver(Builder builder) {
+        this.saver = requireNonNull(builder.saver, "saver cannot be null");
+        this.durability = builder.durability;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.writer = new Thread(this::writeLoop, "langgraph4j-checkpoint-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private BaseCheckpointSaver saver;
+        private Durability durability = Durability.EXIT;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+        /**
+         * Sets the saver that actually writes the checkpoints
+         *
+         * @param saver the target saver
+         * @return this builder
+         */
+        public Builder saver(BaseCheckpointSaver saver) {
+            this.saver = saver;
+            return this;
+        }
+
+        /**
+         * Sets when the graph waits for the checkpoints to be written, by default {@link Durability#EXIT}
+         *
+         * @param durability the durability mode
+         * @return this builder
+         */
+        public Builder durability(Durability durability) {
+            this.durability = requireNonNull(durability, "durability cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the max number of pending checkpoints, further puts wait for the writer
+         *
+         * @param queueCapacity the queue capacity
+         * @return this builder
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity must be > 0!");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the max number of checkpoints written in a single batch
+         *
+         * @param maxBatchSize the max batch size
+         * @return this builder
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be > 0!");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public AsyncCheckpointSaver build() {
+            return new AsyncCheckpointSaver(this);
+        }
+    }
+
+    public Durability durability() {
+        return durability;
+    }
+
+    @Override
+    public DeltaMode deltaMode() {
+        return saver.deltaMode();
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        awaitWritesUnchecked(threadIdOf(config));
+        return saver.list(config);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        awaitWritesUnchecked(threadIdOf(config));
+        return saver.get(config);
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        requireNonNull(checkpoint, "checkpoint cannot be null");
+        if (closed) {
+            throw new IllegalStateException("saver is closed");
+        }
+        final var threadId = threadIdOf(config);
+
+        pendingByThread.compute(threadId, (key, pending) -> {
+            final var result = (pending != null) ? pending : new PendingWrites();
+            synchronized (result) {
+                result.count++;
+            }
+            return result;
+        });
+        final var write = new Write(threadId, new PutRequest(config, checkpoint));
+        try {
+            while (!queue.offer(write, 100, TimeUnit.MILLISECONDS)) {
+                if (terminated) {
+                    done(threadId, null);
+                    throw new IllegalStateException("saver is closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            done(threadId, null);
+            throw e;
+        }
+        // the writer may have terminated after the check above: either it has drained this write in its
+        // last pass, or this put takes it back, never both
+        if (terminated && queue.remove(write)) {
+            done(threadId, null);
+            throw new IllegalStateException("saver is closed");
+        }
+
+        if (durability == Durability.SYNC) {
+            awaitWrites(threadId);
+        }
+
+        if (config.checkPointId().isPresent()) { // Replace Checkpoint
+            return config;
+        }
+        return RunnableConfig.builder(config)
+                .checkPointId(checkpoint.getId())
+                .build();
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        awaitWrites(threadIdOf(config));
+        return saver.release(config);
+    }
+
+    /**
+     * Waits for the pending writes of the thread, unless the durability is {@link Durability#ASYNC}
+     *
+     * @param config the config of the thread
+     * @throws Exception if a pending write failed
+     */
+    @Override
+    public void flush(RunnableConfig config) throws Exception {
+        if (durability != Durability.ASYNC) {
+            awaitWrites(threadIdOf(config));
+        }
+    }
+
+    /**
+     * Stops accepting puts and waits until all the pending checkpoints are written. If the calling thread is
+     * interrupted while waiting, it returns with the interrupt status set and the writer goes on in background.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed && !writer.isAlive()) {
+            return;
+        }
+        closed = true;
+        try {
+            while (!terminated && !queue.offer(STOP, 100, TimeUnit.MILLISECONDS)) {
+                // the queue is full, wait for the writer
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("interrupted waiting for the checkpoint writer, pending checkpoints are written in background");
+        }
+    }
+
+    private static String threadIdOf(RunnableConfig config) {
+        return requireNonNull(config, "config cannot be null").threadId().orElse(THREAD_ID_DEFAULT);
+    }
+
+    private void awaitWrites(String threadId) throws InterruptedException {
+        final var pending = pendingByThread.get(threadId);
+        if (pending == null) {
+            return;
+        }
+        final Throwable failure;
+        synchronized (pending) {
+            while (pending.count > 0) {
+                pending.wait();
+            }
+            failure = pending.failure;
+            pending.failure = null;
+        }
+        if (failure != null) {
+            pendingByThread.computeIfPresent(threadId, (key, value) -> pruned(value));
+            throw new IllegalStateException(format("unable to write checkpoints of thread '%s'", threadId), failure);
+        }
+    }
+
+    private void awaitWritesUnchecked(String threadId) {
+        try {
+            awaitWrites(threadId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("interrupted waiting for checkpoints of thread '%s'", threadId), e);
+        }
+    }
+
+    /**
+     * Returns null (to remove the mapping) if the pending writes have been completed without failures
+     */
+    private static PendingWrites pruned(PendingWrites pending) {
+        synchronized (pending) {
+            return (pending.count == 0 && pending.failure == null) ? null : pending;
+        }
+    }
+
+    private void done(String threadId, Throwable failure) {
+        pendingByThread.computeIfPresent(threadId, (key, pending) -> {
+            synchronized (pending) {
+                pending.count--;
+                if (failure != null && pending.failure == null) {
+                    pending.failure = failure;
+                }
+                pending.notifyAll();
+            }
+            return pruned(pending);
+        });
+    }
+
+    private void completed(List<Write> batch, Throwable failure) {
+        for (var write : batch) {
+            done(write.threadId(), failure);
+        }
+    }
+
+    private void write(List<Write> batch) {
+        try {
+            saver.putAll(batch.stream().map(Write::request).toList());
+            completed(batch, null);
+        } catch (Throwable e) {
+            log.error("error writing {} checkpoints", batch.size(), e);
+            completed(batch, e);
+        }
+    }
+
+    private void writeLoop() {
+        final var batch = new ArrayList<Write>(maxBatchSize);
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                log.warn("checkpoint writer interrupted, pending checkpoints are written before exit");
+                closed = true;
+                stopped = true;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            stopped |= writeBatch(batch);
+        }
+
+        // write what is left, then the last pass picks up the puts that raced with the termination
+        do {
+            queue.drainTo(batch, maxBatchSize);
+            writeBatch(batch);
+        } while (!queue.isEmpty());
+        terminated = true;
+        do {
+            queue.drainTo(batch, maxBatchSize);
+            writeBatch(batch);
+        } while (!queue.isEmpty());
+    }
+
+    /**
+     * Writes and clears the batch
+     *
+     * @return true if the batch contained the stop signal
+     */
+    private boolean writeBatch(List<Write> batch) {
+        final boolean stop = batch.removeIf(write -> write == STOP);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        batch.clear();
+        return stop;
+    }
+}
@@ -16,6 +16,67 @@ public interface BaseCheckpointSaver {
         }
     }
 
+    /**
+     * Controls how the checkpoint states are persisted.
+     * <p>
+     * When enabled, a saver persists only the difference (see {@link CheckpointDelta}) between a checkpoint and its
+     * predecessor, plus a full snapshot every {@code fullSnapshotInterval} checkpoints, so that the chain to replay
+     * on load is bounded.
+     * </p>
+     *
+     * @param fullSnapshotInterval number of checkpoints between two full snapshots, 0 to always persist full snapshots
+     */
+    record DeltaMode(int fullSnapshotInterval) {
+        public static final DeltaMode DISABLED = new DeltaMode(0);
+
+        public DeltaMode {
+            if (fullSnapshotInterval < 0) {
+                throw new IllegalArgumentException("fullSnapshotInterval must be >= 0!");
+            }
+        }
+
+        /**
+         * Creates a delta mode that persists a full snapshot every given number of checkpoints
+         *
+         * @param checkpoints number of checkpoints between two full snapshots
+         * @return the delta mode
+         */
+        public static DeltaMode fullSnapshotEvery(int checkpoints) {
+            if (checkpoints <= 0) {
+                throw new IllegalArgumentException("checkpoints must be > 0!");
+            }
+            return new DeltaMode(checkpoints);
+        }
+
+        public boolean isEnabled() {
+            return fullSnapshotInterval > 0;
+        }
+
+        /**
+         * Tells whether the checkpoint at the given position (0 is the oldest one of the thread) must be persisted as a
+         * full snapshot
+         *
+         * @param position position of the checkpoint starting from the oldest one
+         * @return true if a full snapshot is required
+         */
+        public boolean isFullSnapshot(int position) {
+            return !isEnabled() || position % fullSnapshotInterval == 0;
+        }
+    }
+
+    /**
+     * A checkpoint to put, together with its config
+     *
+     * @param config     the config of the put
+     * @param checkpoint the checkpoint to put
+     */
+    record PutRequest(RunnableConfig config, Checkpoint checkpoint) {
+        public PutRequest {
+            Objects.requireNonNull(config, "config cannot be null");
+            Objects.requireNonNull(checkpoint, "checkpoint cannot be null");
+        }
+    }
+
     Collection<Checkpoint> list(RunnableConfig config);
 
     Optional<Checkpoint> get(RunnableConfig config);
@@ -24,4 +85,38 @@ public interface BaseCheckpointSaver {
 
     Tag release(RunnableConfig config) throws Exception;
 
+    /**
+     * Puts a group of checkpoints, in order. Savers backed by a store can override it to write the whole group in a
+     * single transaction or round trip (group commit).
+     *
+     * @param requests the checkpoints to put
+     * @throws Exception if an error occurs, in that case the checkpoints could be partially written
+     */
+    default void putAll(List<PutRequest> requests) throws Exception {
+        for (var request : requests) {
+            put(request.config(), request.checkpoint());
+        }
+    }
+
+    /**
+     * Barrier invoked by the graph before it completes or it is interrupted, savers that write asynchronously make
+     * the checkpoints of the thread durable according to their policy.
+     * By default, checkpoints are written synchronously, so it does nothing.
+     *
+     * @param config the config of the thread
+     * @throws Exception if a pending write failed
+     * @see AsyncCheckpointSaver
+     */
+    default void flush(RunnableConfig config) throws Exception {
+    }
+
+    /**
+     * Returns the mode used to persist the checkpoint states, by default full snapshots are persisted.
+     *
+     * @return the delta mode
+     */
+    default DeltaMode deltaMode() {
+        return DeltaMode.DISABLED;
+    }
+
 }
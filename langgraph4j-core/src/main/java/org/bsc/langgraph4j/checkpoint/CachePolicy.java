@@ -0,0 +1,222 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounds the checkpoints that a persistent {@link MemorySaver} keeps in memory.
+ * <p>
+ * When a limit is exceeded the least recently used threads are evicted from memory and transparently reloaded
+ * from the backing store on next access. Threads not accessed for longer than {@link #expireAfterAccess()} are
+ * evicted as well. When a thread holds more than {@link #maxCheckpointsPerThread()} checkpoints the oldest ones
+ * are dropped from memory, and the thread is reloaded from the store only if a dropped checkpoint is requested.
+ * </p>
+ * <p>
+ * The memory used by a thread is estimated through a weigher, by default {@link #estimateSize(Checkpoint)}.
+ * </p>
+ */
+public final class CachePolicy {
+
+    /**
+     * The policy that never evicts, the default one.
+     */
+    public static final CachePolicy UNBOUNDED = builder().build();
+
+    /**
+     * Snapshot of the cache metrics
+     *
+     * @param hits           number of accesses to threads already in memory
+     * @param misses         number of accesses that required loading a thread from the store
+     * @param evictions      number of threads evicted from memory
+     * @param trimmed        number of checkpoints dropped by the max checkpoints per thread limit
+     * @param threads        number of threads currently in memory
+     * @param estimatedBytes estimated size of the checkpoints currently in memory
+     */
+    public record Stats(long hits, long misses, long evictions, long trimmed, int threads, long estimatedBytes) {}
+
+    private static final int MAX_ESTIMATE_DEPTH = 4;
+
+    private final int maxThreads;
+    private final int maxCheckpointsPerThread;
+    private final long maxBytes;
+    private final Duration expireAfterAccess;
+    private final ToLongFunction<Checkpoint> weigher;
+
+    private CachePolicy(Builder builder) {
+        this.maxThreads = builder.maxThreads;
+        this.maxCheckpointsPerThread = builder.maxCheckpointsPerThread;
+        this.maxBytes = builder.maxBytes;
+        this.expireAfterAccess = builder.expireAfterAccess;
+        this.weigher = builder.weigher;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxThreads = Integer.MAX_VALUE;
+        private int maxCheckpointsPerThread = Integer.MAX_VALUE;
+        private long maxBytes = Long.MAX_VALUE;
+        private Duration expireAfterAccess = null;
+        private ToLongFunction<Checkpoint> weigher = CachePolicy::estimateSize;
+
+        /**
+         * Sets the max number of threads kept in memory, the least recently used ones are evicted
+         *
+         * @param maxThreads max number of threads
+         * @return this builder
+         */
+        public Builder maxThreads(int maxThreads) {
+            if (maxThreads <= 0) {
+                throw new IllegalArgumentException("maxThreads must be > 0!");
+            }
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        /**
+         * Sets the max number of checkpoints kept in memory for each thread, the oldest ones are dropped
+         *
+         * @param maxCheckpointsPerThread max number of checkpoints per thread
+         * @return this builder
+         */
+        public Builder maxCheckpointsPerThread(int maxCheckpointsPerThread) {
+            if (maxCheckpointsPerThread <= 0) {
+                throw new IllegalArgumentException("maxCheckpointsPerThread must be > 0!");
+            }
+            this.maxCheckpointsPerThread = maxCheckpointsPerThread;
+            return this;
+        }
+
+        /**
+         * Sets the max estimated size of the checkpoints kept in memory, the least recently used threads are evicted
+         *
+         * @param maxBytes max estimated size in bytes
+         * @return this builder
+         */
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("maxBytes must be > 0!");
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets the time after that a thread not accessed is evicted
+         *
+         * @param expireAfterAccess the idle time, null to disable
+         * @return this builder
+         */
+        public Builder expireAfterAccess(Duration expireAfterAccess) {
+            if (expireAfterAccess != null && (expireAfterAccess.isNegative() || expireAfterAccess.isZero())) {
+                throw new IllegalArgumentException("expireAfterAccess must be > 0!");
+            }
+            this.expireAfterAccess = expireAfterAccess;
+            return this;
+        }
+
+        /**
+         * Sets the function used to estimate the size (in bytes) of a checkpoint
+         *
+         * @param weigher the checkpoint weigher
+         * @return this builder
+         */
+        public Builder weigher(ToLongFunction<Checkpoint> weigher) {
+            this.weigher = Objects.requireNonNull(weigher, "weigher cannot be null");
+            return this;
+        }
+
+        public CachePolicy build() {
+            return new CachePolicy(this);
+        }
+    }
+
+    public int maxThreads() {
+        return maxThreads;
+    }
+
+    public int maxCheckpointsPerThread() {
+        return maxCheckpointsPerThread;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public Duration expireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public ToLongFunction<Checkpoint> weigher() {
+        return weigher;
+    }
+
+    /**
+     * Checks if this policy can evict threads or drop checkpoints
+     *
+     * @return true if at least a limit is set
+     */
+    public boolean isBounded() {
+        return maxThreads != Integer.MAX_VALUE
+                || maxCheckpointsPerThread != Integer.MAX_VALUE
+                || maxBytes != Long.MAX_VALUE
+                || expireAfterAccess != null;
+    }
+
+    /**
+     * Rough estimation of the memory used by a checkpoint. Strings, numbers, collections and maps are estimated
+     * by their content (up to a nesting depth), any other value is given a fixed size.
+     * The state of a lazy checkpoint is not estimated until it has been loaded.
+     *
+     * @param checkpoint the checkpoint
+     * @return the estimated size in bytes
+     */
+    public static long estimateSize(Checkpoint checkpoint) {
+        long size = 64
+                + estimateSize(checkpoint.getId(), 0)
+                + estimateSize(checkpoint.getNodeId(), 0)
+                + estimateSize(checkpoint.getNextNodeId(), 0);
+        if (checkpoint.isStateLoaded()) {
+            size += estimateSize(checkpoint.getState(), 0);
+        }
+        return size;
+    }
+
+    private static long estimateSize(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence s) {
+            return 40 + 2L * s.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>) {
+            return 16;
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        if (depth >= MAX_ESTIMATE_DEPTH) {
+            return 64;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48;
+            for (var entry : map.entrySet()) {
+                size += 32 + estimateSize(entry.getKey(), depth + 1) + estimateSize(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 40;
+            for (var element : collection) {
+                size += 8 + estimateSize(element, depth + 1);
+            }
+            return size;
+        }
+        return 64;
+    }
+}
@@ -4,6 +4,7 @@ import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.Channel;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -13,20 +14,42 @@ import static java.util.Objects.requireNonNull;
  * The checkpoint is an immutable object that holds an {@link AgentState}
  * and a {@code String} that represents the next state.
  * The checkpoint is serializable and can be persisted and restored.
+ * The state can be provided lazily (see {@link Builder#lazyState(Supplier)}) so that savers can
+ * load checkpoints without decoding states that are never read.
  *
  * @see AgentState
  */
 public class Checkpoint {
 
     private final String id;
-    private Map<String,Object> state = null;
+    private volatile Map<String,Object> state = null;
+    private Supplier<Map<String,Object>> stateSupplier = null;
     private String nodeId = null ;
     private String nextNodeId = null;
 
     public String getId() { return id; }
 
     public Map<String, Object> getState() {
-        return state;
+        var result = state;
+        if( result == null ) {
+            synchronized (this) {
+                result = state;
+                if( result == null ) {
+                    result = state = requireNonNull( stateSupplier.get(), "state cannot be null" );
+                    stateSupplier = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the state is available without triggering its (lazy) loading
+     *
+     * @return true if the state has been loaded
+     */
+    boolean isStateLoaded() {
+        return state != null;
     }
 
     public String getNodeId() {
@@ -45,7 +68,7 @@ public class Checkpoint {
     public static Checkpoint copyOf( Checkpoint checkpoint ) {
         requireNonNull( checkpoint, "checkpoint cannot be null" );
         return new Checkpoint( UUID.randomUUID().toString(),
-                                checkpoint.state,
+                                checkpoint.getState(),
                                 checkpoint.nodeId,
                                 checkpoint.nextNodeId);
     }
@@ -59,6 +82,15 @@ public class Checkpoint {
 
     }
 
+    private Checkpoint( String id, Supplier<Map<String,Object>> stateSupplier, String nodeId, String nextNodeId ) {
+
+        this.id = requireNonNull( id, "id cannot be null" );
+        this.stateSupplier =  requireNonNull( stateSupplier, "state cannot be null" );
+        this.nodeId = requireNonNull( nodeId, "nodeId cannot be null" );
+        this.nextNodeId =  requireNonNull( nextNodeId, "Checkpoint.nextNodeId cannot be null" );
+
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -66,6 +98,7 @@ public class Checkpoint {
     public static class Builder {
         private String id = UUID.randomUUID().toString();
         private Map<String,Object> state = null;
+        private Supplier<Map<String,Object>> stateSupplier = null;
         private String nodeId = null ;
         private String nextNodeId = null;
 
@@ -79,6 +112,19 @@ public class Checkpoint {
         }
         public Builder state( Map<String,Object> state ) {
             this.state = state;
+            this.stateSupplier = null;
+            return this;
+        }
+
+        /**
+         * Sets a supplier that provides the state on first access, then the result is retained.
+         *
+         * @param stateSupplier the supplier of the checkpoint state
+         * @return this builder
+         */
+        public Builder lazyState( Supplier<Map<String,Object>> stateSupplier ) {
+            this.stateSupplier = stateSupplier;
+            this.state = null;
             return this;
         }
         public Builder nodeId( String nodeId ) {
@@ -91,6 +137,9 @@ public class Checkpoint {
         }
 
         public Checkpoint build() {
+            if( state == null && stateSupplier != null ) {
+                return new Checkpoint( id, stateSupplier, nodeId, nextNodeId );
+            }
             return new Checkpoint(  id,
                                     state,
                                     nodeId,
@@ -106,7 +155,7 @@ public class Checkpoint {
     public Checkpoint updateState(Map<String,Object> values, Map<String, Channel<?>> channels, String nextNodeId ) {
 
         return new Checkpoint( this.id,
-                AgentState.updateState( this.state, values, channels ),
+                AgentState.updateState( getState(), values, channels ),
                 this.nodeId,
                 requireNonNull(nextNodeId, "nextNodeId cannot be null") );
     }
@@ -117,7 +166,7 @@ public class Checkpoint {
                 id,
                 nodeId,
                 nextNodeId,
-                state
+                getState()
         );
     }
 
@@ -0,0 +1,187 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.utils.PersistentMap;
+
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes the state of a checkpoint as the difference from the state of its predecessor and decodes it back.
+ * <p>
+ * A delta is a plain state map, so it can be persisted by every saver with its own serializer. It holds:
+ * <ul>
+ *     <li>{@value #PARENT_KEY}: the id of the predecessor checkpoint</li>
+ *     <li>{@value #REMOVED_KEY}: the list of the keys removed from the predecessor state (if any)</li>
+ *     <li>{@value #APPEND_PREFIX}{@code <key>}: the elements appended to a list value
+ *     (e.g. the one managed by an {@link org.bsc.langgraph4j.state.AppenderChannel})</li>
+ *     <li>{@code <key>}: every other added or changed value</li>
+ * </ul>
+ * A state that doesn't contain {@value #PARENT_KEY} is a full snapshot.
+ * </p>
+ */
+public final class CheckpointDelta {
+
+    public static final String PARENT_KEY = "$delta.parent";
+    public static final String REMOVED_KEY = "$delta.removed";
+    public static final String APPEND_PREFIX = "$delta.append:";
+
+    private CheckpointDelta() {}
+
+    /**
+     * Checks if the given (persisted) state is a delta
+     *
+     * @param state the persisted state
+     * @return true if the state is a delta
+     */
+    public static boolean isDelta(Map<String, Object> state) {
+        return state != null && state.containsKey(PARENT_KEY);
+    }
+
+    /**
+     * Computes the difference between the state of the given checkpoint and the one of its parent.
+     *
+     * @param parent     the predecessor checkpoint
+     * @param checkpoint the checkpoint to encode
+     * @return the delta state
+     */
+    public static Map<String, Object> diff(Checkpoint parent, Checkpoint checkpoint) {
+        requireNonNull(parent, "parent cannot be null");
+        requireNonNull(checkpoint, "checkpoint cannot be null");
+
+        final var base = parent.getState();
+        final var state = checkpoint.getState();
+
+        final var result = new HashMap<String, Object>();
+        result.put(PARENT_KEY, parent.getId());
+
+        for (var entry : state.entrySet()) {
+            final var key = entry.getKey();
+            final var value = entry.getValue();
+
+            if (!base.containsKey(key)) {
+                result.put(key, value);
+                continue;
+            }
+            final var baseValue = base.get(key);
+            if (baseValue == value) {
+                continue;
+            }
+            if (baseValue instanceof List<?> baseList && value instanceof List<?> list && isPrefix(baseList, list)) {
+                if (list.size() > baseList.size()) {
+                    result.put(APPEND_PREFIX + key, new ArrayList<>(list.subList(baseList.size(), list.size())));
+                }
+                continue;
+            }
+            if (!Objects.equals(baseValue, value)) {
+                result.put(key, value);
+            }
+        }
+
+        final var removed = new ArrayList<String>();
+        for (var key : base.keySet()) {
+            if (!state.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        if (!removed.isEmpty()) {
+            result.put(REMOVED_KEY, removed);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds a state applying the given delta to the state of its parent. If the given state is not a delta
+     * it is returned as is.
+     *
+     * @param parent the checkpoint referred by the delta, can be null if state is not a delta
+     * @param state  the persisted state
+     * @return the rebuilt state
+     * @throws IllegalStateException if the delta doesn't refer to the given parent
+     */
+    public static Map<String, Object> apply(Checkpoint parent, Map<String, Object> state) {
+        requireNonNull(state, "state cannot be null");
+        if (!isDelta(state)) {
+            return state;
+        }
+        final var parentId = state.get(PARENT_KEY);
+        if (parent == null || !parent.getId().equals(parentId)) {
+            throw new IllegalStateException(format("delta refers to checkpoint '%s' but parent is '%s'",
+                    parentId,
+                    parent == null ? null : parent.getId()));
+        }
+
+        var result = PersistentMap.copyOf(parent.getState());
+
+        if (state.get(REMOVED_KEY) instanceof Collection<?> removed) {
+            for (var key : removed) {
+                result = result.minus(key);
+            }
+        }
+
+        for (var entry : state.entrySet()) {
+            final var key = entry.getKey();
+            if (PARENT_KEY.equals(key) || REMOVED_KEY.equals(key)) {
+                continue;
+            }
+            if (key.startsWith(APPEND_PREFIX)) {
+                final var channel = key.substring(APPEND_PREFIX.length());
+                if (!(result.get(channel) instanceof List<?> baseList) || !(entry.getValue() instanceof List<?> tail)) {
+                    throw new IllegalStateException(format("delta appends to '%s' that is not a list", channel));
+                }
+                final var list = new ArrayList<Object>(baseList.size() + tail.size());
+                list.addAll(baseList);
+                list.addAll(tail);
+                result = result.plus(channel, list);
+                continue;
+            }
+            result = result.plus(key, entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Replaces, in place, the given loaded checkpoints with checkpoints whose state is lazily rebuilt replaying the
+     * deltas starting from the nearest full snapshot. Parents are looked up by id, so the order of the loaded
+     * checkpoints doesn't matter.
+     *
+     * @param checkpoints the loaded checkpoints
+     */
+    public static void resolve(List<Checkpoint> checkpoints) {
+        requireNonNull(checkpoints, "checkpoints cannot be null");
+
+        final var checkpointsById = new HashMap<String, Checkpoint>(checkpoints.size() * 2);
+        final var iterator = checkpoints.listIterator();
+        while (iterator.hasNext()) {
+            final var stored = iterator.next();
+            final var checkpoint = Checkpoint.builder()
+                    .id(stored.getId())
+                    .nodeId(stored.getNodeId())
+                    .nextNodeId(stored.getNextNodeId())
+                    .lazyState(() -> {
+                        final var state = stored.getState();
+                        return isDelta(state) ? apply(checkpointsById.get(state.get(PARENT_KEY)), state) : state;
+                    })
+                    .build();
+            iterator.set(checkpoint);
+            checkpointsById.put(checkpoint.getId(), checkpoint);
+        }
+    }
+
+    private static boolean isPrefix(List<?> prefix, List<?> list) {
+        if (prefix.size() > list.size()) {
+            return false;
+        }
+        final var a = prefix.iterator();
+        final var b = list.iterator();
+        while (a.hasNext()) {
+            final var x = a.next();
+            final var y = b.next();
+            if (x != y && !Objects.equals(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
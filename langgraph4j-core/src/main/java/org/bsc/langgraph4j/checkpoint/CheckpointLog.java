@@ -0,0 +1,609 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.LG4JLoggable;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only, segmented log of the checkpoints of a single thread.
+ *
+ * <p>
+ *     The log is a folder of segment files ({@code 00000001.seg}, {@code 00000002.seg}, ...).
+ *     Each segment is a sequence of length-prefixed records:
+ * </p>
+ * <pre>
+ * int    length of the record (following bytes)
+ * byte   record type (BASE, CHECKPOINT, TOMBSTONE)
+ * ...    record payload
+ * </pre>
+ * <p>
+ *     A new checkpoint is a single {@code CHECKPOINT} record appended to the last segment.
+ *     A replaced checkpoint is a {@code TOMBSTONE} of the old id followed by a {@code CHECKPOINT} that takes its place.
+ *     Compaction rewrites the live checkpoints in a new segment starting with a {@code BASE} record;
+ *     on load every segment before the last {@code BASE} one is ignored (and removed).
+ * </p>
+ * <p>
+ *     Segments are read sequentially and checkpoints are created with a lazy state that reads its bytes from
+ *     the segment on demand, so only the states actually read are kept in memory and deserialized.
+ *     No segment is kept open or mapped after the load, so segments can be truncated, compacted and deleted
+ *     on every platform.
+ * </p>
+ * <p>
+ *     This class is not thread-safe: the owning saver must serialize the access per thread.
+ *     Only the lazy states can be read from any thread, the state locations and the segment files they read are
+ *     guarded by the log lock, so a read always sees the location of the state after the last compaction.
+ *     The state of a replaced or deleted checkpoint that has not been read yet is read before its record is lost,
+ *     so a checkpoint returned by the saver keeps a readable state.
+ * </p>
+ */
+final class CheckpointLog implements LG4JLoggable {
+    static final String SEGMENT_EXTENSION = ".seg";
+
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("(\\d{8})\\.seg$");
+    private static final String COMPACTION_FILE = "compaction.tmp";
+
+    private static final byte BASE = 0;
+    private static final byte CHECKPOINT = 1;
+    private static final byte TOMBSTONE = 2;
+
+    /**
+     * location of the serialized state of a live checkpoint
+     */
+    private record StateRef(Path segment, long offset, int length) {}
+
+    private final Path folder;
+    private final StateSerializer<AgentState> stateSerializer;
+    private final FileSystemSaver.LogOptions options;
+
+    private final List<Path> segments = new ArrayList<>();
+    private final Object lock = new Object(); // guards stateRefs, loaders and the segment files read by the lazy states
+    private final Map<String, StateRef> stateRefs = new HashMap<>();
+    private final Map<String, StateLoader> loaders = new HashMap<>();
+    private long lastSegmentSize = 0;
+    private int deadRecords = 0;
+    private int unsyncedRecords = 0;
+    private long lastSyncNanos = System.nanoTime();
+
+    CheckpointLog(Path folder, StateSerializer<AgentState> stateSerializer, FileSystemSaver.LogOptions options) {
+        this.folder = requireNonNull(folder, "folder cannot be null");
+        this.stateSerializer = requireNonNull(stateSerializer, "stateSerializer cannot be null");
+        this.options = requireNonNull(options, "options cannot be null");
+    }
+
+    Path folder() {
+        return folder;
+    }
+
+    boolean exists() {
+        return Files.isDirectory(folder);
+    }
+
+    int deadRecords() {
+        return deadRecords;
+    }
+
+    private static String segmentName(long sequence) {
+        return format("%08d%s", sequence, SEGMENT_EXTENSION);
+    }
+
+    private static long sequenceOf(Path segment) {
+        var matcher = SEGMENT_PATTERN.matcher(segment.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private Path nextSegment() {
+        long last = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1));
+        return folder.resolve(segmentName(last + 1));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        if (!exists()) {
+            return List.of();
+        }
+        try (var stream = Files.list(folder)) {
+            return stream.filter(path -> sequenceOf(path) >= 0)
+                    .sorted(Comparator.comparingLong(CheckpointLog::sequenceOf))
+                    .toList();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////
+    // ENCODING
+    ////////////////////////////////////////////////////////////////////
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes a record and returns the offset of the state bytes from the record start, length prefix included (or -1)
+     */
+    private static int writeRecord(DataOutputStream out, byte type, String id, String replaces, Checkpoint checkpoint, byte[] state) throws IOException {
+        var payload = new ByteArrayOutputStream();
+        var data = new DataOutputStream(payload);
+        data.writeByte(type);
+        writeString(id, data);
+        int stateOffset = -1;
+        if (type == CHECKPOINT) {
+            writeString(replaces, data);
+            writeString(checkpoint.getNodeId(), data);
+            writeString(checkpoint.getNextNodeId(), data);
+            data.writeInt(state.length);
+            stateOffset = Integer.BYTES + data.size();
+            data.write(state);
+        }
+        data.flush();
+        out.writeInt(payload.size());
+        payload.writeTo(out);
+        return stateOffset;
+    }
+
+    /**
+     * Lazy state of a loaded checkpoint, it reads the state bytes from the current location of the checkpoint
+     * in the log only when the state is requested
+     */
+    private final class StateLoader implements Supplier<Map<String, Object>> {
+        private final String checkpointId;
+        private byte[] detached; // guarded by lock
+
+        private StateLoader(String checkpointId) {
+            this.checkpointId = checkpointId;
+        }
+
+        @Override
+        public Map<String, Object> get() {
+            try {
+                final byte[] bytes;
+                synchronized (lock) {
+                    loaders.remove(checkpointId, this);
+                    bytes = (detached != null) ? detached : readState(refOf(checkpointId));
+                    detached = null;
+                }
+                return stateSerializer.dataFromBytes(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Reads the state bytes before the record of the checkpoint is lost. Must be called under the lock.
+         */
+        private void detach() throws IOException {
+            loaders.remove(checkpointId, this);
+            detached = readState(refOf(checkpointId));
+        }
+    }
+
+    private StateRef refOf(String checkpointId) {
+        var ref = stateRefs.get(checkpointId);
+        if (ref == null) {
+            throw new IllegalStateException(format("state of checkpoint '%s' is no longer in the log '%s'", checkpointId, folder));
+        }
+        return ref;
+    }
+
+    /**
+     * Detaches the lazy states not read yet of the given checkpoints (or of all of them if null). Must be called under the lock.
+     */
+    private void detachLoaders(Collection<String> checkpointIds) throws IOException {
+        for (var loader : List.copyOf(loaders.values())) {
+            if (checkpointIds == null || checkpointIds.contains(loader.checkpointId)) {
+                loader.detach();
+            }
+        }
+    }
+
+    private byte[] stateBytesOf(Checkpoint checkpoint) throws IOException {
+        synchronized (lock) {
+            var ref = stateRefs.get(checkpoint.getId());
+            if (ref != null) {
+                return readState(ref);
+            }
+        }
+        return stateSerializer.dataToBytes(checkpoint.getState());
+    }
+
+    private static byte[] readState(StateRef ref) throws IOException {
+        try (var channel = FileChannel.open(ref.segment(), StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(ref.length());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, ref.offset() + buffer.position()) < 0) {
+                    throw new IOException(format("unexpected end of segment '%s'", ref.segment()));
+                }
+            }
+            return buffer.array();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////
+    // LOAD
+    ////////////////////////////////////////////////////////////////////
+
+    /**
+     * Replays the log segments filling the given list, the most recent checkpoint first.
+     *
+     * @param checkpoints the list to fill
+     * @throws IOException if an I/O error occurs
+     */
+    void load(LinkedList<Checkpoint> checkpoints) throws IOException {
+        segments.clear();
+        synchronized (lock) {
+            stateRefs.clear();
+            loaders.clear();
+        }
+        deadRecords = 0;
+        lastSegmentSize = 0;
+
+        var allSegments = listSegments();
+
+        // skip segments superseded by the last compaction
+        int start = 0;
+        for (int i = allSegments.size() - 1; i > 0 && start == 0; --i) {
+            if (startsWithBase(allSegments.get(i))) {
+                start = i;
+            }
+        }
+        for (int i = 0; i < start; ++i) {
+            log.debug("removing segment '{}' superseded by compaction", allSegments.get(i));
+            Files.deleteIfExists(allSegments.get(i));
+        }
+        segments.addAll(allSegments.subList(start, allSegments.size()));
+
+        final var ordered = new ArrayList<Checkpoint>();
+        final var positions = new HashMap<String, Integer>();
+        final var tombstones = new HashMap<String, Integer>();
+
+        for (var segment : segments) {
+            lastSegmentSize = scan(segment, ordered, positions, tombstones);
+        }
+
+        for (var checkpoint : ordered) {
+            if (checkpoint != null) {
+                checkpoints.push(checkpoint);
+            }
+        }
+    }
+
+    private boolean startsWithBase(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(Integer.BYTES + 1);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    return false;
+                }
+            }
+            return header.get(Integer.BYTES) == BASE;
+        }
+    }
+
+    private long scan(Path segment,
+                      List<Checkpoint> ordered,
+                      Map<String, Integer> positions,
+                      Map<String, Integer> tombstones) throws IOException {
+
+        final long size = Files.size(segment);
+        long position = 0;
+        var recordBytes = new byte[0];
+
+        // records are copied on the heap in a buffer reused by the scan, so no mapping of the segment outlives
+        // the scan and the segment can be safely truncated, compacted or deleted afterwards
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 64 * 1024))) {
+            while (size - position >= Integer.BYTES) {
+                final int length = in.readInt();
+                final long recordStart = position + Integer.BYTES;
+                if (length <= 0 || recordStart + (long) length > size) {
+                    break;
+                }
+                if (recordBytes.length < length) {
+                    recordBytes = new byte[length];
+                }
+                in.readFully(recordBytes, 0, length);
+                final var record = ByteBuffer.wrap(recordBytes, 0, length);
+                final byte type = record.get();
+                final String id = readString(record);
+
+                switch (type) {
+                    case BASE -> {
+                    }
+                    case TOMBSTONE -> {
+                        var index = positions.remove(id);
+                        if (index != null) {
+                            ordered.set(index, null);
+                            tombstones.put(id, index);
+                        }
+                        synchronized (lock) {
+                            // the replaced checkpoint has been dropped, so its state will never be read
+                            stateRefs.remove(id);
+                            loaders.remove(id);
+                        }
+                        deadRecords += 2;
+                    }
+                    case CHECKPOINT -> {
+                        final var replaces = readString(record);
+                        final var nodeId = readString(record);
+                        final var nextNodeId = readString(record);
+                        final int stateLength = record.getInt();
+                        final int stateOffset = record.position();
+
+                        final var loader = new StateLoader(id);
+                        final var checkpoint = Checkpoint.builder()
+                                .id(id)
+                                .nodeId(nodeId)
+                                .nextNodeId(nextNodeId)
+                                .lazyState(loader)
+                                .build();
+
+                        final Integer replacedIndex = (replaces != null) ? tombstones.remove(replaces) : null;
+                        if (replacedIndex != null) {
+                            ordered.set(replacedIndex, checkpoint);
+                            positions.put(id, replacedIndex);
+                        } else {
+                            positions.put(id, ordered.size());
+                            ordered.add(checkpoint);
+                        }
+                        synchronized (lock) {
+                            stateRefs.put(id, new StateRef(segment, recordStart + stateOffset, stateLength));
+                            loaders.put(id, loader);
+                        }
+                    }
+                    default -> throw new IOException(format("invalid record type %d in segment '%s' at %d", type, segment, position));
+                }
+                position = recordStart + length;
+            }
+        }
+
+        if (position < size) {
+            // incomplete record (e.g. crash during append), drop it to keep the segment aligned
+            log.warn("segment '{}' has an incomplete record at {}. truncated!", segment, position);
+            try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+        return position;
+    }
+
+    ////////////////////////////////////////////////////////////////////
+    // APPEND
+    ////////////////////////////////////////////////////////////////////
+
+    /**
+     * Appends a new checkpoint, eventually replacing an existing one
+     *
+     * @param checkpoint the checkpoint to append
+     * @param state      the state to persist, either the full checkpoint state or a {@link CheckpointDelta}
+     * @param replaces   the id of the replaced checkpoint, {@code null} if it is a new one
+     * @param checkpoints the current live checkpoints, used by compaction
+     * @throws IOException if an I/O error occurs
+     */
+    void append(Checkpoint checkpoint, Map<String, Object> state, String replaces, LinkedList<Checkpoint> checkpoints) throws IOException {
+        requireNonNull(checkpoint, "checkpoint cannot be null");
+        requireNonNull(state, "state cannot be null");
+
+        final var stateBytes = stateSerializer.dataToBytes(state);
+        final var bytes = new ByteArrayOutputStream(stateBytes.length + 256);
+        final var out = new DataOutputStream(bytes);
+
+        if (replaces != null) {
+            writeRecord(out, TOMBSTONE, replaces, null, null, null);
+        }
+        final int checkpointOffset = bytes.size();
+        final int stateOffset = writeRecord(out, CHECKPOINT, checkpoint.getId(), replaces, checkpoint, stateBytes);
+        out.flush();
+
+        if (segments.isEmpty() || (lastSegmentSize > 0 && lastSegmentSize + bytes.size() > options.maxSegmentSize())) {
+            Files.createDirectories(folder);
+            segments.add(nextSegment());
+            lastSegmentSize = 0;
+        }
+        final var segment = segments.get(segments.size() - 1);
+
+        write(segment, bytes.toByteArray(), replaces != null ? 2 : 1);
+
+        synchronized (lock) {
+            if (replaces != null) {
+                // the replacement can have the same id of the replaced checkpoint, so its state is read first
+                detachLoaders(List.of(replaces));
+                stateRefs.remove(replaces);
+            }
+            stateRefs.put(checkpoint.getId(),
+                    new StateRef(segment, lastSegmentSize + checkpointOffset + stateOffset, stateBytes.length));
+        }
+        lastSegmentSize += bytes.size();
+
+        if (replaces != null) {
+            deadRecords += 2;
+            if (options.compactionThreshold() > 0 && deadRecords >= options.compactionThreshold()) {
+                compact(checkpoints);
+            }
+        }
+    }
+
+    private boolean shouldSync(int records) {
+        final var policy = options.syncPolicy();
+        unsyncedRecords += records;
+        if (policy.everyRecords() > 0 && unsyncedRecords >= policy.everyRecords()) {
+            return true;
+        }
+        return policy.everyInterval() != null &&
+                (System.nanoTime() - lastSyncNanos) >= policy.everyInterval().toNanos();
+    }
+
+    private void write(Path segment, byte[] bytes, int records) throws IOException {
+        try (var channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (shouldSync(records)) {
+                channel.force(false);
+                unsyncedRecords = 0;
+                lastSyncNanos = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Forces the pending appends to the storage device.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void sync() throws IOException {
+        if (unsyncedRecords == 0 || segments.isEmpty()) {
+            return;
+        }
+        try (var channel = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+        unsyncedRecords = 0;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    ////////////////////////////////////////////////////////////////////
+    // COMPACTION
+    ////////////////////////////////////////////////////////////////////
+
+    /**
+     * Rewrites the live checkpoints in a new segment and removes the previous ones.
+     * The serialized states are copied as they are, without decoding them.
+     *
+     * @param checkpoints the live checkpoints, the most recent first
+     * @throws IOException if an I/O error occurs
+     */
+    void compact(LinkedList<Checkpoint> checkpoints) throws IOException {
+        Files.createDirectories(folder);
+
+        final var target = nextSegment();
+        final var temp = folder.resolve(COMPACTION_FILE);
+        final var newRefs = new HashMap<String, StateRef>();
+
+        final var bytes = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(bytes);
+        writeRecord(out, BASE, target.getFileName().toString(), null, null, null);
+
+        try (var channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            long size = 0;
+            var iterator = checkpoints.descendingIterator();
+            while (iterator.hasNext()) {
+                var checkpoint = iterator.next();
+                var state = stateBytesOf(checkpoint);
+                int recordOffset = bytes.size();
+                int stateOffset = writeRecord(out, CHECKPOINT, checkpoint.getId(), null, checkpoint, state);
+                newRefs.put(checkpoint.getId(),
+                        new StateRef(target, size + recordOffset + stateOffset, state.length));
+
+                if (bytes.size() >= 64 * 1024 || !iterator.hasNext()) {
+                    out.flush();
+                    var buffer = ByteBuffer.wrap(bytes.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    size += bytes.size();
+                    bytes.reset();
+                }
+            }
+            if (bytes.size() > 0) { // no checkpoints, only BASE
+                out.flush();
+                var buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                size += bytes.size();
+            }
+            channel.force(true);
+            lastSegmentSize = size;
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        // the lazy states read their location under the lock, so they never read a deleted segment
+        synchronized (lock) {
+            final var dropped = new HashSet<>(stateRefs.keySet());
+            dropped.removeAll(newRefs.keySet());
+            detachLoaders(dropped);
+            stateRefs.clear();
+            stateRefs.putAll(newRefs);
+            for (var segment : segments) {
+                Files.deleteIfExists(segment);
+            }
+        }
+        segments.clear();
+        segments.add(target);
+        deadRecords = 0;
+        unsyncedRecords = 0;
+        lastSyncNanos = System.nanoTime();
+        log.debug("compacted checkpoint log '{}' in segment '{}'", folder, target.getFileName());
+    }
+
+    /**
+     * Deletes the whole log folder.
+     *
+     * @return true if the folder existed and has been deleted
+     * @throws IOException if an I/O error occurs
+     */
+    boolean delete() throws IOException {
+        synchronized (lock) {
+            if (exists()) {
+                detachLoaders(null);
+            }
+            stateRefs.clear();
+        }
+        segments.clear();
+        deadRecords = 0;
+        lastSegmentSize = 0;
+        if (!exists()) {
+            return false;
+        }
+        try (var stream = Files.list(folder)) {
+            for (var file : stream.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.delete(folder);
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.utils.TryFunction;
+
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Loads on demand, a page at time, the states of the checkpoints of a thread.
+ * <p>
+ * It allows persistent savers to load only the checkpoint metadata (id, node ids) and to provide the states through
+ * {@link Checkpoint.Builder#lazyState(java.util.function.Supplier)}. When the state of a checkpoint is requested, the
+ * raw states of the page of checkpoints starting from it (in list order, the most recent first) are fetched in a
+ * single round trip, then every state is decoded only when it is requested.
+ * </p>
+ *
+ * @param <T> the type of the raw (not decoded) state
+ */
+public final class CheckpointStatePager<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 16;
+
+    /**
+     * Fetches the raw states of the given checkpoints
+     *
+     * @param <T> the type of the raw state
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        /**
+         * @param checkpointIds the ids of the checkpoints to fetch
+         * @return the raw states by checkpoint id, missing checkpoints are not included
+         * @throws Exception if an error occurs fetching the states
+         */
+        Map<String, T> fetch(List<String> checkpointIds) throws Exception;
+    }
+
+    private final List<String> checkpointIds;
+    private final Map<String, Integer> positions;
+    private final int pageSize;
+    private final PageFetcher<T> fetcher;
+    private final TryFunction<T, Map<String, Object>, Exception> decoder;
+    private final Map<String, T> fetched = new HashMap<>();
+
+    /**
+     * @param checkpointIds ids of the checkpoints, in the same order of the loaded list
+     * @param pageSize      number of states fetched in a single round trip
+     * @param fetcher       fetches the raw states of a page
+     * @param decoder       decodes a raw state
+     */
+    public CheckpointStatePager(List<String> checkpointIds,
+                                int pageSize,
+                                PageFetcher<T> fetcher,
+                                TryFunction<T, Map<String, Object>, Exception> decoder) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be > 0!");
+        }
+        this.checkpointIds = List.copyOf(requireNonNull(checkpointIds, "checkpointIds cannot be null"));
+        this.pageSize = pageSize;
+        this.fetcher = requireNonNull(fetcher, "fetcher cannot be null");
+        this.decoder = requireNonNull(decoder, "decoder cannot be null");
+        this.positions = new HashMap<>(this.checkpointIds.size() * 2);
+        for (int i = 0; i < this.checkpointIds.size(); ++i) {
+            positions.put(this.checkpointIds.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the decoded state of the given checkpoint, fetching its page if required.
+     *
+     * @param checkpointId the checkpoint id
+     * @return the decoded state
+     * @throws IllegalStateException if the state cannot be fetched or decoded
+     */
+    public Map<String, Object> stateOf(String checkpointId) {
+        requireNonNull(checkpointId, "checkpointId cannot be null");
+        final T raw;
+        synchronized (this) {
+            if (!fetched.containsKey(checkpointId)) {
+                final var position = positions.get(checkpointId);
+                if (position == null) {
+                    throw new IllegalArgumentException(format("checkpoint '%s' doesn't belong to this pager", checkpointId));
+                }
+                final var page = checkpointIds.subList(position, Math.min(position + pageSize, checkpointIds.size()));
+                try {
+                    fetched.putAll(fetcher.fetch(page));
+                } catch (Exception e) {
+                    throw new IllegalStateException(format("unable to fetch state of checkpoint '%s'", checkpointId), e);
+                }
+            }
+            raw = fetched.remove(checkpointId);
+        }
+        if (raw == null) {
+            throw new IllegalStateException(format("state of checkpoint '%s' not found", checkpointId));
+        }
+        try {
+            return decoder.tryApply(raw);
+        } catch (Exception e) {
+            throw new IllegalStateException(format("unable to decode state of checkpoint '%s'", checkpointId), e);
+        }
+    }
+
+    /**
+     * Creates a checkpoint from the given metadata, whose state is provided by this pager
+     *
+     * @param checkpointId the checkpoint id
+     * @param nodeId       the node id
+     * @param nextNodeId   the next node id
+     * @return the checkpoint whose state is loaded on first access
+     */
+    public Checkpoint checkpoint(String checkpointId, String nodeId, String nextNodeId) {
+        return Checkpoint.builder()
+                .id(checkpointId)
+                .nodeId(nodeId)
+                .nextNodeId(nextNodeId)
+                .lazyState(() -> stateOf(checkpointId))
+                .build();
+    }
+}
@@ -12,7 +12,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,22 +29,210 @@ import static java.lang.String.format;
  *     The file is named "thread-<i>threadId</i>.saver" if the RunnableConfig has a
  *     threadId, or "thread-$default.saver" if it doesn't.
  * </p>
+ * <p>
+ *     Using {@link Format#APPEND_LOG} (see {@link #builder()}) each thread is associated with a folder
+ *     named "thread-<i>threadId</i>.segments" holding an append-only log of checkpoints, so every put writes
+ *     only the new checkpoint instead of the whole thread history.
+ * </p>
  *
  */
 public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
     public static final String EXTENSION = ".saver";
+    public static final String LOG_EXTENSION = ".segments";
+
+    /**
+     * Storage format of the checkpoints of a thread
+     */
+    public enum Format {
+        /**
+         * the whole thread history is rewritten in a single file on every change
+         */
+        SNAPSHOT,
+        /**
+         * append-only, length-prefixed segments; each change appends only the new records.
+         * An existing {@link #SNAPSHOT} file is migrated on first load.
+         */
+        APPEND_LOG
+    }
+
+    /**
+     * Policy to force (through {@code FileChannel.force}) the appended records to the storage device.
+     * Records are forced when at least {@code everyRecords} records (if &gt; 0) or {@code everyInterval} time
+     * (if not null) are pending since the last force. Released threads are always forced.
+     *
+     * @param everyRecords number of pending records that triggers a force, 0 to disable
+     * @param everyInterval elapsed time since last force that triggers a force on next append, null to disable
+     */
+    public record SyncPolicy(int everyRecords, Duration everyInterval) {
+        /**
+         * never force, rely on the operating system
+         */
+        public static final SyncPolicy NEVER = new SyncPolicy(0, null);
+
+        public SyncPolicy {
+            if (everyRecords < 0) {
+                throw new IllegalArgumentException("everyRecords must be >= 0!");
+            }
+        }
+
+        /**
+         * @return a policy that forces every append
+         */
+        public static SyncPolicy always() {
+            return new SyncPolicy(1, null);
+        }
+
+        /**
+         * @param records number of pending records that triggers a force
+         * @return a policy that forces in batch of the given number of records
+         */
+        public static SyncPolicy everyRecords(int records) {
+            return new SyncPolicy(records, null);
+        }
+
+        /**
+         * @param interval elapsed time that triggers a force
+         * @return a policy that forces at most once in the given interval
+         */
+        public static SyncPolicy everyInterval(Duration interval) {
+            return new SyncPolicy(0, Objects.requireNonNull(interval, "interval cannot be null"));
+        }
+    }
+
+    /**
+     * Options of {@link Format#APPEND_LOG} format
+     *
+     * @param maxSegmentSize size (in bytes) after that a new segment is started
+     * @param compactionThreshold number of dead records (tombstones and replaced checkpoints) that triggers the compaction, 0 to disable
+     * @param syncPolicy policy used to force appended records to the storage device
+     */
+    record LogOptions(long maxSegmentSize, int compactionThreshold, SyncPolicy syncPolicy) {}
 
     private final Path targetFolder;
     private final Serializer<Checkpoint> serializer;
+    private final StateSerializer<AgentState> stateSerializer;
+    private final Format format;
+    private final LogOptions logOptions;
+    private final Map<String, CheckpointLog> logsByThread = new ConcurrentHashMap<>();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Path targetFolder;
+        private StateSerializer<? extends AgentState> stateSerializer;
+        private Format format = Format.SNAPSHOT;
+        private long maxSegmentSize = 64L * 1024 * 1024;
+        private int compactionThreshold = 128;
+        private SyncPolicy syncPolicy = SyncPolicy.NEVER;
+        private DeltaMode deltaMode = DeltaMode.DISABLED;
+        private CachePolicy cachePolicy = CachePolicy.UNBOUNDED;
+
+        public Builder targetFolder(Path targetFolder) {
+            this.targetFolder = targetFolder;
+            return this;
+        }
+
+        public <State extends AgentState> Builder stateSerializer(StateSerializer<State> stateSerializer) {
+            this.stateSerializer = stateSerializer;
+            return this;
+        }
+
+        public Builder format(Format format) {
+            this.format = Objects.requireNonNull(format, "format cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the size (in bytes) after that a new log segment is started. Only for {@link Format#APPEND_LOG}
+         *
+         * @param maxSegmentSize size in bytes
+         * @return this builder
+         */
+        public Builder maxSegmentSize(long maxSegmentSize) {
+            if (maxSegmentSize <= 0 || maxSegmentSize >= Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("maxSegmentSize must be > 0 and < 2GB!");
+            }
+            this.maxSegmentSize = maxSegmentSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of dead records (tombstones and replaced checkpoints) that triggers the log compaction.
+         * Only for {@link Format#APPEND_LOG}
+         *
+         * @param compactionThreshold number of dead records, 0 to disable automatic compaction
+         * @return this builder
+         */
+        public Builder compactionThreshold(int compactionThreshold) {
+            if (compactionThreshold < 0) {
+                throw new IllegalArgumentException("compactionThreshold must be >= 0!");
+            }
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the policy used to force the appended records to the storage device. Only for {@link Format#APPEND_LOG}
+         *
+         * @param syncPolicy the sync policy
+         * @return this builder
+         */
+        public Builder syncPolicy(SyncPolicy syncPolicy) {
+            this.syncPolicy = Objects.requireNonNull(syncPolicy, "syncPolicy cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the mode used to persist the checkpoint states (default {@link DeltaMode#DISABLED})
+         *
+         * @param deltaMode the delta mode
+         * @return this builder
+         */
+        public Builder deltaMode(DeltaMode deltaMode) {
+            this.deltaMode = Objects.requireNonNull(deltaMode, "deltaMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the policy that bounds the threads kept in memory (default {@link CachePolicy#UNBOUNDED}).
+         * Evicted threads are reloaded from the file system on next access. Since the files are written
+         * from the checkpoints in memory, {@link CachePolicy#maxCheckpointsPerThread()} is not supported.
+         *
+         * @param cachePolicy the cache policy
+         * @return this builder
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            Objects.requireNonNull(cachePolicy, "cachePolicy cannot be null");
+            if (cachePolicy.maxCheckpointsPerThread() != Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("maxCheckpointsPerThread is not supported by FileSystemSaver!");
+            }
+            this.cachePolicy = cachePolicy;
+            return this;
+        }
+
+        public FileSystemSaver build() {
+            return new FileSystemSaver(this);
+        }
+    }
 
-    @SuppressWarnings("unchecked")
     public FileSystemSaver(Path targetFolder, StateSerializer<? extends AgentState> stateSerializer) {
+        this(builder().targetFolder(targetFolder).stateSerializer(stateSerializer));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected FileSystemSaver(Builder builder) {
+        super(DEFAULT_LOCK_STRIPES, builder.deltaMode, builder.cachePolicy);
 
-        Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
-        this.targetFolder = Objects.requireNonNull(targetFolder, "targetFolder cannot be null");
-        this.serializer = new CheckPointSerializer((StateSerializer<AgentState>) stateSerializer);
+        Objects.requireNonNull(builder.stateSerializer, "stateSerializer cannot be null");
+        this.targetFolder = Objects.requireNonNull(builder.targetFolder, "targetFolder cannot be null");
+        this.stateSerializer = (StateSerializer<AgentState>) builder.stateSerializer;
+        this.serializer = new CheckPointSerializer(stateSerializer);
+        this.format = builder.format;
+        this.logOptions = new LogOptions(builder.maxSegmentSize, builder.compactionThreshold, builder.syncPolicy);
 
-        File targetFolderAsFile = targetFolder.toFile();
+        File targetFolderAsFile = this.targetFolder.toFile();
 
         if (targetFolderAsFile.exists()) {
             if (targetFolderAsFile.isFile()) {
@@ -69,6 +259,24 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
         return getPath(config).toFile();
     }
 
+    private Path getLogPath(RunnableConfig config) {
+        return Paths.get(targetFolder.toString(), getBaseName(config).concat(LOG_EXTENSION));
+    }
+
+    private CheckpointLog getLog(RunnableConfig config) {
+        return logsByThread.computeIfAbsent(config.threadId().orElse(THREAD_ID_DEFAULT),
+                threadId -> new CheckpointLog(getLogPath(config), stateSerializer, logOptions));
+    }
+
+    /**
+     * Returns the storage format used by this saver
+     *
+     * @return the storage format
+     */
+    public Format storageFormat() {
+        return format;
+    }
+
     private void serialize(LinkedList<Checkpoint> checkpoints, File outFile) throws IOException {
         Objects.requireNonNull(checkpoints, "checkpoints cannot be null");
         Objects.requireNonNull(outFile, "outFile cannot be null");
@@ -76,6 +284,14 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
 
             oos.writeInt(checkpoints.size());
             for (Checkpoint checkpoint : checkpoints) {
+                if (deltaMode().isEnabled()) {
+                    checkpoint = Checkpoint.builder()
+                            .id(checkpoint.getId())
+                            .nodeId(checkpoint.getNodeId())
+                            .nextNodeId(checkpoint.getNextNodeId())
+                            .state(persistentStateOf(checkpoints, checkpoint))
+                            .build();
+                }
                 serializer.write(checkpoint, oos);
             }
         }
@@ -91,11 +307,36 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
                 result.add(serializer.read(ois));
             }
         }
+        CheckpointDelta.resolve(result);
+    }
+
+    private void loadLog(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
+        var checkpointLog = getLog(config);
+        if (checkpointLog.exists()) {
+            checkpointLog.load(checkpoints);
+            CheckpointDelta.resolve(checkpoints);
+            return;
+        }
+        // migrate snapshot file
+        File targetFile = getFile(config);
+        if (targetFile.exists()) {
+            deserialize(targetFile, checkpoints);
+            checkpointLog.compact(checkpoints);
+            Files.delete(targetFile.toPath());
+            log.info("file {} migrated to checkpoint log {}", targetFile, checkpointLog.folder());
+        }
     }
 
     @Override
     protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
 
+        if (format == Format.APPEND_LOG) {
+            if (checkpoints.isEmpty() && !logsByThread.containsKey(config.threadId().orElse(THREAD_ID_DEFAULT))) {
+                loadLog(config, checkpoints);
+            }
+            return checkpoints;
+        }
+
         File targetFile = getFile(config);
         if (targetFile.exists() && checkpoints.isEmpty()) {
             deserialize(targetFile, checkpoints);
@@ -106,15 +347,51 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
 
     @Override
     protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+        if (format == Format.APPEND_LOG) {
+            getLog(config).append(checkpoint, persistentStateOf(checkpoints, checkpoint), null, checkpoints);
+            return;
+        }
         File targetFile = getFile(config);
         serialize(checkpoints, targetFile);
     }
 
     @Override
     protected void updatedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+        if (format == Format.APPEND_LOG) {
+            getLog(config).append(checkpoint, persistentStateOf(checkpoints, checkpoint), config.checkPointId().orElseThrow(), checkpoints);
+            return;
+        }
         insertedCheckpoint(config, checkpoints, checkpoint);
     }
 
+    @Override
+    protected void evictedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
+        if (format == Format.APPEND_LOG) {
+            // the log will be loaded again on next access
+            var checkpointLog = logsByThread.remove(config.threadId().orElse(THREAD_ID_DEFAULT));
+            if (checkpointLog != null) {
+                checkpointLog.sync();
+            }
+        }
+    }
+
+    /**
+     * Compacts the checkpoint log of the thread associated with the given configuration, rewriting only the live
+     * checkpoints. Only for {@link Format#APPEND_LOG}, it is a no-op otherwise.
+     *
+     * @param config the configuration holding the thread id
+     * @throws Exception if an error occurs during file operations
+     */
+    public void compact(RunnableConfig config) throws Exception {
+        if (format != Format.APPEND_LOG) {
+            return;
+        }
+        loadOrInitCheckpoints(config, checkpoints -> {
+            getLog(config).compact(checkpoints);
+            return null;
+        });
+    }
+
     /**
      * Releases the checkpoints associated with the given configuration.
      * This involves copying the current checkpoint file (e.g., "thread-123.saver")
@@ -129,14 +406,24 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
      */
     @Override
     protected void releasedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag) throws Exception {
+        var extension = EXTENSION;
         var currentPath = getPath(config);
 
+        if (format == Format.APPEND_LOG) {
+            var checkpointLog = logsByThread.remove(config.threadId().orElse(THREAD_ID_DEFAULT));
+            if (checkpointLog != null) {
+                checkpointLog.sync();
+            }
+            extension = LOG_EXTENSION;
+            currentPath = getLogPath(config);
+        }
+
         if (!Files.exists(currentPath)) {
             log.warn("file {} doesn't exist. Skipping file operations.", currentPath);
             return;
         }
 
-        var versionPattern = Pattern.compile(format("%s-v(\\d+)\\%s$", getBaseName(config), EXTENSION));
+        var versionPattern = Pattern.compile(format("%s-v(\\d+)\\%s$", getBaseName(config), extension));
 
         int maxVersion = 0;
         try (var stream = Files.list(targetFolder)) {
@@ -153,9 +440,14 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
         }
 
         int nextVersion = maxVersion + 1;
-        var backupFilename = format("%s-v%d%s", getBaseName(config), nextVersion, EXTENSION);
+        var backupFilename = format("%s-v%d%s", getBaseName(config), nextVersion, extension);
         Path backupPath = targetFolder.resolve(backupFilename);
 
+        if (format == Format.APPEND_LOG) {
+            Files.move(currentPath, backupPath);
+            return;
+        }
+
         Files.copy(currentPath, backupPath, StandardCopyOption.REPLACE_EXISTING);
 
         Files.delete(currentPath);
@@ -163,12 +455,25 @@ public class FileSystemSaver extends MemorySaver implements LG4JLoggable {
     }
 
     /**
-     * delete the checkpoint file associated with the given RunnableConfig.
+     * delete the checkpoint file (or the checkpoint log folder) associated with the given RunnableConfig.
      *
      * @param config the RunnableConfig for which the checkpoint file should be cleared
      * @return true if the file existed and was successfully deleted, false otherwise
      */
     public boolean deleteFile(RunnableConfig config) {
+        if (format == Format.APPEND_LOG) {
+            // the log is removed so that a stale handle is not reused after the deletion
+            var checkpointLog = logsByThread.remove(config.threadId().orElse(THREAD_ID_DEFAULT));
+            if (checkpointLog == null) {
+                checkpointLog = new CheckpointLog(getLogPath(config), stateSerializer, logOptions);
+            }
+            try {
+                return checkpointLog.delete();
+            } catch (IOException e) {
+                log.error("error deleting checkpoint log of thread {}", config.threadId().orElse(THREAD_ID_DEFAULT), e);
+                return false;
+            }
+        }
         File targetFile = getFile(config);
         return targetFile.exists() && targetFile.delete();
     }
@@ -1,21 +1,181 @@
 package org.bsc.langgraph4j.checkpoint;
 
+import org.bsc.langgraph4j.LG4JLoggable;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.utils.TryFunction;
 
+import java.io.Serial;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
 
-public class MemorySaver implements BaseCheckpointSaver {
+/**
+ * A CheckpointSaver that keeps Checkpoints in memory, grouped by thread id.
+ *
+ * <p>
+ *     Access to the checkpoints of a thread is serialized through a lock selected (by thread id) from a fixed
+ *     set of stripes, so operations (including the subclass I/O hooks) on unrelated threads can run in parallel.
+ * </p>
+ * <p>
+ *     Subclasses that persist checkpoints should use {@link #persistentStateOf(List, Checkpoint)} to get the state to
+ *     write and {@link CheckpointDelta#resolve(List)} on the loaded checkpoints, so they honor the {@link DeltaMode}.
+ * </p>
+ * <p>
+ *     Subclasses backed by a store can bound the memory through a {@link CachePolicy}: evicted threads are reloaded
+ *     (through {@link #loadedCheckpoints(RunnableConfig, LinkedList)}) on next access.
+ * </p>
+ */
+public class MemorySaver implements BaseCheckpointSaver, LG4JLoggable {
+    public static final int DEFAULT_LOCK_STRIPES = 64;
 
-    final Map<String, LinkedList<Checkpoint>> _checkpointsByThread = new HashMap<>();
-    private final ReentrantLock _lock = new ReentrantLock();
+    /**
+     * Checkpoints of a thread, plus the bookkeeping required by the {@link CachePolicy}
+     */
+    static final class ThreadCheckpoints extends LinkedList<Checkpoint> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        long bytes;         // estimated size, guarded by the thread lock
+        int trimmed;        // number of the oldest checkpoints dropped from memory, guarded by the thread lock
+        long lastAccess;    // guarded by _threadsByAccess
+    }
+
+    final Map<String, LinkedList<Checkpoint>> _checkpointsByThread = new ConcurrentHashMap<>();
+    private final ReentrantLock[] _locks;
+    private final DeltaMode deltaMode;
+    private final CachePolicy cachePolicy;
+    // threads in access order, used only by a bounded cache policy
+    private final LinkedHashMap<String, ThreadCheckpoints> _threadsByAccess = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder trimmed = new LongAdder();
+    private final LongAdder estimatedBytes = new LongAdder();
 
     public MemorySaver( ) {
+        this( DEFAULT_LOCK_STRIPES );
+    }
+
+    /**
+     * Creates a MemorySaver using the given number of lock stripes.
+     *
+     * @param lockStripes number of locks shared among thread ids. It is rounded up to the next power of two.
+     *                    Higher values reduce the chance that two unrelated threads wait on the same lock.
+     */
+    public MemorySaver( int lockStripes ) {
+        this( lockStripes, DeltaMode.DISABLED );
+    }
+
+    /**
+     * Creates a MemorySaver using the given number of lock stripes and delta mode.
+     * The delta mode is meaningful only for subclasses that persist the checkpoints.
+     *
+     * @param lockStripes number of locks shared among thread ids
+     * @param deltaMode the mode used to persist the checkpoint states
+     */
+    protected MemorySaver( int lockStripes, DeltaMode deltaMode ) {
+        this( lockStripes, deltaMode, CachePolicy.UNBOUNDED );
+    }
+
+    /**
+     * Creates a MemorySaver using the given number of lock stripes, delta mode and cache policy.
+     * A bounded cache policy must be used only by subclasses that are able to reload the evicted checkpoints.
+     *
+     * @param lockStripes number of locks shared among thread ids
+     * @param deltaMode the mode used to persist the checkpoint states
+     * @param cachePolicy the policy that bounds the checkpoints kept in memory
+     */
+    protected MemorySaver( int lockStripes, DeltaMode deltaMode, CachePolicy cachePolicy ) {
+        this.deltaMode = Objects.requireNonNull( deltaMode, "deltaMode cannot be null" );
+        this.cachePolicy = Objects.requireNonNull( cachePolicy, "cachePolicy cannot be null" );
+        if( lockStripes <= 0 ) {
+            throw new IllegalArgumentException("lockStripes must be > 0!");
+        }
+        final int size = Integer.highestOneBit( lockStripes - 1 ) << 1;
+        _locks = new ReentrantLock[ Math.max( size, 1 ) ];
+        for( int i = 0; i < _locks.length; ++i ) {
+            _locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock that guards the checkpoints of the given thread id.
+     *
+     * @param threadId the thread id
+     * @return the lock associated to the thread id
+     */
+    final ReentrantLock lockOf( String threadId ) {
+        final int h = threadId.hashCode();
+        return _locks[ (h ^ (h >>> 16)) & (_locks.length - 1) ];
+    }
+
+    @Override
+    public DeltaMode deltaMode() {
+        return deltaMode;
+    }
+
+    public CachePolicy cachePolicy() {
+        return cachePolicy;
+    }
+
+    /**
+     * Returns the metrics of the cache. They are collected only if the cache policy is bounded.
+     *
+     * @return a snapshot of the cache metrics
+     */
+    public CachePolicy.Stats cacheStats() {
+        final int threads;
+        synchronized ( _threadsByAccess ) {
+            threads = _threadsByAccess.size();
+        }
+        return new CachePolicy.Stats( hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                trimmed.sum(),
+                threads,
+                estimatedBytes.sum() );
+    }
+
+    /**
+     * Returns the position of a checkpoint in the thread history, counting also the oldest checkpoints trimmed from
+     * memory, so that the full snapshots are always at the same positions.
+     *
+     * @param checkpoints the checkpoints of the thread, the most recent first
+     * @param index the index of the checkpoint in checkpoints
+     * @return the position from the oldest checkpoint of the thread, starting from 0
+     */
+    private static int positionOf( List<Checkpoint> checkpoints, int index ) {
+        return checkpoints.size() - index - 1
+                + ((checkpoints instanceof ThreadCheckpoints t) ? t.trimmed : 0);
+    }
+
+    /**
+     * Returns the state to persist for the given checkpoint: according to the {@link DeltaMode}, either its full
+     * state or its difference from the predecessor checkpoint.
+     *
+     * @param checkpoints the checkpoints of the thread, the most recent first
+     * @param checkpoint the checkpoint to persist, it must belong to checkpoints
+     * @return the state to persist
+     */
+    protected final Map<String,Object> persistentStateOf( List<Checkpoint> checkpoints, Checkpoint checkpoint ) {
+        if( !deltaMode.isEnabled() ) {
+            return checkpoint.getState();
+        }
+        var iterator = checkpoints.listIterator();
+        while( iterator.hasNext() ) {
+            if( iterator.next() == checkpoint ) {
+                if( deltaMode.isFullSnapshot( positionOf( checkpoints, iterator.nextIndex() - 1 ) ) || !iterator.hasNext() ) {
+                    return checkpoint.getState();
+                }
+                return CheckpointDelta.diff( iterator.next(), checkpoint );
+            }
+        }
+        throw new IllegalArgumentException( format("Checkpoint with id %s doesn't belong to checkpoints!", checkpoint.getId()) );
     }
 
     protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
@@ -28,15 +188,148 @@ public class MemorySaver implements BaseCheckpointSaver {
     protected void releasedCheckpoints( RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag) throws Exception {
     }
 
+    /**
+     * Invoked when the checkpoints of a thread have been evicted from memory by the {@link CachePolicy}
+     *
+     * @param config the configuration holding the evicted thread id
+     * @param checkpoints the evicted checkpoints
+     * @throws Exception if an error occurs
+     */
+    protected void evictedCheckpoints( RunnableConfig config, LinkedList<Checkpoint> checkpoints ) throws Exception {
+    }
+
     protected final <T> T loadOrInitCheckpoints(RunnableConfig config,
                                                 TryFunction<LinkedList<Checkpoint>, T, Exception> transformer) throws Exception {
-        _lock.lock();
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        var lock = lockOf( threadId );
+        lock.lock();
         try {
-            var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-            return transformer.tryApply( loadedCheckpoints( config, _checkpointsByThread.computeIfAbsent(threadId, k -> new LinkedList<>()) ) );
+            if( !cachePolicy.isBounded() ) {
+                return transformer.tryApply( loadedCheckpoints( config, _checkpointsByThread.computeIfAbsent(threadId, k -> new ThreadCheckpoints()) ) );
+            }
+            return transformer.tryApply( cachedCheckpoints( config, threadId ) );
 
         } finally {
-            _lock.unlock();
+            lock.unlock();
+            if( cachePolicy.isBounded() ) {
+                evictIfNeeded( threadId );
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////
+    // CACHE POLICY
+    ////////////////////////////////////////////////////////////////////
+
+    private LinkedList<Checkpoint> cachedCheckpoints( RunnableConfig config, String threadId ) throws Exception {
+        var checkpoints = (ThreadCheckpoints)_checkpointsByThread.get( threadId );
+        if( checkpoints == null ) {
+            misses.increment();
+            checkpoints = new ThreadCheckpoints();
+            _checkpointsByThread.put( threadId, checkpoints );
+        }
+        else {
+            hits.increment();
+        }
+        final boolean wasEmpty = checkpoints.isEmpty();
+        final var result = loadedCheckpoints( config, checkpoints );
+        if( wasEmpty && !checkpoints.isEmpty() ) {
+            weigh( checkpoints );
+        }
+        synchronized ( _threadsByAccess ) {
+            _threadsByAccess.put( threadId, checkpoints );
+            checkpoints.lastAccess = System.nanoTime();
+        }
+        return result;
+    }
+
+    private ThreadCheckpoints bounded( LinkedList<Checkpoint> checkpoints ) {
+        return ( cachePolicy.isBounded() && checkpoints instanceof ThreadCheckpoints t ) ? t : null;
+    }
+
+    private void addBytes( ThreadCheckpoints checkpoints, long bytes ) {
+        checkpoints.bytes += bytes;
+        estimatedBytes.add( bytes );
+    }
+
+    private void weigh( ThreadCheckpoints checkpoints ) {
+        long bytes = 0;
+        for( var checkpoint : checkpoints ) {
+            bytes += cachePolicy.weigher().applyAsLong( checkpoint );
+        }
+        addBytes( checkpoints, bytes - checkpoints.bytes );
+    }
+
+    /**
+     * Reloads from the store a thread whose oldest checkpoints have been dropped
+     */
+    private void reload( RunnableConfig config, ThreadCheckpoints checkpoints ) throws Exception {
+        checkpoints.clear();
+        checkpoints.trimmed = 0;
+        addBytes( checkpoints, -checkpoints.bytes );
+        loadedCheckpoints( config, checkpoints );
+        weigh( checkpoints );
+    }
+
+    private void trim( ThreadCheckpoints checkpoints ) {
+        while( checkpoints.size() > cachePolicy.maxCheckpointsPerThread() ) {
+            var checkpoint = checkpoints.removeLast();
+            addBytes( checkpoints, -cachePolicy.weigher().applyAsLong( checkpoint ) );
+            checkpoints.trimmed++;
+            trimmed.increment();
+        }
+    }
+
+    private void evictIfNeeded( String currentThreadId ) {
+        final var expireAfterAccess = cachePolicy.expireAfterAccess();
+        final long now = System.nanoTime();
+        final var candidates = new ArrayList<String>();
+
+        synchronized ( _threadsByAccess ) {
+            int threads = _threadsByAccess.size();
+            long bytes = estimatedBytes.sum();
+            for( var entry : _threadsByAccess.entrySet() ) { // least recently used first
+                final var checkpoints = entry.getValue();
+                final boolean expired = expireAfterAccess != null && now - checkpoints.lastAccess > expireAfterAccess.toNanos();
+                if( !expired && threads <= cachePolicy.maxThreads() && bytes <= cachePolicy.maxBytes() ) {
+                    break;
+                }
+                if( entry.getKey().equals( currentThreadId ) ) {
+                    continue;
+                }
+                candidates.add( entry.getKey() );
+                threads--;
+                bytes -= checkpoints.bytes;
+            }
+        }
+
+        for( var threadId : candidates ) {
+            evict( threadId );
+        }
+    }
+
+    private void evict( String threadId ) {
+        final var lock = lockOf( threadId );
+        if( !lock.tryLock() ) { // in use, it will be evaluated again later
+            return;
+        }
+        try {
+            var checkpoints = (ThreadCheckpoints)_checkpointsByThread.remove( threadId );
+            synchronized ( _threadsByAccess ) {
+                _threadsByAccess.remove( threadId );
+            }
+            if( checkpoints == null ) {
+                return;
+            }
+            estimatedBytes.add( -checkpoints.bytes );
+            evictions.increment();
+            evictedCheckpoints( RunnableConfig.builder().threadId( threadId ).build(), checkpoints );
+        }
+        catch( Exception ex ) {
+            log.warn( "error evicting checkpoints of thread {}", threadId, ex );
+        }
+        finally {
+            lock.unlock();
         }
     }
 
@@ -44,14 +337,40 @@ public class MemorySaver implements BaseCheckpointSaver {
         return (checkpoints.isEmpty() ) ? Optional.empty() : ofNullable(checkpoints.peek());
     }
 
+    /**
+     * Removes the checkpoints of the given thread from memory, holding the lock of the thread
+     *
+     * @param threadId the thread id
+     * @return the removed checkpoints, null if the thread was not in memory
+     */
     protected final Collection<Checkpoint> remove( String threadId ) {
-        return _checkpointsByThread.remove( Objects.requireNonNull(threadId) );
+        final var lock = lockOf( Objects.requireNonNull(threadId) );
+        lock.lock();
+        try {
+            var checkpoints = _checkpointsByThread.remove( threadId );
+            if( checkpoints instanceof ThreadCheckpoints t && cachePolicy.isBounded() ) {
+                synchronized ( _threadsByAccess ) {
+                    _threadsByAccess.remove( threadId );
+                }
+                estimatedBytes.add( -t.bytes );
+            }
+            return checkpoints;
+        }
+        finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public final Collection<Checkpoint> list( RunnableConfig config ) {
         try {
-            return loadOrInitCheckpoints( config, Collections::unmodifiableCollection);
+            return loadOrInitCheckpoints( config, checkpoints -> {
+                var cached = bounded( checkpoints );
+                if( cached != null && cached.trimmed > 0 ) {
+                    reload( config, cached );
+                }
+                return Collections.unmodifiableCollection( checkpoints );
+            });
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -63,10 +382,19 @@ public class MemorySaver implements BaseCheckpointSaver {
         try {
             return loadOrInitCheckpoints( config, checkpoints -> {
                 if( config.checkPointId().isPresent() ) {
-                    return config.checkPointId()
+                    var result = config.checkPointId()
                             .flatMap( id -> checkpoints.stream()
                                     .filter( checkpoint -> checkpoint.getId().equals(id) )
                                     .findFirst());
+                    var cached = bounded( checkpoints );
+                    if( result.isEmpty() && cached != null && cached.trimmed > 0 ) {
+                        reload( config, cached );
+                        result = config.checkPointId()
+                                .flatMap( id -> checkpoints.stream()
+                                        .filter( checkpoint -> checkpoint.getId().equals(id) )
+                                        .findFirst());
+                    }
+                    return result;
                 }
                 return getLast(checkpoints,config);
 
@@ -81,19 +409,42 @@ public class MemorySaver implements BaseCheckpointSaver {
 
         return loadOrInitCheckpoints( config, checkpoints -> {
 
+            final var cached = bounded( checkpoints );
+
             if (config.checkPointId().isPresent()) { // Replace Checkpoint
                 String checkPointId = config.checkPointId().get();
-                int index = IntStream.range(0, checkpoints.size())
-                        .filter(i -> checkpoints.get(i).getId().equals(checkPointId))
-                        .findFirst()
-                        .orElseThrow(() -> (new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId))));
-                checkpoints.set(index, checkpoint );
+                var found = indexOf( checkpoints, checkPointId );
+                if( found.isEmpty() && cached != null && cached.trimmed > 0 ) {
+                    reload( config, cached );
+                    found = indexOf( checkpoints, checkPointId );
+                }
+                int index = found.orElseThrow(() -> (new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId))));
+                final boolean rewriteSuccessor = index > 0 && !deltaMode.isFullSnapshot( positionOf( checkpoints, index - 1 ) );
+                if( rewriteSuccessor ) {
+                    // resolve the (eventually lazy) successor state while the replaced checkpoint is still stored
+                    checkpoints.get( index - 1 ).getState();
+                }
+                var replaced = checkpoints.set(index, checkpoint );
+                if( cached != null ) {
+                    addBytes( cached, cachePolicy.weigher().applyAsLong( checkpoint ) - cachePolicy.weigher().applyAsLong( replaced ) );
+                }
                 updatedCheckpoint( config, checkpoints, checkpoint);
+                if( rewriteSuccessor ) {
+                    // the successor has been persisted as delta of the replaced checkpoint, so rewrite it
+                    var successor = checkpoints.get( index - 1 );
+                    updatedCheckpoint( RunnableConfig.builder(config).checkPointId(successor.getId()).build(),
+                            checkpoints,
+                            successor );
+                }
                 return config;
             }
 
             checkpoints.push( checkpoint ); // Add Checkpoint
             insertedCheckpoint( config, checkpoints, checkpoint);
+            if( cached != null ) {
+                addBytes( cached, cachePolicy.weigher().applyAsLong( checkpoint ) );
+                trim( cached );
+            }
 
             return RunnableConfig.builder(config)
                     .checkPointId(checkpoint.getId())
@@ -102,6 +453,12 @@ public class MemorySaver implements BaseCheckpointSaver {
         });
     }
 
+    private static OptionalInt indexOf( List<Checkpoint> checkpoints, String checkPointId ) {
+        return IntStream.range(0, checkpoints.size())
+                .filter(i -> checkpoints.get(i).getId().equals(checkPointId))
+                .findFirst();
+    }
+
     @Override
     public final Tag release(RunnableConfig config) throws Exception {
 
@@ -3,7 +3,7 @@ package org.bsc.langgraph4j.checkpoint;
 import org.bsc.langgraph4j.RunnableConfig;
 
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
@@ -11,15 +11,15 @@ import static java.util.Optional.ofNullable;
 /**
  * VersionedMemorySaver is a class that implements {@link BaseCheckpointSaver} and {@link HasVersions}.
  * It provides methods to save checkpoints with versioning and retrieve them based on thread IDs and versions.
+ * The history of each thread is guarded by the same per-thread lock used by the underlying {@link MemorySaver},
+ * so unrelated threads don't block each other.
  * Experimental feature
  */
 public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
 
-    final Map<String, TreeMap<Integer,Tag>> _checkpointsHistoryByThread = new HashMap<>();
+    final Map<String, TreeMap<Integer,Tag>> _checkpointsHistoryByThread = new ConcurrentHashMap<>();
     final MemorySaver noVersionSaver = new MemorySaver();
 
-    private final ReentrantLock _lock = new ReentrantLock();
-
     /**
      * Default constructor for the {@link VersionedMemorySaver} class. Initializes a new instance of the class with default settings.
      */
@@ -40,17 +40,19 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
     /**
      * Retrieves an optional tag based on the provided version.
      *
+     * @param threadId the ID of the thread owning the history
      * @param checkpointsHistory the map containing historical tags indexed by versions
      * @param threadVersion      the version to retrieve the tag for
      * @return an {@link Optional} containing the tag associated with the given version, or an empty optional if not found
      */
-    final Optional<Tag> getTagByVersion( TreeMap<Integer,Tag> checkpointsHistory, int threadVersion ) {
-        _lock.lock();
+    final Optional<Tag> getTagByVersion( String threadId, TreeMap<Integer,Tag> checkpointsHistory, int threadVersion ) {
+        var lock = noVersionSaver.lockOf(threadId);
+        lock.lock();
         try {
             return ofNullable(checkpointsHistory.get(threadVersion));
 
         } finally {
-            _lock.unlock();
+            lock.unlock();
         }
 
     }
@@ -66,7 +68,8 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
      */
     final  Collection<Checkpoint> getCheckpointsByVersion(String threadId, int threadVersion  ) {
 
-        _lock.lock();
+        var lock = noVersionSaver.lockOf(threadId);
+        lock.lock();
         try {
             return getCheckpointHistoryByThread(threadId)
                                         .map(history -> history.get(threadVersion) )
@@ -74,7 +77,7 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
                                         .orElseThrow( () -> new IllegalArgumentException( format("Version %s for thread %s not found", threadVersion, threadId )) );
 
         } finally {
-            _lock.unlock();
+            lock.unlock();
         }
     }
 
@@ -86,9 +89,16 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
      */
     @Override
     public Collection<Integer> versionsByThreadId( String threadId ) {
-        return getCheckpointHistoryByThread( ofNullable(threadId).orElse( THREAD_ID_DEFAULT ) )
-                .map( history ->  (Collection<Integer>)history.keySet()  )
-                .orElse( Collections.emptyList() );
+        var id = ofNullable(threadId).orElse( THREAD_ID_DEFAULT );
+        var lock = noVersionSaver.lockOf(id);
+        lock.lock();
+        try {
+            return getCheckpointHistoryByThread( id )
+                    .map( history ->  (Collection<Integer>)List.copyOf(history.keySet())  )
+                    .orElse( Collections.emptyList() );
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -99,8 +109,15 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
      */
     @Override
     public Optional<Integer> lastVersionByThreadId( String threadId ) {
-        return getCheckpointHistoryByThread( ofNullable(threadId).orElse( THREAD_ID_DEFAULT ) )
-                .map(TreeMap::lastKey);
+        var id = ofNullable(threadId).orElse( THREAD_ID_DEFAULT );
+        var lock = noVersionSaver.lockOf(id);
+        lock.lock();
+        try {
+            return getCheckpointHistoryByThread( id )
+                    .map(TreeMap::lastKey);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -112,12 +129,7 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
      */
     @Override
     public Collection<Checkpoint> list( RunnableConfig config ) {
-        _lock.lock();
-        try {
-            return noVersionSaver.list(config);
-        } finally {
-            _lock.unlock();
-        }
+        return noVersionSaver.list(config);
     }
 
     /**
@@ -129,14 +141,7 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
     @Override
     public Optional<Checkpoint> get(RunnableConfig config) {
 
-        _lock.lock();
-        try {
-
-            return noVersionSaver.get(config);
-
-        } finally {
-            _lock.unlock();
-        }
+        return noVersionSaver.get(config);
     }
 
     /**
@@ -150,13 +155,7 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
     @Override
     public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
 
-        _lock.lock();
-        try {
-            return noVersionSaver.put(config, checkpoint);
-        }
-        finally {
-            _lock.unlock();
-        }
+        return noVersionSaver.put(config, checkpoint);
     }
 
     /**
@@ -169,11 +168,11 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
     @Override
     public Tag release(RunnableConfig config) throws Exception {
 
-        _lock.lock();
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        var lock = noVersionSaver.lockOf(threadId);
+        lock.lock();
         try {
 
-            var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-
             var tag = noVersionSaver.release(config);
 
             var checkpointsHistory = _checkpointsHistoryByThread
@@ -187,7 +186,7 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
 
         }
         finally {
-            _lock.unlock();
+            lock.unlock();
         }
     }
 }
\ No newline at end of file
@@ -15,7 +15,9 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
 
 public class EdgeHooks<State extends AgentState> {
@@ -124,6 +126,95 @@ public class EdgeHooks<State extends AgentState> {
     }
     public final WrapCalls wrapCalls = new WrapCalls();
 
+    // PRECOMPUTED CHAIN
+
+    /**
+     * The hooks that apply to a single edge, resolved once (e.g. when the graph is compiled).
+     * The stages without hooks are skipped, so an edge without hooks runs its action directly.
+     */
+    public class Chain {
+        private final String sourceId;
+        private final List<EdgeHook.BeforeCall<State>> beforeCallList;
+        private final List<EdgeHook.WrapCall<State>> wrapCallList;
+        private final List<EdgeHook.AfterCall<State>> afterCallList;
+
+        Chain( String sourceId ) {
+            this.sourceId = requireNonNull(sourceId, "sourceId cannot be null");
+            this.beforeCallList = beforeCalls.callsOf(sourceId);
+            this.wrapCallList = wrapCalls.callsOf(sourceId);
+            this.afterCallList = afterCalls.callsOf(sourceId);
+        }
+
+        public boolean isEmpty() {
+            return beforeCallList.isEmpty() && wrapCallList.isEmpty() && afterCallList.isEmpty();
+        }
+
+        public CompletableFuture<Command> apply( AsyncCommandAction<State> action,
+                                                 State state,
+                                                 RunnableConfig config,
+                                                 AgentStateFactory<State> stateFactory,
+                                                 Map<String, Channel<?>> schema ) {
+            if( isEmpty() ) {
+                try {
+                    return action.apply(state, config);
+                }
+                catch( Throwable ex ) {
+                    return failedFuture(ex);
+                }
+            }
+
+            final CompletableFuture<State> newState = ( beforeCallList.isEmpty() ) ?
+                    completedFuture(state) :
+                    applyBefore( state, config, stateFactory, schema )
+                        .thenApply( processedResult -> {
+                            final var newStateData = AgentState.updateState(state, processedResult, schema);
+                            return stateFactory.apply(newStateData);
+                        });
+
+            return newState.thenCompose( s -> {
+                final var result = applyWrap( s, config, action );
+                return ( afterCallList.isEmpty() ) ?
+                        result :
+                        result.thenCompose( command -> applyAfter( s, config, command ) );
+            });
+        }
+
+        private CompletableFuture<Map<String, Object>> applyBefore( State state, RunnableConfig config, AgentStateFactory<State> stateFactory, Map<String, Channel<?>> schema ) {
+            CompletableFuture<Map<String, Object>> result = completedFuture(state.data());
+            for( var call : beforeCallList ) {
+                result = result.thenCompose( data -> call.applyBefore(sourceId, stateFactory.apply(data), config)
+                        .thenApply( command -> AgentState.updateState( data, command.update(), schema ) ));
+            }
+            return result;
+        }
+
+        private CompletableFuture<Command> applyWrap( State state, RunnableConfig config, AsyncCommandAction<State> action ) {
+            var chain = action;
+            for( var call : wrapCallList ) {
+                chain = new WrapCallChainLink<>(sourceId, call, chain);
+            }
+            return chain.apply(state, config);
+        }
+
+        private CompletableFuture<Command> applyAfter( State state, RunnableConfig config, Command partialResult ) {
+            CompletableFuture<Command> result = completedFuture(partialResult);
+            for( var call : afterCallList ) {
+                result = result.thenCompose( command -> call.applyAfter(sourceId, state, config, command));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Resolves the hooks of the edge starting from the given node
+     *
+     * @param sourceId the source node id
+     * @return the hook chain of the edge
+     */
+    public Chain chain( String sourceId ) {
+        return new Chain( sourceId );
+    }
+
     // ALL IN ONE METHODS
 
     public CompletableFuture<Command> applyActionWithHooks( AsyncCommandAction<State> action,
@@ -132,14 +223,16 @@ public class EdgeHooks<State extends AgentState> {
                                                                         RunnableConfig config,
                                                                         AgentStateFactory<State> stateFactory,
                                                                         Map<String, Channel<?>> schema ) {
-        return beforeCalls.apply( sourceId, state, config, stateFactory, schema )
-                .thenApply( processedResult -> {
-                    final var newStateData = AgentState.updateState(state, processedResult, schema);
-                    return stateFactory.apply(newStateData);
-                })
-                .thenCompose( newState -> wrapCalls.apply(sourceId, newState, config, action)
-                        .thenCompose( command -> afterCalls.apply(sourceId, newState, config, command) ));
+        return chain( sourceId ).apply( action, state, config, stateFactory, schema );
+    }
 
+    /**
+     * Returns a value that changes whenever a hook is added, so the chains resolved before can be rebuilt
+     *
+     * @return the version of the hooks
+     */
+    public int version() {
+        return beforeCalls.version() + afterCalls.version() + wrapCalls.version();
     }
 
     public void validate( GraphDefinition.Edges<?> edges ) throws GraphStateException {
@@ -12,10 +12,21 @@ public abstract class HookCalls<T> {
     Map<String, Deque<T>> callMap;
     Deque<T> callList;
     final Type type;
+    private volatile int version;
 
     HookCalls( Type type ) {
         this.type = requireNonNull(type, "type cannot be null");
     }
+
+    /**
+     * Returns the number of calls added so far, to detect the changes
+     *
+     * @return the version of the calls
+     */
+    int version() {
+        return version;
+    }
+
     public void add(T call ) {
         requireNonNull( call, "call cannot be null");
 
@@ -27,6 +38,7 @@ public abstract class HookCalls<T> {
             callList.addFirst(call);
         else
             callList.addLast(call);
+        ++version;
     }
 
     public void add(String nodeId, T call ) {
@@ -42,7 +54,7 @@ public abstract class HookCalls<T> {
             callList.addFirst(call);
         else
             callList.addLast(call);
-
+        ++version;
     }
 
     protected Stream<T> callListAsStream( ) {
@@ -57,6 +69,16 @@ public abstract class HookCalls<T> {
                                 .flatMap( Collection::stream ));
     }
 
+    /**
+     * Returns the calls that apply to the given node, that is, the global ones followed by the ones bound to the node
+     *
+     * @param nodeId the node id
+     * @return the immutable list of calls
+     */
+    protected List<T> callsOf( String nodeId ) {
+        return Stream.concat( callListAsStream(), callMapAsStream(nodeId)).toList();
+    }
+
     @Override
     public String toString() {
         var superclass = getClass().getGenericSuperclass();
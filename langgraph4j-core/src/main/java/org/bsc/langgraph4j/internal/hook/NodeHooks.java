@@ -12,9 +12,12 @@ import org.bsc.langgraph4j.state.Channel;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
 
 public class NodeHooks<State extends AgentState> {
@@ -111,6 +114,123 @@ public class NodeHooks<State extends AgentState> {
     }
     public final WrapCalls wrapCalls = new WrapCalls();
 
+    // PRECOMPUTED CHAIN
+
+    /**
+     * A node action with the config passed to it and to the wrap and after call hooks
+     *
+     * @param action the node action
+     * @param config the config of the call
+     */
+    public record ResolvedCall<State extends AgentState>( AsyncNodeActionWithConfig<State> action, RunnableConfig config ) {}
+
+    /**
+     * The hooks that apply to a single node, resolved once (e.g. when the graph is compiled).
+     * The stages without hooks are skipped, so a node without hooks runs its action directly.
+     */
+    public class Chain {
+        private final String nodeId;
+        private final List<NodeHook.BeforeCall<State>> beforeCallList;
+        private final List<NodeHook.WrapCall<State>> wrapCallList;
+        private final List<NodeHook.AfterCall<State>> afterCallList;
+
+        Chain( String nodeId ) {
+            this.nodeId = requireNonNull(nodeId, "nodeId cannot be null");
+            this.beforeCallList = beforeCalls.callsOf(nodeId);
+            this.wrapCallList = wrapCalls.callsOf(nodeId);
+            this.afterCallList = afterCalls.callsOf(nodeId);
+        }
+
+        public boolean isEmpty() {
+            return beforeCallList.isEmpty() && wrapCallList.isEmpty() && afterCallList.isEmpty();
+        }
+
+        public CompletableFuture<Map<String, Object>> apply( AsyncNodeActionWithConfig<State> action,
+                                                             State state,
+                                                             RunnableConfig config,
+                                                             AgentStateFactory<State> stateFactory,
+                                                             Map<String, Channel<?>> schema ) {
+            return applyResolved( ( newState, newConfig ) -> new ResolvedCall<>( action, newConfig ), state, config, stateFactory, schema );
+        }
+
+        /**
+         * Applies the hooks to a node action resolved from the state updated by the before call hooks, so that the
+         * action and the config passed to the wrap and after call hooks can depend on it (e.g. on a cache lookup).
+         *
+         * @param resolver returns the call from the updated state and the given config
+         * @param state the node input state
+         * @param config the config passed to the before call hooks
+         * @param stateFactory the factory of the updated state
+         * @param schema the channels of the state
+         * @return the future of the partial state returned by the node
+         */
+        public CompletableFuture<Map<String, Object>> applyResolved( BiFunction<State, RunnableConfig, ResolvedCall<State>> resolver,
+                                                                     State state,
+                                                                     RunnableConfig config,
+                                                                     AgentStateFactory<State> stateFactory,
+                                                                     Map<String, Channel<?>> schema ) {
+            if( isEmpty() ) {
+                try {
+                    final var call = resolver.apply(state, config);
+                    return call.action().apply(state, call.config());
+                }
+                catch( Throwable ex ) {
+                    return failedFuture(ex);
+                }
+            }
+
+            final CompletableFuture<State> newState = ( beforeCallList.isEmpty() ) ?
+                    completedFuture(state) :
+                    applyBefore( state, config, stateFactory )
+                        .thenApply( processedResult -> {
+                            final var newStateData = AgentState.updateState(state, processedResult, schema);
+                            return stateFactory.apply(newStateData);
+                        });
+
+            return newState.thenCompose( s -> {
+                final var call = resolver.apply( s, config );
+                final var result = applyWrap( s, call.config(), call.action() );
+                return ( afterCallList.isEmpty() ) ?
+                        result :
+                        result.thenCompose( partial -> applyAfter( s, call.config(), partial ) );
+            });
+        }
+
+        private CompletableFuture<Map<String, Object>> applyBefore( State state, RunnableConfig config, AgentStateFactory<State> stateFactory ) {
+            CompletableFuture<Map<String, Object>> result = completedFuture(state.data());
+            for( var call : beforeCallList ) {
+                result = result.thenCompose( data -> call.applyBefore(nodeId, stateFactory.apply(data), config));
+            }
+            return result;
+        }
+
+        private CompletableFuture<Map<String, Object>> applyWrap( State state, RunnableConfig config, AsyncNodeActionWithConfig<State> action ) {
+            var chain = action;
+            for( var call : wrapCallList ) {
+                chain = new WrapCallChainLink<>(nodeId, call, chain);
+            }
+            return chain.apply(state, config);
+        }
+
+        private CompletableFuture<Map<String, Object>> applyAfter( State state, RunnableConfig config, Map<String, Object> partialResult ) {
+            CompletableFuture<Map<String, Object>> result = completedFuture(partialResult);
+            for( var call : afterCallList ) {
+                result = result.thenCompose( partial -> call.applyAfter(nodeId, state, config, partial));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Resolves the hooks of the given node
+     *
+     * @param nodeId the node id
+     * @return the hook chain of the node
+     */
+    public Chain chain( String nodeId ) {
+        return new Chain( nodeId );
+    }
+
     // ALL IN ONE METHODS
 
     public CompletableFuture<Map<String, Object>> applyActionWithHooks( AsyncNodeActionWithConfig<State> action,
@@ -119,14 +239,16 @@ public class NodeHooks<State extends AgentState> {
                                                                         RunnableConfig config,
                                                                         AgentStateFactory<State> stateFactory,
                                                                         Map<String, Channel<?>> schema ) {
-        return beforeCalls.apply( nodeId, state, config, stateFactory, schema )
-                .thenApply( processedResult -> {
-                    final var newStateData = AgentState.updateState(state, processedResult, schema);
-                    return stateFactory.apply(newStateData);
-                })
-                .thenCompose( newState -> wrapCalls.apply( nodeId, newState, config, action)
-                    .thenCompose( partial -> afterCalls.apply(nodeId, newState, config, partial) ));
+        return chain( nodeId ).apply( action, state, config, stateFactory, schema );
+    }
 
+    /**
+     * Returns a value that changes whenever a hook is added, so the chains resolved before can be rebuilt
+     *
+     * @return the version of the hooks
+     */
+    public int version() {
+        return beforeCalls.version() + afterCalls.version() + wrapCalls.version();
     }
 
     public void validate( StateGraph.Nodes<?> nodes ) throws GraphStateException {
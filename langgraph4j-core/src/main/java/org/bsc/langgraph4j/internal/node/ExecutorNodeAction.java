@@ -0,0 +1,33 @@
+package org.bsc.langgraph4j.internal.node;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.utils.FutureUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs a node action on the given executor, so a blocking action doesn't hold the thread that runs the graph.
+ *
+ * @param action   the node action
+ * @param executor the executor
+ */
+public record ExecutorNodeAction<State extends AgentState>(
+        AsyncNodeActionWithConfig<State> action,
+        Executor executor) implements AsyncNodeActionWithConfig<State> {
+
+    public ExecutorNodeAction {
+        requireNonNull(action, "action cannot be null");
+        requireNonNull(executor, "executor cannot be null");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> apply(State state, RunnableConfig config) {
+        return FutureUtils.supplyInterruptibly(() -> action.apply(state, config), executor);
+    }
+}
@@ -2,6 +2,7 @@ package org.bsc.langgraph4j.internal.node;
 
 import org.bsc.langgraph4j.*;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.cache.NodeCachePolicy;
 import org.bsc.langgraph4j.state.AgentState;
 
 import java.util.*;
@@ -28,10 +29,23 @@ public class Node<State extends AgentState> {
 
     private final String id;
     private final ActionFactory<State> actionFactory;
+    private final NodeCachePolicy cachePolicy;
 
     public Node(String id, ActionFactory<State> actionFactory ) {
+       this(id, actionFactory, null);
+    }
+
+    /**
+     * Constructs a node whose results are cached
+     *
+     * @param id the unique identifier for the node
+     * @param actionFactory the factory of the node action
+     * @param cachePolicy the cache policy of the node results, can be null
+     */
+    public Node(String id, ActionFactory<State> actionFactory, NodeCachePolicy cachePolicy ) {
        this.id = requireNonNull(id, "id cannot be null");
        this.actionFactory = actionFactory;
+       this.cachePolicy = cachePolicy;
     }
 
     /**
@@ -60,13 +74,21 @@ public class Node<State extends AgentState> {
         return actionFactory;
     }
 
+    /**
+     * cachePolicy
+     * @return the cache policy of the node results, if any
+     */
+    public Optional<NodeCachePolicy> cachePolicy() {
+        return Optional.ofNullable(cachePolicy);
+    }
+
     public boolean isParallel() {
         // return id.startsWith(PARALLEL_PREFIX);
         return false;
     }
 
     public Node<State> withIdUpdated( Function<String,String> newId ) {
-        return new Node<>( newId.apply( id), actionFactory );
+        return new Node<>( newId.apply( id), actionFactory, cachePolicy );
     }
 
     public void validate() throws GraphStateException {
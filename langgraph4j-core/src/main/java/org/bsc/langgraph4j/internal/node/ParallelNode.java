@@ -4,18 +4,22 @@ import org.bsc.async.AsyncGenerator;
 import org.bsc.langgraph4j.NodeOutput;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.action.Send;
 import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.AgentStateFactory;
+import org.bsc.langgraph4j.state.AppenderChannel;
 import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.utils.FutureUtils;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.state.AgentState.MARK_FOR_REMOVAL;
+import static org.bsc.langgraph4j.state.AgentState.MARK_FOR_RESET;
 
 public class ParallelNode<State extends AgentState> extends Node<State> {
     private static final String PARALLEL_PREFIX = "__PARALLEL__";
@@ -24,109 +28,87 @@ public class ParallelNode<State extends AgentState> extends Node<State> {
         return "%s(%s)".formatted(PARALLEL_PREFIX, requireNonNull(nodeId, "nodeId cannot be null!"));
     }
 
+    /**
+     * Checks if the given action is a parallel action. A parallel action returns the whole state, already
+     * merged through the channels.
+     *
+     * @param action the node action
+     * @return true if the action runs parallel branches
+     */
+    public static boolean isParallelAction(AsyncNodeActionWithConfig<?> action) {
+        return action instanceof AsyncParallelNodeAction<?> || action instanceof AsyncSendNodeAction<?>;
+    }
+
     public record AsyncParallelNodeAction<State extends AgentState>(
             String nodeId,
             List<AsyncNodeActionWithConfig<State>> actions,
-            Map<String, Channel<?>> channels) implements AsyncNodeActionWithConfig<State> {
-
-        private CompletableFuture<Map<String, Object>> evalGenerator(AsyncGenerator<NodeOutput<State>> generator, Map<String, Object> initPartialState) {
-            return generator.reduce(new ArrayList<NodeOutput<State>>(), (result, value) -> {
-                        result.add(value);
-                        return result;
-                    })
-                    .thenApply(list -> {
-                        Map<String, Object> result = initPartialState;
-                        for (var output : list) {
-                            result = AgentState.updateState(result, output.state().data(), channels);
-                        }
-                        return result;
-                    });
-        }
-
-        @SuppressWarnings("unchecked")
-        private CompletableFuture<Map<String, Object>> evalNodeActionSync(AsyncNodeActionWithConfig<State> action, State state, RunnableConfig config) {
+            Map<String, Channel<?>> channels,
+            int maxConcurrency,
+            Executor executor) implements AsyncNodeActionWithConfig<State> {
 
-            return action.apply(state, config).thenCompose(partialState ->
-                    partialState.entrySet().stream()
-                            .filter(e -> e.getValue() instanceof AsyncGenerator)
-                            .findFirst()
-                            .map(generatorEntry -> {
-
-                                var partialStateWithoutGenerator = partialState.entrySet().stream()
-                                        .filter(e -> !Objects.equals(e.getKey(), generatorEntry.getKey()))
-                                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-                                return evalGenerator((AsyncGenerator<NodeOutput<State>>) generatorEntry.getValue(), partialStateWithoutGenerator);
-
-                            })
-                            .orElse(completedFuture(partialState))
-            );
+        public AsyncParallelNodeAction(String nodeId, List<AsyncNodeActionWithConfig<State>> actions, Map<String, Channel<?>> channels) {
+            this(nodeId, actions, channels, Integer.MAX_VALUE, null);
         }
 
-        private CompletableFuture<Map<String, Object>> evalNodeActionAsync(AsyncNodeActionWithConfig<State> action,
-                                                                           State state,
-                                                                           RunnableConfig config,
-                                                                           Executor executor) {
-            return CompletableFuture.supplyAsync(() -> evalNodeActionSync(action, state, config).join(), executor);
-
+        public AsyncParallelNodeAction(String nodeId, List<AsyncNodeActionWithConfig<State>> actions, Map<String, Channel<?>> channels, int maxConcurrency) {
+            this(nodeId, actions, channels, maxConcurrency, null);
         }
-        private Optional<Executor> getExecutor(RunnableConfig config) {
-            return config.metadata(nodeId)
-                    .filter(value -> value instanceof Executor)
-                    .map(Executor.class::cast);
-        }
-
-        private CompletableFuture<Void> allOfFailFast(RunnableConfig config, CompletableFuture<?>... futures) {
-            CompletableFuture<Void> manager = new CompletableFuture<>();
-
-            for (CompletableFuture<?> future : futures) {
-                future.whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        // One failed, so fail the manager immediately
-                        manager.completeExceptionally(throwable);
-                    } else {
-                        // Check if all others are done
-                        if (Stream.of(futures).allMatch(CompletableFuture::isDone)) {
-                            manager.complete(null);
-                        }
-                    }
-                });
-            }
 
-            // Handle the case of an empty array
-            if (futures.length == 0) {
-                manager.complete(null);
-            }
+        @Override
+        public CompletableFuture<Map<String, Object>> apply(State state, RunnableConfig config) {
+            final var executor = executorOf(nodeId, config, this.executor);
 
-            return manager;
+            return FutureUtils.forkJoin(actions.size(),
+                    index -> evalNodeAction(actions.get(index), state, config, executor, channels),
+                    maxConcurrency)
+                    .thenApply(results -> mergePartialStates(state.data(), results, channels));
         }
+    }
 
+    /**
+     * Runs a node once for each {@link Send}, with the state overlaid by the send payload
+     *
+     * @param nodeId         the target node id
+     * @param action         the target node action
+     * @param sends          the work items
+     * @param stateFactory   the factory used to create the state of each run
+     * @param channels       the channels used to merge the results
+     * @param maxConcurrency the max number of concurrent runs
+     * @param executor       the executor of the runs, null to run them on the calling thread. The executor
+     *                       in the {@link RunnableConfig} metadata takes precedence.
+     */
+    public record AsyncSendNodeAction<State extends AgentState>(
+            String nodeId,
+            AsyncNodeActionWithConfig<State> action,
+            List<Send> sends,
+            AgentStateFactory<State> stateFactory,
+            Map<String, Channel<?>> channels,
+            int maxConcurrency,
+            Executor executor) implements AsyncNodeActionWithConfig<State> {
 
         @Override
         public CompletableFuture<Map<String, Object>> apply(State state, RunnableConfig config) {
+            final var executor = executorOf(formatNodeId(nodeId), config, this.executor);
 
-            final var evalNodeAction = getExecutor(config)
-                    .map(executor -> (Function<AsyncNodeActionWithConfig<State>, CompletableFuture<Map<String, Object>>>) action -> evalNodeActionAsync(action, state, config, executor))
-                    .orElseGet(() -> (Function<AsyncNodeActionWithConfig<State>, CompletableFuture<Map<String, Object>>>) action -> evalNodeActionSync(action, state, config));
-
-            @SuppressWarnings("unchecked") final CompletableFuture<Map<String, Object>>[] actionsArray = actions.stream()
-                    .map(evalNodeAction)
-                    .toArray(CompletableFuture[]::new);
-
-            return allOfFailFast(config, actionsArray).thenApply(v ->
-                    Stream.of(actionsArray)
-                            .map(CompletableFuture::join)
-                            .reduce(state.data(),
-                                    (result, actionResult) ->
-                                            AgentState.updateState(result, actionResult, channels)
-                                    /* , (f1, f2) -> AgentState.updateState( f1, f2, channels) )  */)
-            );
-
+            return FutureUtils.forkJoin(sends.size(),
+                    index -> {
+                        final var payload = sends.get(index).payload();
+                        // overlay the payload, channels are applied only to the results
+                        final var sendState = stateFactory.apply(AgentState.updateState(state.data(), payload, Map.of()));
+                        return evalNodeAction(action, sendState, config, executor, channels);
+                    },
+                    maxConcurrency)
+                    .thenApply(results -> mergePartialStates(state.data(), results, channels));
         }
     }
 
     public ParallelNode(String id, List<AsyncNodeActionWithConfig<State>> actions, Map<String, Channel<?>> channels) {
         super(formatNodeId(id),
-                (config) -> new AsyncParallelNodeAction<>(formatNodeId(id), actions, channels));
+                (config) -> new AsyncParallelNodeAction<>(formatNodeId(id),
+                        actions,
+                        channels,
+                        config.maxConcurrency(),
+                        config.parallelNodeExecutor(id).orElse(null)));
     }
 
     @Override
@@ -134,4 +116,142 @@ public class ParallelNode<State extends AgentState> extends Node<State> {
         return true;
     }
 
+    private static Optional<Executor> executorOf(String key, RunnableConfig config, Executor compiledExecutor) {
+        return config.metadata(key)
+                .filter(value -> value instanceof Executor)
+                .map(Executor.class::cast)
+                .or(() -> Optional.ofNullable(compiledExecutor));
+    }
+
+    private static <State extends AgentState> CompletableFuture<Map<String, Object>> evalGenerator(AsyncGenerator<NodeOutput<State>> generator,
+                                                                                                    Map<String, Object> initPartialState,
+                                                                                                    Map<String, Channel<?>> channels) {
+        return generator.reduce(new ArrayList<NodeOutput<State>>(), (result, value) -> {
+                    result.add(value);
+                    return result;
+                })
+                .thenApply(list -> {
+                    Map<String, Object> result = initPartialState;
+                    for (var output : list) {
+                        result = AgentState.updateState(result, output.state().data(), channels);
+                    }
+                    return result;
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <State extends AgentState> CompletableFuture<Map<String, Object>> evalNodeActionSync(AsyncNodeActionWithConfig<State> action,
+                                                                                                         State state,
+                                                                                                         RunnableConfig config,
+                                                                                                         Map<String, Channel<?>> channels) {
+
+        return action.apply(state, config).thenCompose(partialState ->
+                partialState.entrySet().stream()
+                        .filter(e -> e.getValue() instanceof AsyncGenerator)
+                        .findFirst()
+                        .map(generatorEntry -> {
+
+                            var partialStateWithoutGenerator = partialState.entrySet().stream()
+                                    .filter(e -> !Objects.equals(e.getKey(), generatorEntry.getKey()))
+                                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                            return evalGenerator((AsyncGenerator<NodeOutput<State>>) generatorEntry.getValue(), partialStateWithoutGenerator, channels);
+
+                        })
+                        .orElse(completedFuture(partialState))
+        );
+    }
+
+    /**
+     * Runs the node action, on the executor if present, and evaluates the embedded generator eventually returned,
+     * merging its outputs into the partial state
+     *
+     * @param action   the node action
+     * @param state    the node state
+     * @param config   the node config
+     * @param executor the executor, empty to run the action on the calling thread
+     * @param channels the channels used to merge the generator outputs
+     * @return the partial state
+     */
+    public static <State extends AgentState> CompletableFuture<Map<String, Object>> evalNodeAction(AsyncNodeActionWithConfig<State> action,
+                                                                                                     State state,
+                                                                                                     RunnableConfig config,
+                                                                                                     Optional<Executor> executor,
+                                                                                                     Map<String, Channel<?>> channels) {
+        return executor.map(value -> FutureUtils.supplyInterruptibly(() -> evalNodeActionSync(action, state, config, channels), value))
+                .orElseGet(() -> evalNodeActionSync(action, state, config, channels));
+    }
+
+    /**
+     * Merges the partial states into the state, with the same result of updating the state with each partial state
+     * in turn. Each key is merged once: the values of channels without reducer are overwritten, the values of
+     * {@link AppenderChannel} are appended in a single update and the reducers of any other channel are applied
+     * in the order of the partial states.
+     *
+     * @param state    the state
+     * @param partials the partial states
+     * @param channels the channels
+     * @return the updated state
+     */
+    public static Map<String, Object> mergePartialStates(Map<String, Object> state, List<Map<String, Object>> partials, Map<String, Channel<?>> channels) {
+        if (partials.size() == 1) {
+            return AgentState.updateState(state, partials.get(0), channels);
+        }
+        final var updatesByKey = new LinkedHashMap<String, List<Object>>();
+        for (var partial : partials) {
+            if (partial == null) {
+                continue;
+            }
+            for (var entry : partial.entrySet()) {
+                updatesByKey.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+
+        final var merged = new HashMap<String, Object>(updatesByKey.size());
+        updatesByKey.forEach((key, updates) -> {
+            final Channel<?> channel = (channels != null) ? channels.get(key) : null;
+            if (channel == null) {
+                merged.put(key, updates.get(updates.size() - 1));
+                return;
+            }
+            if (channel instanceof AppenderChannel<?>) {
+                final var values = appendedValues(updates);
+                if (values != null) {
+                    merged.put(key, channel.update(key, state.get(key), values));
+                    return;
+                }
+            }
+            Object value = state.get(key);
+            for (var update : updates) {
+                value = channel.update(key, value, update);
+            }
+            merged.put(key, value);
+        });
+        // values have already been reduced by channels
+        return AgentState.updateState(state, merged, Map.of());
+    }
+
+    /**
+     * Concatenates the values to append, null if any update is not a plain append (reset, removal, replace)
+     */
+    private static List<Object> appendedValues(List<Object> updates) {
+        final var result = new ArrayList<>();
+        for (var update : updates) {
+            if (update == null || update == MARK_FOR_RESET || update == MARK_FOR_REMOVAL
+                    || update instanceof AppenderChannel.ReplaceAllWith<?>) {
+                return null;
+            }
+            if (update instanceof List<?> list) {
+                result.addAll(list);
+            } else if (update instanceof Object[] array) {
+                result.addAll(Arrays.asList(array));
+            } else {
+                result.add(update);
+            }
+        }
+        if (result.stream().anyMatch(value -> value instanceof AppenderChannel.RemoveIdentifier<?>)) {
+            return null;
+        }
+        return result;
+    }
+
 }
@@ -22,6 +22,16 @@ public class MessagesState<T> extends AgentState {
             MESSAGES_STATE, Channels.appender(ArrayList::new)
     );
 
+    /**
+     * Same as {@link #SCHEMA} but the messages are held by a {@link org.bsc.langgraph4j.utils.HashIndexedList},
+     * so appending a message doesn't copy or scan the whole conversation.
+     *
+     * @see Channels#indexedAppender()
+     */
+    public static final Map<String, Channel<?>> INDEXED_SCHEMA = Map.of(
+            MESSAGES_STATE, Channels.indexedAppender()
+    );
+
     /**
      * Constructs a new instance of MessagesState with the provided initial data.
      *
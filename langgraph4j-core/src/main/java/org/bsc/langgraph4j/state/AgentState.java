@@ -1,16 +1,16 @@
 package org.bsc.langgraph4j.state;
 
 import org.bsc.langgraph4j.utils.CollectionsUtils;
+import org.bsc.langgraph4j.utils.PersistentMap;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.*;
-import java.util.function.BinaryOperator;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
-import java.util.stream.Collector;
-import java.util.stream.Stream;
 
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Optional.ofNullable;
-import static org.bsc.langgraph4j.utils.CollectionsUtils.entryOf;
 
 /**
  * Represents the state of an agent with a map of data.
@@ -21,13 +21,192 @@ public class AgentState {
 
     private final java.util.Map<String,Object> data;
 
+    /**
+     * State data built by {@link #updateState(Map, Map, Map)} and by the constructor.
+     * The map returned by {@link #updateState(Map, Map, Map)} is mutable, the constructor shares its entries in a
+     * read-only view and the returned map copies them on its first write (copy-on-write), so the state is never
+     * affected by the changes of the caller and the common case, where the result is never modified, is not copied.
+     */
+    private static final class StateData extends AbstractMap<String,Object> implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private HashMap<String,Object> map;
+        private final boolean readOnly;
+        private boolean shared;
+        private transient Set<Entry<String,Object>> entrySet;
+
+        StateData( HashMap<String,Object> map, boolean readOnly ) {
+            this.map = map;
+            this.readOnly = readOnly;
+        }
+
+        /**
+         * Returns a read-only view sharing the current entries, following writes on this map copy them first
+         */
+        StateData readOnlyView() {
+            if( readOnly ) {
+                return this;
+            }
+            shared = true;
+            return new StateData( map, true );
+        }
+
+        private HashMap<String,Object> writableMap() {
+            if( readOnly ) {
+                throw new UnsupportedOperationException("state data is read-only");
+            }
+            if( shared ) {
+                map = new HashMap<>( map );
+                shared = false;
+            }
+            return map;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public Object getOrDefault(Object key, Object defaultValue) {
+            return map.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            map.forEach(action);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return writableMap().put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return writableMap().remove(key);
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ?> m) {
+            writableMap().putAll(m);
+        }
+
+        @Override
+        public void clear() {
+            writableMap().clear();
+        }
+
+        @Override
+        public Set<Entry<String,Object>> entrySet() {
+            if( entrySet == null ) {
+                entrySet = readOnly ? unmodifiableMap(map).entrySet() : new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String,Object>> iterator() {
+                        return shared ? new SharedIterator( map.entrySet().iterator() ) : map.entrySet().iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return map.size();
+                    }
+
+                    @Override
+                    public void clear() {
+                        StateData.this.clear();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        /**
+         * Iterates a shared map without copying it, the changes are applied to the copy made by the first write
+         */
+        private final class SharedIterator implements Iterator<Entry<String,Object>> {
+            private final Iterator<Entry<String,Object>> iterator;
+            private Entry<String,Object> last;
+
+            SharedIterator( Iterator<Entry<String,Object>> iterator ) {
+                this.iterator = iterator;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Entry<String,Object> next() {
+                last = iterator.next();
+                return new SimpleEntry<>( last ) {
+                    @Override
+                    public Object setValue(Object value) {
+                        super.setValue(value);
+                        return writableMap().put( getKey(), value );
+                    }
+                };
+            }
+
+            @Override
+            public void remove() {
+                if( last == null ) {
+                    throw new IllegalStateException();
+                }
+                writableMap().remove( last.getKey() );
+                last = null;
+            }
+        }
+
+        @Serial
+        private Object writeReplace() {
+            return new HashMap<>(map);
+        }
+    }
+
+    private static HashMap<String,Object> newStateMap( int expectedSize ) {
+        return new HashMap<>( (int) Math.ceil( expectedSize / 0.75 ) );
+    }
+
+    private static boolean isRemoved( Object value ) {
+        return value == null || value == MARK_FOR_RESET || value == MARK_FOR_REMOVAL;
+    }
+
     /**
      * Constructs an AgentState with the given initial data.
+     * If the initial data is a {@link PersistentMap} or it has been built by {@link #updateState(Map, Map, Map)}
+     * it is shared, otherwise it is copied.
+     * The data built by {@link #updateState(Map, Map, Map)} stays mutable, its following changes are not visible in
+     * this state.
      *
      * @param initData the initial data for the agent state
      */
     public AgentState(Map<String,Object> initData) {
-        this.data = new HashMap<>(initData);
+        if( initData instanceof PersistentMap<String,Object> ) {
+            this.data = initData;
+        }
+        else if( initData instanceof StateData stateData ) {
+            this.data = stateData.readOnlyView();
+        }
+        else {
+            this.data = new StateData( new HashMap<>(initData), true );
+        }
     }
 
     /**
@@ -36,7 +215,7 @@ public class AgentState {
      * @return an unmodifiable map of the data
      */
     public final java.util.Map<String,Object> data() {
-        return unmodifiableMap(data);
+        return data;
     }
 
 
@@ -48,7 +227,7 @@ public class AgentState {
      * @return an Optional containing the value if present, otherwise an empty Optional
      */
     @SuppressWarnings("unchecked")
-    public final <T> Optional<T> value(String key) { return ofNullable((T) data().get(key));}
+    public final <T> Optional<T> value(String key) { return ofNullable((T) data.get(key));}
 
     /**
      * Returns a string representation of the agent state.
@@ -60,73 +239,41 @@ public class AgentState {
         return CollectionsUtils.toString(data);
     }
 
-    private static Collector<Map.Entry<String,Object>, ?, Map<String, Object>> toMapRemovingItemMarkedForRemoval() {
-        final BinaryOperator<Object> mergeFunction = ( currentValue, newValue ) -> newValue;
-
-        return Collector.of(
-                HashMap::new,
-                (map, element) -> {
-                    var key     = element.getKey();
-                    var value   = element.getValue();
-                    if( value == null || value == MARK_FOR_RESET || value == MARK_FOR_REMOVAL) {
-                        map.remove(key);
-                    }
-                    else {
-                        map.merge(key, value, mergeFunction);
-                    }
-                },
-                (map1, map2) -> {
-                    map2.forEach( (key, value) -> {
-                        if ( value != null && value != MARK_FOR_RESET && value != MARK_FOR_REMOVAL) {
-                            map1.merge(key, value, mergeFunction);
-                        }
-                    });
-                    return map1;
-                },
-                Collector.Characteristics.UNORDERED);
-    }
-
-
-    private static Collector<Map.Entry<String,Object>, ?, Map<String, Object>> toMapAllowingNulls() {
-        return Collector.of(
-                HashMap::new,
-                (map, element) -> map.put(element.getKey(), element.getValue()),
-                (map1, map2) -> {
-                    map1.putAll(map2);
-                    return map1;
-                },
-                Collector.Characteristics.UNORDERED);
-    }
-
     /**
-     * Updates the partial state from a schema using channels.
+     * Updates a persistent state touching only the keys present in the partial state.
+     * All the untouched entries are shared with the given state.
      *
-     * @param state        The current state as a map of key-value pairs.
-     * @param partialState The partial state to be updated.
-     * @param channels     A map of channel names to their implementations.
-     * @return An updated version of the partial state after applying the schema and channels.
+     * @param state the current persistent state
+     * @param partialState the partial state to update from
+     * @param channels the channels used to update the partial state if necessary
+     * @return the updated persistent state
      */
-    private static Map<String,Object> updatePartialStateFromSchema(  Map<String,Object> state, Map<String,Object> partialState, Map<String, Channel<?>> channels ) {
-        if( channels == null || channels.isEmpty() ) {
-            return partialState;
-        }
-        return partialState.entrySet().stream().map( entry -> {
+    private static Map<String,Object> updatePersistentState( PersistentMap<String,Object> state, Map<String,Object> partialState, Map<String, Channel<?>> channels ) {
+        var result = state;
+        for( var entry : partialState.entrySet() ) {
+            final var key = entry.getKey();
+            var value = entry.getValue();
 
-            Channel<?> channel = channels.get(entry.getKey());
-            if (channel != null) {
-                Object newValue = channel.update( entry.getKey(), state.get(entry.getKey()), entry.getValue());
-                return entryOf(entry.getKey(), newValue);
+            final Channel<?> channel = ( channels != null ) ? channels.get(key) : null;
+            if( channel != null ) {
+                value = channel.update( key, state.get(key), value );
             }
-
-            return entry;
-        })
-        .collect(toMapAllowingNulls());
+            if( isRemoved(value) ) {
+                result = result.minus(key);
+            }
+            else {
+                result = result.plus(key, value);
+            }
+        }
+        return result;
     }
 
-
     /**
      * Updates a state with the provided partial state.
      * The merge function is used to merge the current state value with the new value.
+     * If the given state is a {@link PersistentMap} the result is a {@link PersistentMap} too, otherwise the result
+     * is a mutable map that {@link #AgentState(Map)} shares without copying it, the map copies its entries only if it
+     * is changed after that.
      *
      * @param state the current state
      * @param partialState the partial state to update from
@@ -140,10 +287,36 @@ public class AgentState {
             return state;
         }
 
-        Map<String, Object> updatedPartialState = updatePartialStateFromSchema(state, partialState, channels);
+        if( state instanceof PersistentMap<String,Object> persistentState ) {
+            return updatePersistentState( persistentState, partialState, channels );
+        }
+
+        // copy the current state once, in a map large enough to avoid rehashing, then touch only the updated keys
+        final var result = newStateMap( state.size() + partialState.size() );
+        state.forEach( (key, value) -> {
+            if( !isRemoved(value) ) {
+                result.put( key, value );
+            }
+        });
+
+        final boolean withChannels = channels != null && !channels.isEmpty();
+        for( var entry : partialState.entrySet() ) {
+            final var key = entry.getKey();
+            var value = entry.getValue();
+
+            final Channel<?> channel = withChannels ? channels.get(key) : null;
+            if( channel != null ) {
+                value = channel.update( key, state.get(key), value );
+            }
+            if( isRemoved(value) ) {
+                result.remove(key);
+            }
+            else {
+                result.put(key, value);
+            }
+        }
 
-        return  Stream.concat( state.entrySet().stream(), updatedPartialState.entrySet().stream())
-                .collect(toMapRemovingItemMarkedForRemoval());
+        return new StateData( result, false );
     }
 
     /**
@@ -4,6 +4,7 @@ import java.util.*;
 import java.util.function.Supplier;
 
 import org.bsc.langgraph4j.LG4JLoggable;
+import org.bsc.langgraph4j.utils.HashIndexedList;
 
 import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
@@ -55,6 +56,14 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
             if (left == null) {
                 return right;
             }
+            if (left instanceof HashIndexedList<T> indexed) {
+                for (T rValue : right) {
+                    if (!indexed.containsHashOf(rValue)) {
+                        indexed.add(rValue);
+                    }
+                }
+                return left;
+            }
             for (T rValue : right) {
                 // remove duplicate
                 if (left.stream().noneMatch(lValue -> Objects.hash(lValue) == Objects.hash(rValue))) {
@@ -85,6 +94,7 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
 
     private final Reducer<List<T>> reducer;
     private final Supplier<List<T>> defaultProvider;
+    private final boolean indexed;
 
     /**
      * Returns an {@link Optional} containing the current reducer if it is non-null.
@@ -114,8 +124,20 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
      * @param defaultProvider a supplier for the default list that will be used when no other list is available
      */
     protected AppenderChannel( Reducer<List<T>> reducer,  Supplier<List<T>> defaultProvider ) {
+        this( reducer, defaultProvider, false );
+    }
+
+    /**
+     * Constructs a new instance of {@code AppenderChannel}.
+     *
+     * @param reducer a binary operator that is used to combine two lists into one
+     * @param defaultProvider a supplier for the default list that will be used when no other list is available
+     * @param indexed if {@code true} the values are held by a {@link HashIndexedList}
+     */
+    protected AppenderChannel( Reducer<List<T>> reducer,  Supplier<List<T>> defaultProvider, boolean indexed ) {
         this.reducer = reducer;
         this.defaultProvider = defaultProvider;
+        this.indexed = indexed;
     }
 
     /**
@@ -127,6 +149,9 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
      * @return An unmodifiable view of the modified list with specified elements removed.
      */
     private List<T> remove(List<T> list, RemoveIdentifier<T> removeIdentifier ) {
+        if( indexed ) {
+            return removeIndexed( list, removeIdentifier );
+        }
         var result = new ArrayList<>(list);
         removeFromList(result, removeIdentifier);
         return unmodifiableList(result);
@@ -153,6 +178,23 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
         }
     }
 
+    /**
+     * Removes from a copy (sharing the structure) of the given list the elements that match the specified identifier.
+     * A {@link RemoveByHash} that doesn't match any element returns the given list without copying it.
+     *
+     * @param list The list from which elements will be removed.
+     * @param removeIdentifier An instance of {@link RemoveIdentifier} that defines how to identify elements for removal.
+     * @return the list without the matching elements
+     */
+    private HashIndexedList<T> removeIndexed(List<T> list, RemoveIdentifier<T> removeIdentifier ) {
+        final var result = HashIndexedList.copyOf(list);
+        if( removeIdentifier instanceof RemoveByHash<?> removeByHash && !result.containsHashOf(removeByHash.value()) ) {
+            return result;
+        }
+        result.removeMatching( (element, index) -> removeIdentifier.compareTo(element, index) == 0 );
+        return result;
+    }
+
     /**
      * Represents a record for data removal operations with generic types.
      * 
@@ -191,6 +233,35 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
 
     }
 
+    /**
+     * Appends the new values to a copy (sharing the structure) of the old values.
+     * The {@code RemoveIdentifier}s contained in the new values are applied to the old values before appending.
+     *
+     * @param key       the channel key
+     * @param oldValues the old values
+     * @param newValues the new values, possibly containing {@code RemoveIdentifier}s
+     * @return the updated values
+     */
+    @SuppressWarnings("unchecked")
+    private Object updateIndexed( String key, List<T> oldValues, List<?> newValues ) {
+        var result = HashIndexedList.copyOf(oldValues);
+        List<?> values = newValues;
+
+        if( newValues.stream().anyMatch( value -> value instanceof RemoveIdentifier<?> ) ) {
+            final var valuesToAppend = new ArrayList<>(newValues.size());
+            for( var value : newValues ) {
+                if( value instanceof RemoveIdentifier<?> ) {
+                    result = removeIndexed( result, (RemoveIdentifier<T>) value );
+                }
+                else {
+                    valuesToAppend.add( value );
+                }
+            }
+            values = valuesToAppend;
+        }
+        return Channel.super.update(key, result, values);
+    }
+
     @SuppressWarnings("unchecked")
     protected List<T> validateNewValues(List<?> list  ) {
         return (List<T>)list;
@@ -222,7 +293,9 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
 
         try {
             if( newValue instanceof ReplaceAllWith<?> replaceAll ) {
-                return List.copyOf(replaceAll.newValues());
+                return ( indexed ) ?
+                        new HashIndexedList<>(replaceAll.newValues()) :
+                        List.copyOf(replaceAll.newValues());
             }
             if( oldValueIsList && newValue instanceof RemoveIdentifier<?> ) {
                 return remove( (List<T>)oldValue, (RemoveIdentifier<T>)newValue);
@@ -240,6 +313,9 @@ public class AppenderChannel<T> implements Channel<List<T>>, LG4JLoggable {
                 return oldValue;
             }
             var typedList = validateNewValues(list);
+            if( oldValueIsList && indexed ) {
+                return updateIndexed( key, (List<T>)oldValue, typedList );
+            }
             if( oldValueIsList ) {
                 var result = evaluateRemoval( (List<T>)oldValue, typedList );
                 return Channel.super.update(key, result.oldValues(), result.newValues());
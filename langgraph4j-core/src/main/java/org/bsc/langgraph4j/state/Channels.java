@@ -1,5 +1,7 @@
 package org.bsc.langgraph4j.state;
 
+import org.bsc.langgraph4j.utils.HashIndexedList;
+
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -13,6 +15,28 @@ public interface Channels {
         return new AppenderChannel<>( new AppenderChannel.ReducerAllowDuplicate<>(), defaultProvider );
     }
 
+    /**
+     * Appender channel, that disallows duplicates, backed by a {@link HashIndexedList}.
+     * Duplicate checks and removals by hash don't scan the list and the list copies share their structure.
+     *
+     * @param <T> the type of the values
+     * @return the channel
+     */
+    static <T> Channel<List<T>> indexedAppender() {
+        return new AppenderChannel<>( new AppenderChannel.ReducerDisallowDuplicate<>(), HashIndexedList::new, true );
+    }
+
+    /**
+     * Appender channel, that allows duplicates, backed by a {@link HashIndexedList}.
+     *
+     * @param <T> the type of the values
+     * @return the channel
+     * @see #indexedAppender()
+     */
+    static <T> Channel<List<T>> indexedAppenderWithDuplicate() {
+        return new AppenderChannel<>( new AppenderChannel.ReducerAllowDuplicate<>(), HashIndexedList::new, true );
+    }
+
     static <T>  Channel<T> base( Supplier<T> defaultProvider) {
         return new BaseChannel<>(null, defaultProvider);
     }
@@ -0,0 +1,24 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.langgraph4j.state.AgentState;
+
+import static java.lang.String.format;
+
+/**
+ * Lightweight {@link StreamingOutput} that doesn't retain the state of the streaming node,
+ * so {@link #state()} returns {@code null}.
+ *
+ * @param <State> the type of the state of the graph
+ * @see StreamingChunkPolicy.Builder#withState(boolean)
+ */
+public class StreamingChunk<State extends AgentState> extends StreamingOutput<State> {
+
+    public StreamingChunk(String chunk, String node) {
+        super(chunk, node, null);
+    }
+
+    @Override
+    public String toString() {
+        return format("StreamingChunk{node=%s, chunk=%s}", node(), chunk());
+    }
+}
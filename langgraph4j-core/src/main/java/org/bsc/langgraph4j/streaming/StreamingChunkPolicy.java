@@ -0,0 +1,182 @@
+package org.bsc.langgraph4j.streaming;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Controls how the tokens of a streaming model response are delivered to the graph consumer.
+ * <p>
+ * The tokens are coalesced into chunks of at most {@link #maxChunkTokens()} tokens, a chunk is emitted earlier
+ * when its first token is older than {@link #maxChunkDelay()} (checked when a new token arrives) or when the
+ * response is completed. The chunks waiting for the consumer are at most {@link #capacity()}, when the limit is
+ * reached the {@link Overflow} policy is applied.
+ * </p>
+ * The {@link #unbounded() default policy} emits a {@link StreamingOutput} for each token, without limits.
+ */
+public final class StreamingChunkPolicy {
+
+    /**
+     * What to do when a chunk is emitted and the consumer is lagging behind by {@link #capacity()} chunks
+     */
+    public enum Overflow {
+        /**
+         * Blocks the producer (the model response handler) until the consumer takes a chunk
+         */
+        BLOCK,
+        /**
+         * Appends the chunk to the last waiting one, no text is lost
+         */
+        COALESCE,
+        /**
+         * Drops the waiting chunks and keeps the latest one. The dropped text is still part of the final response
+         */
+        DROP_TO_LATEST
+    }
+
+    private static final StreamingChunkPolicy UNBOUNDED = builder().build();
+
+    private final int capacity;
+    private final Overflow overflow;
+    private final int maxChunkTokens;
+    private final Duration maxChunkDelay;
+    private final boolean withState;
+
+    private StreamingChunkPolicy(Builder builder) {
+        this.capacity = builder.capacity;
+        this.overflow = builder.overflow;
+        this.maxChunkTokens = builder.maxChunkTokens;
+        this.maxChunkDelay = builder.maxChunkDelay;
+        this.withState = builder.withState;
+    }
+
+    /**
+     * Returns the policy that emits each token as soon as it arrives, without limiting the waiting chunks
+     *
+     * @return the default policy
+     */
+    public static StreamingChunkPolicy unbounded() {
+        return UNBOUNDED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int capacity = Integer.MAX_VALUE;
+        private Overflow overflow = Overflow.BLOCK;
+        private int maxChunkTokens = 1;
+        private Duration maxChunkDelay;
+        private boolean withState = true;
+
+        /**
+         * Sets the max number of chunks waiting for the consumer
+         *
+         * @param capacity the max number of waiting chunks
+         * @return this builder
+         */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be > 0!");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets what to do when the max number of waiting chunks is reached, by default {@link Overflow#BLOCK}
+         *
+         * @param overflow the overflow policy
+         * @return this builder
+         */
+        public Builder overflow(Overflow overflow) {
+            this.overflow = requireNonNull(overflow, "overflow cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the max number of tokens coalesced in a chunk
+         *
+         * @param maxChunkTokens the max number of tokens of a chunk
+         * @return this builder
+         */
+        public Builder maxChunkTokens(int maxChunkTokens) {
+            if (maxChunkTokens <= 0) {
+                throw new IllegalArgumentException("maxChunkTokens must be > 0!");
+            }
+            this.maxChunkTokens = maxChunkTokens;
+            return this;
+        }
+
+        /**
+         * Sets the max time a token waits to be coalesced with the following ones
+         *
+         * @param maxChunkDelay the max delay, null to wait for {@link #maxChunkTokens(int)} tokens
+         * @return this builder
+         */
+        public Builder maxChunkDelay(Duration maxChunkDelay) {
+            if (maxChunkDelay != null && maxChunkDelay.isNegative()) {
+                throw new IllegalArgumentException("maxChunkDelay must be >= 0!");
+            }
+            this.maxChunkDelay = maxChunkDelay;
+            return this;
+        }
+
+        /**
+         * Sets if the chunks carry the state of the streaming node. When {@code false} the chunks are
+         * {@link StreamingChunk} instances, that don't retain the state.
+         *
+         * @param withState true (default) to emit chunks with state
+         * @return this builder
+         */
+        public Builder withState(boolean withState) {
+            this.withState = withState;
+            return this;
+        }
+
+        public StreamingChunkPolicy build() {
+            return new StreamingChunkPolicy(this);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    public int maxChunkTokens() {
+        return maxChunkTokens;
+    }
+
+    /**
+     * Returns the max time a token waits to be coalesced with the following ones
+     *
+     * @return the max delay, null if the chunks are coalesced by size only
+     */
+    public Duration maxChunkDelay() {
+        return maxChunkDelay;
+    }
+
+    public boolean withState() {
+        return withState;
+    }
+
+    /**
+     * Checks if the tokens are coalesced in chunks
+     *
+     * @return true if a chunk can contain more than one token
+     */
+    public boolean isCoalescing() {
+        return maxChunkTokens > 1;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingChunkPolicy{capacity=%d, overflow=%s, maxChunkTokens=%d, maxChunkDelay=%s, withState=%b}"
+                .formatted(capacity, overflow, maxChunkTokens, maxChunkDelay, withState);
+    }
+}
@@ -0,0 +1,196 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bridges a streaming model response handler to the queue of an {@code AsyncGeneratorQueue.Generator},
+ * applying a {@link StreamingChunkPolicy}.
+ * <p>
+ * The handler, the producer, calls {@link #onToken(String)} for each token and then {@link #onComplete(Object)}
+ * or {@link #onError(Throwable)}; the generator, the consumer, takes the chunks from {@link #queue()}.
+ * The completion and the error are never dropped. After {@link #close()} (e.g. when the consumer cancels the
+ * generator) the tokens are discarded and a blocked producer is released.
+ * </p>
+ *
+ * @param <State> the type of the state of the graph
+ */
+public class StreamingChunkQueue<State extends AgentState> {
+
+    private static final long BLOCK_POLL_MILLIS = 100;
+
+    private final StreamingChunkPolicy policy;
+    private final String node;
+    private final State state;
+    private final BlockingQueue<AsyncGenerator.Data<StreamingOutput<State>>> queue;
+    private final StringBuilder pending = new StringBuilder();
+    private final LongAdder dropped = new LongAdder();
+    private int pendingTokens;
+    private long pendingSince;
+    private volatile boolean closed;
+
+    /**
+     * Creates the queue
+     *
+     * @param policy the chunk policy
+     * @param node   the id of the streaming node
+     * @param state  the state of the streaming node, not retained if the policy emits chunks without state
+     */
+    public StreamingChunkQueue(StreamingChunkPolicy policy, String node, State state) {
+        this.policy = requireNonNull(policy, "policy cannot be null");
+        this.node = node;
+        this.state = policy.withState() ? state : null;
+        // BLOCK: the terminal item waits like a chunk, otherwise one slot is kept for it
+        final var capacity = (policy.overflow() == StreamingChunkPolicy.Overflow.BLOCK || policy.capacity() == Integer.MAX_VALUE) ?
+                policy.capacity() :
+                policy.capacity() + 1;
+        this.queue = new LinkedBlockingDeque<>(capacity);
+    }
+
+    /**
+     * Creates a chunk queue on the given queue, using the {@link StreamingChunkPolicy#unbounded() default policy}
+     *
+     * @param queue the queue given to the generator
+     * @param node  the id of the streaming node
+     * @param state the state of the streaming node
+     */
+    public StreamingChunkQueue(BlockingQueue<AsyncGenerator.Data<StreamingOutput<State>>> queue, String node, State state) {
+        this.policy = StreamingChunkPolicy.unbounded();
+        this.queue = requireNonNull(queue, "queue cannot be null");
+        this.node = node;
+        this.state = state;
+    }
+
+    /**
+     * Returns the queue to give to the generator
+     *
+     * @return the queue of the chunks
+     */
+    public BlockingQueue<AsyncGenerator.Data<StreamingOutput<State>>> queue() {
+        return queue;
+    }
+
+    /**
+     * Returns the number of chunks dropped by the {@link StreamingChunkPolicy.Overflow#DROP_TO_LATEST} policy
+     *
+     * @return the number of dropped chunks
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private StreamingOutput<State> newChunk(String text) {
+        return policy.withState() ? new StreamingOutput<>(text, node, state) : new StreamingChunk<>(text, node);
+    }
+
+    /**
+     * Adds a token, it is emitted immediately or coalesced with the following ones according to the policy
+     *
+     * @param token the token
+     */
+    public synchronized void onToken(String token) {
+        if (closed || token == null) {
+            return;
+        }
+        if (!policy.isCoalescing()) {
+            emit(token);
+            return;
+        }
+        if (pendingTokens == 0) {
+            pendingSince = System.nanoTime();
+        }
+        pending.append(token);
+        ++pendingTokens;
+
+        final var maxChunkDelay = policy.maxChunkDelay();
+        if (pendingTokens >= policy.maxChunkTokens() ||
+                (maxChunkDelay != null && System.nanoTime() - pendingSince >= maxChunkDelay.toNanos())) {
+            flush();
+        }
+    }
+
+    /**
+     * Emits the pending tokens, followed by the completion of the stream
+     *
+     * @param result the result of the stream, i.e. the partial state to merge
+     */
+    public synchronized void onComplete(Object result) {
+        flush();
+        putLast(AsyncGenerator.Data.done(result));
+    }
+
+    /**
+     * Emits the pending tokens, followed by the error
+     *
+     * @param error the error
+     */
+    public synchronized void onError(Throwable error) {
+        flush();
+        putLast(AsyncGenerator.Data.error(error));
+    }
+
+    /**
+     * Discards the pending and the following tokens and releases the producer, if blocked
+     */
+    public void close() {
+        closed = true;
+    }
+
+    private void flush() {
+        if (pendingTokens > 0) {
+            final var text = pending.toString();
+            pending.setLength(0);
+            pendingTokens = 0;
+            emit(text);
+        }
+    }
+
+    private void emit(String text) {
+        if (closed) {
+            return;
+        }
+        switch (policy.overflow()) {
+            case BLOCK -> putLast(AsyncGenerator.Data.of(newChunk(text)));
+            case COALESCE -> {
+                var chunk = text;
+                if (queue.size() >= policy.capacity()) {
+                    // the consumer can take the last chunk meanwhile, in that case there is room for the new one
+                    final var last = ((BlockingDeque<AsyncGenerator.Data<StreamingOutput<State>>>) queue).pollLast();
+                    if (last != null) {
+                        chunk = last.future().join().chunk() + text;
+                    }
+                }
+                queue.offer(AsyncGenerator.Data.of(newChunk(chunk)));
+            }
+            case DROP_TO_LATEST -> {
+                if (queue.size() >= policy.capacity()) {
+                    while (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                queue.offer(AsyncGenerator.Data.of(newChunk(text)));
+            }
+        }
+    }
+
+    private void putLast(AsyncGenerator.Data<StreamingOutput<State>> data) {
+        try {
+            while (!queue.offer(data, BLOCK_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+}
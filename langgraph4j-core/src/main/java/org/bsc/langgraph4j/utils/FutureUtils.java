@@ -0,0 +1,158 @@
+package org.bsc.langgraph4j.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+/**
+ * Utility class for running tasks through {@link CompletableFuture}.
+ */
+public final class FutureUtils {
+
+    private FutureUtils() {
+    }
+
+    /**
+     * Runs the given tasks, keeping at most {@code maxConcurrency} of them running, and completes with their
+     * results (in the task order) as soon as all of them complete, or exceptionally as soon as one of them fails.
+     * On failure the tasks not started yet are skipped and the running ones are cancelled (tasks running on an
+     * executor are interrupted).
+     *
+     * @param size           the number of tasks
+     * @param task           starts the task at the given index
+     * @param maxConcurrency the max number of running tasks
+     * @return the results of the tasks
+     */
+    public static <T> CompletableFuture<List<T>> forkJoin(int size, IntFunction<CompletableFuture<T>> task, int maxConcurrency) {
+        if (size == 0) {
+            return completedFuture(List.of());
+        }
+        final var forkJoin = new ForkJoin<>(size, task);
+        for (int i = 0, n = Math.min(size, maxConcurrency); i < n; ++i) {
+            forkJoin.launchNext();
+        }
+        return forkJoin.result;
+    }
+
+    private static final class ForkJoin<T> {
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        final IntFunction<CompletableFuture<T>> task;
+        final Object[] results;
+        final AtomicReferenceArray<CompletableFuture<T>> running;
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicInteger remaining;
+        // launches requested while another launch is in progress, avoids recursion on tasks completed synchronously
+        final AtomicInteger launches = new AtomicInteger();
+
+        ForkJoin(int size, IntFunction<CompletableFuture<T>> task) {
+            this.task = task;
+            this.results = new Object[size];
+            this.running = new AtomicReferenceArray<>(size);
+            this.remaining = new AtomicInteger(size);
+        }
+
+        void launchNext() {
+            if (launches.getAndIncrement() > 0) {
+                return;
+            }
+            do {
+                final int index = nextIndex.getAndIncrement();
+                if (index < results.length && !result.isDone()) {
+                    final var future = start(index);
+                    running.set(index, future);
+                    future.whenComplete((value, error) -> completed(index, value, error));
+                    if (result.isDone()) {
+                        future.cancel(true); // a sibling failed while starting
+                    }
+                }
+            } while (launches.decrementAndGet() > 0);
+        }
+
+        private CompletableFuture<T> start(int index) {
+            try {
+                return requireNonNull(task.apply(index), "task result cannot be null");
+            } catch (Throwable ex) {
+                return failedFuture(ex);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void completed(int index, T value, Throwable error) {
+            running.set(index, null);
+            if (error != null) {
+                if (result.completeExceptionally((error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error)) {
+                    cancelRunning();
+                }
+                return;
+            }
+            results[index] = value;
+            if (remaining.decrementAndGet() == 0) {
+                result.complete((List<T>) Arrays.asList(results));
+            } else {
+                launchNext();
+            }
+        }
+
+        private void cancelRunning() {
+            for (int i = 0; i < running.length(); ++i) {
+                final var future = running.getAndSet(i, null);
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the task on the executor. Cancelling the returned future, or completing it with a
+     * {@link TimeoutException} (e.g. through {@link CompletableFuture#orTimeout}), interrupts the task if it is
+     * running, or prevents it from starting.
+     *
+     * @param task     the task, it returns the future of its result
+     * @param executor the executor
+     * @return the future of the task result
+     */
+    public static <T> CompletableFuture<T> supplyInterruptibly(Supplier<CompletableFuture<T>> task, Executor executor) {
+        final var result = new CompletableFuture<T>();
+        final var futureTask = new FutureTask<Void>(() -> {
+            try {
+                task.get().whenComplete((value, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }, null);
+
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                futureTask.cancel(true);
+            }
+        });
+
+        try {
+            executor.execute(futureTask);
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+}
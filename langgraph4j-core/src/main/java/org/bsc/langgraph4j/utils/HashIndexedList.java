@@ -0,0 +1,319 @@
+package org.bsc.langgraph4j.utils;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * List that keeps an index of the hash codes of its elements and shares its structure with its copies.
+ * <p>
+ * The elements are held by an append-only store shared by all the copies, each copy sees only the first
+ * {@link #size()} elements of it. So {@link #copy()} is O(1) and appending to the most recent copy is O(1),
+ * while appending to an older copy forks the store, copying its elements but reusing its index, and
+ * removing/replacing elements detaches the list on a private store.
+ * The index allows to check, in O(1), if the list contains an element with the same hash code of a given value
+ * (see {@link #containsHashOf(Object)}).
+ * </p>
+ * <p>
+ * As {@link ArrayList}, a list instance is not thread-safe, but copies sharing the same store can be updated
+ * concurrently.
+ * </p>
+ *
+ * @param <T> the type of elements
+ */
+public final class HashIndexedList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+    /**
+     * Max number of stores that a fork can be layered on, before its index is flattened
+     */
+    private static final int MAX_FORK_DEPTH = 8;
+
+    /**
+     * Append-only store. The index maps each hash code to the position of its first occurrence, that never
+     * changes since the store is append-only.
+     * <p>
+     * A store forked from another one (see {@link #fork(Store, int)}) indexes only its own elements and looks up
+     * the first {@code parentSize} ones in the parent index, so forking doesn't rehash the shared prefix.
+     * </p>
+     */
+    private static final class Store {
+        final ArrayList<Object> values;
+        final HashMap<Integer, Integer> firstIndexByHash;
+        final Store parent;
+        final int parentSize;
+        final int depth;
+
+        Store() {
+            values = new ArrayList<>();
+            firstIndexByHash = new HashMap<>();
+            parent = null;
+            parentSize = 0;
+            depth = 0;
+        }
+
+        /**
+         * Creates a store owning the given values
+         */
+        Store(ArrayList<Object> values) {
+            this.values = values;
+            this.firstIndexByHash = new HashMap<>();
+            this.parent = null;
+            this.parentSize = 0;
+            this.depth = 0;
+            for (int index = 0; index < values.size(); ++index) {
+                firstIndexByHash.putIfAbsent(Objects.hashCode(values.get(index)), index);
+            }
+        }
+
+        private Store(ArrayList<Object> values, Store parent, int parentSize) {
+            this.values = values;
+            this.firstIndexByHash = new HashMap<>();
+            this.parent = parent;
+            this.parentSize = parentSize;
+            this.depth = parent.depth + 1;
+        }
+
+        /**
+         * Creates a store containing the first {@code size} elements of the given one, reusing its index
+         * while the fork chain is short, otherwise a flat index is built.
+         * It must be called holding the lock of the given store.
+         */
+        static Store fork(Store store, int size) {
+            final var values = new ArrayList<>(store.values.subList(0, size));
+            if (store.depth >= MAX_FORK_DEPTH) {
+                return new Store(values);
+            }
+            return new Store(values, store, size);
+        }
+
+        /**
+         * Returns the position of the first element with the given hash code, if less than {@code bound}.
+         * It must be called holding the lock of this store, the parent one is acquired as needed.
+         */
+        int firstIndexOf(int hash, int bound) {
+            if (parent != null) {
+                final int index;
+                synchronized (parent) {
+                    index = parent.firstIndexOf(hash, Math.min(bound, parentSize));
+                }
+                if (index >= 0) {
+                    return index;
+                }
+            }
+            final var index = firstIndexByHash.get(hash);
+            return (index != null && index < bound) ? index : -1;
+        }
+
+        void append(Object value) {
+            firstIndexByHash.putIfAbsent(Objects.hashCode(value), values.size());
+            values.add(value);
+        }
+    }
+
+    private Store store;
+    private int size;
+
+    private HashIndexedList(Store store, int size) {
+        this.store = store;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty list
+     */
+    public HashIndexedList() {
+        this(new Store(), 0);
+    }
+
+    /**
+     * Creates a list containing the given elements, in the order returned by the collection iterator
+     *
+     * @param values the initial elements
+     */
+    public HashIndexedList(Collection<? extends T> values) {
+        this(new Store(new ArrayList<>(requireNonNull(values, "values cannot be null"))), values.size());
+    }
+
+    /**
+     * Returns a list containing the given elements.
+     * If the given collection is already a {@code HashIndexedList} a copy sharing its structure is returned.
+     *
+     * @param values the elements
+     * @param <T>    the type of elements
+     * @return a new list containing the given elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HashIndexedList<T> copyOf(Collection<? extends T> values) {
+        requireNonNull(values, "values cannot be null");
+        if (values instanceof HashIndexedList<?> list) {
+            return (HashIndexedList<T>) list.copy();
+        }
+        return new HashIndexedList<>(values);
+    }
+
+    /**
+     * Returns a copy of this list that shares its structure, it costs O(1)
+     *
+     * @return the copy
+     */
+    public HashIndexedList<T> copy() {
+        return new HashIndexedList<>(store, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        synchronized (store) {
+            return (T) store.values.get(index);
+        }
+    }
+
+    /**
+     * Checks, in O(1), if this list contains an element with the same hash code of the given value
+     *
+     * @param value the value, can be null
+     * @return true if an element with the same hash code exists
+     */
+    public boolean containsHashOf(Object value) {
+        synchronized (store) {
+            return store.firstIndexOf(Objects.hashCode(value), size) >= 0;
+        }
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return containsHashOf(value) && super.contains(value);
+    }
+
+    @Override
+    public boolean add(T value) {
+        synchronized (store) {
+            if (size == store.values.size()) {
+                store.append(value);
+                ++size;
+                ++modCount;
+                return true;
+            }
+        }
+        // another copy has already appended to the shared store, the fork is private until copied
+        final Store forked;
+        synchronized (store) {
+            forked = Store.fork(store, size);
+        }
+        forked.append(value);
+        store = forked;
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public void add(int index, T value) {
+        if (index == size) {
+            add(value);
+            return;
+        }
+        Objects.checkIndex(index, size);
+        detach(values -> values.add(index, value));
+    }
+
+    @Override
+    public T set(int index, T value) {
+        Objects.checkIndex(index, size);
+        final var result = get(index);
+        detach(values -> values.set(index, value));
+        return result;
+    }
+
+    @Override
+    public T remove(int index) {
+        Objects.checkIndex(index, size);
+        final var result = get(index);
+        detach(values -> values.remove(index));
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        store = new Store();
+        size = 0;
+        ++modCount;
+    }
+
+    /**
+     * Removes, in a single pass, all the elements matching the given predicate
+     *
+     * @param matcher the predicate, it receives the element and its index
+     * @return true if any element has been removed
+     */
+    @SuppressWarnings("unchecked")
+    public boolean removeMatching(BiPredicate<? super T, Integer> matcher) {
+        requireNonNull(matcher, "matcher cannot be null");
+        final Object[] values;
+        synchronized (store) {
+            values = store.values.subList(0, size).toArray();
+        }
+        final var result = new ArrayList<Object>(values.length);
+        for (int index = 0; index < values.length; ++index) {
+            if (!matcher.test((T) values[index], index)) {
+                result.add(values[index]);
+            }
+        }
+        if (result.size() == values.length) {
+            return false;
+        }
+        store = new Store(result);
+        size = result.size();
+        ++modCount;
+        return true;
+    }
+
+    private interface Change {
+        void apply(ArrayList<Object> values);
+    }
+
+    /**
+     * Moves this list on a private store and applies the given change
+     */
+    private void detach(Change change) {
+        final ArrayList<Object> values;
+        synchronized (store) {
+            values = new ArrayList<>(store.values.subList(0, size));
+        }
+        change.apply(values);
+        store = new Store(values);
+        size = values.size();
+        ++modCount;
+    }
+
+    // SERIALIZATION: the list is written as a plain list of its elements
+
+    private record SerializedForm(ArrayList<Object> values) implements Serializable {
+
+        @Serial
+        private Object readResolve() {
+            return new HashIndexedList<>(values);
+        }
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new SerializedForm(new ArrayList<>(this));
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("serialization form required");
+    }
+}
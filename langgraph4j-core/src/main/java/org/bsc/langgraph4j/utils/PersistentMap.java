@@ -0,0 +1,478 @@
+package org.bsc.langgraph4j.utils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable hash map with structural sharing (Hash Array Mapped Trie).
+ * <p>
+ * Every update ({@link #plus(Object, Object)}, {@link #minus(Object)}) returns a new map that shares
+ * all the untouched branches with the original one, so a "copy" of the map is just a reference and
+ * an update costs O(log32 n) instead of O(n).
+ * <p>
+ * Keys cannot be {@code null}, values can.
+ * All the {@link Map} mutators throw {@link UnsupportedOperationException}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class PersistentMap<K,V> extends AbstractMap<K,V> implements Serializable {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentMap<?,?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+    private transient Set<Entry<K,V>> entrySet;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> PersistentMap<K,V> empty() {
+        return (PersistentMap<K,V>) EMPTY;
+    }
+
+    /**
+     * Returns a persistent map containing the same mappings of the given one.
+     * If the given map is already a {@code PersistentMap} it is returned as is, no copy is made.
+     *
+     * @param map the map to copy
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a persistent map containing the given mappings
+     */
+    @SuppressWarnings("unchecked")
+    public static <K,V> PersistentMap<K,V> copyOf(Map<? extends K, ? extends V> map) {
+        requireNonNull(map, "map cannot be null");
+        if (map instanceof PersistentMap<?,?> persistentMap) {
+            return (PersistentMap<K,V>) persistentMap;
+        }
+        PersistentMap<K,V> result = empty();
+        for (var entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private static int hashOf(Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Returns a new map with the given mapping added or replaced.
+     *
+     * @param key the key, cannot be null
+     * @param value the value
+     * @return the updated map, or this map if it already contains exactly the same mapping
+     */
+    public PersistentMap<K,V> plus(K key, V value) {
+        requireNonNull(key, "key cannot be null");
+        final var added = new boolean[1];
+        final var newRoot = root.put(key, value, hashOf(key), 0, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a new map with the given mapping removed.
+     *
+     * @param key the key
+     * @return the updated map, or this map if it doesn't contain the given key
+     */
+    public PersistentMap<K,V> minus(Object key) {
+        if (key == null) {
+            return this;
+        }
+        final var newRoot = root.remove(key, hashOf(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && root.find(key, hashOf(key), 0) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        final var result = root.find(key, hashOf(key), 0);
+        return (result == NOT_FOUND) ? null : (V) result;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        final var result = root.find(key, hashOf(key), 0);
+        @SuppressWarnings("unchecked") final V value = (V) result;
+        return (result == NOT_FOUND) ? defaultValue : value;
+    }
+
+    @Override
+    public Set<Entry<K,V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K,V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new HashMap<>(this);
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K,V>> {
+        private final Deque<Node> pending = new ArrayDeque<>();
+        private Object[] current;
+        private int index;
+        private int limit;
+
+        EntryIterator() {
+            load(root);
+        }
+
+        private void load(Node node) {
+            current = node.content;
+            index = 0;
+            limit = node.payloadArity() << 1;
+            node.pushSubNodes(pending);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index >= limit && !pending.isEmpty()) {
+                load(pending.pop());
+            }
+            return index < limit;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K,V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var result = CollectionsUtils.entryOf((K) current[index], (V) current[index + 1]);
+            index += 2;
+            return result;
+        }
+    }
+
+    /**
+     * Trie node. Key/value pairs are stored inline at the beginning of {@code content}
+     */
+    private static abstract sealed class Node permits BitmapNode, CollisionNode {
+        final Object[] content;
+
+        Node(Object[] content) {
+            this.content = content;
+        }
+
+        abstract int payloadArity();
+
+        abstract void pushSubNodes(Deque<Node> stack);
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object key, Object value, int hash, int shift, boolean[] added);
+
+        abstract Node remove(Object key, int hash, int shift);
+
+        final boolean isSingleton() {
+            return payloadArity() == 1 && !hasSubNodes();
+        }
+
+        abstract boolean hasSubNodes();
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        final int dataMap;
+        final int nodeMap;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            super(content);
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        boolean hasSubNodes() {
+            return nodeMap != 0;
+        }
+
+        @Override
+        void pushSubNodes(Deque<Node> stack) {
+            final int nodes = Integer.bitCount(nodeMap);
+            for (int i = 0; i < nodes; ++i) {
+                stack.push(nodeAt(i));
+            }
+        }
+
+        int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        int nodeIndex(int bit) {
+            return Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        Node nodeAt(int nodeIndex) {
+            return (Node) content[content.length - 1 - nodeIndex];
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            final int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit) << 1;
+                return key.equals(content[index]) ? content[index + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return nodeAt(nodeIndex(bit)).find(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, boolean[] added) {
+            final int bit = bitpos(hash, shift);
+
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit) << 1;
+                final var currentKey = content[index];
+                if (key.equals(currentKey)) {
+                    if (content[index + 1] == value) {
+                        return this;
+                    }
+                    final var newContent = content.clone();
+                    newContent[index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                added[0] = true;
+                final var subNode = mergeTwo(currentKey, content[index + 1], hashOf(currentKey),
+                        key, value, hash, shift + BITS);
+                return copyAndMigrateFromInlineToNode(bit, subNode);
+            }
+
+            if ((nodeMap & bit) != 0) {
+                final int nodeIndex = nodeIndex(bit);
+                final var subNode = nodeAt(nodeIndex);
+                final var newSubNode = subNode.put(key, value, hash, shift + BITS, added);
+                if (newSubNode == subNode) {
+                    return this;
+                }
+                final var newContent = content.clone();
+                newContent[content.length - 1 - nodeIndex] = newSubNode;
+                return new BitmapNode(dataMap, nodeMap, newContent);
+            }
+
+            added[0] = true;
+            final int index = dataIndex(bit) << 1;
+            final var newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            newContent[index] = key;
+            newContent[index + 1] = value;
+            System.arraycopy(content, index, newContent, index + 2, content.length - index);
+            return new BitmapNode(dataMap | bit, nodeMap, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            final int bit = bitpos(hash, shift);
+
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit) << 1;
+                if (!key.equals(content[index])) {
+                    return this;
+                }
+                final var newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, index);
+                System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+            }
+
+            if ((nodeMap & bit) != 0) {
+                final int nodeIndex = nodeIndex(bit);
+                final var subNode = nodeAt(nodeIndex);
+                final var newSubNode = subNode.remove(key, hash, shift + BITS);
+                if (newSubNode == subNode) {
+                    return this;
+                }
+                if (newSubNode.isSingleton()) {
+                    return copyAndMigrateFromNodeToInline(bit, nodeIndex, newSubNode);
+                }
+                final var newContent = content.clone();
+                newContent[content.length - 1 - nodeIndex] = newSubNode;
+                return new BitmapNode(dataMap, nodeMap, newContent);
+            }
+
+            return this;
+        }
+
+        private Node copyAndMigrateFromInlineToNode(int bit, Node subNode) {
+            final int dataIndex = dataIndex(bit) << 1;
+            final int nodeIndex = nodeIndex(bit);
+            // remove the inline pair, insert the sub node (nodes are stored in reverse order at the end)
+            final var newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, dataIndex);
+            final int nodesStart = content.length - Integer.bitCount(nodeMap);
+            System.arraycopy(content, dataIndex + 2, newContent, dataIndex, nodesStart - dataIndex - 2);
+            final int newNodesStart = nodesStart - 2;
+            final int insertAt = newContent.length - 1 - nodeIndex;
+            System.arraycopy(content, nodesStart, newContent, newNodesStart, insertAt - newNodesStart);
+            newContent[insertAt] = subNode;
+            System.arraycopy(content, nodesStart + (insertAt - newNodesStart), newContent, insertAt + 1, newContent.length - insertAt - 1);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+        }
+
+        private Node copyAndMigrateFromNodeToInline(int bit, int nodeIndex, Node subNode) {
+            final int dataIndex = dataIndex(bit) << 1;
+            final var newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, dataIndex);
+            newContent[dataIndex] = subNode.content[0];
+            newContent[dataIndex + 1] = subNode.content[1];
+            final int nodesStart = content.length - Integer.bitCount(nodeMap);
+            System.arraycopy(content, dataIndex, newContent, dataIndex + 2, nodesStart - dataIndex);
+            final int removeAt = content.length - 1 - nodeIndex;
+            System.arraycopy(content, nodesStart, newContent, nodesStart + 2, removeAt - nodesStart);
+            System.arraycopy(content, removeAt + 1, newContent, removeAt + 2, content.length - removeAt - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+        }
+
+        static Node mergeTwo(Object key0, Object value0, int hash0, Object key1, Object value1, int hash1, int shift) {
+            if (shift >= Integer.SIZE) {
+                return new CollisionNode(hash0, new Object[]{key0, value0, key1, value1});
+            }
+            final int mask0 = (hash0 >>> shift) & MASK;
+            final int mask1 = (hash1 >>> shift) & MASK;
+            if (mask0 != mask1) {
+                final int dataMap = (1 << mask0) | (1 << mask1);
+                return (mask0 < mask1) ?
+                        new BitmapNode(dataMap, 0, new Object[]{key0, value0, key1, value1}) :
+                        new BitmapNode(dataMap, 0, new Object[]{key1, value1, key0, value0});
+            }
+            final var subNode = mergeTwo(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+            return new BitmapNode(0, 1 << mask0, new Object[]{subNode});
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(int hash, Object[] content) {
+            super(content);
+            this.hash = hash;
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length >> 1;
+        }
+
+        @Override
+        boolean hasSubNodes() {
+            return false;
+        }
+
+        @Override
+        void pushSubNodes(Deque<Node> stack) {
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            final int index = indexOf(key);
+            return (index < 0) ? NOT_FOUND : content[index + 1];
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, boolean[] added) {
+            final int index = indexOf(key);
+            if (index >= 0) {
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                final var newContent = content.clone();
+                newContent[index + 1] = value;
+                return new CollisionNode(this.hash, newContent);
+            }
+            added[0] = true;
+            final var newContent = Arrays.copyOf(content, content.length + 2);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            return new CollisionNode(this.hash, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            final int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            final var newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+            return new CollisionNode(this.hash, newContent);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.bsc.langgraph4j.utils;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that starts a new virtual thread for each task when running on Java 21 or later.
+ * <p>
+ * On earlier releases it falls back to a cached pool of daemon platform threads, so blocking calls
+ * (e.g. LLM SDKs) don't exhaust the common pool. The library targets Java 17, hence virtual threads are
+ * looked up at runtime.
+ * </p>
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    private static final class Holder {
+        static final Optional<Method> FACTORY = lookupFactory();
+        static final ExecutorService EXECUTOR = newExecutor();
+
+        private static Optional<Method> lookupFactory() {
+            try {
+                return Optional.of(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+            } catch (NoSuchMethodException ex) {
+                return Optional.empty();
+            }
+        }
+
+        private static ExecutorService newExecutor() {
+            return FACTORY.map(method -> {
+                try {
+                    return (ExecutorService) method.invoke(null);
+                } catch (ReflectiveOperationException ex) {
+                    throw new IllegalStateException("cannot create the virtual thread executor", ex);
+                }
+            }).orElseGet(() -> Executors.newCachedThreadPool(new DaemonThreadFactory()));
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final var thread = new Thread(runnable, "langgraph4j-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Checks if virtual threads are available (Java 21 or later)
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean isAvailable() {
+        return Holder.FACTORY.isPresent();
+    }
+
+    /**
+     * Returns the shared executor, it must not be shut down
+     *
+     * @return a virtual thread per task executor if available, otherwise a cached pool of daemon threads
+     */
+    public static ExecutorService executor() {
+        return Holder.EXECUTOR;
+    }
+}
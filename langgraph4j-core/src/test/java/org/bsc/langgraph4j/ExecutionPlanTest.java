@@ -0,0 +1,109 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionPlanTest {
+
+    static class State extends AgentState {
+        public static final Map<String, Channel<?>> SCHEMA = Map.of(
+                "steps", Channels.appender(ArrayList::new)
+        );
+
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+
+        public List<String> steps() {
+            return this.<List<String>>value("steps").orElseGet(List::of);
+        }
+    }
+
+    private StateGraph<State> loopGraph(List<String> nodeIds, Set<String> configNodeIds) throws Exception {
+        return new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("agent", (state, config) -> {
+                    nodeIds.add(config.nodeId());
+                    configNodeIds.add(config.nodeId());
+                    return completedFuture(Map.of("steps", "agent" + state.steps().size()));
+                })
+                .addNode("tool", (state, config) -> {
+                    nodeIds.add(config.nodeId());
+                    return completedFuture(Map.of("steps", "tool" + state.steps().size()));
+                })
+                .addEdge(START, "agent")
+                .addConditionalEdges("agent",
+                        (state, config) -> {
+                            configNodeIds.add(config.nodeId());
+                            return completedFuture(new Command(state.steps().size() < 5 ? "tool" : "end"));
+                        },
+                        Map.of("tool", "tool", "end", END))
+                .addEdge("tool", "agent");
+    }
+
+    @Test
+    public void planIndexing() throws Exception {
+        var app = loopGraph(new ArrayList<>(), new HashSet<>())
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .graphId("loop")
+                        .interruptBefore("tool")
+                        .interruptAfter("agent")
+                        .build());
+
+        var plan = app.plan;
+
+        assertEquals(4, plan.size());
+        assertEquals(0, plan.indexOf(START));
+        assertEquals(plan.size() - 1, plan.indexOf(END));
+        assertEquals(ExecutionPlan.NONE, plan.indexOf("unknown"));
+        assertEquals(ExecutionPlan.NONE, plan.indexOf(null));
+
+        for (int index = 0; index < plan.size(); ++index) {
+            assertEquals(index, plan.indexOf(plan.id(index)));
+            assertEquals(plan.id(index), plan.metadata(index).get(RunnableConfig.NODE_ID));
+            assertEquals("loop", plan.metadata(index).get(RunnableConfig.GRAPH_ID));
+        }
+
+        var agent = plan.indexOf("agent");
+        var tool = plan.indexOf("tool");
+        assertSame(app.nodes.get("agent"), plan.action(agent));
+        assertSame(app.edges.get("tool"), plan.edge(tool));
+        assertNull(plan.action(plan.indexOf(END)));
+        assertNull(plan.action(ExecutionPlan.NONE));
+
+        assertTrue(plan.isInterruptBefore(tool));
+        assertFalse(plan.isInterruptBefore(agent));
+        assertTrue(plan.isInterruptAfter(agent));
+        assertFalse(plan.isInterruptAfter(tool));
+        assertFalse(plan.isParallel(agent));
+    }
+
+    @Test
+    public void routerLoop() throws Exception {
+        var nodeIds = new ArrayList<String>();
+        var configNodeIds = new HashSet<String>();
+        var app = loopGraph(nodeIds, configNodeIds).compile();
+
+        var result = app.invoke(Map.of());
+
+        assertTrue(result.isPresent());
+        assertEquals(List.of("agent0", "tool1", "agent2", "tool3", "agent4"), result.get().steps());
+        assertEquals(List.of("agent", "tool", "agent", "tool", "agent"), nodeIds);
+        assertEquals(Set.of("agent"), configNodeIds);
+    }
+}
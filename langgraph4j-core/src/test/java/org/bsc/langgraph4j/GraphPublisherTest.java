@@ -0,0 +1,285 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.action.AsyncNodeAction;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+import org.bsc.langgraph4j.streaming.StreamingOutput;
+import org.bsc.langgraph4j.subgraph.SubGraphOutput;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphPublisherTest {
+
+    static class State extends AgentState {
+        public static final Map<String, Channel<?>> SCHEMA = Map.of(
+                "steps", Channels.appender(ArrayList::new)
+        );
+
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+
+        public List<String> steps() {
+            return this.<List<String>>value("steps").orElseGet(List::of);
+        }
+    }
+
+    static class TestSubscriber<T> implements Flow.Subscriber<T> {
+        final List<T> items = new CopyOnWriteArrayList<>();
+        final CompletableFuture<List<T>> done = new CompletableFuture<>();
+        final long initialRequest;
+        volatile Flow.Subscription subscription;
+
+        TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(items);
+        }
+    }
+
+    private static AsyncNodeAction<State> asyncNode(String id, CompletableFuture<?> gate, Executor executor, AtomicInteger calls) {
+        return state -> {
+            calls.incrementAndGet();
+            return gate.thenApplyAsync(ignored -> Map.<String, Object>of("steps", id), executor);
+        };
+    }
+
+    private CompiledGraph<State> graph(CompletableFuture<?> gate, Executor executor, AtomicInteger calls) throws Exception {
+        return new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", asyncNode("A", gate, executor, calls))
+                .addNode("B", asyncNode("B", gate, executor, calls))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile();
+    }
+
+    @Test
+    public void publishWithoutBlocking() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var gate = new CompletableFuture<Void>();
+            var calls = new AtomicInteger();
+            var app = graph(gate, executor, calls);
+
+            var subscriber = new TestSubscriber<NodeOutput<State>>(Long.MAX_VALUE);
+            app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+
+            // subscribe returns while node A is waiting
+            assertEquals(1, calls.get());
+            assertFalse(subscriber.done.isDone());
+            assertEquals(List.of(START), subscriber.items.stream().map(NodeOutput::node).toList());
+
+            gate.complete(null);
+
+            var outputs = subscriber.done.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(START, "A", "B", END), outputs.stream().map(NodeOutput::node).toList());
+            assertEquals(List.of("A", "B"), outputs.get(outputs.size() - 1).state().steps());
+
+            var expected = app.stream(Map.of()).stream().map(NodeOutput::node).toList();
+            assertEquals(expected, outputs.stream().map(NodeOutput::node).toList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void backpressure() throws Exception {
+        var calls = new AtomicInteger();
+        var app = graph(completedFuture(null), Runnable::run, calls);
+
+        var subscriber = new TestSubscriber<NodeOutput<State>>(0);
+        app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(0, calls.get());
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.items.size());
+        assertEquals(0, calls.get());
+
+        subscriber.subscription.request(2);
+        assertEquals(3, subscriber.items.size());
+        assertEquals(2, calls.get());
+        assertFalse(subscriber.done.isDone());
+
+        subscriber.subscription.request(1);
+        assertEquals(4, subscriber.items.size());
+        // the end of the stream is detected by the next step
+        assertFalse(subscriber.done.isDone());
+
+        subscriber.subscription.request(1);
+        var outputs = subscriber.done.get(5, TimeUnit.SECONDS);
+        assertEquals(4, outputs.size());
+    }
+
+    @Test
+    public void cancellation() throws Exception {
+        var calls = new AtomicInteger();
+        var app = graph(completedFuture(null), Runnable::run, calls);
+
+        var subscriber = new TestSubscriber<NodeOutput<State>>(0) {
+            @Override
+            public void onNext(NodeOutput<State> item) {
+                super.onNext(item);
+                if ("A".equals(item.node())) {
+                    subscription.cancel();
+                }
+            }
+        };
+        app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(START, "A"), subscriber.items.stream().map(NodeOutput::node).toList());
+        assertEquals(1, calls.get());
+        assertFalse(subscriber.done.isDone());
+    }
+
+    @Test
+    public void errorPropagation() throws Exception {
+        var app = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", (state, config) -> CompletableFuture.<Map<String, Object>>failedFuture(new IllegalStateException("node failed")))
+                .addEdge(START, "A")
+                .addEdge("A", END)
+                .compile();
+
+        var subscriber = new TestSubscriber<NodeOutput<State>>(Long.MAX_VALUE);
+        app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+
+        var ex = assertThrows(ExecutionException.class, () -> subscriber.done.get(5, TimeUnit.SECONDS));
+        Throwable cause = ex;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, cause);
+        assertEquals("node failed", cause.getMessage());
+        assertEquals(List.of(START), subscriber.items.stream().map(NodeOutput::node).toList());
+
+        var invoke = app.invokeAsync(Map.of(), RunnableConfig.builder().build());
+        assertThrows(ExecutionException.class, () -> invoke.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void embeddedGenerator() throws Exception {
+        var app = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", (state, config) -> {
+                    var chunks = List.of("a", "b", "c").iterator();
+                    var generator = new AsyncGenerator.Base<NodeOutput<State>>() {
+                        @Override
+                        public Data<NodeOutput<State>> next() {
+                            if (chunks.hasNext()) {
+                                return Data.<NodeOutput<State>>of(new StreamingOutput<State>(chunks.next(), "A", state));
+                            }
+                            return Data.done(Map.of("steps", "A"));
+                        }
+                    };
+                    return completedFuture(Map.<String, Object>of("_generator", generator));
+                })
+                .addNode("B", (state, config) -> completedFuture(Map.<String, Object>of("steps", "B")))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile();
+
+        var subscriber = new TestSubscriber<NodeOutput<State>>(Long.MAX_VALUE);
+        app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+
+        var outputs = subscriber.done.get(5, TimeUnit.SECONDS);
+        var chunks = outputs.stream()
+                .filter(output -> output instanceof StreamingOutput<?>)
+                .map(output -> ((StreamingOutput<?>) output).chunk())
+                .toList();
+        assertEquals(List.of("a", "b", "c"), chunks);
+
+        var last = outputs.get(outputs.size() - 1);
+        assertEquals(END, last.node());
+        assertEquals(List.of("A", "B"), last.state().steps());
+
+        var result = app.invokeAsync(Map.of(), RunnableConfig.builder().build()).get(5, TimeUnit.SECONDS);
+        assertTrue(result.isPresent());
+        assertEquals(List.of("A", "B"), result.get().steps());
+    }
+
+    @Test
+    public void nestedEmbeddedGenerators() throws Exception {
+        var subGraph = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", (state, config) -> {
+                    var chunks = List.of("a", "b", "c").iterator();
+                    var generator = new AsyncGenerator.Base<NodeOutput<State>>() {
+                        @Override
+                        public Data<NodeOutput<State>> next() {
+                            if (chunks.hasNext()) {
+                                return Data.<NodeOutput<State>>of(new StreamingOutput<State>(chunks.next(), "A", state));
+                            }
+                            return Data.done(Map.of("steps", "A"));
+                        }
+                    };
+                    return completedFuture(Map.<String, Object>of("_generator", generator));
+                })
+                .addEdge(START, "A")
+                .addEdge("A", END);
+
+        // the subgraph is embedded by its node, and it embeds the streaming generator in turn
+        var app = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("sub", subGraph.compile())
+                .addNode("B", (state, config) -> completedFuture(Map.<String, Object>of("steps", "B")))
+                .addEdge(START, "sub")
+                .addEdge("sub", "B")
+                .addEdge("B", END)
+                .compile();
+
+        var subscriber = new TestSubscriber<NodeOutput<State>>(Long.MAX_VALUE);
+        app.streamPublisher(Map.of(), RunnableConfig.builder().build()).subscribe(subscriber);
+        var outputs = subscriber.done.get(5, TimeUnit.SECONDS);
+
+        // same outputs of the blocking stream, the outputs of the subgraph (chunks included) are wrapped
+        var expected = app.stream(Map.of(), RunnableConfig.builder().build()).stream().toList();
+        Function<NodeOutput<State>, String> describe = output -> output.getClass().getSimpleName() + ":" + output.node();
+        assertEquals(expected.stream().map(describe).toList(), outputs.stream().map(describe).toList());
+        assertEquals(List.of("NodeOutput:" + START,
+                "SubGraphOutput:" + START,
+                "SubGraphOutput:A",
+                "SubGraphOutput:A",
+                "SubGraphOutput:A",
+                "SubGraphOutput:" + END,
+                "NodeOutput:B",
+                "NodeOutput:" + END), outputs.stream().map(describe).toList());
+
+        var last = outputs.get(outputs.size() - 1);
+        assertEquals(END, last.node());
+        assertEquals(List.of("A", "B"), last.state().steps());
+    }
+}
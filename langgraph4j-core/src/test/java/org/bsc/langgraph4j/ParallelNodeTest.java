@@ -2,6 +2,10 @@ package org.bsc.langgraph4j;
 
 
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.action.NodeAction;
+import org.bsc.langgraph4j.action.Send;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
 import org.bsc.langgraph4j.internal.node.ParallelNode;
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.Channel;
@@ -14,14 +18,17 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ParallelNodeTest {
@@ -215,4 +222,221 @@ public class ParallelNodeTest {
 
     }
 
+    @Test
+    public void sendFanOutTest() throws Exception {
+
+        final var schema = Map.<String, Channel<?>>of(
+                "summaries", Channels.appender(ArrayList::new),
+                "total", Channels.base(Integer::sum, () -> 0));
+
+        final var running = new java.util.concurrent.atomic.AtomicInteger();
+        final var maxRunning = new java.util.concurrent.atomic.AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(8);
+
+        var workflow = new StateGraph<>(schema, AgentState::new)
+                .addNode("split", (state, config) -> completedFuture(Map.of()))
+                .addNode("summarize", (state, config) -> CompletableFuture.supplyAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        throw new CompletionException(e);
+                    }
+                    running.decrementAndGet();
+                    final var chunk = state.<Integer>value("chunk").orElseThrow();
+                    return Map.of("summaries", "summary " + chunk, "total", chunk);
+                }, executor))
+                .addNode("reduce", (state, config) -> completedFuture(Map.of("done", true)))
+                .addEdge(StateGraph.START, "split")
+                .addConditionalEdges("split",
+                        (state, config) -> completedFuture(Command.send(IntStream.range(0, 200)
+                                .mapToObj(chunk -> new Send("summarize", Map.of("chunk", chunk)))
+                                .toList())),
+                        Map.of("summarize", "summarize"))
+                .addEdge("summarize", "reduce")
+                .addEdge("reduce", StateGraph.END);
+
+        try {
+            var app = workflow.compile(CompileConfig.builder().maxConcurrency(4).build());
+
+            var result = app.invoke(Map.of()).orElseThrow();
+
+            assertEquals(IntStream.range(0, 200).mapToObj(chunk -> "summary " + chunk).toList(),
+                    result.<List<String>>value("summaries").orElseThrow());
+            assertEquals(IntStream.range(0, 200).sum(), result.<Integer>value("total").orElseThrow());
+            assertEquals(Boolean.TRUE, result.<Boolean>value("done").orElseThrow());
+            assertTrue(result.value("chunk").isEmpty());
+            assertTrue(maxRunning.get() <= 4, "max running " + maxRunning.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sendFanOutFailFastTest() throws Exception {
+
+        var started = new java.util.concurrent.atomic.AtomicInteger();
+
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("split", (state, config) -> completedFuture(Map.of()))
+                .addNode("work", (state, config) -> {
+                    started.incrementAndGet();
+                    if (state.<Integer>value("item").orElseThrow() == 3) {
+                        return CompletableFuture.failedFuture(new IllegalStateException("item 3 failed"));
+                    }
+                    return completedFuture(Map.of("task", "item"));
+                })
+                .addEdge(StateGraph.START, "split")
+                .addConditionalEdges("split",
+                        (state, config) -> completedFuture(Command.send(IntStream.range(0, 100)
+                                .mapToObj(item -> new Send("work", Map.of("item", item)))
+                                .toList())),
+                        Map.of("work", "work"))
+                .addEdge("work", StateGraph.END);
+
+        var app = workflow.compile(CompileConfig.builder().maxConcurrency(1).build());
+
+        var exception = assertThrows(CompletionException.class, () -> app.invoke(Map.of()));
+        Throwable cause = exception;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, cause);
+        assertEquals("item 3 failed", cause.getMessage());
+        // no item is started after the failure
+        assertEquals(4, started.get());
+
+        assertThrows(IllegalArgumentException.class, () -> Command.send(List.of(
+                new Send("work", Map.of()),
+                new Send("split", Map.of()))));
+    }
+
+    @Test
+    public void sendInterruptBeforeTest() throws Exception {
+
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("split", (state, config) -> completedFuture(Map.of()))
+                .addNode("work", (state, config) ->
+                        completedFuture(Map.of("task", "item " + state.<Integer>value("item").orElseThrow())))
+                .addEdge(StateGraph.START, "split")
+                .addConditionalEdges("split",
+                        (state, config) -> completedFuture(Command.send(IntStream.range(0, 5)
+                                .mapToObj(item -> new Send("work", Map.of("item", item)))
+                                .toList())),
+                        Map.of("work", "work"))
+                .addEdge("work", StateGraph.END);
+
+        var app = workflow.compile(CompileConfig.builder()
+                .checkpointSaver(new MemorySaver())
+                .interruptBefore("work")
+                .build());
+
+        var config = RunnableConfig.builder().threadId("sends").build();
+
+        var interrupted = app.invoke(GraphInput.noArgs(), config).orElseThrow();
+        assertTrue(interrupted.completedTasks().isEmpty());
+        assertTrue(interrupted.value(CompiledGraph.SENDS_KEY).isEmpty());
+
+        // the pending sends are replayed on resume
+        var result = app.invoke(GraphInput.resume(), config).orElseThrow();
+        assertEquals(IntStream.range(0, 5).mapToObj(item -> "item " + item).toList(), result.completedTasks());
+        assertTrue(result.value("item").isEmpty());
+        assertTrue(result.value(CompiledGraph.SENDS_KEY).isEmpty());
+    }
+
+    @Test
+    public void compiledExecutorTest() throws Exception {
+
+        var barrier = new CyclicBarrier(3);
+
+        Function<String, NodeAction<State>> blockingAction = id -> state -> {
+            // the three branches must run at the same time to pass the barrier
+            barrier.await(5, TimeUnit.SECONDS);
+            return Map.of("task", id);
+        };
+
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", node_async(state -> Map.of("task", "A")))
+                .addNode("B1", node_async(blockingAction.apply("B1")))
+                .addNode("B2", node_async(blockingAction.apply("B2")))
+                .addNode("B3", node_async(blockingAction.apply("B3")))
+                .addNode("C", node_async(state -> Map.of("task", Thread.currentThread().getName())))
+                .addEdge("A", "B1")
+                .addEdge("A", "B2")
+                .addEdge("A", "B3")
+                .addEdge("B1", "C")
+                .addEdge("B2", "C")
+                .addEdge("B3", "C")
+                .addEdge(StateGraph.START, "A")
+                .addEdge("C", StateGraph.END);
+
+        var nodeExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "node-C"));
+        try {
+            var app = workflow.compile(CompileConfig.builder()
+                    .useVirtualThreads()
+                    .nodeExecutor("C", nodeExecutor)
+                    .build());
+
+            var result = app.invoke(Map.of());
+            assertTrue(result.isPresent());
+
+            var tasks = result.get().completedTasks();
+            assertEquals(5, tasks.size());
+            assertEquals("A", tasks.get(0));
+            assertEquals(Set.of("B1", "B2", "B3"), Set.copyOf(tasks.subList(1, 4)));
+            assertEquals("node-C", tasks.get(4));
+        } finally {
+            nodeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelSiblingsOnFailureTest() throws Exception {
+
+        var interrupted = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("A", node_async(state -> Map.of("task", "A")))
+                .addNode("B1", node_async(state -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException ex) {
+                        interrupted.countDown();
+                        throw new IllegalStateException("interrupted", ex);
+                    }
+                    return Map.of("task", "B1");
+                }))
+                .addNode("B2", node_async(state -> {
+                    started.await(5, TimeUnit.SECONDS);
+                    throw new IllegalStateException("B2 failed");
+                }))
+                .addNode("C", node_async(state -> Map.of("task", "C")))
+                .addEdge("A", "B1")
+                .addEdge("A", "B2")
+                .addEdge("B1", "C")
+                .addEdge("B2", "C")
+                .addEdge(StateGraph.START, "A")
+                .addEdge("C", StateGraph.END);
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var app = workflow.compile(CompileConfig.builder()
+                    .parallelNodeExecutor("A", executor)
+                    .build());
+
+            var exception = assertThrows(CompletionException.class, () -> app.invoke(Map.of()));
+            Throwable cause = exception;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals("B2 failed", cause.getMessage());
+            // the running sibling has been interrupted
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
 }
@@ -12,6 +12,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.logging.LogManager;
@@ -384,6 +386,51 @@ public class StateGraphMemorySaverTest
 
     }
 
+    List<List<String>> itemsHistory(CompileConfig.StateSnapshotMode stateSnapshotMode) throws Exception {
+        // nodes that update the state value in place
+        NodeAction<AgentState> appendNodeId = state -> {
+            List<String> items = state.<List<String>>value("items").orElseThrow();
+            items.add(items.size() == 1 ? "a" : "b");
+            return Map.of("items", items);
+        };
+
+        var workflow = new StateGraph<>(AgentState::new)
+                .addNode("a", node_async(appendNodeId))
+                .addNode("b", node_async(appendNodeId))
+                .addEdge(START, "a")
+                .addEdge("a", "b")
+                .addEdge("b", END)
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .stateSnapshotMode(stateSnapshotMode)
+                        .build());
+
+        var runnableConfig = RunnableConfig.builder().threadId("thread_1").build();
+        var items = new ArrayList<String>();
+        items.add("init");
+
+        workflow.invoke(Map.of("items", items), runnableConfig);
+
+        return workflow.getStateHistory(runnableConfig).stream()
+                .map(snapshot -> snapshot.state().<List<String>>value("items").orElseThrow())
+                .map(List::copyOf)
+                .toList();
+    }
+
+    @Test
+    public void testStateSnapshotMode() throws Exception {
+        assertEquals(CompileConfig.StateSnapshotMode.DEEP_COPY, CompileConfig.builder().build().stateSnapshotMode());
+
+        // the deep copy isolates the snapshots from the values updated in place
+        assertEquals(List.of(List.of("init", "a", "b"), List.of("init", "a"), List.of("init")),
+                itemsHistory(CompileConfig.StateSnapshotMode.DEEP_COPY));
+
+        // the persistent snapshots share the values, so they must not be updated in place
+        var history = itemsHistory(CompileConfig.StateSnapshotMode.PERSISTENT);
+        assertEquals(3, history.size());
+        assertEquals(List.of("init", "a", "b"), history.get(0));
+    }
+
     @Test
     public void testMemoryWithVersionsSaver() throws Exception {
 
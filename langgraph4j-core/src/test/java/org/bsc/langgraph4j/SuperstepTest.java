@@ -0,0 +1,196 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.action.Send;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuperstepTest {
+
+    static class State extends AgentState {
+        public static final Map<String, Channel<?>> SCHEMA = Map.of(
+                "steps", Channels.appender(ArrayList::new)
+        );
+
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+
+        public List<String> steps() {
+            return this.<List<String>>value("steps").orElseGet(List::of);
+        }
+    }
+
+    private static final CompileConfig SUPERSTEP = CompileConfig.builder()
+            .executionMode(CompileConfig.ExecutionMode.SUPERSTEP)
+            .build();
+
+    private static StateGraph<State> addStep(StateGraph<State> workflow, String id) throws GraphStateException {
+        return workflow.addNode(id, (state, config) -> completedFuture(Map.of("steps", id)));
+    }
+
+    /**
+     * START -> [A, B], A -> C -> END, B -> B1 -> D -> END
+     */
+    private static StateGraph<State> unevenBranches() throws GraphStateException {
+        var workflow = new StateGraph<>(State.SCHEMA, State::new);
+        for (var id : List.of("A", "B", "B1", "C", "D")) {
+            addStep(workflow, id);
+        }
+        return workflow
+                .addEdge(START, "A")
+                .addEdge(START, "B")
+                .addEdge("A", "C")
+                .addEdge("B", "B1")
+                .addEdge("B1", "D")
+                .addEdge("C", END)
+                .addEdge("D", END);
+    }
+
+    @Test
+    public void branchesOfDifferentLengths() throws Exception {
+        var workflow = unevenBranches();
+
+        var exception = assertThrows(GraphStateException.class, workflow::compile);
+        assertTrue(exception.getMessage().contains("must have only one target"), exception.getMessage());
+
+        var app = workflow.compile(SUPERSTEP);
+
+        var outputs = app.stream(Map.of()).stream().toList();
+
+        assertEquals(List.of(START, "A", "B", "C", "B1", "D", END),
+                outputs.stream().map(NodeOutput::node).toList());
+        // the outputs of a step share the state merged at the barrier
+        assertEquals(List.of("A", "B"), outputs.get(1).state().steps());
+        assertEquals(List.of("A", "B"), outputs.get(2).state().steps());
+        assertEquals(List.of("A", "B", "C", "B1", "D"), outputs.get(outputs.size() - 1).state().steps());
+    }
+
+    @Test
+    public void conditionalEdgesInsideBranches() throws Exception {
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("loop", (state, config) -> completedFuture(Map.of("steps", "loop" + state.steps().size())));
+        addStep(workflow, "other");
+        workflow.addEdge(START, "loop")
+                .addEdge(START, "other")
+                .addConditionalEdges("loop",
+                        (state, config) -> completedFuture(new Command(
+                                state.steps().stream().filter(step -> step.startsWith("loop")).count() < 3 ? "again" : "done")),
+                        Map.of("again", "loop", "done", END))
+                .addEdge("other", END);
+
+        var app = workflow.compile(SUPERSTEP);
+
+        var result = app.invoke(Map.of());
+
+        assertTrue(result.isPresent());
+        assertEquals(List.of("loop0", "other", "loop2", "loop3"), result.get().steps());
+    }
+
+    @Test
+    public void activeNodesRunConcurrently() throws Exception {
+        var barrier = new CyclicBarrier(3);
+        var workflow = new StateGraph<>(State.SCHEMA, State::new);
+        for (var id : List.of("A", "B", "C")) {
+            workflow.addNode(id, (state, config) -> {
+                try {
+                    // each node waits for the others, so it completes only if all of them run at the same time
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    return java.util.concurrent.CompletableFuture.failedFuture(ex);
+                }
+                return completedFuture(Map.of("steps", id));
+            });
+            workflow.addEdge(START, id);
+        }
+        workflow.addEdge("A", END)
+                .addEdge("B", END)
+                .addEdge("C", END);
+
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var app = workflow.compile(CompileConfig.builder(SUPERSTEP)
+                    .defaultExecutor(executor)
+                    .build());
+
+            var result = app.invoke(Map.of());
+
+            assertTrue(result.isPresent());
+            assertEquals(List.of("A", "B", "C"), result.get().steps());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sendsRunAsSeparateTasks() throws Exception {
+        var workflow = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("split", (state, config) -> completedFuture(Map.of()))
+                .addNode("work", (state, config) ->
+                        completedFuture(Map.of("steps", "item" + state.<Integer>value("item").orElseThrow())))
+                .addNode("side", (state, config) -> completedFuture(Map.of("steps", "side")))
+                .addEdge(START, "split")
+                .addEdge(START, "side")
+                .addConditionalEdges("split",
+                        (state, config) -> completedFuture(Command.send(IntStream.range(0, 5)
+                                .mapToObj(item -> new Send("work", Map.of("item", item)))
+                                .toList())),
+                        Map.of("work", "work"))
+                .addEdge("side", END)
+                .addEdge("work", END);
+
+        var app = workflow.compile(CompileConfig.builder(SUPERSTEP).maxConcurrency(2).build());
+
+        var result = app.invoke(Map.of());
+
+        assertTrue(result.isPresent());
+        assertEquals(List.of("side", "item0", "item1", "item2", "item3", "item4"), result.get().steps());
+        assertTrue(result.get().value("item").isEmpty());
+    }
+
+    @Test
+    public void checkpointsAndRecursionLimit() throws Exception {
+        var saver = new MemorySaver();
+        var app = unevenBranches().compile(CompileConfig.builder(SUPERSTEP)
+                .checkpointSaver(saver)
+                .build());
+        var config = RunnableConfig.builder().threadId("superstep").build();
+
+        app.invoke(Map.of(), config);
+
+        assertEquals(List.of("A", "B", "C", "B1", "D"), app.getState(config).state().steps());
+
+        var limited = unevenBranches().compile(CompileConfig.builder(SUPERSTEP)
+                .recursionLimit(2)
+                .build());
+
+        var exception = assertThrows(Exception.class, () -> limited.invoke(Map.of()));
+        assertTrue(exception.getMessage().contains("Maximum number of iterations (2) reached!"), exception.getMessage());
+    }
+
+    @Test
+    public void interruptionsAreRejected() throws Exception {
+        var exception = assertThrows(GraphStateException.class,
+                () -> unevenBranches().compile(CompileConfig.builder(SUPERSTEP)
+                        .checkpointSaver(new MemorySaver())
+                        .interruptBefore("C")
+                        .build()));
+        assertEquals("interruptions are not supported in superstep execution mode, but [C] have been found!", exception.getMessage());
+    }
+}
@@ -0,0 +1,153 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.GraphStateException;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeCacheTest {
+
+    static class State extends AgentState {
+        public static final Map<String, Channel<?>> SCHEMA = Map.of();
+
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+    }
+
+    private StateGraph<State> retrievalGraph(AtomicInteger calls, NodeCachePolicy policy, List<Optional<Boolean>> cacheHits) throws GraphStateException {
+        return new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("retrieve", (state, config) -> {
+                    calls.incrementAndGet();
+                    var query = state.<String>value("query").orElseThrow();
+                    return completedFuture(Map.of("docs", "docs of " + query));
+                }, policy)
+                .addAfterCallNodeHook("retrieve", (nodeId, state, config, result) -> {
+                    cacheHits.add(config.nodeCacheHit());
+                    return completedFuture(result);
+                })
+                .addEdge(START, "retrieve")
+                .addEdge("retrieve", END);
+    }
+
+    @Test
+    public void cacheInFrontOfNodeAction() throws Exception {
+        var calls = new AtomicInteger();
+        var cacheHits = new ArrayList<Optional<Boolean>>();
+        var policy = NodeCachePolicy.builder().keys("query").build();
+        var app = retrievalGraph(calls, policy, cacheHits).compile();
+
+        var first = app.invoke(Map.of("query", "java", "other", 1)).orElseThrow();
+        // only the selected channels are part of the key
+        var second = app.invoke(Map.of("query", "java", "other", 2)).orElseThrow();
+        var third = app.invoke(Map.of("query", "kotlin")).orElseThrow();
+
+        assertEquals("docs of java", first.value("docs").orElseThrow());
+        assertEquals("docs of java", second.value("docs").orElseThrow());
+        assertEquals("docs of kotlin", third.value("docs").orElseThrow());
+        assertEquals(2, calls.get());
+        assertEquals(List.of(Optional.of(false), Optional.of(true), Optional.of(false)), cacheHits);
+        assertEquals(new NodeCache.Stats(1, 2, 0, 2), policy.cache().stats());
+
+        // the cache is shared by the graphs compiled with the same policy
+        var superstep = retrievalGraph(calls, policy, cacheHits).compile(CompileConfig.builder()
+                .executionMode(CompileConfig.ExecutionMode.SUPERSTEP)
+                .build());
+        assertEquals("docs of kotlin", superstep.invoke(Map.of("query", "kotlin")).orElseThrow().value("docs").orElseThrow());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void keyOfTheStateUpdatedByTheBeforeHooks() throws Exception {
+        var calls = new AtomicInteger();
+        var cacheHits = new ArrayList<Optional<Boolean>>();
+        var policy = NodeCachePolicy.builder().keys("query").build();
+        var app = retrievalGraph(calls, policy, cacheHits)
+                .addBeforeCallNodeHook("retrieve", (nodeId, state, config) ->
+                        completedFuture(Map.of("query", state.<String>value("query").orElseThrow().toLowerCase())))
+                .compile();
+
+        assertEquals("docs of java", app.invoke(Map.of("query", "Java")).orElseThrow().value("docs").orElseThrow());
+        // the key is the normalized query, so the result of "Java" is reused
+        assertEquals("docs of java", app.invoke(Map.of("query", "JAVA")).orElseThrow().value("docs").orElseThrow());
+        assertEquals(1, calls.get());
+        assertEquals(List.of(Optional.of(false), Optional.of(true)), cacheHits);
+    }
+
+    @Test
+    public void inMemoryEvictionAndExpiration() throws Exception {
+        var cache = new InMemoryNodeCache();
+        var lru = NodeCachePolicy.builder().maxSize(2).cache(cache).build();
+
+        cache.put("node", "a", Map.of("value", "a"), lru);
+        cache.put("node", "b", Map.of("value", "b"), lru);
+        assertTrue(cache.get("node", "a").isPresent()); // "b" becomes the least recently used
+        cache.put("node", "c", Map.of("value", "c"), lru);
+
+        assertTrue(cache.get("node", "b").isEmpty());
+        assertEquals(Map.of("value", "a"), cache.get("node", "a").orElseThrow());
+        assertEquals(Map.of("value", "c"), cache.get("node", "c").orElseThrow());
+        // results are partitioned by node
+        assertTrue(cache.get("other", "a").isEmpty());
+
+        var expiring = NodeCachePolicy.builder().ttl(Duration.ofMillis(20)).cache(cache).build();
+        cache.put("expiring", "a", Map.of("value", "a"), expiring);
+        assertTrue(cache.get("expiring", "a").isPresent());
+        Thread.sleep(40);
+        assertTrue(cache.get("expiring", "a").isEmpty());
+
+        assertEquals(new NodeCache.Stats(4, 3, 2, 2), cache.stats());
+
+        cache.clear("node");
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    public void fileSystemCacheSurvivesTheGraph(@TempDir Path folder) throws Exception {
+        var serializer = new ObjectStreamStateSerializer<>(State::new);
+        var calls = new AtomicInteger();
+        var cacheHits = new ArrayList<Optional<Boolean>>();
+
+        var app = retrievalGraph(calls, NodeCachePolicy.builder()
+                .keys("query")
+                .cache(new FileSystemNodeCache(folder, serializer))
+                .build(), cacheHits).compile();
+        app.invoke(Map.of("query", "java"));
+
+        // a new cache instance on the same folder, e.g. after a restart
+        var cache = new FileSystemNodeCache(folder, serializer);
+        var restarted = retrievalGraph(calls, NodeCachePolicy.builder()
+                .keys("query")
+                .maxSize(1)
+                .cache(cache)
+                .build(), cacheHits).compile();
+
+        assertEquals("docs of java", restarted.invoke(Map.of("query", "java")).orElseThrow().value("docs").orElseThrow());
+        assertEquals(1, calls.get());
+
+        restarted.invoke(Map.of("query", "kotlin"));
+        assertEquals(2, calls.get());
+        assertEquals(List.of(Optional.of(false), Optional.of(true), Optional.of(false)), cacheHits);
+        // max size 1: the result of "java" has been evicted
+        assertEquals(new NodeCache.Stats(1, 1, 1, 1), cache.stats());
+        assertTrue(cache.get("retrieve", Arrays.asList("java")).isEmpty());
+    }
+}
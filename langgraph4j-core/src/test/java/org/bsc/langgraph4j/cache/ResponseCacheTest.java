@@ -0,0 +1,110 @@
+package org.bsc.langgraph4j.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    static class TextCache extends ResponseCache<String> {
+
+        TextCache(ResponseCachePolicy policy) {
+            super(policy);
+        }
+
+        @Override
+        protected Map<String, Object> toData(String response) {
+            return Map.of("text", response);
+        }
+
+        @Override
+        protected String fromData(Map<String, Object> data) {
+            return (String) data.get("text");
+        }
+    }
+
+    @Test
+    public void cachesAndCoalesces() throws Exception {
+        var cache = new TextCache(ResponseCachePolicy.builder().namespace("test").build());
+        var calls = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var leader = CompletableFuture.supplyAsync(() -> cache.call("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return "response";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        var follower = CompletableFuture.supplyAsync(() -> cache.call("key", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+        while (cache.coalesced() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("response", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("response", follower.get(5, TimeUnit.SECONDS));
+        assertEquals("response", cache.call("key", () -> "other"));
+        assertEquals(1, calls.get());
+        assertEquals(Optional.of(Map.of("text", "response")), cache.policy().cache().get("test", "key"));
+    }
+
+    @Test
+    public void storeErrorDoesNotFailTheRequest() {
+        var cache = new TextCache(ResponseCachePolicy.builder().build()) {
+            @Override
+            protected Map<String, Object> toData(String response) {
+                throw new IllegalStateException("not serializable");
+            }
+        };
+
+        assertEquals("response", cache.call("key", () -> "response"));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    public void modelErrorIsDeliveredToTheFollowers() {
+        var cache = new TextCache(ResponseCachePolicy.builder().build());
+
+        var flight = cache.begin("key");
+        assertTrue(flight.isLeader());
+        var follower = cache.begin("key");
+        assertFalse(follower.isLeader());
+
+        flight.fail(new IllegalArgumentException("model error"));
+        var error = assertThrows(Exception.class, () -> follower.response().join());
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        // the next request calls the model again
+        assertTrue(cache.begin("key").isLeader());
+    }
+
+    @Test
+    public void leaderErrorReleasesTheKey() throws Exception {
+        var cache = new TextCache(ResponseCachePolicy.builder().build());
+
+        assertThrows(AssertionError.class, () -> cache.call("key", () -> {
+            throw new AssertionError("model crashed");
+        }));
+
+        // the failed flight has been removed, so the next identical call is a leader and goes through
+        var next = CompletableFuture.supplyAsync(() -> cache.call("key", () -> "response"));
+        assertEquals("response", next.get(5, TimeUnit.SECONDS));
+        assertEquals(0, cache.coalesced());
+    }
+}
@@ -0,0 +1,206 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncCheckpointSaverTest {
+
+    /**
+     * Saver that simulates a slow store and records the batches
+     */
+    static class SlowSaver extends MemorySaver {
+        final List<Integer> batches = new CopyOnWriteArrayList<>();
+        final AtomicInteger written = new AtomicInteger();
+
+        @Override
+        public void putAll(List<PutRequest> requests) throws Exception {
+            batches.add(requests.size());
+            super.putAll(requests);
+        }
+
+        @Override
+        protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+            if ("fail".equals(checkpoint.getNodeId())) {
+                throw new IllegalStateException("write failed");
+            }
+            Thread.sleep(2);
+            written.incrementAndGet();
+        }
+    }
+
+    static Checkpoint checkpoint(String nodeId, int step) {
+        return Checkpoint.builder()
+                .nodeId(nodeId)
+                .nextNodeId(nodeId)
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    @Test
+    public void groupCommitPreservesOrder() throws Exception {
+        var target = new SlowSaver();
+        var executor = Executors.newFixedThreadPool(8);
+
+        try (var saver = AsyncCheckpointSaver.builder()
+                .saver(target)
+                .durability(AsyncCheckpointSaver.Durability.ASYNC)
+                .queueCapacity(16)
+                .build()) {
+
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 8; ++t) {
+                final var config = RunnableConfig.builder().threadId("thread_" + t).build();
+                futures.add(executor.submit(() -> {
+                    for (int step = 0; step < 20; ++step) {
+                        saver.put(config, checkpoint("node", step));
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            for (int t = 0; t < 8; ++t) {
+                var checkpoints = List.copyOf(saver.list(RunnableConfig.builder().threadId("thread_" + t).build()));
+                assertEquals(20, checkpoints.size());
+                for (int step = 0; step < 20; ++step) {
+                    assertEquals(19 - step, checkpoints.get(step).getState().get("step"));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(160, target.written.get());
+        assertEquals(160, target.batches.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(target.batches.stream().anyMatch(size -> size > 1));
+    }
+
+    @Test
+    public void failureIsReported() throws Exception {
+        var target = new SlowSaver();
+        final var config = RunnableConfig.builder().threadId("failure").build();
+
+        try (var saver = AsyncCheckpointSaver.builder()
+                .saver(target)
+                .durability(AsyncCheckpointSaver.Durability.SYNC)
+                .build()) {
+
+            var result = saver.put(config, checkpoint("node", 0));
+            assertTrue(result.checkPointId().isPresent());
+            assertEquals(1, target.written.get());
+
+            assertThrows(IllegalStateException.class, () -> saver.put(config, checkpoint("fail", 1)));
+
+            // failure has been reported once
+            saver.put(config, checkpoint("node", 2));
+            assertEquals(2, target.written.get());
+        }
+
+        try (var saver = AsyncCheckpointSaver.builder()
+                .saver(target)
+                .durability(AsyncCheckpointSaver.Durability.EXIT)
+                .build()) {
+
+            saver.put(config, checkpoint("fail", 3));
+            assertThrows(IllegalStateException.class, () -> saver.flush(config));
+            saver.flush(config);
+        }
+    }
+
+    @Test
+    public void closeWhilePutting() throws Exception {
+        var target = new SlowSaver();
+        var executor = Executors.newFixedThreadPool(4);
+        var accepted = new AtomicInteger();
+
+        var saver = AsyncCheckpointSaver.builder()
+                .saver(target)
+                .durability(AsyncCheckpointSaver.Durability.SYNC)
+                .queueCapacity(4)
+                .build();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; ++t) {
+                final var config = RunnableConfig.builder().threadId("closing_" + t).build();
+                futures.add(executor.submit(() -> {
+                    for (int step = 0; step < 100; ++step) {
+                        try {
+                            saver.put(config, checkpoint("node", step));
+                            accepted.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            // the saver has been closed
+                            return null;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+            saver.close();
+
+            // no put waits forever for a write that is never consumed
+            for (var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // every accepted checkpoint has been written
+        assertEquals(accepted.get(), target.written.get());
+        assertThrows(IllegalStateException.class, () -> saver.put(RunnableConfig.builder().build(), checkpoint("node", 0)));
+    }
+
+    @Test
+    public void flushBeforeInterruption() throws Exception {
+        var target = new SlowSaver();
+
+        var workflow = new StateGraph<>(AgentState::new)
+                .addNode("agent_1", node_async(state -> Map.of("agent_1", "done")))
+                .addNode("agent_2", node_async(state -> Map.of("agent_2", "done")))
+                .addEdge(START, "agent_1")
+                .addEdge("agent_1", "agent_2")
+                .addEdge("agent_2", END);
+
+        try (var saver = AsyncCheckpointSaver.builder()
+                .saver(target)
+                .durability(AsyncCheckpointSaver.Durability.EXIT)
+                .build()) {
+
+            var app = workflow.compile(CompileConfig.builder()
+                    .checkpointSaver(saver)
+                    .interruptBefore("agent_2")
+                    .build());
+
+            var config = RunnableConfig.builder().threadId("interrupted").build();
+
+            var interrupted = app.invoke(Map.of(), config);
+            assertTrue(interrupted.isPresent());
+            // START and agent_1 checkpoints are durable
+            assertEquals(2, target.written.get());
+
+            var resumed = app.invoke(GraphInput.resume(), config);
+            assertTrue(resumed.isPresent());
+            assertEquals(Optional.of("done"), resumed.get().value("agent_2"));
+            assertEquals(3, target.written.get());
+        }
+    }
+}
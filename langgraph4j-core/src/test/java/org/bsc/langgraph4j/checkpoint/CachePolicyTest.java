@@ -0,0 +1,167 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachePolicyTest {
+
+    /**
+     * Saver backed by a map that simulates a database
+     */
+    static class StoreSaver extends MemorySaver {
+        final Map<String, LinkedList<Checkpoint>> store = new HashMap<>();
+        final AtomicInteger loads = new AtomicInteger();
+
+        StoreSaver(CachePolicy cachePolicy) {
+            super(DEFAULT_LOCK_STRIPES, DeltaMode.DISABLED, cachePolicy);
+        }
+
+        @Override
+        protected synchronized LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) {
+            if (checkpoints.isEmpty()) {
+                loads.incrementAndGet();
+                checkpoints.addAll(store.getOrDefault(config.threadId().orElseThrow(), new LinkedList<>()));
+            }
+            return checkpoints;
+        }
+
+        @Override
+        protected synchronized void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) {
+            store.computeIfAbsent(config.threadId().orElseThrow(), k -> new LinkedList<>()).push(checkpoint);
+        }
+
+        @Override
+        protected synchronized void updatedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) {
+            var stored = store.get(config.threadId().orElseThrow());
+            var id = config.checkPointId().orElseThrow();
+            stored.replaceAll(c -> c.getId().equals(id) ? checkpoint : c);
+        }
+    }
+
+    static RunnableConfig thread(int index) {
+        return RunnableConfig.builder().threadId("thread_" + index).build();
+    }
+
+    static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(Map.of("step", step, "text", "x".repeat(100)))
+                .build();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedThreads() throws Exception {
+        var saver = new StoreSaver(CachePolicy.builder().maxThreads(2).build());
+
+        for (int i = 0; i < 3; ++i) {
+            saver.put(thread(i), checkpoint(i));
+        }
+        assertEquals(2, saver._checkpointsByThread.size());
+        assertFalse(saver._checkpointsByThread.containsKey("thread_0"));
+
+        // transparently reloaded
+        assertEquals(Optional.of(0), saver.get(thread(0)).map(c -> c.getState().get("step")));
+        assertFalse(saver._checkpointsByThread.containsKey("thread_1"));
+
+        var stats = saver.cacheStats();
+        assertEquals(2, stats.evictions());
+        assertEquals(2, stats.threads());
+        assertEquals(4, stats.misses());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    public void evictByBytes() throws Exception {
+        var weight = CachePolicy.estimateSize(checkpoint(0));
+        var saver = new StoreSaver(CachePolicy.builder().maxBytes(weight * 3).build());
+
+        for (int step = 0; step < 3; ++step) {
+            saver.put(thread(0), checkpoint(step));
+        }
+        saver.put(thread(1), checkpoint(0));
+
+        assertEquals(1, saver.cacheStats().evictions());
+        assertEquals(Set.of("thread_1"), saver._checkpointsByThread.keySet());
+        assertEquals(3, saver.list(thread(0)).size());
+    }
+
+    @Test
+    public void expireAfterAccess() throws Exception {
+        var saver = new StoreSaver(CachePolicy.builder().expireAfterAccess(Duration.ofMillis(20)).build());
+
+        saver.put(thread(0), checkpoint(0));
+        Thread.sleep(50);
+        saver.put(thread(1), checkpoint(0));
+
+        assertEquals(Set.of("thread_1"), saver._checkpointsByThread.keySet());
+        assertEquals(1, saver.list(thread(0)).size());
+    }
+
+    @Test
+    public void trimCheckpointsPerThread() throws Exception {
+        var saver = new StoreSaver(CachePolicy.builder().maxCheckpointsPerThread(2).build());
+        var config = thread(0);
+
+        var ids = new ArrayList<String>();
+        for (int step = 0; step < 5; ++step) {
+            var checkpoint = checkpoint(step);
+            saver.put(config, checkpoint);
+            ids.add(checkpoint.getId());
+        }
+        assertEquals(2, saver._checkpointsByThread.get("thread_0").size());
+        assertEquals(3, saver.cacheStats().trimmed());
+
+        // head doesn't require reload
+        int loads = saver.loads.get();
+        assertEquals(Optional.of(4), saver.get(config).map(c -> c.getState().get("step")));
+        assertEquals(loads, saver.loads.get());
+
+        // dropped checkpoint is reloaded
+        var first = RunnableConfig.builder(config).checkPointId(ids.get(0)).build();
+        assertEquals(Optional.of(0), saver.get(first).map(c -> c.getState().get("step")));
+        assertEquals(loads + 1, saver.loads.get());
+
+        // replace a dropped checkpoint
+        saver.put(thread(0), checkpoint(5));
+        var second = RunnableConfig.builder(config).checkPointId(ids.get(1)).build();
+        saver.put(second, checkpoint(100));
+        assertEquals(6, saver.list(config).size());
+        assertEquals(100, saver.store.get("thread_0").get(4).getState().get("step"));
+    }
+
+    @Test
+    public void fileSystemSaverReloadsEvictedLog() throws Exception {
+        var saver = FileSystemSaver.builder()
+                .targetFolder(Paths.get("target", "checkpoint", "CachePolicyTest"))
+                .stateSerializer(new ObjectStreamStateSerializer<>(AgentState::new))
+                .format(FileSystemSaver.Format.APPEND_LOG)
+                .cachePolicy(CachePolicy.builder().maxThreads(1).build())
+                .build();
+        saver.deleteFile(thread(0));
+        saver.deleteFile(thread(1));
+
+        for (int step = 0; step < 3; ++step) {
+            saver.put(thread(0), checkpoint(step));
+            saver.put(thread(1), checkpoint(step));
+        }
+        assertEquals(3, saver.list(thread(0)).size());
+        assertEquals(3, saver.list(thread(1)).size());
+        assertTrue(saver.cacheStats().evictions() >= 5);
+
+        assertThrows(IllegalArgumentException.class, () -> FileSystemSaver.builder()
+                .cachePolicy(CachePolicy.builder().maxCheckpointsPerThread(10).build()));
+
+        saver.deleteFile(thread(0));
+        saver.deleteFile(thread(1));
+    }
+}
@@ -0,0 +1,211 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointDeltaTest {
+
+    final Path folder = Paths.get("target", "checkpoint", "CheckpointDeltaTest");
+
+    static Checkpoint checkpoint(int step) {
+        var state = new HashMap<String, Object>();
+        state.put("step", step);
+        state.put("messages", IntStream.rangeClosed(0, step).mapToObj(i -> "message_" + i).toList());
+        if (step % 2 == 0) {
+            state.put("even", true);
+        }
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(state)
+                .build();
+    }
+
+    @Test
+    public void diffAndApply() {
+        var parent = checkpoint(2);
+        var child = checkpoint(3);
+
+        var delta = CheckpointDelta.diff(parent, child);
+
+        assertTrue(CheckpointDelta.isDelta(delta));
+        assertEquals(parent.getId(), delta.get(CheckpointDelta.PARENT_KEY));
+        assertEquals(List.of("even"), delta.get(CheckpointDelta.REMOVED_KEY));
+        assertEquals(List.of("message_3"), delta.get(CheckpointDelta.APPEND_PREFIX + "messages"));
+        assertEquals(3, delta.get("step"));
+        assertFalse(delta.containsKey("messages"));
+
+        assertEquals(child.getState(), CheckpointDelta.apply(parent, delta));
+        assertSame(child.getState(), CheckpointDelta.apply(null, child.getState()));
+        assertThrows(IllegalStateException.class, () -> CheckpointDelta.apply(child, delta));
+    }
+
+    @Test
+    public void resolveLookupParentsById() {
+        var first = checkpoint(0);
+        var second = checkpoint(1);
+        var third = checkpoint(2);
+
+        // stored out of order
+        var stored = new ArrayList<>(List.of(
+                Checkpoint.builder().id(second.getId()).nodeId("n").nextNodeId("n").state(CheckpointDelta.diff(first, second)).build(),
+                Checkpoint.builder().id(third.getId()).nodeId("n").nextNodeId("n").state(CheckpointDelta.diff(second, third)).build(),
+                first));
+
+        CheckpointDelta.resolve(stored);
+
+        assertEquals(second.getState(), stored.get(0).getState());
+        assertEquals(third.getState(), stored.get(1).getState());
+        assertEquals(first.getState(), stored.get(2).getState());
+    }
+
+    @ParameterizedTest
+    @EnumSource(FileSystemSaver.Format.class)
+    public void fileSystemSaverRoundTrip(FileSystemSaver.Format format) throws Exception {
+        final var config = RunnableConfig.builder().threadId("delta-" + format).build();
+        final var serializer = new ObjectStreamStateSerializer<>(AgentState::new);
+
+        var saver = FileSystemSaver.builder()
+                .targetFolder(folder)
+                .stateSerializer(serializer)
+                .format(format)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        saver.deleteFile(config);
+
+        var expected = new LinkedList<Checkpoint>();
+        for (int step = 0; step < 8; ++step) {
+            var checkpoint = checkpoint(step);
+            saver.put(config, checkpoint);
+            expected.push(checkpoint);
+        }
+
+        // replace a checkpoint in the middle: its successor is stored as delta of it
+        var replaced = expected.get(3);
+        var replacement = Checkpoint.builder()
+                .nodeId(replaced.getNodeId())
+                .nextNodeId(replaced.getNextNodeId())
+                .state(Map.of("step", 100, "messages", List.of("replaced")))
+                .build();
+        saver.put(RunnableConfig.builder(config).checkPointId(replaced.getId()).build(), replacement);
+        expected.set(3, replacement);
+
+        var reloaded = FileSystemSaver.builder()
+                .targetFolder(folder)
+                .stateSerializer(serializer)
+                .format(format)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+
+        var checkpoints = List.copyOf(reloaded.list(config));
+        assertEquals(expected.size(), checkpoints.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getId(), checkpoints.get(i).getId());
+            assertEquals(expected.get(i).getState(), checkpoints.get(i).getState());
+        }
+
+        reloaded.deleteFile(config);
+    }
+
+    /**
+     * A bounded saver that persists the checkpoints (as the savers backed by a store do) in a shared list
+     */
+    static class StoreSaver extends MemorySaver {
+        final LinkedList<Checkpoint> store;
+
+        StoreSaver(LinkedList<Checkpoint> store, CachePolicy cachePolicy) {
+            super(DEFAULT_LOCK_STRIPES, DeltaMode.fullSnapshotEvery(3), cachePolicy);
+            this.store = store;
+        }
+
+        Checkpoint persisted(LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) {
+            return Checkpoint.builder()
+                    .id(checkpoint.getId())
+                    .nodeId(checkpoint.getNodeId())
+                    .nextNodeId(checkpoint.getNextNodeId())
+                    .state(persistentStateOf(checkpoints, checkpoint))
+                    .build();
+        }
+
+        @Override
+        protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) {
+            if (checkpoints.isEmpty()) {
+                checkpoints.addAll(store);
+                CheckpointDelta.resolve(checkpoints);
+            }
+            return checkpoints;
+        }
+
+        @Override
+        protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) {
+            store.push(persisted(checkpoints, checkpoint));
+        }
+
+        @Override
+        protected void updatedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) {
+            final var id = config.checkPointId().orElseThrow();
+            for (var iterator = store.listIterator(); iterator.hasNext(); ) {
+                if (iterator.next().getId().equals(id)) {
+                    iterator.set(persisted(checkpoints, checkpoint));
+                    return;
+                }
+            }
+            fail("checkpoint " + id + " is not stored");
+        }
+    }
+
+    @Test
+    public void replaceAfterTrim() throws Exception {
+        final var config = RunnableConfig.builder().threadId("delta-trimmed").build();
+        final var store = new LinkedList<Checkpoint>();
+        final var saver = new StoreSaver(store, CachePolicy.builder().maxCheckpointsPerThread(4).build());
+
+        var expected = new LinkedList<Checkpoint>();
+        for (int step = 0; step < 8; ++step) {
+            var checkpoint = checkpoint(step);
+            saver.put(config, checkpoint);
+            expected.push(checkpoint);
+        }
+        assertEquals(8, store.size());
+
+        // the checkpoint at position 6 is still in memory, its successor at position 7 is a delta of it
+        var replaced = expected.get(1);
+        var replacement = Checkpoint.builder()
+                .nodeId(replaced.getNodeId())
+                .nextNodeId(replaced.getNextNodeId())
+                .state(Map.of("step", 100, "messages", List.of("replaced")))
+                .build();
+        saver.put(RunnableConfig.builder(config).checkPointId(replaced.getId()).build(), replacement);
+        expected.set(1, replacement);
+
+        var checkpoints = List.copyOf(new StoreSaver(store, CachePolicy.UNBOUNDED).list(config));
+        assertEquals(expected.size(), checkpoints.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getId(), checkpoints.get(i).getId());
+            assertEquals(expected.get(i).getState(), checkpoints.get(i).getState());
+        }
+    }
+
+    @Test
+    public void deltaModeValidation() {
+        assertFalse(BaseCheckpointSaver.DeltaMode.DISABLED.isEnabled());
+        assertTrue(BaseCheckpointSaver.DeltaMode.DISABLED.isFullSnapshot(5));
+        assertThrows(IllegalArgumentException.class, () -> BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(0));
+
+        var mode = BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(4);
+        assertTrue(mode.isFullSnapshot(0));
+        assertFalse(mode.isFullSnapshot(3));
+        assertTrue(mode.isFullSnapshot(8));
+    }
+}
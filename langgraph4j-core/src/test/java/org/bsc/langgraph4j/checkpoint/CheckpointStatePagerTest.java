@@ -0,0 +1,60 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointStatePagerTest {
+
+    @Test
+    public void fetchStatesByPage() {
+        final var ids = IntStream.range(0, 10).mapToObj(i -> "id_" + i).toList();
+        final var fetches = new ArrayList<List<String>>();
+        final var decodes = new AtomicInteger();
+
+        var pager = new CheckpointStatePager<Integer>(ids, 4,
+                page -> {
+                    fetches.add(List.copyOf(page));
+                    var result = new HashMap<String, Integer>();
+                    page.forEach(id -> result.put(id, Integer.parseInt(id.substring(3))));
+                    return result;
+                },
+                raw -> {
+                    decodes.incrementAndGet();
+                    return Map.of("step", raw);
+                });
+
+        var checkpoints = ids.stream().map(id -> pager.checkpoint(id, "node", "next")).toList();
+        assertTrue(fetches.isEmpty());
+
+        // head
+        assertEquals(Map.of("step", 0), checkpoints.get(0).getState());
+        assertEquals(List.of(List.of("id_0", "id_1", "id_2", "id_3")), fetches);
+        assertEquals(1, decodes.get());
+
+        // same page: no round trip
+        assertEquals(Map.of("step", 2), checkpoints.get(2).getState());
+        assertEquals(1, fetches.size());
+        assertEquals(2, decodes.get());
+
+        // last (partial) page
+        assertEquals(Map.of("step", 9), checkpoints.get(9).getState());
+        assertEquals(List.of("id_9"), fetches.get(1));
+    }
+
+    @Test
+    public void missingState() {
+        var pager = new CheckpointStatePager<String>(List.of("a", "b"), 2,
+                page -> Map.of("a", "A"),
+                raw -> Map.of("value", raw));
+
+        assertEquals(Map.of("value", "A"), pager.checkpoint("a", "n", "n").getState());
+        assertThrows(IllegalStateException.class, () -> pager.checkpoint("b", "n", "n").getState());
+        assertThrows(IllegalArgumentException.class, () -> pager.stateOf("c"));
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointStatePager<String>(List.of(), 0, page -> Map.of(), raw -> Map.of()));
+    }
+}
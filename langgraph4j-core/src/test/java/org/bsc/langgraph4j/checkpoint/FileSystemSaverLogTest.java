@@ -0,0 +1,209 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSystemSaverLogTest {
+
+    static class CountingSerializer extends StateSerializer<AgentState> {
+        final ObjectStreamStateSerializer<AgentState> delegate = new ObjectStreamStateSerializer<>(AgentState::new);
+        final AtomicInteger reads = new AtomicInteger();
+
+        CountingSerializer() {
+            super(AgentState::new);
+        }
+
+        @Override
+        public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+            delegate.writeData(data, out);
+        }
+
+        @Override
+        public Map<String, Object> readData(ObjectInput in) throws IOException, ClassNotFoundException {
+            reads.incrementAndGet();
+            return delegate.readData(in);
+        }
+    }
+
+    final Path folder = Paths.get("target", "checkpoint", "FileSystemSaverLogTest");
+    final RunnableConfig config = RunnableConfig.builder().threadId("log-thread").build();
+
+    CountingSerializer serializer;
+
+    FileSystemSaver newSaver(int compactionThreshold) {
+        return FileSystemSaver.builder()
+                .targetFolder(folder)
+                .stateSerializer(serializer)
+                .format(FileSystemSaver.Format.APPEND_LOG)
+                .compactionThreshold(compactionThreshold)
+                .syncPolicy(FileSystemSaver.SyncPolicy.everyRecords(10))
+                .build();
+    }
+
+    static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    Path logFolder() {
+        return folder.resolve("thread-log-thread" + FileSystemSaver.LOG_EXTENSION);
+    }
+
+    long segmentsCount() throws IOException {
+        try (var files = Files.list(logFolder())) {
+            return files.filter(f -> f.toString().endsWith(CheckpointLog.SEGMENT_EXTENSION)).count();
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        serializer = new CountingSerializer();
+        newSaver(0).deleteFile(config);
+    }
+
+    @Test
+    public void appendAndLoadLazily() throws Exception {
+        var saver = newSaver(0);
+        for (int step = 0; step < 50; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+
+        var reloaded = newSaver(0);
+        var last = reloaded.get(config).orElseThrow();
+
+        assertEquals(50, reloaded.list(config).size());
+        assertEquals("node_49", last.getNodeId());
+        assertEquals(0, serializer.reads.get(), "no state must be decoded on load");
+        assertEquals(49, last.getState().get("step"));
+        assertEquals(1, serializer.reads.get());
+
+        var steps = reloaded.list(config).stream().map(cp -> (Integer) cp.getState().get("step")).toList();
+        assertEquals(49, steps.get(0));
+        assertEquals(0, steps.get(49));
+    }
+
+    @Test
+    public void replaceWithTombstoneAndCompact() throws Exception {
+        var saver = newSaver(4);
+        var configs = new java.util.ArrayList<RunnableConfig>();
+        for (int step = 0; step < 5; ++step) {
+            configs.add(saver.put(config, checkpoint(step)));
+        }
+
+        // replace checkpoint of step 1
+        var replaced = saver.put(configs.get(1), checkpoint(100));
+        assertEquals(configs.get(1), replaced);
+
+        var reloaded = newSaver(4);
+        var steps = reloaded.list(config).stream().map(cp -> (Integer) cp.getState().get("step")).toList();
+        assertEquals(List.of(4, 3, 2, 100, 0), steps);
+
+        // second replacement reaches the compaction threshold
+        reloaded.put(RunnableConfig.builder(config).checkPointId(reloaded.list(config).stream().toList().get(0).getId()).build(),
+                checkpoint(200));
+        assertEquals(1, segmentsCount());
+
+        steps = newSaver(4).list(config).stream().map(cp -> (Integer) cp.getState().get("step")).toList();
+        assertEquals(List.of(200, 3, 2, 100, 0), steps);
+    }
+
+    @Test
+    public void segmentsRollAndTruncatedRecordIsDropped() throws Exception {
+        var saver = FileSystemSaver.builder()
+                .targetFolder(folder)
+                .stateSerializer(serializer)
+                .format(FileSystemSaver.Format.APPEND_LOG)
+                .maxSegmentSize(512)
+                .build();
+        for (int step = 0; step < 10; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+        assertTrue(segmentsCount() > 1);
+
+        // simulate a crash during an append
+        Path lastSegment;
+        try (var files = Files.list(logFolder())) {
+            lastSegment = files.sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (var channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        var reloaded = newSaver(0);
+        assertEquals(9, reloaded.list(config).size());
+        assertEquals(8, reloaded.get(config).orElseThrow().getState().get("step"));
+
+        reloaded.put(config, checkpoint(10));
+        assertEquals(10, newSaver(0).get(config).orElseThrow().getState().get("step"));
+    }
+
+    @Test
+    public void lazyStatesSurviveCompactionAndDelete() throws Exception {
+        var saver = newSaver(2);
+        for (int step = 0; step < 5; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+
+        var reloaded = newSaver(2);
+        var checkpoints = List.copyOf(reloaded.list(config));
+        assertEquals(0, serializer.reads.get());
+
+        // the replacement reaches the compaction threshold, so the loaded segments are deleted
+        reloaded.put(RunnableConfig.builder(config).checkPointId(checkpoints.get(0).getId()).build(), checkpoint(100));
+        assertEquals(1, segmentsCount());
+
+        // the states loaded lazily before the compaction are still readable
+        assertEquals(List.of(4, 3, 2, 1, 0),
+                checkpoints.stream().map(cp -> (Integer) cp.getState().get("step")).toList());
+
+        assertTrue(reloaded.deleteFile(config));
+        assertFalse(Files.exists(logFolder()));
+
+        // a new log is started after the deletion
+        reloaded.put(config, checkpoint(200));
+        var steps = newSaver(0).list(config).stream().map(cp -> (Integer) cp.getState().get("step")).toList();
+        assertEquals(List.of(200), steps);
+    }
+
+    @Test
+    public void migrateSnapshotFileAndRelease() throws Exception {
+        var snapshotSaver = new FileSystemSaver(folder, serializer);
+        snapshotSaver.deleteFile(config);
+        for (int step = 0; step < 3; ++step) {
+            snapshotSaver.put(config, checkpoint(step));
+        }
+
+        var saver = newSaver(0);
+        assertEquals(3, saver.list(config).size());
+        assertFalse(Files.exists(folder.resolve("thread-log-thread" + FileSystemSaver.EXTENSION)));
+        assertTrue(Files.isDirectory(logFolder()));
+
+        var tag = saver.release(config);
+        assertEquals(3, tag.checkpoints().size());
+        assertFalse(Files.exists(logFolder()));
+        try (var files = Files.list(folder)) {
+            assertTrue(files.anyMatch(f -> f.getFileName().toString().matches("thread-log-thread-v\\d+\\.segments")));
+        }
+    }
+}
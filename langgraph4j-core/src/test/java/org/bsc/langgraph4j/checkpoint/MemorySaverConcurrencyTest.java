@@ -0,0 +1,72 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemorySaverConcurrencyTest {
+
+    static class SlowSaver extends MemorySaver {
+        final CountDownLatch slowInsertStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSlowInsert = new CountDownLatch(1);
+
+        @Override
+        protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+            if (config.threadId().orElseThrow().equals("slow")) {
+                slowInsertStarted.countDown();
+                assertTrue(releaseSlowInsert.await(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    private static Checkpoint checkpoint() {
+        return Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("next")
+                .state(Map.of("value", 1))
+                .build();
+    }
+
+    @Test
+    public void unrelatedThreadsDoNotWaitEachOther() throws Exception {
+        var saver = new SlowSaver();
+        var slowConfig = RunnableConfig.builder().threadId("slow").build();
+        var fastConfig = RunnableConfig.builder().threadId("fast").build();
+
+        assertNotSame(saver.lockOf("slow"), saver.lockOf("fast"));
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var slowPut = executor.submit(() -> saver.put(slowConfig, checkpoint()));
+
+            assertTrue(saver.slowInsertStarted.await(10, TimeUnit.SECONDS));
+
+            // must complete while the slow thread is still inside its I/O hook
+            saver.put(fastConfig, checkpoint());
+            assertEquals(1, saver.list(fastConfig).size());
+            assertFalse(slowPut.isDone());
+
+            saver.releaseSlowInsert.countDown();
+            assertNotNull(slowPut.get(10, TimeUnit.SECONDS));
+            assertEquals(1, saver.list(slowConfig).size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void lockStripesAreRoundedToPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MemorySaver(0));
+
+        var saver = new MemorySaver(1);
+        assertSame(saver.lockOf("a"), saver.lockOf("b"));
+    }
+}
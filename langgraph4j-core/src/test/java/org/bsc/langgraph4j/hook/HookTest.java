@@ -13,6 +13,7 @@ import org.bsc.langgraph4j.state.Channel;
 import org.bsc.langgraph4j.state.Reducer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -242,4 +243,78 @@ public class HookTest implements LG4JLoggable {
         assertIterableEquals( List.of( "level2", "level1"),  (Iterable<?>) hooksValueMap.get("node_1") );
     }
 
+    @Test
+    public void testPrecomputedChains() throws Exception {
+        var hooks = new NodeHooks<State>();
+        var wrapped = new ArrayList<String>();
+        hooks.wrapCalls.add( "node_1", (nodeId, state, config, action) -> {
+            wrapped.add( nodeId );
+            return action.apply( state, config );
+        });
+
+        var config = RunnableConfig.builder().build();
+        var state = stateFactory().apply(Map.of());
+
+        // a node without hooks runs the action directly, without copying the state
+        var unhooked = hooks.chain( "node_2" );
+        assertTrue( unhooked.isEmpty() );
+        AgentStateFactory<State> failingFactory = data -> fail( "state factory must not be called" );
+        var result = unhooked.apply( NodeActionBuilder.of().nodeId("node_2").buildAction(CompileConfig.builder().build()),
+                        state, RunnableConfig.builder().putMetadata(RunnableConfig.NODE_ID, "node_2").build(), failingFactory, MessagesState.SCHEMA )
+                .join();
+        assertEquals( Map.of("messages", "node_2"), result );
+
+        // a node with wrap hooks only doesn't pay the before call state update
+        var hooked = hooks.chain( "node_1" );
+        assertFalse( hooked.isEmpty() );
+        result = hooked.apply( (s, c) -> completedFuture( Map.of("messages", "node_1") ), state, config, failingFactory, MessagesState.SCHEMA )
+                .join();
+        assertEquals( Map.of("messages", "node_1"), result );
+        assertEquals( List.of("node_1"), wrapped );
+
+        // an action failing synchronously returns a failed future
+        var failure = unhooked.apply( (s, c) -> { throw new IllegalStateException("action failed"); }, state, config, failingFactory, MessagesState.SCHEMA );
+        assertTrue( failure.isCompletedExceptionally() );
+
+        var edgeHooks = new EdgeHooks<State>();
+        assertTrue( edgeHooks.chain( "node_1" ).isEmpty() );
+        var command = edgeHooks.chain( "node_1" )
+                .apply( EdgeActionBuilder.of().sourceId("node_1").target(StateGraph.END).build(), state, config, failingFactory, MessagesState.SCHEMA )
+                .join();
+        assertEquals( StateGraph.END, command.gotoNode() );
+    }
+
+    @Test
+    public void testHooksAddedAfterCompile() throws Exception {
+        var called = new ArrayList<String>();
+
+        var workflow = new StateGraph<>(MessagesState.SCHEMA, State::new)
+                .addNode("node_1", (state, config) -> completedFuture(Map.of("messages", "node_1")))
+                .addNode("node_2", (state, config) -> completedFuture(Map.of("messages", "node_2")))
+                .addEdge(StateGraph.START, "node_1")
+                .addConditionalEdges("node_1",
+                        (state, config) -> completedFuture(new Command("node_2")),
+                        Map.of("node_2", "node_2"))
+                .addEdge("node_2", StateGraph.END);
+
+        var app = workflow.compile();
+        app.invoke(GraphInput.noArgs(), RunnableConfig.builder().build());
+        assertTrue(called.isEmpty());
+
+        // the chains of the compiled graph are rebuilt
+        workflow.addWrapCallNodeHook("node_2", (nodeId, state, config, action) -> {
+            called.add("node:" + nodeId);
+            return action.apply(state, config);
+        });
+        workflow.addWrapCallEdgeHook((sourceId, state, config, action) -> {
+            called.add("edge:" + sourceId);
+            return action.apply(state, config);
+        });
+
+        var result = app.invoke(GraphInput.noArgs(), RunnableConfig.builder().build());
+        assertTrue(result.isPresent());
+        assertEquals(List.of("node_1", "node_2"), result.get().messages());
+        assertEquals(List.of("edge:node_1", "node:node_2"), called);
+    }
+
 }
@@ -1,6 +1,7 @@
 package org.bsc.langgraph4j.state;
 
 import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.utils.HashIndexedList;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -136,4 +137,77 @@ public class AgentStateTest {
         assertIterableEquals( List.of( "x1", "v1", "v2", "v3"), state.messages() );
     }
 
+    @Test
+    public void indexedAppenderTest() {
+
+        var data = Map.<String,Object>of();
+        var indexedData = Map.<String,Object>of();
+
+        var updates = List.<Object>of(
+                List.of("v1", "v2"),
+                "v2",
+                List.of("v3", "v3", "v4"),
+                RemoveByHash.of("v2"),
+                RemoveByHash.of("missing"),
+                List.of("v5", RemoveByHash.of("v1")),
+                ReplaceAllWith.of(List.of("a1", "a2")),
+                "a3",
+                List.of("a1", "a4"));
+
+        for( var update : updates ) {
+            data = AgentState.updateState( data, Map.of( "messages", update), MessagesState.SCHEMA);
+            var previous = indexedData.get("messages");
+            var previousValue = previous == null ? null : List.copyOf((List<?>)previous);
+            indexedData = AgentState.updateState( indexedData, Map.of( "messages", update), MessagesState.INDEXED_SCHEMA);
+
+            assertInstanceOf( HashIndexedList.class, indexedData.get("messages"), "update: " + update );
+            assertIterableEquals( (List<?>)data.get("messages"), (List<?>)indexedData.get("messages"), "update: " + update );
+            if( previous != null ) {
+                // the previous value is unchanged
+                assertIterableEquals( previousValue, (List<?>)previous );
+            }
+        }
+
+        assertIterableEquals( List.of( "a1", "a2", "a3", "a4"), (List<?>)indexedData.get("messages") );
+
+        indexedData = AgentState.updateState( indexedData, mapOf( "messages", null), MessagesState.INDEXED_SCHEMA);
+        assertInstanceOf( HashIndexedList.class, indexedData.get("messages") );
+        assertTrue( ((List<?>)indexedData.get("messages")).isEmpty() );
+    }
+
+    @Test
+    public void updateStateWithoutCopiesTest() {
+
+        var initData = new HashMap<String,Object>();
+        initData.put( "messages", List.of("v1") );
+        initData.put( "empty", null );
+
+        var state = new AgentState( initData );
+        initData.put( "other", "value" );
+        // the initial data is copied
+        assertFalse( state.data().containsKey("other") );
+        assertSame( state.data(), state.data() );
+        assertThrows( UnsupportedOperationException.class, () -> state.data().put( "other", "value") );
+
+        var data = AgentState.updateState( state, mapOf( "steps", 1, "empty", null ), MessagesState.SCHEMA );
+        assertEquals( Map.of( "messages", List.of("v1"), "steps", 1 ), data );
+
+        // the updated data is shared
+        var newState = new AgentState( data );
+        assertSame( newState.data(), newState.data() );
+        assertEquals( 1, newState.<Integer>value("steps").orElseThrow() );
+        assertThrows( UnsupportedOperationException.class, () -> newState.data().put( "other", "value") );
+
+        var updated = AgentState.updateState( data, Map.of( "steps", AgentState.MARK_FOR_REMOVAL, "messages", "v2" ), MessagesState.SCHEMA );
+        assertEquals( Map.of( "messages", List.of("v1", "v2") ), updated );
+        assertEquals( Map.of( "messages", List.of("v1"), "steps", 1 ), data );
+
+        // the updated data is still mutable, its changes are copied on write
+        data.entrySet().removeIf( entry -> entry.getKey().equals("messages") );
+        data.put( "other", "value" );
+        data.remove( "steps" );
+        assertEquals( Map.of( "other", "value" ), data );
+        assertEquals( Map.of( "messages", List.of("v1"), "steps", 1 ), newState.data() );
+    }
+
 }
@@ -0,0 +1,152 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.async.AsyncGeneratorQueue;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingChunkQueueTest {
+
+    static final AgentState STATE = new AgentState(Map.of("messages", "hello"));
+
+    static List<String> chunksOf(StreamingChunkQueue<AgentState> chunkQueue) {
+        var generator = new AsyncGenerator.WithResult<>(new AsyncGeneratorQueue.Generator<>(chunkQueue.queue()));
+        var chunks = new ArrayList<String>();
+        generator.forEachAsync(output -> chunks.add(output.chunk())).join();
+        assertEquals("done", generator.resultValue().orElse(null));
+        return chunks;
+    }
+
+    @Test
+    public void defaultPolicyEmitsEachToken() {
+        var chunkQueue = new StreamingChunkQueue<>(StreamingChunkPolicy.unbounded(), "agent", STATE);
+        for (var token : List.of("a", "b", "c")) {
+            chunkQueue.onToken(token);
+        }
+        chunkQueue.onComplete("done");
+
+        var output = chunkQueue.queue().peek().future().join();
+        assertSame(STATE, output.state());
+        assertEquals("agent", output.node());
+        assertEquals(List.of("a", "b", "c"), chunksOf(chunkQueue));
+    }
+
+    @Test
+    public void tokensAreCoalescedBySize() {
+        var policy = StreamingChunkPolicy.builder()
+                .maxChunkTokens(2)
+                .withState(false)
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+        for (var token : List.of("a", "b", "c", "d", "e")) {
+            chunkQueue.onToken(token);
+        }
+        chunkQueue.onComplete("done");
+
+        var output = chunkQueue.queue().peek().future().join();
+        assertInstanceOf(StreamingChunk.class, output);
+        assertNull(output.state());
+        // the pending token is flushed on completion
+        assertEquals(List.of("ab", "cd", "e"), chunksOf(chunkQueue));
+    }
+
+    @Test
+    public void tokensAreCoalescedByTime() throws Exception {
+        var policy = StreamingChunkPolicy.builder()
+                .maxChunkTokens(100)
+                .maxChunkDelay(Duration.ofMillis(30))
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+        chunkQueue.onToken("a");
+        chunkQueue.onToken("b");
+        Thread.sleep(50);
+        chunkQueue.onToken("c");
+        chunkQueue.onToken("d");
+        chunkQueue.onComplete("done");
+
+        assertEquals(List.of("abc", "d"), chunksOf(chunkQueue));
+    }
+
+    @Test
+    public void overflowCoalesce() {
+        var policy = StreamingChunkPolicy.builder()
+                .capacity(2)
+                .overflow(StreamingChunkPolicy.Overflow.COALESCE)
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+        for (var token : List.of("a", "b", "c", "d", "e")) {
+            chunkQueue.onToken(token);
+        }
+        assertEquals(2, chunkQueue.queue().size());
+        // the completion is never rejected
+        chunkQueue.onComplete("done");
+
+        assertEquals(List.of("a", "bcde"), chunksOf(chunkQueue));
+    }
+
+    @Test
+    public void overflowDropToLatest() {
+        var policy = StreamingChunkPolicy.builder()
+                .capacity(2)
+                .overflow(StreamingChunkPolicy.Overflow.DROP_TO_LATEST)
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+        for (var token : List.of("a", "b", "c", "d", "e")) {
+            chunkQueue.onToken(token);
+        }
+        chunkQueue.onComplete("done");
+
+        assertEquals(List.of("e"), chunksOf(chunkQueue));
+        assertEquals(4, chunkQueue.dropped());
+    }
+
+    @Test
+    public void overflowBlock() throws Exception {
+        var policy = StreamingChunkPolicy.builder()
+                .capacity(2)
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+
+        var producer = CompletableFuture.runAsync(() -> {
+            for (var token : List.of("a", "b", "c", "d", "e")) {
+                chunkQueue.onToken(token);
+            }
+            chunkQueue.onComplete("done");
+        });
+        Thread.sleep(50);
+        assertFalse(producer.isDone());
+        assertEquals(2, chunkQueue.queue().size());
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), chunksOf(chunkQueue));
+        producer.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void closeReleasesBlockedProducer() throws Exception {
+        var policy = StreamingChunkPolicy.builder()
+                .capacity(1)
+                .build();
+        var chunkQueue = new StreamingChunkQueue<>(policy, "agent", STATE);
+
+        var producer = CompletableFuture.runAsync(() -> {
+            for (var token : List.of("a", "b", "c")) {
+                chunkQueue.onToken(token);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(producer.isDone());
+
+        chunkQueue.close();
+        producer.get(1, TimeUnit.SECONDS);
+        assertEquals(1, chunkQueue.queue().size());
+    }
+}
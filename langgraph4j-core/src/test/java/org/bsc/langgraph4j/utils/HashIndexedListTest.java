@@ -0,0 +1,174 @@
+package org.bsc.langgraph4j.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashIndexedListTest {
+
+    @Test
+    public void copiesShareStructure() {
+        var v1 = new HashIndexedList<String>();
+        v1.add("a");
+        v1.add("b");
+
+        var v2 = v1.copy();
+        v2.add("c");
+        var v3 = v2.copy();
+        v3.add("d");
+
+        assertEquals(List.of("a", "b"), v1);
+        assertEquals(List.of("a", "b", "c"), v2);
+        assertEquals(List.of("a", "b", "c", "d"), v3);
+
+        assertFalse(v1.containsHashOf("c"));
+        assertTrue(v2.containsHashOf("c"));
+        assertFalse(v2.containsHashOf("d"));
+
+        // appending to an older copy detaches it
+        v1.add("x");
+        assertEquals(List.of("a", "b", "x"), v1);
+        assertEquals(List.of("a", "b", "c"), v2);
+        assertEquals(List.of("a", "b", "c", "d"), v3);
+        assertTrue(v1.containsHashOf("x"));
+        assertFalse(v3.containsHashOf("x"));
+        assertFalse(v1.contains("c"));
+    }
+
+    @Test
+    public void mutationsDontLeakToCopies() {
+        var v1 = new HashIndexedList<>(List.of("a", "b", "c", "b"));
+        var v2 = v1.copy();
+
+        assertTrue(v2.removeMatching((value, index) -> value.equals("b")));
+        assertFalse(v2.removeMatching((value, index) -> value.equals("z")));
+        assertEquals(List.of("a", "c"), v2);
+        assertFalse(v2.containsHashOf("b"));
+
+        v2.set(0, "z");
+        v2.remove(1);
+        v2.add(0, "y");
+        assertEquals(List.of("y", "z"), v2);
+
+        assertEquals(List.of("a", "b", "c", "b"), v1);
+        assertTrue(v1.containsHashOf("b"));
+
+        var iterator = v1.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(List.of("b", "c", "b"), v1);
+
+        v1.clear();
+        assertTrue(v1.isEmpty());
+        assertFalse(v1.containsHashOf("b"));
+        assertEquals(List.of("y", "z"), v2);
+    }
+
+    @Test
+    public void behavesLikeArrayList() {
+        var expected = new ArrayList<Integer>();
+        var actual = new HashIndexedList<Integer>();
+        for (int i = 0; i < 1_000; ++i) {
+            expected.add(i % 37);
+            actual.add(i % 37);
+            if (i % 100 == 0) {
+                expected.remove(0);
+                actual.remove(0);
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.indexOf(20), actual.indexOf(20));
+        assertEquals(expected.subList(10, 20), actual.subList(10, 20));
+        assertTrue(actual.contains(null) == expected.contains(null));
+
+        actual.add(null);
+        assertTrue(actual.containsHashOf(null));
+        assertTrue(actual.contains(null));
+    }
+
+    @Test
+    public void concurrentCopies() throws Exception {
+        var base = new HashIndexedList<>(List.of(-1));
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = IntStream.range(0, 4)
+                    .mapToObj(branch -> CompletableFuture.supplyAsync(() -> {
+                        var copy = base.copy();
+                        for (int i = 0; i < 1_000; ++i) {
+                            copy.add(branch * 10_000 + i);
+                        }
+                        return copy;
+                    }, executor))
+                    .toList();
+
+            for (int branch = 0; branch < futures.size(); ++branch) {
+                var copy = futures.get(branch).get();
+                assertEquals(1_001, copy.size());
+                assertEquals(-1, copy.get(0));
+                for (int i = 0; i < 1_000; ++i) {
+                    assertEquals(branch * 10_000 + i, copy.get(i + 1));
+                }
+            }
+            assertEquals(List.of(-1), base);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void forksReuseIndex() {
+        // each version appends to an older one, so every add forks the store of the previous version
+        var versions = new ArrayList<HashIndexedList<Integer>>();
+        var current = new HashIndexedList<>(List.of(0, 1));
+        versions.add(current);
+        for (int i = 2; i < 40; ++i) {
+            var older = versions.get(versions.size() - 1);
+            older.copy().add(-i); // advances the shared store
+            current = older.copy();
+            current.add(i);
+            versions.add(current);
+        }
+
+        for (int v = 0; v < versions.size(); ++v) {
+            var version = versions.get(v);
+            assertEquals(v + 2, version.size());
+            for (int i = 0; i < version.size(); ++i) {
+                assertEquals(i, version.get(i));
+                assertTrue(version.containsHashOf(i));
+                assertFalse(version.containsHashOf(-i - 2));
+            }
+            assertFalse(version.containsHashOf(version.size()));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serialization() throws Exception {
+        var list = new HashIndexedList<>(Arrays.asList("a", null, "b"));
+        var copy = list.copy();
+        copy.add("c");
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(copy);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            var result = (HashIndexedList<String>) in.readObject();
+            assertEquals(Arrays.asList("a", null, "b", "c"), result);
+            assertTrue(result.containsHashOf("c"));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.bsc.langgraph4j.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentMapTest {
+
+    record CollidingKey(String value) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    @Test
+    public void plusAndMinusPreservePreviousVersions() {
+        PersistentMap<String,Object> v0 = PersistentMap.empty();
+        var v1 = v0.plus("a", 1);
+        var v2 = v1.plus("b", 2);
+        var v3 = v2.plus("a", 3).minus("b");
+
+        assertTrue(v0.isEmpty());
+        assertEquals(Map.of("a", 1), v1);
+        assertEquals(Map.of("a", 1, "b", 2), v2);
+        assertEquals(Map.of("a", 3), v3);
+        assertSame(v2, v2.plus("b", 2));
+        assertSame(v2, v2.minus("c"));
+        assertThrows(UnsupportedOperationException.class, () -> v2.put("c", 3));
+    }
+
+    @Test
+    public void behavesLikeHashMap() {
+        var random = new Random(7);
+        var expected = new HashMap<Object,Object>();
+        PersistentMap<Object,Object> actual = PersistentMap.empty();
+
+        for (int i = 0; i < 20_000; ++i) {
+            var key = (i % 5 == 0) ? new CollidingKey(String.valueOf(random.nextInt(50))) : random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.minus(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.plus(key, i);
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        for (var key : expected.keySet()) {
+            assertTrue(actual.containsKey(key));
+        }
+    }
+
+    @Test
+    public void copyOfAndNullValues() {
+        var source = new HashMap<String,Object>();
+        source.put("a", null);
+        source.put("b", "B");
+
+        var map = PersistentMap.copyOf(source);
+
+        assertSame(map, PersistentMap.copyOf(map));
+        assertTrue(map.containsKey("a"));
+        assertNull(map.get("a"));
+        assertEquals("X", map.getOrDefault("c", "X"));
+        assertEquals(source, map);
+    }
+}
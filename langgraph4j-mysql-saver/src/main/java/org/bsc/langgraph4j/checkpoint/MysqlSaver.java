@@ -127,6 +127,25 @@ public class MysqlSaver extends MemorySaver {
             ORDER BY c.saved_at DESC
             """;
 
+    private static final String SELECT_CHECKPOINT_IDS = """
+            SELECT
+              c.checkpoint_id,
+              c.node_id,
+              c.next_node_id
+            FROM LANGRAPH4J_CHECKPOINT c
+              INNER JOIN LANGRAPH4J_THREAD t ON c.thread_id = t.thread_id
+            WHERE t.thread_name = ? AND t.is_released != TRUE
+            ORDER BY c.saved_at DESC
+            """;
+
+    private static final String SELECT_CHECKPOINT_STATES = """
+            SELECT
+              c.checkpoint_id,
+              c.state_data
+            FROM LANGRAPH4J_CHECKPOINT c
+            WHERE c.checkpoint_id IN (%s)
+            """;
+
     private static final String DELETE_CHECKPOINTS = """
                 DELETE FROM LANGRAPH4J_CHECKPOINT WHERE checkpoint_id = ?
             """;
@@ -139,6 +158,8 @@ public class MysqlSaver extends MemorySaver {
     private final DataSource dataSource;
     private final CreateOption createOption;
     private final ObjectMapper objectMapper;
+    private final boolean lazyLoading;
+    private final int lazyPageSize;
 
     /**
      * Private constructor used by the builder to create a new instance of
@@ -146,11 +167,18 @@ public class MysqlSaver extends MemorySaver {
      * 
      * @param dataSource   the data source
      * @param createOption the create options
+     * @param deltaMode    the mode used to persist the checkpoint states
+     * @param lazyPageSize number of states fetched per query, 0 to load all the states eagerly
+     * @param cachePolicy  the policy that bounds the checkpoints kept in memory
      */
-    private MysqlSaver(DataSource dataSource, CreateOption createOption) {
+    private MysqlSaver(DataSource dataSource, CreateOption createOption, DeltaMode deltaMode, int lazyPageSize,
+            CachePolicy cachePolicy) {
+        super(DEFAULT_LOCK_STRIPES, deltaMode, cachePolicy);
         this.dataSource = dataSource;
         this.createOption = createOption;
         this.objectMapper = new ObjectMapper();
+        this.lazyLoading = lazyPageSize > 0;
+        this.lazyPageSize = lazyPageSize;
         initTables();
     }
 
@@ -182,6 +210,12 @@ public class MysqlSaver extends MemorySaver {
 
         final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
 
+        if (lazyLoading) {
+            loadCheckpointsLazily(threadName, checkpoints);
+            CheckpointDelta.resolve(checkpoints);
+            return checkpoints;
+        }
+
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CHECKPOINTS)) {
 
@@ -203,9 +237,71 @@ public class MysqlSaver extends MemorySaver {
         } catch (SQLException sqlException) {
             throw new Exception("Unable to load checkpoints", sqlException);
         }
+        CheckpointDelta.resolve(checkpoints);
         return checkpoints;
     }
 
+    /**
+     * Loads only the checkpoint metadata, the states are fetched by id (a page at time) on first access.
+     *
+     * @param threadName  the thread name
+     * @param checkpoints the list of checkpoints to fill
+     * @throws Exception if an error occurs while the metadata are being loaded
+     */
+    private void loadCheckpointsLazily(String threadName, LinkedList<Checkpoint> checkpoints) throws Exception {
+        final var ids = new ArrayList<String>();
+        final var nodeIds = new ArrayList<String[]>();
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CHECKPOINT_IDS)) {
+            preparedStatement.setString(1, threadName);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(1));
+                    nodeIds.add(new String[] { resultSet.getString(2), resultSet.getString(3) });
+                }
+            }
+        } catch (SQLException sqlException) {
+            throw new Exception("Unable to load checkpoints", sqlException);
+        }
+
+        final var pager = new CheckpointStatePager<String>(ids, lazyPageSize, this::fetchStates,
+                jsonString -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> state = objectMapper.readValue(jsonString, Map.class);
+                    return state;
+                });
+        for (int i = 0; i < ids.size(); ++i) {
+            checkpoints.add(pager.checkpoint(ids.get(i), nodeIds.get(i)[0], nodeIds.get(i)[1]));
+        }
+    }
+
+    /**
+     * Fetches the (not decoded) states of the given checkpoints
+     *
+     * @param checkpointIds the checkpoint ids
+     * @return the json states by checkpoint id
+     * @throws SQLException if an error occurs while the states are being fetched
+     */
+    private Map<String, String> fetchStates(List<String> checkpointIds) throws SQLException {
+        final var placeholders = String.join(",", Collections.nCopies(checkpointIds.size(), "?"));
+        final var result = new HashMap<String, String>();
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(
+                        String.format(SELECT_CHECKPOINT_STATES, placeholders))) {
+            for (int i = 0; i < checkpointIds.size(); ++i) {
+                preparedStatement.setString(i + 1, checkpointIds.get(i));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.put(resultSet.getString(1), resultSet.getString(2));
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Inserts a checkpoint to the database
      * 
@@ -231,7 +327,7 @@ public class MysqlSaver extends MemorySaver {
             insertCheckpointStatement.setString(1, checkpoint.getId());
             insertCheckpointStatement.setString(2, checkpoint.getNodeId());
             insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-            insertCheckpointStatement.setString(4, objectMapper.writeValueAsString(checkpoint.getState()));
+            insertCheckpointStatement.setString(4, objectMapper.writeValueAsString(persistentStateOf(checkpoints, checkpoint)));
             insertCheckpointStatement.setString(5, threadName);
 
             insertCheckpointStatement.execute();
@@ -282,7 +378,7 @@ public class MysqlSaver extends MemorySaver {
                 preparedStatement.setString(1, checkpoint.getId());
                 preparedStatement.setString(2, checkpoint.getNodeId());
                 preparedStatement.setString(3, checkpoint.getNextNodeId());
-                preparedStatement.setString(4, objectMapper.writeValueAsString(checkpoint.getState()));
+                preparedStatement.setString(4, objectMapper.writeValueAsString(persistentStateOf(checkpoints, checkpoint)));
                 preparedStatement.setString(5, config.checkPointId().get());
                 preparedStatement.execute();
             } catch (SQLException sqlException) {
@@ -331,6 +427,10 @@ public class MysqlSaver extends MemorySaver {
     public static class Builder {
         private DataSource dataSource;
         private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
+        private DeltaMode deltaMode = DeltaMode.DISABLED;
+        private boolean lazyLoading;
+        private CachePolicy cachePolicy = CachePolicy.UNBOUNDED;
+        private int lazyPageSize = CheckpointStatePager.DEFAULT_PAGE_SIZE;
 
         /**
          * Sets the datasource
@@ -354,13 +454,63 @@ public class MysqlSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the mode used to persist the checkpoint states (default {@link DeltaMode#DISABLED}).
+         *
+         * @param deltaMode the delta mode
+         * @return this builder
+         */
+        public Builder deltaMode(DeltaMode deltaMode) {
+            this.deltaMode = Objects.requireNonNull(deltaMode, "deltaMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Enables the lazy loading: on first access to a thread only the checkpoint metadata are loaded, while
+         * the states are fetched by id, a page at time, and decoded when requested.
+         *
+         * @param lazyLoading true to enable the lazy loading
+         * @return this builder
+         */
+        public Builder lazyLoading(boolean lazyLoading) {
+            this.lazyLoading = lazyLoading;
+            return this;
+        }
+
+        /**
+         * Sets the number of states fetched in a single query when lazy loading is enabled
+         * (default {@link CheckpointStatePager#DEFAULT_PAGE_SIZE})
+         *
+         * @param lazyPageSize number of states per page
+         * @return this builder
+         */
+        public Builder lazyPageSize(int lazyPageSize) {
+            if (lazyPageSize <= 0) {
+                throw new IllegalArgumentException("lazyPageSize must be > 0!");
+            }
+            this.lazyPageSize = lazyPageSize;
+            return this;
+        }
+
+        /**
+         * Sets the policy that bounds the checkpoints kept in memory (default {@link CachePolicy#UNBOUNDED}).
+         * Evicted threads are reloaded from the database on next access.
+         *
+         * @param cachePolicy the cache policy
+         * @return this builder
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            this.cachePolicy = Objects.requireNonNull(cachePolicy, "cachePolicy cannot be null");
+            return this;
+        }
+
         /**
          * Creates a new instance of MysqlSaver
          * 
          * @return the new instance of MysqlSaver.
          */
         public MysqlSaver build() {
-            return new MysqlSaver(dataSource, createOption);
+            return new MysqlSaver(dataSource, createOption, deltaMode, lazyLoading ? lazyPageSize : 0, cachePolicy);
         }
     }
 }
@@ -0,0 +1,114 @@
+package org.bsc.langgraph4j.otel;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A CheckpointSaver that records the latency of another saver in the {@code lg4j.checkpoint.duration} metric.
+ *
+ * @see OTELGraphMetrics
+ */
+public class OTELCheckpointSaver implements BaseCheckpointSaver {
+
+    private final BaseCheckpointSaver saver;
+    private final OTELGraphMetrics metrics;
+
+    /**
+     * Creates the saver
+     *
+     * @param saver the saver to measure
+     * @param metrics the metrics
+     */
+    public OTELCheckpointSaver(BaseCheckpointSaver saver, OTELGraphMetrics metrics) {
+        this.saver = requireNonNull(saver, "saver cannot be null");
+        this.metrics = requireNonNull(metrics, "metrics cannot be null");
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        final var start = System.nanoTime();
+        try {
+            var result = saver.list(config);
+            metrics.checkpointEnded("list", start, null);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.checkpointEnded("list", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        final var start = System.nanoTime();
+        try {
+            var result = saver.get(config);
+            metrics.checkpointEnded("get", start, null);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.checkpointEnded("get", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        final var start = System.nanoTime();
+        try {
+            var result = saver.put(config, checkpoint);
+            metrics.checkpointEnded("put", start, null);
+            return result;
+        } catch (Exception e) {
+            metrics.checkpointEnded("put", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        final var start = System.nanoTime();
+        try {
+            var result = saver.release(config);
+            metrics.checkpointEnded("release", start, null);
+            return result;
+        } catch (Exception e) {
+            metrics.checkpointEnded("release", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void putAll(List<PutRequest> requests) throws Exception {
+        final var start = System.nanoTime();
+        try {
+            saver.putAll(requests);
+            metrics.checkpointEnded("putAll", start, null);
+        } catch (Exception e) {
+            metrics.checkpointEnded("putAll", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void flush(RunnableConfig config) throws Exception {
+        final var start = System.nanoTime();
+        try {
+            saver.flush(config);
+            metrics.checkpointEnded("flush", start, null);
+        } catch (Exception e) {
+            metrics.checkpointEnded("flush", start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public DeltaMode deltaMode() {
+        return saver.deltaMode();
+    }
+}
@@ -0,0 +1,102 @@
+package org.bsc.langgraph4j.otel;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.LongUpDownCounter;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * OpenTelemetry metrics of the graph execution.
+ * <ul>
+ *     <li>{@code lg4j.node.duration}: histogram of the node latency in seconds, by {@code lg4j.node.id} and {@code lg4j.error}</li>
+ *     <li>{@code lg4j.edge.duration}: histogram of the edge latency in seconds, by {@code lg4j.edge.source} and {@code lg4j.error}</li>
+ *     <li>{@code lg4j.checkpoint.duration}: histogram of the checkpoint saver latency in seconds, by {@code lg4j.checkpoint.operation} and {@code lg4j.error}</li>
+ *     <li>{@code lg4j.state.size}: histogram of the length of the serialized state, recorded when the state is captured</li>
+ *     <li>{@code lg4j.node.active}: number of the node executions in progress</li>
+ * </ul>
+ *
+ * @see OTELWrapCallTraceHook
+ * @see OTELCheckpointSaver
+ */
+public class OTELGraphMetrics {
+
+    static final AttributeKey<String> NODE_ID = stringKey("lg4j.node.id");
+    static final AttributeKey<String> EDGE_SOURCE = stringKey("lg4j.edge.source");
+    static final AttributeKey<String> CHECKPOINT_OPERATION = stringKey("lg4j.checkpoint.operation");
+    static final AttributeKey<Boolean> ERROR = booleanKey("lg4j.error");
+
+    private final DoubleHistogram nodeDuration;
+    private final DoubleHistogram edgeDuration;
+    private final DoubleHistogram checkpointDuration;
+    private final LongHistogram stateSize;
+    private final LongUpDownCounter activeNodes;
+
+    /**
+     * Creates the metrics, the instruments are registered on the meter of the given holder
+     *
+     * @param meter the meter holder
+     */
+    public OTELGraphMetrics(OTELObservable.MeterHolder meter) {
+        requireNonNull(meter, "meter cannot be null");
+
+        nodeDuration = meter.histogramBuilder("lg4j.node.duration")
+                .setDescription("Duration of the node executions")
+                .setUnit("s")
+                .build();
+        edgeDuration = meter.histogramBuilder("lg4j.edge.duration")
+                .setDescription("Duration of the edge evaluations")
+                .setUnit("s")
+                .build();
+        checkpointDuration = meter.histogramBuilder("lg4j.checkpoint.duration")
+                .setDescription("Duration of the checkpoint saver operations")
+                .setUnit("s")
+                .build();
+        stateSize = meter.histogramBuilder("lg4j.state.size")
+                .setDescription("Length of the serialized state")
+                .setUnit("{char}")
+                .ofLongs()
+                .build();
+        activeNodes = meter.upDownCounterBuilder("lg4j.node.active")
+                .setDescription("Node executions in progress")
+                .build();
+    }
+
+    private static double secondsSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Records the start of a node execution
+     *
+     * @param nodeId the node identifier
+     * @return the start time, to pass to {@link #nodeEnded(String, long, Throwable)}
+     */
+    long nodeStarted(String nodeId) {
+        activeNodes.add(1, Attributes.of(NODE_ID, nodeId));
+        return System.nanoTime();
+    }
+
+    void nodeEnded(String nodeId, long startNanos, Throwable error) {
+        activeNodes.add(-1, Attributes.of(NODE_ID, nodeId));
+        nodeDuration.record(secondsSince(startNanos), Attributes.of(NODE_ID, nodeId, ERROR, error != null));
+    }
+
+    void edgeEnded(String sourceId, long startNanos, Throwable error) {
+        edgeDuration.record(secondsSince(startNanos), Attributes.of(EDGE_SOURCE, sourceId, ERROR, error != null));
+    }
+
+    void checkpointEnded(String operation, long startNanos, Throwable error) {
+        checkpointDuration.record(secondsSince(startNanos), Attributes.of(CHECKPOINT_OPERATION, operation, ERROR, error != null));
+    }
+
+    void stateCaptured(long size) {
+        stateSize.record(size);
+    }
+}
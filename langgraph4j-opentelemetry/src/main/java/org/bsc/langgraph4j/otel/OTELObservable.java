@@ -22,6 +22,7 @@ import org.bsc.langgraph4j.GraphInput;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import static io.opentelemetry.api.common.AttributeKey.booleanKey;
@@ -177,6 +178,42 @@ public interface OTELObservable extends LG4JLoggable {
 
         }
 
+        /**
+         * Applies the asynchronous function within the span, the span is ended when the returned future completes
+         *
+         * @param span the span
+         * @param function the function that starts the asynchronous work
+         * @return the future of the function
+         * @param <R> the type of the result
+         */
+        public <R> CompletableFuture<R> applySpanAsync(Span span, Function<Span, CompletableFuture<R>> function) {
+            requireNonNull(span, "span cannot be null");
+            requireNonNull(function, "function cannot be null");
+
+            final CompletableFuture<R> result;
+            try {
+                result = function.apply(span);
+            } catch (RuntimeException e) {
+                if (span.isRecording()) {
+                    span.recordException(e);
+                }
+                span.setStatus(StatusCode.ERROR);
+                span.end();
+                throw e;
+            }
+            return result.whenComplete((value, ex) -> {
+                if (ex != null) {
+                    if (span.isRecording()) {
+                        span.recordException(ex);
+                    }
+                    span.setStatus(StatusCode.ERROR);
+                } else {
+                    span.setStatus(StatusCode.OK);
+                }
+                span.end();
+            });
+        }
+
         public <R> R applySpan(Span span, Function<Span, R> function) {
             requireNonNull(span, "span cannot be null");
             requireNonNull(function, "function cannot be null");
@@ -0,0 +1,319 @@
+package org.bsc.langgraph4j.otel;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import org.bsc.langgraph4j.LG4JLoggable;
+import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.PlainTextStateSerializer;
+import org.bsc.langgraph4j.utils.CollectionsUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Controls which part of the state is captured in the span events, and how much it costs.
+ * <p>
+ * The state is captured only on the recording spans whose trace is selected by {@link #samplingRatio()}, the
+ * selection depends on the trace id, so the spans of a trace are either all captured or none. Only the
+ * {@link #channels()} are captured, each one in a {@code lg4j.state.<channel>} attribute, or the whole state in
+ * the {@code lg4j.state} attribute if no channel is given. A value longer than {@link #maxAttributeLength()} is
+ * truncated or replaced by its hash, according to the {@link Overflow} policy.
+ * </p>
+ * The {@link #all() default capture} serializes the whole state of every span, without limits.
+ */
+public final class OTELStateCapture implements LG4JLoggable {
+
+    /**
+     * What to do with a value longer than {@link #maxAttributeLength()}
+     */
+    public enum Overflow {
+        /**
+         * Keeps the first characters followed by a {@code ...(<length> chars)} marker, all within
+         * {@link #maxAttributeLength()} characters (only the first characters if the marker doesn't fit)
+         */
+        TRUNCATE,
+        /**
+         * Replaces the value with its SHA-256 hash, useful to detect changes without exporting the data
+         */
+        HASH
+    }
+
+    /**
+     * Result of a capture
+     *
+     * @param attributes the attributes to add to the span event
+     * @param size the length of the serialized state, before truncation or hashing
+     */
+    record Captured(Attributes attributes, long size) {
+        static final Captured NONE = new Captured(Attributes.empty(), 0);
+    }
+
+    private static final OTELStateCapture ALL = builder().build();
+    private static final OTELStateCapture NONE = builder().samplingRatio(0).build();
+
+    private final Set<String> channels;
+    private final int maxAttributeLength;
+    private final Overflow overflow;
+    private final double samplingRatio;
+    private final long traceIdUpperBound;
+
+    private OTELStateCapture(Builder builder) {
+        this.channels = Set.copyOf(builder.channels);
+        this.maxAttributeLength = builder.maxAttributeLength;
+        this.overflow = builder.overflow;
+        this.samplingRatio = builder.samplingRatio;
+        // same selection of io.opentelemetry.sdk.trace.samplers.TraceIdRatioBased
+        this.traceIdUpperBound = samplingRatio == 0.0 ? Long.MIN_VALUE :
+                samplingRatio == 1.0 ? Long.MAX_VALUE :
+                        (long) (samplingRatio * Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the capture of the whole state in every span, without limits
+     *
+     * @return the default capture
+     */
+    public static OTELStateCapture all() {
+        return ALL;
+    }
+
+    /**
+     * Returns the capture that never serializes the state
+     *
+     * @return the capture disabled
+     */
+    public static OTELStateCapture none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Collection<String> channels = List.of();
+        private int maxAttributeLength = Integer.MAX_VALUE;
+        private Overflow overflow = Overflow.TRUNCATE;
+        private double samplingRatio = 1.0;
+
+        /**
+         * Sets the channels to capture, each one in its own attribute. By default the whole state is captured.
+         *
+         * @param channels the names of the channels to capture
+         * @return this builder
+         */
+        public Builder channels(Collection<String> channels) {
+            this.channels = requireNonNull(channels, "channels cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the channels to capture, each one in its own attribute. By default the whole state is captured.
+         *
+         * @param channels the names of the channels to capture
+         * @return this builder
+         */
+        public Builder channels(String... channels) {
+            return channels(List.of(channels));
+        }
+
+        /**
+         * Sets the max length of a captured value
+         *
+         * @param maxAttributeLength the max number of characters of a value
+         * @return this builder
+         */
+        public Builder maxAttributeLength(int maxAttributeLength) {
+            if (maxAttributeLength <= 0) {
+                throw new IllegalArgumentException("maxAttributeLength must be > 0!");
+            }
+            this.maxAttributeLength = maxAttributeLength;
+            return this;
+        }
+
+        /**
+         * Sets what to do with a value longer than the max length, by default {@link Overflow#TRUNCATE}
+         *
+         * @param overflow the overflow policy
+         * @return this builder
+         */
+        public Builder overflow(Overflow overflow) {
+            this.overflow = requireNonNull(overflow, "overflow cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the fraction of the traces that capture the state
+         *
+         * @param samplingRatio a value between 0 (never) and 1 (always, default)
+         * @return this builder
+         */
+        public Builder samplingRatio(double samplingRatio) {
+            if (samplingRatio < 0.0 || samplingRatio > 1.0) {
+                throw new IllegalArgumentException("samplingRatio must be between 0 and 1!");
+            }
+            this.samplingRatio = samplingRatio;
+            return this;
+        }
+
+        public OTELStateCapture build() {
+            return new OTELStateCapture(this);
+        }
+    }
+
+    public Set<String> channels() {
+        return channels;
+    }
+
+    public int maxAttributeLength() {
+        return maxAttributeLength;
+    }
+
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    public double samplingRatio() {
+        return samplingRatio;
+    }
+
+    /**
+     * Checks if the state is captured on the given span
+     *
+     * @param span the span
+     * @return true if the span is recording and its trace is selected by the sampling ratio
+     */
+    public boolean isSampled(Span span) {
+        if (samplingRatio == 0.0 || !span.isRecording()) {
+            return false;
+        }
+        return samplingRatio == 1.0 || isSampled(span.getSpanContext());
+    }
+
+    private boolean isSampled(SpanContext spanContext) {
+        if (!spanContext.isValid()) {
+            return false;
+        }
+        // the random part of the trace id
+        final var randomPart = Long.parseUnsignedLong(spanContext.getTraceId().substring(16), 16);
+        return Math.abs(randomPart) < traceIdUpperBound;
+    }
+
+    /**
+     * Converts the state data in attributes
+     *
+     * @param data the state data, or a partial state
+     * @param serializer the serializer of the state
+     * @return the attributes
+     */
+    public Attributes attrsOf(Map<String, Object> data, StateSerializer<?> serializer) {
+        return capture(data, serializer).attributes();
+    }
+
+    /**
+     * Converts the command in attributes, the update is captured as the state
+     *
+     * @param command the command
+     * @param serializer the serializer of the state
+     * @return the attributes
+     */
+    public Attributes attrsOf(Command command, StateSerializer<?> serializer) {
+        return capture(command, serializer).attributes();
+    }
+
+    Captured capture(Map<String, Object> data, StateSerializer<?> serializer) {
+        final var attrsBuilder = Attributes.builder();
+        final var size = capture(attrsBuilder, "lg4j.state", data, serializer);
+        return new Captured(attrsBuilder.build(), size);
+    }
+
+    Captured capture(Command command, StateSerializer<?> serializer) {
+        final var attrsBuilder = Attributes.builder();
+        attrsBuilder.put("lg4j.command.gotoNode", command.gotoNodeSafe().orElse("null"));
+        final var size = capture(attrsBuilder, "lg4j.command.update", command.update(), serializer);
+        return new Captured(attrsBuilder.build(), size);
+    }
+
+    private long capture(AttributesBuilder attrsBuilder, String prefix, Map<String, Object> data, StateSerializer<?> serializer) {
+        if (channels.isEmpty()) {
+            final var value = serialize(data, serializer);
+            if (value == null) {
+                return 0;
+            }
+            attrsBuilder.put(prefix, limit(value));
+            return value.length();
+        }
+
+        long size = 0;
+        for (var channel : channels) {
+            if (!data.containsKey(channel)) {
+                continue;
+            }
+            final var channelData = new LinkedHashMap<String, Object>(1);
+            channelData.put(channel, data.get(channel));
+            final var value = serialize(channelData, serializer);
+            if (value != null) {
+                attrsBuilder.put(format("%s.%s", prefix, channel), limit(value));
+                size += value.length();
+            }
+        }
+        return size;
+    }
+
+    private String serialize(Map<String, Object> data, StateSerializer<?> serializer) {
+        if (serializer instanceof PlainTextStateSerializer<?> textSerializer) {
+            try {
+                return textSerializer.writeDataAsString(data);
+            } catch (IOException e) {
+                log.warn("OTEL state serialization error", e);
+                return null;
+            }
+        }
+        return CollectionsUtils.toString(data);
+    }
+
+    private String limit(String value) {
+        if (value.length() <= maxAttributeLength) {
+            return value;
+        }
+        return switch (overflow) {
+            case TRUNCATE -> {
+                final var marker = format("...(%d chars)", value.length());
+                yield (marker.length() < maxAttributeLength) ?
+                        value.substring(0, maxAttributeLength - marker.length()) + marker :
+                        value.substring(0, maxAttributeLength);
+            }
+            case HASH -> format("sha256:%s (%d chars)", sha256(value), value.length());
+        };
+    }
+
+    private static String sha256(String value) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OTELStateCapture{channels=%s, maxAttributeLength=%d, overflow=%s, samplingRatio=%s}"
+                .formatted(channels, maxAttributeLength, overflow, samplingRatio);
+    }
+}
@@ -1,5 +1,7 @@
 package org.bsc.langgraph4j.otel;
 
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncCommandAction;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
@@ -13,12 +15,15 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
 
 /**
- * Wraps LangGraph4j node and edge execution with OpenTelemetry spans.
+ * Wraps LangGraph4j node and edge execution with OpenTelemetry spans and metrics.
  * <p>
  * This hook creates spans for node and edge evaluation, attaches attributes from
- * {@link RunnableConfig}, and records start/end events that include serialized state.
+ * {@link RunnableConfig}, and records start/end events that include the state captured according to the
+ * {@link OTELStateCapture}. The spans end when the node or the edge completes. The latency of the nodes and
+ * the edges is recorded in the {@link OTELGraphMetrics}.
  * </p>
  *
  * @param <State> workflow state type
@@ -27,15 +32,97 @@ public class OTELWrapCallTraceHook<State extends AgentState> implements NodeHook
 
     final StateSerializer<?> stateSerializer;
     final TracerHolder tracer;
+    final OTELStateCapture stateCapture;
+    final OTELGraphMetrics metrics;
+
+    public static class Builder<State extends AgentState> {
+        StateSerializer<?> stateSerializer;
+        OpenTelemetry otel;
+        OTELStateCapture stateCapture;
+        OTELGraphMetrics metrics;
+
+        /**
+         * Sets the serializer used to convert state data into attributes
+         *
+         * @param stateSerializer the state serializer
+         * @return this builder
+         */
+        public Builder<State> stateSerializer(StateSerializer<?> stateSerializer) {
+            this.stateSerializer = stateSerializer;
+            return this;
+        }
+
+        /**
+         * Sets the OpenTelemetry instance, by default the global one
+         *
+         * @param otel the OpenTelemetry instance
+         * @return this builder
+         */
+        public Builder<State> otel(OpenTelemetry otel) {
+            this.otel = otel;
+            return this;
+        }
+
+        /**
+         * Sets which part of the state is captured in the span events, by default {@link OTELStateCapture#all()}
+         *
+         * @param stateCapture the state capture
+         * @return this builder
+         */
+        public Builder<State> stateCapture(OTELStateCapture stateCapture) {
+            this.stateCapture = stateCapture;
+            return this;
+        }
+
+        /**
+         * Sets the metrics, by default they are registered on the meter of the hook scope. Share the same metrics
+         * with an {@link OTELCheckpointSaver} to record the checkpoint latency as well.
+         *
+         * @param metrics the metrics
+         * @return this builder
+         */
+        public Builder<State> metrics(OTELGraphMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public OTELWrapCallTraceHook<State> build() {
+            return new OTELWrapCallTraceHook<>(this);
+        }
+    }
+
+    public static <State extends AgentState> Builder<State> builder() {
+        return new Builder<>();
+    }
 
     /**
-     * Creates a new tracing hook.
+     * Creates a new tracing hook that captures the whole state.
      *
      * @param stateSerializer serializer used to convert state data into attributes
      */
     public OTELWrapCallTraceHook(StateSerializer<?> stateSerializer) {
-        this.stateSerializer = requireNonNull(stateSerializer, "stateSerializer cannot be null");
-        tracer = new TracerHolder(otel(), getClass().getName() );
+        this( new Builder<State>().stateSerializer(stateSerializer) );
+    }
+
+    private OTELWrapCallTraceHook(Builder<State> builder) {
+        this.stateSerializer = requireNonNull(builder.stateSerializer, "stateSerializer cannot be null");
+        final var otel = ofNullable(builder.otel).orElseGet(this::otel);
+        tracer = new TracerHolder(otel, getClass().getName() );
+        stateCapture = ofNullable(builder.stateCapture).orElseGet(OTELStateCapture::all);
+        metrics = ofNullable(builder.metrics)
+                .orElseGet(() -> new OTELGraphMetrics(new MeterHolder(otel, getClass().getName())));
+    }
+
+    private void addStateEvent(Span span, String name, Map<String, Object> data) {
+        final var captured = stateCapture.capture(data, stateSerializer);
+        metrics.stateCaptured(captured.size());
+        span.addEvent(name, captured.attributes());
+    }
+
+    private void addCommandEvent(Span span, String name, Command command) {
+        final var captured = stateCapture.capture(command, stateSerializer);
+        metrics.stateCaptured(captured.size());
+        span.addEvent(name, captured.attributes());
     }
 
     /**
@@ -57,29 +144,41 @@ public class OTELWrapCallTraceHook<State extends AgentState> implements NodeHook
                 .setAllAttributes( OTELObservable.attrsOf( config ) )
                 .startSpan();
 
-        return tracer.applySpan( span, $ -> {
-            log.info("\nnode start: '{}' with state: {}",
+        final var sampled = stateCapture.isSampled(span);
+        final var start = metrics.nodeStarted(nodeId);
+
+        return tracer.applySpanAsync( span, $ -> {
+            log.debug("\nnode start: '{}' with state: {}",
                     nodeId,
                     state);
 
             try ( var scope = span.makeCurrent() ) {
 
-                span.addEvent( "start", OTELObservable.attrsOf( state.data(), stateSerializer) );
+                if( sampled ) {
+                    addStateEvent( span, "start", state.data() );
+                }
 
                 return action.apply( state, config )
                     .whenComplete( (result, ex ) -> {
+                        metrics.nodeEnded( nodeId, start, ex );
                         if( ex != null ) {
                             return;
                         }
 
-                        span.addEvent( "end", OTELObservable.attrsOf( result, stateSerializer) );
+                        if( sampled ) {
+                            addStateEvent( span, "end", result );
+                        }
 
-                        log.info("\nnode end: '{}' with result: {}",
+                        log.debug("\nnode end: '{}' with result: {}",
                                 nodeId,
                                 result);
                     });
-                }
-            });
+            }
+            catch( RuntimeException ex ) {
+                metrics.nodeEnded( nodeId, start, ex );
+                throw ex;
+            }
+        });
 
     }
 
@@ -103,26 +202,38 @@ public class OTELWrapCallTraceHook<State extends AgentState> implements NodeHook
                 .setAllAttributes( OTELObservable.attrsOf( config ) )
                 .startSpan();
 
-        return tracer.applySpan( span, $ -> {
+        final var sampled = stateCapture.isSampled(span);
+        final var start = System.nanoTime();
+
+        return tracer.applySpanAsync( span, $ -> {
 
-            log.info("\nedge start from: '{}' with state: {}", sourceId, state);
+            log.debug("\nedge start from: '{}' with state: {}", sourceId, state);
 
             try ( var scope = span.makeCurrent() ) {
 
-                span.addEvent("start", OTELObservable.attrsOf(state.data(), stateSerializer));
+                if( sampled ) {
+                    addStateEvent( span, "start", state.data() );
+                }
 
                 return action.apply(state, config).whenComplete((result, ex) -> {
+                    metrics.edgeEnded( sourceId, start, ex );
 
                     if (ex != null) {
                         return;
                     }
 
-                    span.addEvent("end", OTELObservable.attrsOf(result, stateSerializer));
+                    if( sampled ) {
+                        addCommandEvent( span, "end", result );
+                    }
 
-                    log.info("\nedge end: {}", result);
+                    log.debug("\nedge end: {}", result);
 
                 });
             }
+            catch( RuntimeException ex ) {
+                metrics.edgeEnded( sourceId, start, ex );
+                throw ex;
+            }
         });
     }
 }
@@ -0,0 +1,227 @@
+package org.bsc.langgraph4j.otel;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.action.AsyncCommandAction;
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.utils.EdgeMappings;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.bsc.langgraph4j.GraphDefinition.END;
+import static org.bsc.langgraph4j.GraphDefinition.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OTELWrapCallTraceHookTest {
+
+    static class State extends MessagesState<String> {
+
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+    }
+
+    static class CollectingSpanExporter implements SpanExporter {
+        final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            this.spans.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    static class CollectingMetricReader implements MetricReader {
+        CollectionRegistration registration = CollectionRegistration.noop();
+
+        @Override
+        public void register(CollectionRegistration registration) {
+            this.registration = registration;
+        }
+
+        Map<String, MetricData> collect() {
+            var result = new java.util.HashMap<String, MetricData>();
+            registration.collectAllMetrics().forEach(metric -> result.put(metric.getName(), metric));
+            return result;
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+
+        @Override
+        public CompletableResultCode forceFlush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    final CollectingSpanExporter spanExporter = new CollectingSpanExporter();
+    final CollectingMetricReader metricReader = new CollectingMetricReader();
+    final OpenTelemetrySdk otel = OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder()
+                    .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                    .build())
+            .setMeterProvider(SdkMeterProvider.builder()
+                    .registerMetricReader(metricReader)
+                    .build())
+            .build();
+
+    void run(OTELStateCapture stateCapture) throws Exception {
+        AsyncNodeActionWithConfig<State> action = (state, config) ->
+                CompletableFuture.completedFuture(Map.of("messages", "%s-%d-%s".formatted(config.nodeId(), state.messages().size(), "x".repeat(100)),
+                        "counter", state.messages().size()));
+
+        AsyncCommandAction<State> edgeAction = (state, config) ->
+                CompletableFuture.completedFuture((state.messages().size() > 2) ? new Command(END) : new Command("node_1"));
+
+        var stateSerializer = new ObjectStreamStateSerializer<>(State::new);
+
+        var metrics = new OTELGraphMetrics(new OTELObservable.MeterHolder(otel, "test"));
+
+        var otelHook = OTELWrapCallTraceHook.<State>builder()
+                .stateSerializer(stateSerializer)
+                .otel(otel)
+                .stateCapture(stateCapture)
+                .metrics(metrics)
+                .build();
+
+        var workflow = new StateGraph<>(MessagesState.SCHEMA, stateSerializer)
+                .addWrapCallNodeHook(otelHook)
+                .addWrapCallEdgeHook(otelHook)
+                .addNode("node_1", action)
+                .addNode("node_2", action)
+                .addEdge(START, "node_1")
+                .addEdge("node_1", "node_2")
+                .addConditionalEdges("node_2", edgeAction,
+                        EdgeMappings.builder()
+                                .to("node_1")
+                                .toEND()
+                                .build())
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new OTELCheckpointSaver(new MemorySaver(), metrics))
+                        .build());
+
+        var result = workflow.invoke(GraphInput.noArgs(), RunnableConfig.builder().build());
+        assertTrue(result.isPresent());
+    }
+
+    List<SpanData> spans(String name) {
+        return spanExporter.spans.stream().filter(span -> span.getName().equals(name)).toList();
+    }
+
+    @Test
+    public void spansAndMetrics() throws Exception {
+        run(OTELStateCapture.all());
+
+        var nodeSpans = spans("evaluateNode");
+        assertEquals(4, nodeSpans.size());
+        assertEquals(2, spans("evaluateEdge").size());
+        for (var span : nodeSpans) {
+            // the span ends when the node completes, so the end event is recorded
+            assertEquals(List.of("start", "end"), span.getEvents().stream().map(event -> event.getName()).toList());
+        }
+
+        var metrics = metricReader.collect();
+        assertEquals(4, metrics.get("lg4j.node.duration").getHistogramData().getPoints().stream()
+                .mapToLong(point -> point.getCount()).sum());
+        assertEquals(2, metrics.get("lg4j.edge.duration").getHistogramData().getPoints().stream()
+                .mapToLong(point -> point.getCount()).sum());
+        assertTrue(metrics.get("lg4j.checkpoint.duration").getHistogramData().getPoints().stream()
+                .anyMatch(point -> "put".equals(point.getAttributes().get(OTELGraphMetrics.CHECKPOINT_OPERATION))));
+        // start and end of the nodes and of the edges
+        assertEquals(12, metrics.get("lg4j.state.size").getHistogramData().getPoints().stream()
+                .mapToLong(point -> point.getCount()).sum());
+        assertTrue(metrics.get("lg4j.node.active").getLongSumData().getPoints().stream()
+                .allMatch(point -> point.getValue() == 0));
+    }
+
+    @Test
+    public void channelsAndBudget() throws Exception {
+        run(OTELStateCapture.builder()
+                .channels("messages")
+                .maxAttributeLength(50)
+                .overflow(OTELStateCapture.Overflow.HASH)
+                .build());
+
+        var end = spans("evaluateNode").get(0).getEvents().get(1).getAttributes();
+        assertNull(end.get(AttributeKey.stringKey("lg4j.state")));
+        assertNull(end.get(AttributeKey.stringKey("lg4j.state.counter")));
+        var messages = end.get(AttributeKey.stringKey("lg4j.state.messages"));
+        assertNotNull(messages);
+        assertTrue(messages.startsWith("sha256:"), messages);
+    }
+
+    @Test
+    public void truncateWithinBudget() throws Exception {
+        run(OTELStateCapture.builder()
+                .maxAttributeLength(50)
+                .build());
+
+        var end = spans("evaluateNode").get(0).getEvents().get(1).getAttributes();
+        var state = end.get(AttributeKey.stringKey("lg4j.state"));
+        assertNotNull(state);
+        assertEquals(50, state.length());
+        assertTrue(state.endsWith(" chars)"), state);
+    }
+
+    @Test
+    public void stateNotSampled() throws Exception {
+        run(OTELStateCapture.none());
+
+        var nodeSpans = spans("evaluateNode");
+        assertEquals(4, nodeSpans.size());
+        assertTrue(nodeSpans.stream().allMatch(span -> span.getEvents().isEmpty()));
+        assertFalse(metricReader.collect().containsKey("lg4j.state.size"));
+    }
+
+    @Test
+    public void stateSampledByTrace() throws Exception {
+        run(OTELStateCapture.builder()
+                .samplingRatio(0.5)
+                .build());
+
+        // without a parent span each node has its own trace, so its events are all captured or none
+        assertTrue(spans("evaluateNode").stream()
+                .allMatch(span -> span.getEvents().isEmpty() || span.getEvents().size() == 2));
+    }
+}
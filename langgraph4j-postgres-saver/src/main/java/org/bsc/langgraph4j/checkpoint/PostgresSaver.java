@@ -2,6 +2,7 @@ package org.bsc.langgraph4j.checkpoint;
 
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.PlainTextStateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.Logger;
@@ -17,16 +18,75 @@ import static java.util.Objects.requireNonNull;
 
 public class PostgresSaver extends MemorySaver {
     private static final Logger log = LoggerFactory.getLogger(PostgresSaver.class);
+
+    /**
+     * Compression of the states stored in binary form
+     */
+    public enum Compression {
+        NONE,
+        /**
+         * Requires {@code org.lz4:lz4-java} on the classpath
+         */
+        LZ4,
+        /**
+         * Requires {@code com.github.luben:zstd-jni} on the classpath
+         */
+        ZSTD
+    }
+
     /**
      * Datasource used to create the store
      */
     protected final DataSource datasource;
 
     private final StateSerializer<? extends AgentState> stateSerializer;
+    private final boolean lazyLoading;
+    private final int lazyPageSize;
+    /**
+     * Codec used to write the states, see {@link StateCodec}
+     */
+    private final String stateCodec;
+    /**
+     * Writes collected by {@link #putAll(List)} on the current thread, executed in a single transaction
+     */
+    private final ThreadLocal<List<CheckpointWrite>> batchWrites = new ThreadLocal<>();
+
+    /**
+     * A write of a checkpoint, executed on the given connection within a transaction
+     */
+    @FunctionalInterface
+    private interface CheckpointWrite {
+        void execute( Connection conn ) throws Exception;
+    }
+
+    /**
+     * State as stored in the database, not decoded yet
+     *
+     * @param binary      content of state_binary (BYTEA)
+     * @param text        content of state_data (JSONB), for legacy rows the base64 payload
+     * @param codec       content of state_codec, null for legacy rows
+     * @param contentType content of state_content_type
+     */
+    private record EncodedState( byte[] binary, String text, String codec, String contentType ) {}
+
+    /**
+     * Columns read by {@link #encodedState(ResultSet, int)}
+     */
+    private static final String STATE_COLUMNS = """
+                        c.state_binary,
+                        CASE WHEN c.state_codec IS NULL THEN c.state_data->>'binaryPayload' ELSE c.state_data::text END,
+                        c.state_codec,
+                        c.state_content_type""";
 
     protected PostgresSaver( Builder builder ) throws SQLException {
+        super( DEFAULT_LOCK_STRIPES, builder.deltaMode, builder.cachePolicy );
         this.datasource = builder.datasource;
         this.stateSerializer =  builder.stateSerializer;
+        this.lazyLoading = builder.lazyLoading;
+        this.lazyPageSize = builder.lazyPageSize;
+        this.stateCodec = ( stateSerializer instanceof PlainTextStateSerializer<?> && builder.compression == Compression.NONE ) ?
+                StateCodec.JSON :
+                StateCodec.nameOf( builder.compression );
         initTable( builder.dropTablesFirst, builder.createTables);
     }
 
@@ -50,24 +110,43 @@ public class PostgresSaver extends MemorySaver {
         }
     }
 
-    private String encodeState( Map<String,Object> data ) throws IOException {
-        var binaryData = stateSerializer.dataToBytes(data);
-        var base64Data = Base64.getEncoder().encodeToString(binaryData);
-        return format("""
-                     {"binaryPayload": "%s"}
-                     """, base64Data);
+    /**
+     * Encodes the state according to the codec: native JSON for plain text serializers, binary otherwise
+     */
+    private EncodedState encodeState( Map<String,Object> data ) throws IOException {
+        if( StateCodec.JSON.equals(stateCodec) ) {
+            var text = ((PlainTextStateSerializer<?>) stateSerializer).writeDataAsString(data);
+            return new EncodedState( null, text, stateCodec, stateSerializer.contentType() );
+        }
+        var binaryData = StateCodec.encode( stateCodec, stateSerializer.dataToBytes(data) );
+        return new EncodedState( binaryData, null, stateCodec, stateSerializer.contentType() );
+    }
+
+    private static EncodedState encodedState( ResultSet rs, int column ) throws SQLException {
+        return new EncodedState( rs.getBytes(column),
+                rs.getString(column + 1),
+                rs.getString(column + 2),
+                rs.getString(column + 3) );
     }
 
-    private Map<String,Object> decodeState( byte[] binaryPayload, String contentType ) throws IOException, ClassNotFoundException {
-        if( !Objects.equals(contentType, stateSerializer.contentType() )) {
+    private Map<String,Object> decodeState( EncodedState state ) throws IOException, ClassNotFoundException {
+        if( !Objects.equals(state.contentType(), stateSerializer.contentType() )) {
             throw new IllegalStateException(
                     format( "Content Type used for store state '%s' is different from one '%s' used for deserialize it",
-                            contentType,
+                            state.contentType(),
                             stateSerializer.contentType() ));
         }
-
-        byte[] bytes = Base64.getDecoder().decode(binaryPayload);
-        return stateSerializer.dataFromBytes( bytes );
+        if( state.codec() == null ) { // legacy row: base64 payload inside JSONB
+            byte[] bytes = Base64.getDecoder().decode(state.text());
+            return stateSerializer.dataFromBytes( bytes );
+        }
+        if( StateCodec.JSON.equals(state.codec()) ) {
+            if( !(stateSerializer instanceof PlainTextStateSerializer<?> plainText) ) {
+                throw new IllegalStateException( "state stored as JSON requires a PlainTextStateSerializer" );
+            }
+            return plainText.readDataFromString( state.text() );
+        }
+        return stateSerializer.dataFromBytes( StateCodec.decode( state.codec(), state.binary() ) );
     }
 
     protected void initTable(boolean dropTablesFirst, boolean createTables) throws SQLException {
@@ -89,7 +168,9 @@ public class PostgresSaver extends MemorySaver {
                      thread_id UUID NOT NULL,
                      node_id VARCHAR(255),
                      next_node_id VARCHAR(255),
-                     state_data JSONB NOT NULL,
+                     state_data JSONB, -- native JSON state (plain text serializers)
+                     state_binary BYTEA, -- binary state (eventually compressed)
+                     state_codec VARCHAR(20), -- codec of the stored state, null for legacy base64 in state_data
                      state_content_type VARCHAR(100) NOT NULL, -- New field for content type
                      saved_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
                 
@@ -99,9 +180,14 @@ public class PostgresSaver extends MemorySaver {
                          ON DELETE CASCADE
                  );
                 
-                 CREATE INDEX idx_lg4jcheckpoint_thread_id ON LG4JCheckpoint(thread_id);
-                 CREATE INDEX idx_lg4jcheckpoint_thread_id_saved_at_desc ON LG4JCheckpoint(thread_id, saved_at DESC);
-                 CREATE UNIQUE INDEX idx_unique_lg4jthread_thread_name_unreleased  ON LG4JThread(thread_name) WHERE is_released = FALSE;
+                 CREATE INDEX IF NOT EXISTS idx_lg4jcheckpoint_thread_id ON LG4JCheckpoint(thread_id);
+                 CREATE INDEX IF NOT EXISTS idx_lg4jcheckpoint_thread_id_saved_at_desc ON LG4JCheckpoint(thread_id, saved_at DESC);
+                 CREATE UNIQUE INDEX IF NOT EXISTS idx_unique_lg4jthread_thread_name_unreleased  ON LG4JThread(thread_name) WHERE is_released = FALSE;
+                
+                 -- upgrade of tables created by previous versions
+                 ALTER TABLE LG4JCheckpoint ADD COLUMN IF NOT EXISTS state_binary BYTEA;
+                 ALTER TABLE LG4JCheckpoint ADD COLUMN IF NOT EXISTS state_codec VARCHAR(20);
+                 ALTER TABLE LG4JCheckpoint ALTER COLUMN state_data DROP NOT NULL;
                 """;
 
 
@@ -145,13 +231,11 @@ public class PostgresSaver extends MemorySaver {
                 SELECT  c.checkpoint_id,
                         c.node_id,
                         c.next_node_id,
-                        c.state_data->>'binaryPayload' AS base64_data,
-                        c.state_content_type,
-                        c.parent_checkpoint_id
+                %s
                 FROM matched_thread t
                 JOIN LG4JCheckpoint c ON c.thread_id = t.thread_id
                 ORDER BY c.saved_at DESC
-                """;
+                """.formatted(STATE_COLUMNS);
         try( Connection conn = getConnection() ) {
 
             try( PreparedStatement ps = conn.prepareStatement(sqlCheckThread) ) {
@@ -168,6 +252,12 @@ public class PostgresSaver extends MemorySaver {
                 }
             }
 
+            if( lazyLoading ) {
+                loadCheckpointsLazily( conn, threadId, checkpoints );
+                CheckpointDelta.resolve( checkpoints );
+                return checkpoints;
+            }
+
             log.trace( "Executing select checkpoints:\n---\n{}---", sqlQueryCheckpoints);
             try( PreparedStatement ps = conn.prepareStatement(sqlQueryCheckpoints) ) {
                 ps.setString(1, threadId);
@@ -177,7 +267,7 @@ public class PostgresSaver extends MemorySaver {
                             .id( rs.getString(1) )
                             .nodeId( rs.getString(2) )
                             .nextNodeId( rs.getString(3) )
-                            .state( decodeState( rs.getBytes(4), rs.getString( 5) ) )
+                            .state( decodeState( encodedState( rs, 4 ) ) )
                             .build();
                     checkpoints.add( checkpoint );
                 }
@@ -185,11 +275,71 @@ public class PostgresSaver extends MemorySaver {
 
         }
 
+        CheckpointDelta.resolve( checkpoints );
+
         return checkpoints;
     }
 
-    private void insertCheckpoint( Connection conn, RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
-        var threadId = config.threadId().orElse( THREAD_ID_DEFAULT );
+    /**
+     * Loads only the checkpoint metadata, the states are fetched by id (a page at time) on first access
+     */
+    private void loadCheckpointsLazily( Connection conn, String threadId, LinkedList<Checkpoint> checkpoints ) throws SQLException {
+        var sqlQueryCheckpointIds = """
+                SELECT  c.checkpoint_id,
+                        c.node_id,
+                        c.next_node_id
+                FROM LG4JThread t
+                JOIN LG4JCheckpoint c ON c.thread_id = t.thread_id
+                WHERE t.thread_name = ? AND t.is_released = FALSE
+                ORDER BY c.saved_at DESC
+                """;
+
+        var ids = new ArrayList<String>();
+        var nodeIds = new ArrayList<String[]>();
+
+        log.trace( "Executing select checkpoint ids:\n---\n{}---", sqlQueryCheckpointIds);
+        try( PreparedStatement ps = conn.prepareStatement(sqlQueryCheckpointIds) ) {
+            ps.setString(1, threadId);
+            try( var rs = ps.executeQuery() ) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                    nodeIds.add(new String[]{rs.getString(2), rs.getString(3)});
+                }
+            }
+        }
+
+        var pager = new CheckpointStatePager<>( ids,
+                lazyPageSize,
+                this::fetchStates,
+                this::decodeState );
+
+        for( int i = 0; i < ids.size(); ++i ) {
+            checkpoints.add( pager.checkpoint( ids.get(i), nodeIds.get(i)[0], nodeIds.get(i)[1] ) );
+        }
+    }
+
+    private Map<String,EncodedState> fetchStates( List<String> checkpointIds ) throws SQLException {
+        var sqlQueryStates = """
+                SELECT  c.checkpoint_id,
+                %s
+                FROM LG4JCheckpoint c
+                WHERE c.checkpoint_id = ANY(?)
+                """.formatted(STATE_COLUMNS);
+
+        var result = new HashMap<String,EncodedState>();
+        try( Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sqlQueryStates) ) {
+            ps.setArray(1, conn.createArrayOf("uuid", checkpointIds.stream().map(UUID::fromString).toArray()));
+            log.trace( "Executing select states of {} checkpoints:\n---\n{}---", checkpointIds.size(), sqlQueryStates);
+            try( var rs = ps.executeQuery() ) {
+                while (rs.next()) {
+                    result.put(rs.getString(1), encodedState(rs, 2));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void insertCheckpoint( Connection conn, String threadId, Checkpoint checkpoint, Map<String,Object> state ) throws Exception {
 
         var upsertThreadSql = """
             WITH inserted AS (
@@ -215,8 +365,11 @@ public class PostgresSaver extends MemorySaver {
                 node_id,
                 next_node_id,
                 state_data,
-                state_content_type)
-                VALUES (?, ?, ?, ?, ?, ?::jsonb, ?)
+                state_binary,
+                state_codec,
+                state_content_type,
+                saved_at)
+                VALUES (?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, clock_timestamp())
                 """;
         UUID threadUUID = null;
 
@@ -246,7 +399,14 @@ public class PostgresSaver extends MemorySaver {
                     UUID.fromString(checkpoint.getId()),
                     Types.OTHER);
             // parent_checkpoint_id
-            ps.setNull(++field, java.sql.Types.OTHER);
+            if( CheckpointDelta.isDelta( state ) ) {
+                ps.setObject(++field,
+                        UUID.fromString( String.valueOf(state.get(CheckpointDelta.PARENT_KEY)) ),
+                        Types.OTHER);
+            }
+            else {
+                ps.setNull(++field, java.sql.Types.OTHER);
+            }
             // thread_id
             ps.setObject(++field,
                     requireNonNull(threadUUID, "threadUUID cannot be null"),
@@ -255,41 +415,80 @@ public class PostgresSaver extends MemorySaver {
             ps.setString(++field, checkpoint.getNodeId());
             // next_node_id
             ps.setString(++field, checkpoint.getNextNodeId());
+            final var encodedState = encodeState(state);
             // state_data
-            ps.setString(++field, encodeState(checkpoint.getState()));
+            ps.setString(++field, encodedState.text());
+            // state_binary
+            ps.setBytes(++field, encodedState.binary());
+            // state_codec
+            ps.setString(++field, encodedState.codec());
             // state_content_type
-            ps.setString(++field, stateSerializer.contentType());
+            ps.setString(++field, encodedState.contentType());
 
-            // DB schema has DEFAULT CURRENT_TIMESTAMP for saved_at.
-            // If checkpoint provides a specific time, use it. Otherwise, use current time from Java.
-            // To use DB default, one would typically omit the column or pass NULL if the column definition allows it to trigger default.
-            // OffsetDateTime savedAt = checkpoint.getSavedAt().orElse(OffsetDateTime.now());
-            // psCheckpoint.setObject(8, savedAt);
+            // saved_at is the clock time instead of the (default) transaction start time, so the checkpoints
+            // written in the same transaction by putAll keep their order
             log.trace( "Executing insert checkpoint:\n---\n{}---", insertCheckpointSql);
             ps.executeUpdate();
         }
 
     }
 
-    @Override
-    protected void insertedCheckpoint( RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
-        var threadId = config.threadId().orElse( THREAD_ID_DEFAULT );
+    private void deleteCheckpoint( Connection conn, String threadId, String checkpointId ) throws SQLException {
+        var deletePreviousCheckpointSql = """
+                DELETE FROM LG4JCheckpoint
+                WHERE checkpoint_id = ?;
+                """;
+
+        try (PreparedStatement ps = conn.prepareStatement(deletePreviousCheckpointSql)) {
+            var field = 0;
+            ps.setObject(++field,
+                    UUID.fromString(checkpointId),
+                    Types.OTHER); // nullable
+            log.trace( "Executing deleting previous checkpoint with id {} in thread {}:\n---\n{}---",
+                            checkpointId,
+                            threadId,
+                            deletePreviousCheckpointSql);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes the write in its own transaction or, within {@link #putAll(List)}, adds it to the batch
+     */
+    private void write( String threadId, Checkpoint checkpoint, CheckpointWrite write ) throws Exception {
+        final var batch = batchWrites.get();
+        if( batch != null ) {
+            batch.add( write );
+            return;
+        }
 
         Connection conn = null;
         try( Connection ignored = conn = getConnection() )  {
             conn.setAutoCommit(false); // Start transaction
 
-            insertCheckpoint( conn, config, checkpoints, checkpoint );
+            write.execute( conn );
 
             conn.commit();
-            log.debug("Checkpoint {} for thread {} inserted successfully.", checkpoint.getId(), threadId);
+            log.debug("Checkpoint with id {} for thread {} inserted successfully.",
+                        checkpoint.getId(),
+                        threadId);
 
         } catch (SQLException | IOException e) { // IOException from convertStateToJson
-            log.error("Error inserting checkpoint with id {} in thread {}", checkpoint.getId(), threadId, e);
+            log.error("Error inserting checkpoint with id {} in thread {}",
+                    checkpoint.getId(),
+                    threadId,
+                    e);
             rollback( conn, checkpoint, threadId );
             throw e;
         }
+    }
 
+    @Override
+    protected void insertedCheckpoint( RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+        final var threadId = config.threadId().orElse( THREAD_ID_DEFAULT );
+        final var state = persistentStateOf( checkpoints, checkpoint );
+
+        write( threadId, checkpoint, conn -> insertCheckpoint( conn, threadId, checkpoint, state ) );
     }
 
     @Override
@@ -298,48 +497,15 @@ public class PostgresSaver extends MemorySaver {
                                       Checkpoint checkpoint) throws Exception {
 
         final var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        final var previousCheckpointId = config.checkPointId();
+        final var state = persistentStateOf( checkpoints, checkpoint );
 
-        var deletePreviousCheckpointSql = """
-                DELETE FROM LG4JCheckpoint
-                WHERE checkpoint_id = ?;
-                """;
-
-        Connection conn = null;
-
-        try( Connection ignored = conn = getConnection()  )  {
-            conn.setAutoCommit(false); // Start transaction
-
-            if( config.checkPointId().isPresent() ) {
-
-                try (PreparedStatement ps = conn.prepareStatement(deletePreviousCheckpointSql)) {
-                    var field = 0;
-                    ps.setObject(++field,
-                            UUID.fromString(config.checkPointId().get()),
-                            Types.OTHER); // nullable
-                    log.trace( "Executing deleting previous checkpoint with id {} in thread {}:\n---\n{}---",
-                                    config.checkPointId().get(),
-                                    threadId,
-                                    deletePreviousCheckpointSql);
-                    ps.executeUpdate();
-                }
+        write( threadId, checkpoint, conn -> {
+            if( previousCheckpointId.isPresent() ) {
+                deleteCheckpoint( conn, threadId, previousCheckpointId.get() );
             }
-
-            insertCheckpoint( conn, config, checkpoints, checkpoint);
-
-            conn.commit();
-
-            log.debug("Checkpoint with id {} for thread {} inserted successfully.",
-                        checkpoint.getId(),
-                        threadId);
-
-        } catch (SQLException | IOException e) { // IOException from convertStateToJson
-            log.error("Error inserting checkpoint with id {} in thread {}",
-                    checkpoint.getId(),
-                    threadId,
-                    e);
-            rollback( conn, checkpoint, threadId );
-            throw e;
-        }
+            insertCheckpoint( conn, threadId, checkpoint, state );
+        });
     }
 
     @Override
@@ -391,6 +557,64 @@ public class PostgresSaver extends MemorySaver {
 
     }
 
+    /**
+     * Writes the whole group of checkpoints in a single transaction (group commit): the checkpoints are put in
+     * memory first, collecting their writes, then the writes are executed on a single connection.
+     * If the transaction fails, the involved threads are removed from memory, so they are reloaded from the database.
+     *
+     * @param requests the checkpoints to put
+     * @throws Exception if an error occurs, in that case none of the checkpoints is written
+     */
+    @Override
+    public void putAll( List<PutRequest> requests ) throws Exception {
+        if( requests.size() < 2 || batchWrites.get() != null ) {
+            for( var request : requests ) {
+                put( request.config(), request.checkpoint() );
+            }
+            return;
+        }
+
+        final var writes = new ArrayList<CheckpointWrite>( requests.size() );
+        try {
+            batchWrites.set( writes );
+            try {
+                for( var request : requests ) {
+                    put( request.config(), request.checkpoint() );
+                }
+            }
+            finally {
+                batchWrites.remove();
+            }
+
+            try( Connection conn = getConnection() ) {
+                conn.setAutoCommit(false); // Start transaction
+                try {
+                    for( var write : writes ) {
+                        write.execute( conn );
+                    }
+                    conn.commit();
+                    log.debug("Batch of {} checkpoints committed successfully.", requests.size());
+                }
+                catch( Exception e ) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException exRollback) {
+                        log.error("Failed to rollback batch transaction", exRollback);
+                    }
+                    throw e;
+                }
+            }
+        }
+        catch( Exception e ) {
+            log.error("Error writing batch of {} checkpoints", requests.size(), e);
+            requests.stream()
+                    .map( request -> request.config().threadId().orElse( THREAD_ID_DEFAULT ) )
+                    .distinct()
+                    .forEach( this::remove );
+            throw e;
+        }
+    }
+
     /**
      * Datasource connection
      * Creates the vector extension and add the vector type if it does not exist.
@@ -413,6 +637,11 @@ public class PostgresSaver extends MemorySaver {
         private boolean createTables;
         private boolean dropTablesFirst;
         private DataSource datasource;
+        private DeltaMode deltaMode = DeltaMode.DISABLED;
+        private Compression compression = Compression.NONE;
+        private boolean lazyLoading;
+        private CachePolicy cachePolicy = CachePolicy.UNBOUNDED;
+        private int lazyPageSize = CheckpointStatePager.DEFAULT_PAGE_SIZE;
 
         public <State extends AgentState> Builder stateSerializer(StateSerializer<State> stateSerializer) {
             this.stateSerializer = stateSerializer;
@@ -459,6 +688,73 @@ public class PostgresSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the mode used to persist the checkpoint states (default {@link DeltaMode#DISABLED}).
+         * When enabled, the parent_checkpoint_id column holds the checkpoint the stored delta refers to.
+         *
+         * @param deltaMode the delta mode
+         * @return this builder
+         */
+        public Builder deltaMode(DeltaMode deltaMode) {
+            this.deltaMode = requireNonNull(deltaMode, "deltaMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Enables the lazy loading: on first access to a thread only the checkpoint metadata are loaded, while
+         * the states are fetched by id, a page at time, and decoded when requested.
+         *
+         * @param lazyLoading true to enable the lazy loading
+         * @return this builder
+         */
+        public Builder lazyLoading(boolean lazyLoading) {
+            this.lazyLoading = lazyLoading;
+            return this;
+        }
+
+        /**
+         * Sets the number of states fetched in a single query when lazy loading is enabled
+         * (default {@link CheckpointStatePager#DEFAULT_PAGE_SIZE})
+         *
+         * @param lazyPageSize number of states per page
+         * @return this builder
+         */
+        public Builder lazyPageSize(int lazyPageSize) {
+            if (lazyPageSize <= 0) {
+                throw new IllegalArgumentException("lazyPageSize must be > 0!");
+            }
+            this.lazyPageSize = lazyPageSize;
+            return this;
+        }
+
+        /**
+         * Sets the policy that bounds the checkpoints kept in memory (default {@link CachePolicy#UNBOUNDED}).
+         * Evicted threads are reloaded from the database on next access.
+         *
+         * @param cachePolicy the cache policy
+         * @return this builder
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            this.cachePolicy = requireNonNull(cachePolicy, "cachePolicy cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the compression of the states (default {@link Compression#NONE}).
+         * States are stored in the state_binary (BYTEA) column, except for {@link PlainTextStateSerializer} without
+         * compression, whose states are stored as native (queryable) JSON in the state_data (JSONB) column.
+         *
+         * @param compression the compression
+         * @return this builder
+         * @throws IllegalArgumentException if the library required by the compression is not on the classpath
+         */
+        public Builder compression(Compression compression) {
+            requireNonNull(compression, "compression cannot be null");
+            StateCodec.checkAvailable(compression);
+            this.compression = compression;
+            return this;
+        }
+
         private String requireNotBlank( String value, String name ) {
             if( requireNonNull(value, format("'%s' cannot be null", name) ).isBlank() ) {
                 throw new IllegalArgumentException(format("'%s' cannot be blank", name));
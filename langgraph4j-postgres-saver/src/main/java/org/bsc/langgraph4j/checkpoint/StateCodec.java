@@ -0,0 +1,123 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * Codecs used to store the state in the {@code state_binary} (BYTEA) column.
+ * <p>
+ * The codec name is stored in the {@code state_codec} column, so a state is always decoded with the codec used to
+ * write it, regardless of the current {@link PostgresSaver.Compression}. Compressed payloads are prefixed by the
+ * uncompressed length (4 bytes, big endian). LZ4 and Zstd require their optional libraries on the classpath.
+ * </p>
+ */
+final class StateCodec {
+
+    /**
+     * State stored as native JSON in the {@code state_data} (JSONB) column
+     */
+    static final String JSON = "json";
+    static final String NONE = "none";
+    static final String LZ4 = "lz4";
+    static final String ZSTD = "zstd";
+
+    private StateCodec() {
+    }
+
+    static String nameOf(PostgresSaver.Compression compression) {
+        return switch (compression) {
+            case NONE -> NONE;
+            case LZ4 -> LZ4;
+            case ZSTD -> ZSTD;
+        };
+    }
+
+    /**
+     * Checks that the library required by the given compression is available
+     *
+     * @param compression the compression
+     * @throws IllegalArgumentException if the library is missing
+     */
+    static void checkAvailable(PostgresSaver.Compression compression) {
+        final var className = switch (compression) {
+            case NONE -> null;
+            case LZ4 -> "net.jpountz.lz4.LZ4Factory";
+            case ZSTD -> "com.github.luben.zstd.Zstd";
+        };
+        if (className == null) {
+            return;
+        }
+        try {
+            Class.forName(className, false, StateCodec.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(format("compression %s requires '%s' on the classpath", compression, className), e);
+        }
+    }
+
+    static byte[] encode(String codec, byte[] data) {
+        return switch (codec) {
+            case NONE -> data;
+            case LZ4 -> withLength(data.length, Lz4.compress(data));
+            case ZSTD -> withLength(data.length, Zstd.compress(data));
+            default -> throw new IllegalArgumentException(format("unsupported state codec '%s'", codec));
+        };
+    }
+
+    static byte[] decode(String codec, byte[] payload) throws IOException {
+        return switch (codec) {
+            case NONE -> payload;
+            case LZ4 -> Lz4.decompress(payload, 4, payload.length - 4, lengthOf(payload));
+            case ZSTD -> Zstd.decompress(Arrays.copyOfRange(payload, 4, payload.length), lengthOf(payload));
+            default -> throw new IOException(format("unsupported state codec '%s'", codec));
+        };
+    }
+
+    private static byte[] withLength(int length, byte[] compressed) {
+        return ByteBuffer.allocate(4 + compressed.length)
+                .putInt(length)
+                .put(compressed)
+                .array();
+    }
+
+    private static int lengthOf(byte[] payload) throws IOException {
+        if (payload.length < 4) {
+            throw new IOException("corrupted state payload");
+        }
+        return ByteBuffer.wrap(payload, 0, 4).getInt();
+    }
+
+    /**
+     * Loaded only if LZ4 is used
+     */
+    private static final class Lz4 {
+        private static final net.jpountz.lz4.LZ4Factory FACTORY = net.jpountz.lz4.LZ4Factory.fastestInstance();
+
+        static byte[] compress(byte[] data) {
+            return FACTORY.fastCompressor().compress(data);
+        }
+
+        static byte[] decompress(byte[] payload, int offset, int length, int decompressedLength) {
+            final var result = new byte[decompressedLength];
+            FACTORY.safeDecompressor().decompress(payload, offset, length, result, 0, decompressedLength);
+            return result;
+        }
+    }
+
+    /**
+     * Loaded only if Zstd is used
+     */
+    private static final class Zstd {
+        private static final int LEVEL = 3;
+
+        static byte[] compress(byte[] data) {
+            return com.github.luben.zstd.Zstd.compress(data, LEVEL);
+        }
+
+        static byte[] decompress(byte[] compressed, int decompressedLength) {
+            return com.github.luben.zstd.Zstd.decompress(compressed, decompressedLength);
+        }
+    }
+}
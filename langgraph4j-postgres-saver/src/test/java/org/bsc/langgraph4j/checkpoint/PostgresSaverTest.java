@@ -4,18 +4,30 @@ import org.bsc.langgraph4j.CompileConfig;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.StateGraph;
 import org.bsc.langgraph4j.action.NodeAction;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.jackson.JacksonStateSerializer;
 import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.testcontainers.containers.PostgreSQLContainer;
 
 import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.LogManager;
+import java.util.stream.IntStream;
 
 import static org.bsc.langgraph4j.StateGraph.END;
 import static org.bsc.langgraph4j.StateGraph.START;
@@ -85,6 +97,59 @@ public class PostgresSaverTest {
                 .stateSerializer(new ObjectStreamStateSerializer<>( AgentState::new ) );
     }
 
+    static class CountingStateSerializer extends StateSerializer<AgentState> {
+        final ObjectStreamStateSerializer<AgentState> delegate = new ObjectStreamStateSerializer<>(AgentState::new);
+        final AtomicInteger reads = new AtomicInteger();
+
+        CountingStateSerializer() {
+            super(AgentState::new);
+        }
+
+        @Override
+        public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+            delegate.writeData(data, out);
+        }
+
+        @Override
+        public Map<String, Object> readData(ObjectInput in) throws IOException, ClassNotFoundException {
+            reads.incrementAndGet();
+            return delegate.readData(in);
+        }
+    }
+
+    static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(Map.of("step", step,
+                        "messages", IntStream.rangeClosed(0, step).mapToObj(i -> "message_" + i).toList()))
+                .build();
+    }
+
+    /**
+     * Puts the given number of checkpoints and returns them, the most recent first
+     */
+    static LinkedList<Checkpoint> putCheckpoints(BaseCheckpointSaver saver, RunnableConfig config, int count) throws Exception {
+        var result = new LinkedList<Checkpoint>();
+        for (int step = 0; step < count; ++step) {
+            var checkpoint = checkpoint(step);
+            saver.put(config, checkpoint);
+            result.push(checkpoint);
+        }
+        return result;
+    }
+
+    static void assertSameCheckpoints(List<Checkpoint> expected, Collection<Checkpoint> actual) {
+        var checkpoints = List.copyOf(actual);
+        assertEquals(expected.size(), checkpoints.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getId(), checkpoints.get(i).getId());
+            assertEquals(expected.get(i).getNodeId(), checkpoints.get(i).getNodeId());
+            assertEquals(expected.get(i).getNextNodeId(), checkpoints.get(i).getNextNodeId());
+            assertEquals(expected.get(i).getState(), checkpoints.get(i).getState());
+        }
+    }
+
     @Test
     public void testCheckpointWithReleasedThread() throws Exception {
 
@@ -208,4 +273,145 @@ public class PostgresSaverTest {
 
     }
 
+    @Test
+    public void testLazyLoading() throws Exception {
+        var config = RunnableConfig.builder().threadId("lazy-thread").build();
+        var serializer = new CountingStateSerializer();
+
+        var saver = buildPostgresSaver()
+                .stateSerializer(serializer)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .dropTablesFirst(true)
+                .build();
+        var expected = putCheckpoints(saver, config, 10);
+
+        var lazySaver = buildPostgresSaver()
+                .stateSerializer(serializer)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .lazyLoading(true)
+                .lazyPageSize(4)
+                .build();
+        serializer.reads.set(0);
+
+        var last = lazySaver.get(config).orElseThrow();
+        assertEquals(expected.get(0).getId(), last.getId());
+        assertEquals(0, serializer.reads.get(), "no state must be decoded on load");
+        // the most recent checkpoint (position 9) is a full snapshot
+        assertEquals(expected.get(0).getState(), last.getState());
+        assertEquals(1, serializer.reads.get());
+
+        assertSameCheckpoints(expected, lazySaver.list(config));
+
+        // replace a checkpoint of the lazily loaded thread, its successor is a delta of it
+        var replaced = expected.get(2);
+        var replacement = Checkpoint.builder()
+                .nodeId(replaced.getNodeId())
+                .nextNodeId(replaced.getNextNodeId())
+                .state(Map.of("step", 100, "messages", List.of("replaced")))
+                .build();
+        lazySaver.put(RunnableConfig.builder(config).checkPointId(replaced.getId()).build(), replacement);
+        expected.set(2, replacement);
+
+        var reloaded = buildPostgresSaver()
+                .stateSerializer(serializer)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .lazyLoading(true)
+                .lazyPageSize(4)
+                .build();
+        assertSameCheckpoints(expected, reloaded.list(config));
+
+        reloaded.release(config);
+    }
+
+
+    @Test
+    public void testBatchedWrites() throws Exception {
+        var configs = List.of(
+                RunnableConfig.builder().threadId("batch-thread-1").build(),
+                RunnableConfig.builder().threadId("batch-thread-2").build());
+
+        var saver = buildPostgresSaver()
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .dropTablesFirst(true)
+                .build();
+
+        // interleaves the checkpoints of the threads in a single batch, as the group commit does
+        var requests = new ArrayList<BaseCheckpointSaver.PutRequest>();
+        var expected = Map.of(configs.get(0), new LinkedList<Checkpoint>(),
+                                configs.get(1), new LinkedList<Checkpoint>());
+        for (int step = 0; step < 10; ++step) {
+            for (var config : configs) {
+                var checkpoint = checkpoint(step);
+                requests.add(new BaseCheckpointSaver.PutRequest(config, checkpoint));
+                expected.get(config).push(checkpoint);
+            }
+        }
+        saver.putAll(requests);
+
+        for (var config : configs) {
+            assertSameCheckpoints(expected.get(config), saver.list(config));
+        }
+
+        // the checkpoints written in the same transaction are reloaded in order
+        var reloaded = buildPostgresSaver()
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        for (var config : configs) {
+            assertSameCheckpoints(expected.get(config), reloaded.list(config));
+            reloaded.release(config);
+        }
+    }
+
+
+    static class JsonStateSerializer extends JacksonStateSerializer<AgentState> {
+        JsonStateSerializer() {
+            super(AgentState::new);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PostgresSaver.Compression.class)
+    public void testBinaryCodecRoundTrip(PostgresSaver.Compression compression) throws Exception {
+        var config = RunnableConfig.builder().threadId("codec-thread-" + compression).build();
+
+        var saver = buildPostgresSaver()
+                .compression(compression)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .dropTablesFirst(true)
+                .build();
+        var expected = putCheckpoints(saver, config, 10);
+
+        // the codec is stored with each checkpoint, so a saver with another compression reads it back
+        var other = compression == PostgresSaver.Compression.NONE ?
+                PostgresSaver.Compression.LZ4 :
+                PostgresSaver.Compression.NONE;
+        var reloaded = buildPostgresSaver()
+                .compression(other)
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        assertSameCheckpoints(expected, reloaded.list(config));
+
+        reloaded.release(config);
+    }
+
+    @Test
+    public void testJsonCodecRoundTrip() throws Exception {
+        var config = RunnableConfig.builder().threadId("json-thread").build();
+
+        var saver = buildPostgresSaver()
+                .stateSerializer(new JsonStateSerializer())
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .dropTablesFirst(true)
+                .build();
+        var expected = putCheckpoints(saver, config, 10);
+
+        var reloaded = buildPostgresSaver()
+                .stateSerializer(new JsonStateSerializer())
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        assertSameCheckpoints(expected, reloaded.list(config));
+
+        reloaded.release(config);
+    }
+
 }
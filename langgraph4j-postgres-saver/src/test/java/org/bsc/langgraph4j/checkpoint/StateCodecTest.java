@@ -0,0 +1,35 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateCodecTest {
+
+    @ParameterizedTest
+    @EnumSource(PostgresSaver.Compression.class)
+    public void roundTrip(PostgresSaver.Compression compression) throws Exception {
+        StateCodec.checkAvailable(compression);
+
+        var codec = StateCodec.nameOf(compression);
+        var data = "message ".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        var encoded = StateCodec.encode(codec, data);
+        if (compression != PostgresSaver.Compression.NONE) {
+            assertTrue(encoded.length < data.length);
+        }
+        assertArrayEquals(data, StateCodec.decode(codec, encoded));
+    }
+
+    @Test
+    public void invalidPayload() {
+        assertThrows(IOException.class, () -> StateCodec.decode(StateCodec.LZ4, new byte[2]));
+        assertThrows(IOException.class, () -> StateCodec.decode("unknown", new byte[2]));
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.encode(StateCodec.JSON, new byte[2]));
+    }
+}
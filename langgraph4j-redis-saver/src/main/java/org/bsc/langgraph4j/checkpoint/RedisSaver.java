@@ -1,20 +1,22 @@
 package org.bsc.langgraph4j.checkpoint;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.redisson.Redisson;
 import org.redisson.api.RBatch;
-import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.codec.StringCodec;
-import org.redisson.client.protocol.ScoredEntry;
 import org.redisson.config.Config;
 
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
+import static java.lang.String.format;
+
 /**
  * <p>RedisSaver is an extension of MemorySaver that enables persistent,
  * high-performance storage of workflow state in Redis.</p>
@@ -73,12 +75,18 @@ public class RedisSaver extends MemorySaver {
     private static final String STATE_DATA_FIELD = "state_data";
     private static final String SAVED_AT_FIELD = "saved_at";
 
+    /**
+     * Max number of checkpoint hashes read in a single round trip
+     */
+    private static final int LOAD_BATCH_SIZE = 512;
+
     // Configuration
     private final RedissonClient redissonClient;
     private final KeyNamingStrategy keyNamingStrategy;
     private final ObjectMapper objectMapper;
     private final long ttl;
     private final TimeUnit ttlUnit;
+    private final int lazyPageSize;
 
     /**
      * Private constructor used by the builder.
@@ -87,8 +95,14 @@ public class RedisSaver extends MemorySaver {
      * @param keyNamingStrategy  the key naming strategy
      * @param ttl                time to live for keys (-1 for no expiration)
      * @param ttlUnit            time unit for ttl
+     * @param deltaMode          the mode used to persist the checkpoint states
+     * @param lazyPageSize       number of states fetched per batch, 0 to load all the states eagerly
+     * @param cachePolicy        the policy that bounds the checkpoints kept in memory
      */
-    private RedisSaver(RedissonClient redissonClient, KeyNamingStrategy keyNamingStrategy, long ttl, TimeUnit ttlUnit) {
+    private RedisSaver(RedissonClient redissonClient, KeyNamingStrategy keyNamingStrategy, long ttl, TimeUnit ttlUnit, DeltaMode deltaMode, int lazyPageSize,
+                       CachePolicy cachePolicy) {
+        super(DEFAULT_LOCK_STRIPES, deltaMode, cachePolicy);
+        this.lazyPageSize = lazyPageSize;
         this.redissonClient = Objects.requireNonNull(redissonClient, "redissonClient cannot be null");
         this.keyNamingStrategy = keyNamingStrategy != null ? keyNamingStrategy : new DefaultKeyNamingStrategy();
         this.objectMapper = new ObjectMapper();
@@ -113,61 +127,191 @@ public class RedisSaver extends MemorySaver {
             return checkpoints;
         }
 
-        final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+        final List<String> checkpointIds = checkpointIdsOf(config.threadId().orElse(THREAD_ID_DEFAULT), -1);
+
+        if (lazyPageSize > 0) {
+            loadCheckpointsLazily(checkpointIds, checkpoints);
+        }
+        else {
+            for (Map<String, String> fields : fetchCheckpointFields(checkpointIds, null)) {
+                checkpointOf(fields).ifPresent(checkpoints::add);
+            }
+        }
+
+        CheckpointDelta.resolve(checkpoints);
+        return checkpoints;
+    }
+
+    /**
+     * Returns the most recent checkpoints of the thread, reading them directly from Redis in a constant number of
+     * round trips, without loading the whole thread in memory.
+     * <p>
+     * When the delta mode is enabled, up to {@link DeltaMode#fullSnapshotInterval()} further checkpoints are read
+     * to resolve the states.
+     * </p>
+     *
+     * @param config the config of the thread
+     * @param limit  the max number of checkpoints to return
+     * @return the most recent checkpoints, the most recent first
+     */
+    public List<Checkpoint> listRecent(RunnableConfig config, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0!");
+        }
+        final int range = deltaMode().isEnabled() ? limit + deltaMode().fullSnapshotInterval() : limit;
+        final List<String> checkpointIds = checkpointIdsOf(config.threadId().orElse(THREAD_ID_DEFAULT), range);
+
+        final var checkpoints = new ArrayList<Checkpoint>(checkpointIds.size());
+        for (Map<String, String> fields : fetchCheckpointFields(checkpointIds, null)) {
+            checkpointOf(fields).ifPresent(checkpoints::add);
+        }
+        CheckpointDelta.resolve(checkpoints);
+
+        return List.copyOf(checkpoints.subList(0, Math.min(limit, checkpoints.size())));
+    }
+
+    /**
+     * Returns the checkpoint ids of the active thread with the given name, most recent first.
+     * It takes two round trips: the first to get the thread id, the second (pipelined) to check the thread and
+     * to read the sorted set.
+     *
+     * @param threadName the thread name
+     * @param limit      the max number of ids to return, -1 for all
+     * @return the checkpoint ids, empty if the thread doesn't exist or it has been released
+     */
+    private List<String> checkpointIdsOf(String threadName, int limit) {
         final String threadNameKey = keyNamingStrategy.threadNameKey(threadName);
 
         // Get active thread ID by name
-        String threadId = redissonClient.<String>getBucket(threadNameKey, StringCodec.INSTANCE).get();
+        final String threadId = redissonClient.<String>getBucket(threadNameKey, StringCodec.INSTANCE).get();
 
         if (threadId == null) {
-            return checkpoints; // No active thread
+            return List.of(); // No active thread
         }
 
+        final RBatch batch = redissonClient.createBatch();
         // Check if thread is released
-        String threadKey = keyNamingStrategy.threadKey(threadId);
-        RMap<String, String> threadMap = redissonClient.getMap(threadKey, StringCodec.INSTANCE);
-        String isReleased = threadMap.get(IS_RELEASED_FIELD);
+        batch.<String, String>getMap(keyNamingStrategy.threadKey(threadId), StringCodec.INSTANCE)
+                .getAsync(IS_RELEASED_FIELD);
+        // Get checkpoint IDs from sorted set (ordered by timestamp descending)
+        batch.<String>getScoredSortedSet(keyNamingStrategy.checkpointsKey(threadId), StringCodec.INSTANCE)
+                .valueRangeReversedAsync(0, limit < 0 ? -1 : limit - 1);
+        final var responses = batch.execute().getResponses();
 
-        if ("1".equals(isReleased)) {
-            return checkpoints; // Thread is released
+        if ("1".equals(responses.get(0))) {
+            return List.of(); // Thread is released
         }
 
-        // Get checkpoint IDs from sorted set (ordered by timestamp descending)
-        String checkpointsKey = keyNamingStrategy.checkpointsKey(threadId);
-        RScoredSortedSet<String> checkpointsSet = redissonClient.getScoredSortedSet(checkpointsKey, StringCodec.INSTANCE);
+        @SuppressWarnings("unchecked")
+        final var checkpointIds = (Collection<String>) responses.get(1);
+        return (checkpointIds != null) ? List.copyOf(checkpointIds) : List.of();
+    }
 
-        // Get checkpoints in descending order by score (timestamp)
-        Collection<ScoredEntry<String>> scoredEntries = checkpointsSet.entryRangeReversed(0, -1);
+    /**
+     * Reads the hashes of the given checkpoints, pipelining up to {@link #LOAD_BATCH_SIZE} reads in a single round
+     * trip.
+     *
+     * @param checkpointIds the checkpoint ids
+     * @param fields        the fields to read, null for all
+     * @return the fields of each checkpoint in the same order of the ids, empty for deleted checkpoints
+     */
+    private List<Map<String, String>> fetchCheckpointFields(List<String> checkpointIds, Set<String> fields) {
+        final var result = new ArrayList<Map<String, String>>(checkpointIds.size());
+
+        for (int from = 0; from < checkpointIds.size(); from += LOAD_BATCH_SIZE) {
+            final var page = checkpointIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, checkpointIds.size()));
+            final RBatch batch = redissonClient.createBatch();
+            for (String checkpointId : page) {
+                RMapAsync<String, String> checkpointMap = batch.getMap(keyNamingStrategy.checkpointKey(checkpointId), StringCodec.INSTANCE);
+                if (fields == null) {
+                    checkpointMap.readAllMapAsync();
+                } else {
+                    checkpointMap.getAllAsync(fields);
+                }
+            }
+            for (Object response : batch.execute().getResponses()) {
+                @SuppressWarnings("unchecked")
+                final var checkpointFields = (response instanceof Map<?, ?> map) ? (Map<String, String>) map : Map.<String, String>of();
+                result.add(checkpointFields);
+            }
+        }
+        return result;
+    }
 
-        if (scoredEntries != null) {
-            for (ScoredEntry<String> entry : scoredEntries) {
-                String checkpointId = entry.getValue();
-                String checkpointKey = keyNamingStrategy.checkpointKey(checkpointId);
-                RMap<String, String> checkpointMap = redissonClient.getMap(checkpointKey, StringCodec.INSTANCE);
+    /**
+     * Builds the checkpoint from the fields of its hash
+     *
+     * @param fields the fields of the checkpoint hash
+     * @return the checkpoint, empty if the checkpoint was deleted
+     */
+    private Optional<Checkpoint> checkpointOf(Map<String, String> fields) {
+        final String stateJson = fields.get(STATE_DATA_FIELD);
+        if (fields.get(CHECKPOINT_ID_FIELD) == null || stateJson == null) {
+            return Optional.empty(); // Checkpoint was deleted
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> state = objectMapper.readValue(stateJson, Map.class);
+
+            return Optional.of(Checkpoint.builder()
+                    .id(fields.get(CHECKPOINT_ID_FIELD))
+                    .nodeId(fields.get(NODE_ID_FIELD))
+                    .nextNodeId(fields.get(NEXT_NODE_ID_FIELD))
+                    .state(state)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(format("unable to decode state of checkpoint '%s'", fields.get(CHECKPOINT_ID_FIELD)), e);
+        }
+    }
 
-                if (!checkpointMap.isExists()) {
-                    continue; // Checkpoint was deleted
-                }
+    /**
+     * Loads only the checkpoint metadata (in a single batch), the states are fetched by id (a page at time, in a
+     * single batch) on first access.
+     *
+     * @param checkpointIds the checkpoint ids, most recent first
+     * @param checkpoints   the list of checkpoints to fill
+     */
+    private void loadCheckpointsLazily(List<String> checkpointIds, LinkedList<Checkpoint> checkpoints) {
+        final var metadataFields = Set.of(CHECKPOINT_ID_FIELD, NODE_ID_FIELD, NEXT_NODE_ID_FIELD);
+        final var metadata = fetchCheckpointFields(checkpointIds, metadataFields).stream()
+                .filter(fields -> fields.get(CHECKPOINT_ID_FIELD) != null) // skip deleted checkpoints
+                .toList();
+
+        final var ids = metadata.stream().map(fields -> fields.get(CHECKPOINT_ID_FIELD)).toList();
+        final var pager = new CheckpointStatePager<String>(ids, lazyPageSize, this::fetchStates,
+                stateJson -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> state = objectMapper.readValue(stateJson, Map.class);
+                    return state;
+                });
+        for (var fields : metadata) {
+            checkpoints.add(pager.checkpoint(fields.get(CHECKPOINT_ID_FIELD),
+                    fields.get(NODE_ID_FIELD),
+                    fields.get(NEXT_NODE_ID_FIELD)));
+        }
+    }
 
-                String stateJson = checkpointMap.get(STATE_DATA_FIELD);
-                if (stateJson == null) {
-                    continue;
-                }
+    /**
+     * Fetches, in a single batch, the (not decoded) states of the given checkpoints
+     *
+     * @param checkpointIds the checkpoint ids
+     * @return the json states by checkpoint id
+     */
+    private Map<String, String> fetchStates(List<String> checkpointIds) {
+        RBatch batch = redissonClient.createBatch();
+        for (String checkpointId : checkpointIds) {
+            batch.<String, String>getMap(keyNamingStrategy.checkpointKey(checkpointId), StringCodec.INSTANCE)
+                    .getAsync(STATE_DATA_FIELD);
+        }
+        final var responses = batch.execute().getResponses();
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> state = objectMapper.readValue(stateJson, Map.class);
-
-                Checkpoint checkpoint = Checkpoint.builder()
-                        .id(checkpointMap.get(CHECKPOINT_ID_FIELD))
-                        .nodeId(checkpointMap.get(NODE_ID_FIELD))
-                        .nextNodeId(checkpointMap.get(NEXT_NODE_ID_FIELD))
-                        .state(state)
-                        .build();
-                checkpoints.add(checkpoint);
+        final var result = new HashMap<String, String>();
+        for (int i = 0; i < checkpointIds.size(); ++i) {
+            if (responses.get(i) instanceof String stateJson) {
+                result.put(checkpointIds.get(i), stateJson);
             }
         }
-
-        return checkpoints;
+        return result;
     }
 
     @Override
@@ -197,7 +341,7 @@ public class RedisSaver extends MemorySaver {
         // Insert checkpoint
         String checkpointId = checkpoint.getId();
         String checkpointKey = keyNamingStrategy.checkpointKey(checkpointId);
-        String stateJson = objectMapper.writeValueAsString(checkpoint.getState());
+        String stateJson = objectMapper.writeValueAsString(persistentStateOf(checkpoints, checkpoint));
 
         batch.getMap(checkpointKey, StringCodec.INSTANCE).fastPutAsync(CHECKPOINT_ID_FIELD, checkpointId);
         batch.getMap(checkpointKey, StringCodec.INSTANCE).fastPutAsync(THREAD_ID_REF_FIELD, threadId);
@@ -252,7 +396,7 @@ public class RedisSaver extends MemorySaver {
 
             // Insert new checkpoint
             String newCheckpointKey = keyNamingStrategy.checkpointKey(newCheckpointId);
-            String stateJson = objectMapper.writeValueAsString(checkpoint.getState());
+            String stateJson = objectMapper.writeValueAsString(persistentStateOf(checkpoints, checkpoint));
 
             batch.getMap(newCheckpointKey, StringCodec.INSTANCE).fastPutAsync(CHECKPOINT_ID_FIELD, newCheckpointId);
             batch.getMap(newCheckpointKey, StringCodec.INSTANCE).fastPutAsync(THREAD_ID_REF_FIELD, threadId);
@@ -363,6 +507,10 @@ public class RedisSaver extends MemorySaver {
         private KeyNamingStrategy keyNamingStrategy = null;
         private long ttl = -1;
         private TimeUnit ttlUnit = TimeUnit.MINUTES;
+        private DeltaMode deltaMode = DeltaMode.DISABLED;
+        private boolean lazyLoading;
+        private CachePolicy cachePolicy = CachePolicy.UNBOUNDED;
+        private int lazyPageSize = CheckpointStatePager.DEFAULT_PAGE_SIZE;
 
         /**
          * Sets the Redis host.
@@ -500,12 +648,68 @@ public class RedisSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the mode used to persist the checkpoint states (default {@link DeltaMode#DISABLED}).
+         * <p>
+         * Delta mode cannot be combined with a TTL, since an expired checkpoint would break the deltas referring to it.
+         * </p>
+         *
+         * @param deltaMode the delta mode
+         * @return this builder
+         */
+        public Builder deltaMode(DeltaMode deltaMode) {
+            this.deltaMode = Objects.requireNonNull(deltaMode, "deltaMode cannot be null");
+            return this;
+        }
+
+        /**
+         * Enables the lazy loading: on first access to a thread only the checkpoint metadata are loaded, while
+         * the states are fetched by id, a page at time, and decoded when requested.
+         *
+         * @param lazyLoading true to enable the lazy loading
+         * @return this builder
+         */
+        public Builder lazyLoading(boolean lazyLoading) {
+            this.lazyLoading = lazyLoading;
+            return this;
+        }
+
+        /**
+         * Sets the number of states fetched in a single batch when lazy loading is enabled
+         * (default {@link CheckpointStatePager#DEFAULT_PAGE_SIZE})
+         *
+         * @param lazyPageSize number of states per page
+         * @return this builder
+         */
+        public Builder lazyPageSize(int lazyPageSize) {
+            if (lazyPageSize <= 0) {
+                throw new IllegalArgumentException("lazyPageSize must be > 0!");
+            }
+            this.lazyPageSize = lazyPageSize;
+            return this;
+        }
+
+        /**
+         * Sets the policy that bounds the checkpoints kept in memory (default {@link CachePolicy#UNBOUNDED}).
+         * Evicted threads are reloaded from Redis on next access.
+         *
+         * @param cachePolicy the cache policy
+         * @return this builder
+         */
+        public Builder cachePolicy(CachePolicy cachePolicy) {
+            this.cachePolicy = Objects.requireNonNull(cachePolicy, "cachePolicy cannot be null");
+            return this;
+        }
+
         /**
          * Creates a new instance of RedisSaver.
          *
          * @return the new instance of RedisSaver
          */
         public RedisSaver build() {
+            if (ttl >= 0 && deltaMode.isEnabled()) {
+                throw new IllegalArgumentException("deltaMode cannot be enabled together with ttl!");
+            }
             RedissonClient client;
 
             if (redissonClient != null) {
@@ -533,7 +737,7 @@ public class RedisSaver extends MemorySaver {
                 client = Redisson.create(config);
             }
 
-            return new RedisSaver(client, keyNamingStrategy, ttl, ttlUnit);
+            return new RedisSaver(client, keyNamingStrategy, ttl, ttlUnit, deltaMode, lazyLoading ? lazyPageSize : 0, cachePolicy);
         }
     }
 }
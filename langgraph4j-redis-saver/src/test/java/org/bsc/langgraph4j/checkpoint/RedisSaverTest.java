@@ -15,8 +15,12 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.bsc.langgraph4j.StateGraph.END;
 import static org.bsc.langgraph4j.StateGraph.START;
@@ -63,6 +67,41 @@ public class RedisSaverTest {
                 .build();
     }
 
+    static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node_" + step)
+                .nextNodeId("node_" + (step + 1))
+                .state(Map.of("step", step,
+                        "messages", IntStream.rangeClosed(0, step).mapToObj(i -> "message_" + i).toList()))
+                .build();
+    }
+
+    /**
+     * Puts the given number of checkpoints and returns them, the most recent first
+     */
+    static LinkedList<Checkpoint> putCheckpoints(BaseCheckpointSaver saver, RunnableConfig config, int count) throws Exception {
+        var result = new LinkedList<Checkpoint>();
+        for (int step = 0; step < count; ++step) {
+            var checkpoint = checkpoint(step);
+            saver.put(config, checkpoint);
+            result.push(checkpoint);
+            // the checkpoints are ordered by their timestamp in milliseconds
+            TimeUnit.MILLISECONDS.sleep(2);
+        }
+        return result;
+    }
+
+    static void assertSameCheckpoints(List<Checkpoint> expected, Collection<Checkpoint> actual) {
+        var checkpoints = List.copyOf(actual);
+        assertEquals(expected.size(), checkpoints.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getId(), checkpoints.get(i).getId());
+            assertEquals(expected.get(i).getNodeId(), checkpoints.get(i).getNodeId());
+            assertEquals(expected.get(i).getNextNodeId(), checkpoints.get(i).getNextNodeId());
+            assertEquals(expected.get(i).getState(), checkpoints.get(i).getState());
+        }
+    }
+
     @Test
     public void testCheckpointWithReleasedThread() throws Exception {
         var saver = createRedisSaver();
@@ -266,4 +305,104 @@ public class RedisSaverTest {
 
         saver.release(RunnableConfig.builder().build());
     }
+
+    @Test
+    public void testLazyLoading() throws Exception {
+        var config = RunnableConfig.builder().threadId("lazy-thread").build();
+
+        var saver = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        saver.cleanupAll();
+        var expected = putCheckpoints(saver, config, 10);
+
+        var lazySaver = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .lazyLoading(true)
+                .lazyPageSize(4)
+                .build();
+
+        var last = lazySaver.get(config).orElseThrow();
+        assertEquals(expected.get(0).getId(), last.getId());
+        assertEquals(expected.get(0).getState(), last.getState());
+        assertSameCheckpoints(expected, lazySaver.list(config));
+
+        // replace a checkpoint of the lazily loaded thread, its successor is a delta of it
+        var replaced = expected.get(2);
+        var replacement = Checkpoint.builder()
+                .nodeId(replaced.getNodeId())
+                .nextNodeId(replaced.getNextNodeId())
+                .state(Map.of("step", 100, "messages", List.of("replaced")))
+                .build();
+        lazySaver.put(RunnableConfig.builder(config).checkPointId(replaced.getId()).build(), replacement);
+        expected.set(2, replacement);
+
+        var reloaded = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .lazyLoading(true)
+                .lazyPageSize(4)
+                .build();
+        assertSameCheckpoints(expected, reloaded.list(config));
+
+        reloaded.release(config);
+    }
+
+    @Test
+    public void testPipelinedLoading() throws Exception {
+        var config = RunnableConfig.builder().threadId("pipelined-thread").build();
+
+        var saver = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(10))
+                .build();
+        saver.cleanupAll();
+        // more checkpoints than the reads pipelined in a single round trip
+        var expected = putCheckpoints(saver, config, 600);
+
+        var reloaded = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(10))
+                .build();
+        assertSameCheckpoints(expected, reloaded.list(config));
+
+        reloaded.release(config);
+    }
+
+    @Test
+    public void testListRecent() throws Exception {
+        var config = RunnableConfig.builder().threadId("recent-thread").build();
+
+        var saver = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        saver.cleanupAll();
+        var expected = putCheckpoints(saver, config, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> saver.listRecent(config, 0));
+
+        // the oldest of the recent checkpoints are deltas, resolved with the further checkpoints read
+        var reader = RedisSaver.builder()
+                .host(redisContainer.getHost())
+                .port(redisContainer.getMappedPort(REDIS_PORT))
+                .deltaMode(BaseCheckpointSaver.DeltaMode.fullSnapshotEvery(3))
+                .build();
+        for (int limit : List.of(1, 4, 5, 10, 20)) {
+            assertSameCheckpoints(expected.subList(0, Math.min(limit, expected.size())),
+                    reader.listRecent(config, limit));
+        }
+        assertTrue(reader.listRecent(RunnableConfig.builder().threadId("missing-thread").build(), 5).isEmpty());
+
+        saver.release(config);
+        assertTrue(reader.listRecent(config, 5).isEmpty(), "a released thread has no recent checkpoints");
+    }
 }
@@ -0,0 +1,44 @@
+package org.bsc.langgraph4j.spring.ai.agent;
+
+import org.bsc.langgraph4j.spring.ai.cache.SpringAIChatResponseCache;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ReactAgent.ChatService} that looks up the responses in a {@link SpringAIChatResponseCache} before
+ * calling the delegated service.
+ */
+class CachedChatService implements ReactAgent.ChatService {
+    final ReactAgent.ChatService delegate;
+    final SpringAIChatResponseCache responseCache;
+    final String context;
+
+    public CachedChatService(ReactAgent.ChatService delegate, SpringAIChatResponseCache responseCache, String context) {
+        this.delegate = requireNonNull(delegate, "delegate cannot be null!");
+        this.responseCache = requireNonNull(responseCache, "responseCache cannot be null!");
+        this.context = requireNonNull(context, "context cannot be null!");
+    }
+
+    @Override
+    public ChatClient chatClient() {
+        return delegate.chatClient();
+    }
+
+    @Override
+    public ChatResponse execute(List<Message> messages) {
+        return responseCache.call( SpringAIChatResponseCache.keyOf(messages, context),
+                () -> delegate.execute(messages) );
+    }
+
+    @Override
+    public Flux<ChatResponse> streamingExecute(List<Message> messages) {
+        return responseCache.stream( SpringAIChatResponseCache.keyOf(messages, context),
+                () -> delegate.streamingExecute(messages) );
+    }
+}
@@ -4,6 +4,7 @@ import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.spring.ai.generators.StreamingChatGenerator;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
 import org.springframework.ai.chat.messages.Message;
 
 import java.util.Map;
@@ -16,10 +17,23 @@ public class CallModelAction<State extends MessagesState<Message>> implements As
 
     private final ReactAgent.ChatService chatService;
     private final boolean streaming;
+    private final StreamingChunkPolicy streamingChunkPolicy;
 
     public CallModelAction(ReactAgent.ChatService chatService, boolean streaming) {
+        this(chatService, streaming, null);
+    }
+
+    /**
+     * Creates the action
+     *
+     * @param chatService the chat service
+     * @param streaming true to stream the model response
+     * @param streamingChunkPolicy how the streamed tokens are delivered, null to emit each response without limits
+     */
+    public CallModelAction(ReactAgent.ChatService chatService, boolean streaming, StreamingChunkPolicy streamingChunkPolicy) {
         this.chatService = chatService;
         this.streaming = streaming;
+        this.streamingChunkPolicy = streamingChunkPolicy;
     }
 
     /**
@@ -44,6 +58,7 @@ public class CallModelAction<State extends MessagesState<Message>> implements As
                     .startingNode("agent")
                     .startingState(state)
                     .mapResult(response -> Map.of("messages", response.getResult().getOutput()))
+                    .chunkPolicy(streamingChunkPolicy)
                     .build(flux);
 
             return completedFuture(Map.of("messages", generator));
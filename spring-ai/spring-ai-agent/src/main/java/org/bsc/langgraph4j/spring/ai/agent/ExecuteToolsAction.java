@@ -4,6 +4,7 @@ import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncCommandAction;
 import org.bsc.langgraph4j.action.Command;
 import org.bsc.langgraph4j.agent.Agent;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.spring.ai.tool.SpringAIToolService;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -22,7 +23,11 @@ class ExecuteToolsAction<State extends MessagesState<Message>> implements AsyncC
     final SpringAIToolService toolService;
 
     public ExecuteToolsAction( List<ToolCallback> tools ) {
-        toolService = new SpringAIToolService( requireNonNull( tools, "tools cannot be null" ));
+        this( tools, ToolExecutionPolicy.sequential() );
+    }
+
+    public ExecuteToolsAction( List<ToolCallback> tools, ToolExecutionPolicy executionPolicy ) {
+        toolService = new SpringAIToolService( requireNonNull( tools, "tools cannot be null" ), executionPolicy );
     }
 
     @Override
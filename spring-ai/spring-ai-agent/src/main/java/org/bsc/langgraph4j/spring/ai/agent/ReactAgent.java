@@ -71,11 +71,11 @@ public interface ReactAgent {
          */
         public StateGraph<State> build(Function<ReactAgentBuilder<?,?>, ChatService> chatServiceFactory ) throws GraphStateException {
 
-            final var chatService = requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this);
+            final var chatService = withResponseCache( requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this) );
 
-            final var callModelAction = new CallModelAction<State>( chatService, streaming );
+            final var callModelAction = new CallModelAction<State>( chatService, streaming, streamingChunkPolicy );
 
-            final var executeToolsAction = new ExecuteToolsAction<State>( tools() );
+            final var executeToolsAction = new ExecuteToolsAction<State>( tools(), toolExecutionPolicy );
 
             return agentBuilder
                     .stateSerializer( stateSerializer )
@@ -4,10 +4,13 @@ import org.bsc.langgraph4j.GraphStateException;
 import org.bsc.langgraph4j.StateGraph;
 import org.bsc.langgraph4j.action.AsyncCommandAction;
 import org.bsc.langgraph4j.agent.Agent;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 import org.bsc.langgraph4j.hook.EdgeHook;
 import org.bsc.langgraph4j.hook.NodeHook;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.spring.ai.cache.SpringAIChatResponseCache;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
 import org.bsc.langgraph4j.state.Channel;
 import org.springaicommunity.agent.tools.FileSystemTools;
 import org.springaicommunity.agent.tools.ShellTools;
@@ -34,6 +37,9 @@ public abstract class ReactAgentBuilder<B extends ReactAgentBuilder<B,State>, St
     protected final Set<ToolCallback> tools = new HashSet<>();
     private SkillsTool.Builder skillsBuilder;
     protected Map<String, Channel<?>> schema = MessagesState.SCHEMA;
+    protected ToolExecutionPolicy toolExecutionPolicy = ToolExecutionPolicy.sequential();
+    protected SpringAIChatResponseCache responseCache;
+    protected StreamingChunkPolicy streamingChunkPolicy;
 
     public Optional<String> systemMessage() {
         return ofNullable(systemMessage);
@@ -107,6 +113,58 @@ public abstract class ReactAgentBuilder<B extends ReactAgentBuilder<B,State>, St
         return result();
     }
 
+    /**
+     * Sets how the tool calls requested in a single turn are executed, by default sequentially.
+     *
+     * @param toolExecutionPolicy the tool execution policy
+     * @return the current instance of GraphBuilder for method chaining
+     */
+    public B toolExecutionPolicy(ToolExecutionPolicy toolExecutionPolicy) {
+        this.toolExecutionPolicy = requireNonNull(toolExecutionPolicy, "toolExecutionPolicy cannot be null!");
+        return result();
+    }
+
+    /**
+     * Sets how the tokens of the streaming chat model are delivered, by default each streamed response is
+     * emitted as soon as it arrives, without limits.
+     *
+     * @param streamingChunkPolicy the chunk policy
+     * @return the current instance of GraphBuilder for method chaining
+     */
+    public B streamingChunkPolicy(StreamingChunkPolicy streamingChunkPolicy) {
+        this.streamingChunkPolicy = streamingChunkPolicy;
+        return result();
+    }
+
+    /**
+     * Sets the cache of the model responses, by default the model is called on every turn.
+     *
+     * @param responseCache the response cache, shared by the agents that use the same model
+     * @return the current instance of GraphBuilder for method chaining
+     */
+    public B responseCache(SpringAIChatResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return result();
+    }
+
+    /**
+     * Decorates the given chat service with the response cache, if any.
+     * The cache key includes the system message, the tools and the default options of the chat model.
+     *
+     * @param chatService the chat service
+     * @return the cached chat service or the given one if no response cache has been set
+     */
+    protected ReactAgent.ChatService withResponseCache(ReactAgent.ChatService chatService) {
+        if( responseCache == null ) {
+            return chatService;
+        }
+        final var context = SpringAIChatResponseCache.contextOf( systemMessage,
+                tools().stream().map(ToolCallback::getToolDefinition).toList(),
+                ofNullable(chatModel).map(ChatModel::getDefaultOptions).orElse(null) );
+
+        return new CachedChatService( chatService, responseCache, context );
+    }
+
     public B skills( String skillDirectory ) {
         if( skillsBuilder == null ) {
             skillsBuilder = SkillsTool.builder();
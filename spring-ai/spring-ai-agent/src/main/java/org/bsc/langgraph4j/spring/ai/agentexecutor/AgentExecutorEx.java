@@ -162,12 +162,12 @@ public interface AgentExecutorEx {
          */
         public StateGraph<State> build(Function<ReactAgentBuilder<?, ?>, org.bsc.langgraph4j.spring.ai.agent.ReactAgent.ChatService> chatServiceFactory ) throws GraphStateException {
 
-            final var chatService = requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this);
+            final var chatService = withResponseCache( requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this) );
 
             // verify approval
-            final var toolService = new SpringAIToolService(tools());
+            final var toolService = new SpringAIToolService(tools(), toolExecutionPolicy);
 
-            final var callModelAction = new CallModelAction<State>( chatService, streaming );
+            final var callModelAction = new CallModelAction<State>( chatService, streaming, streamingChunkPolicy );
 
             return agentBuilder
                     .stateSerializer( ofNullable(stateSerializer)
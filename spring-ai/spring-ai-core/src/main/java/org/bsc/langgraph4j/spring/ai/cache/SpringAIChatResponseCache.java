@@ -0,0 +1,200 @@
+package org.bsc.langgraph4j.spring.ai.cache;
+
+import org.bsc.langgraph4j.cache.FileSystemNodeCache;
+import org.bsc.langgraph4j.cache.InMemoryNodeCache;
+import org.bsc.langgraph4j.cache.NodeCache;
+import org.bsc.langgraph4j.cache.ResponseCache;
+import org.bsc.langgraph4j.cache.ResponseCachePolicy;
+import org.bsc.langgraph4j.spring.ai.generators.StreamingChatGenerator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.content.Media;
+import org.springframework.ai.content.MediaContent;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches the responses of a Spring AI chat model, so that identical requests (e.g. in evaluation runs or in
+ * fan-out workloads) don't call the model again.
+ * <p>
+ * The cache key is the SHA-256 hash of the request messages and of a context that describes what the chat client
+ * adds to them (system message, tool definitions and chat options, see {@link #contextOf(String, List, ChatOptions)}).
+ * Identical requests in flight at the same time are coalesced: only the first one calls the model, the others wait
+ * for its response.
+ * </p>
+ * <p>
+ * The responses are kept by the {@link NodeCache} of the given {@link ResponseCachePolicy}, that also provides the
+ * time to live and the max size: by default an {@link InMemoryNodeCache}, use a {@link FileSystemNodeCache} with
+ * a {@link org.bsc.langgraph4j.spring.ai.serializer.std.SpringAIStateSerializer} to keep them across restarts.
+ * Only the assistant message is cached, the response metadata (e.g. the token usage) of a cached response is not
+ * replayed.
+ * </p>
+ */
+public class SpringAIChatResponseCache extends ResponseCache<ChatResponse> {
+
+    private static final String MESSAGE = "message";
+
+    /**
+     * Creates a cache that keeps the responses in memory, using the default max size and no expiration
+     */
+    public SpringAIChatResponseCache() {
+        this(ResponseCachePolicy.builder().build());
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param policy the policy that provides the cache, its namespace, the time to live and the max size
+     */
+    public SpringAIChatResponseCache(ResponseCachePolicy policy) {
+        super(policy);
+    }
+
+    /**
+     * Describes what a chat client adds to the request messages, to be used as context of the cache key
+     *
+     * @param systemMessage the default system message, can be null
+     * @param tools         the definitions of the tools available to the model
+     * @param options       the chat options, usually the default ones of the chat model, can be null
+     * @return the canonical description of the request context
+     */
+    public static String contextOf(String systemMessage, List<ToolDefinition> tools, ChatOptions options) {
+        requireNonNull(tools, "tools cannot be null");
+        final var result = new StringBuilder()
+                .append("system=").append(systemMessage).append('\n');
+        tools.stream()
+                .sorted(Comparator.comparing(ToolDefinition::name))
+                .forEach(tool -> result.append("tool=")
+                        .append(tool.name()).append('|')
+                        .append(tool.description()).append('|')
+                        .append(tool.inputSchema()).append('\n'));
+        if (options != null) {
+            result.append("model=").append(options.getModel())
+                    .append("|temperature=").append(options.getTemperature())
+                    .append("|topP=").append(options.getTopP())
+                    .append("|topK=").append(options.getTopK())
+                    .append("|maxTokens=").append(options.getMaxTokens())
+                    .append("|frequencyPenalty=").append(options.getFrequencyPenalty())
+                    .append("|presencePenalty=").append(options.getPresencePenalty())
+                    .append("|stopSequences=").append(options.getStopSequences());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Computes the cache key of a request
+     *
+     * @param messages the request messages
+     * @param context  the request context, see {@link #contextOf(String, List, ChatOptions)}
+     * @return the hex encoded hash of the request
+     */
+    public static String keyOf(List<Message> messages, String context) {
+        requireNonNull(messages, "messages cannot be null");
+        final var key = new KeyBuilder().add(context);
+        for (var message : messages) {
+            key.add(message.getMessageType().name())
+                    .add(message.getText());
+            if (message instanceof AssistantMessage assistantMessage) {
+                for (var toolCall : assistantMessage.getToolCalls()) {
+                    key.add(toolCall.id())
+                            .add(toolCall.name())
+                            .add(toolCall.arguments());
+                }
+            }
+            if (message instanceof ToolResponseMessage toolResponseMessage) {
+                for (var response : toolResponseMessage.getResponses()) {
+                    key.add(response.id())
+                            .add(response.name())
+                            .add(response.responseData());
+                }
+            }
+            if (message instanceof MediaContent mediaContent) {
+                for (Media media : mediaContent.getMedia()) {
+                    key.add(String.valueOf(media.getMimeType()))
+                            .add(media.getData());
+                }
+            }
+        }
+        return key.build();
+    }
+
+    @Override
+    protected ChatResponse fromData(Map<String, Object> data) {
+        return new ChatResponse(List.of(new Generation((AssistantMessage) data.get(MESSAGE))));
+    }
+
+    @Override
+    protected Map<String, Object> toData(ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return Map.of(MESSAGE, response.getResult().getOutput());
+    }
+
+    /**
+     * Returns the cached response of the request as a single element stream, or streams the model response.
+     * The cache is looked up on subscription. A streamed response is aggregated and cached on completion.
+     *
+     * @param key  the request key, see {@link #keyOf(List, String)}
+     * @param call the model streaming call
+     * @return the stream of the chat responses
+     */
+    public Flux<ChatResponse> stream(String key, Supplier<Flux<ChatResponse>> call) {
+        requireNonNull(key, "key cannot be null");
+        requireNonNull(call, "call cannot be null");
+
+        return Flux.defer(() -> {
+            final var cached = lookup(key);
+            if (cached.isPresent()) {
+                return Flux.just(cached.get());
+            }
+
+            final var flight = begin(key);
+            if (!flight.isLeader()) {
+                return Mono.fromFuture(flight.response()).flux();
+            }
+
+            final Flux<ChatResponse> flux;
+            try {
+                flux = requireNonNull(call.get(), "streaming call result cannot be null");
+            } catch (Throwable ex) {
+                flight.fail(ex);
+                return Flux.error(ex);
+            }
+
+            final var result = new AtomicReference<ChatResponse>();
+            return flux
+                    .doOnNext(response -> {
+                        if (response.getResult() != null && response.getResult().getOutput() != null) {
+                            result.updateAndGet(last -> last == null ?
+                                    response :
+                                    StreamingChatGenerator.Builder.mergeResponses(last, response));
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        final var response = result.get();
+                        if (response != null) {
+                            flight.complete(response);
+                        } else {
+                            flight.fail(new IllegalStateException("empty chat response stream!"));
+                        }
+                    })
+                    .doOnError(flight::fail)
+                    .doOnCancel(() -> flight.fail(new CancellationException("chat response stream cancelled")));
+        });
+    }
+}
@@ -2,20 +2,25 @@ package org.bsc.langgraph4j.spring.ai.generators;
 
 import java.util.LinkedHashMap;
 import org.bsc.async.AsyncGenerator;
+import org.bsc.async.AsyncGeneratorQueue;
 import org.bsc.async.FlowGenerator;
 import org.bsc.langgraph4j.NodeOutput;
 import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
+import org.bsc.langgraph4j.streaming.StreamingChunkQueue;
 import org.bsc.langgraph4j.streaming.StreamingOutput;
 import org.reactivestreams.FlowAdapters;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -25,6 +30,7 @@ public interface StreamingChatGenerator {
         private Function<ChatResponse, Map<String,Object>> mapResult;
         private String startingNode;
         private State startingState;
+        private StreamingChunkPolicy chunkPolicy;
 
         /**
          * Sets the mapping function for the builder.
@@ -59,6 +65,18 @@ public interface StreamingChatGenerator {
             return this;
         }
 
+        /**
+         * Sets how the tokens are delivered: queue capacity, overflow policy, coalescing and state retention.
+         * By default each response of the flux is emitted, with the state, and the flux is consumed without limits.
+         *
+         * @param chunkPolicy the chunk policy
+         * @return the builder instance
+         */
+        public Builder<State> chunkPolicy(StreamingChunkPolicy chunkPolicy ) {
+            this.chunkPolicy = chunkPolicy;
+            return this;
+        }
+
         /**
          * Builds and returns an instance of LLMStreamingGenerator.
          *
@@ -70,7 +88,7 @@ public interface StreamingChatGenerator {
 
             var result = new AtomicReference<ChatResponse>(null);
 
-            var processedFlux = flux
+            var mergedFlux = flux
                     .filter( response -> response.getResult() != null && response.getResult().getOutput() != null )
                     .doOnNext(currentResponse -> {
                         result.updateAndGet( lastResponse ->
@@ -78,7 +96,13 @@ public interface StreamingChatGenerator {
                                     currentResponse :
                                     mergeResponses(lastResponse, currentResponse)
                         );
-                    })
+                    });
+
+            if( chunkPolicy != null ) {
+                return build( mergedFlux, () -> mapResult.apply( result.get() ) );
+            }
+
+            var processedFlux = mergedFlux
                     .map(next ->
                             new StreamingOutput<>( next.getResult().getOutput().getText(),
                                     startingNode,
@@ -90,13 +114,43 @@ public interface StreamingChatGenerator {
                     () -> mapResult.apply( result.get() ) );
         }
 
+        /**
+         * Consumes the flux applying the chunk policy. With a bounded {@link StreamingChunkPolicy.Overflow#BLOCK}
+         * policy the flux is requested at most {@code capacity} responses ahead and it is consumed on a
+         * bounded elastic worker, so a slow consumer doesn't block the thread emitting the responses.
+         */
+        private AsyncGenerator<? extends NodeOutput<State>> build( Flux<ChatResponse> mergedFlux, Supplier<Map<String,Object>> result ) {
+            final var chunks = new StreamingChunkQueue<>( chunkPolicy, startingNode, startingState );
+
+            var tokens = mergedFlux.mapNotNull( response -> response.getResult().getOutput().getText() );
+            if( chunkPolicy.overflow() == StreamingChunkPolicy.Overflow.BLOCK && chunkPolicy.capacity() != Integer.MAX_VALUE ) {
+                tokens = tokens.publishOn( Schedulers.boundedElastic(), chunkPolicy.capacity() );
+            }
+
+            final var subscription = tokens.subscribe(
+                    chunks::onToken,
+                    chunks::onError,
+                    () -> chunks.onComplete( result.get() ) );
+
+            return new AsyncGenerator.WithResult<>( new AsyncGeneratorQueue.Generator<>( chunks.queue() ) ) {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    subscription.dispose();
+                    chunks.close();
+                    return super.cancel(mayInterruptIfRunning);
+                }
+            };
+        }
+
         /**
          * Merges two ChatResponse objects by combining their messages.
          * Fixes the bug where toolCalls were being lost in the original implementation.
          *
+         * @param last the response merged so far
+         * @param current the next streamed response
          * @return the merged ChatResponse
          */
-        private ChatResponse mergeResponses(ChatResponse last, ChatResponse current) {
+        public static ChatResponse mergeResponses(ChatResponse last, ChatResponse current) {
             var lastMessage = last.getResult().getOutput();
             var currentMessage = current.getResult().getOutput();
 
@@ -116,7 +170,7 @@ public interface StreamingChatGenerator {
          *
          * @return the merged text
          */
-        private String mergeText(String lastText, String currentText) {
+        private static String mergeText(String lastText, String currentText) {
             if( lastText == null ) {
                 return currentText;
             }
@@ -132,7 +186,7 @@ public interface StreamingChatGenerator {
          *
          * @return the merged list of tool calls
          */
-        private List<AssistantMessage.ToolCall> mergeToolCalls(
+        private static List<AssistantMessage.ToolCall> mergeToolCalls(
                 List<AssistantMessage.ToolCall> lastToolCalls,
                 List<AssistantMessage.ToolCall> currentToolCalls) {
 
@@ -1,6 +1,7 @@
 package org.bsc.langgraph4j.spring.ai.tool;
 
 import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.model.ToolContext;
@@ -24,9 +25,27 @@ import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
 public class SpringAIToolService {
 
     private final List<ToolCallback> agentFunctions;
+    private final Map<String, ToolCallback> agentFunctionsByName;
+    private final ToolExecutionPolicy executionPolicy;
 
     public SpringAIToolService(List<ToolCallback> agentFunctions ) {
+        this( agentFunctions, ToolExecutionPolicy.sequential() );
+    }
+
+    /**
+     * Creates the service
+     *
+     * @param agentFunctions the tools
+     * @param executionPolicy how the tool calls of a single turn are executed
+     */
+    public SpringAIToolService(List<ToolCallback> agentFunctions, ToolExecutionPolicy executionPolicy ) {
         this.agentFunctions = agentFunctions;
+        this.executionPolicy = requireNonNull( executionPolicy, "executionPolicy cannot be null" );
+        final var index = new HashMap<String, ToolCallback>();
+        for( var tool : requireNonNull( agentFunctions, "agentFunctions cannot be null" ) ) {
+            index.putIfAbsent( tool.getToolDefinition().name(), tool );
+        }
+        this.agentFunctionsByName = Map.copyOf(index);
     }
 
     /**
@@ -47,9 +66,7 @@ public class SpringAIToolService {
     public Optional<ToolCallback> agentFunction( String name ) {
         requireNonNull( name, "name cannot be null" );
 
-        return this.agentFunctions.stream()
-                .filter( tool -> Objects.equals(tool.getToolDefinition().name(), name ))
-                .findFirst();
+        return ofNullable( agentFunctionsByName.get( name ) );
     }
 
     /**
@@ -68,20 +85,27 @@ public class SpringAIToolService {
             return failedFuture(new IllegalArgumentException("propertyName cannot be empty") );
         }
 
-        var toolResponses = new ArrayList<ToolResponseMessage.ToolResponse>(toolCalls.size());
+        for( var toolCall : toolCalls ) {
+            if( !agentFunctionsByName.containsKey( toolCall.name() ) ) {
+                return failedFuture( new IllegalStateException( format("No tool callback found for name: %s", toolCall.name())) );
+            }
+        }
+
+        return executionPolicy.execute( toolCalls,
+                        AssistantMessage.ToolCall::name,
+                        toolCall -> scopedToolCall( agentFunctionsByName.get( toolCall.name() ), toolCall, toolContextData ) )
+                .thenCompose( results -> mergeResults( results, propertyNameToUpdate ) );
+    }
+
+    private CompletableFuture<Command> mergeResults( List<ScopedToolCallResult> results, String propertyNameToUpdate ) {
+        var toolResponses = new ArrayList<ToolResponseMessage.ToolResponse>(results.size());
 
         Map<String,Object> update = Map.of();
         String gotoNode = null;
 
-        for( var toolCall : toolCalls ) {
-
-            var toolCallback = agentFunction( toolCall.name() );
-
-            if( toolCallback.isEmpty() ) {
-                return failedFuture( new IllegalStateException( format("No tool callback found for name: %s", toolCall.name())) );
-            }
+        // merge in request order
+        for( var scopedToolTaskResult : results ) {
 
-            var scopedToolTaskResult = scopedToolCall( toolCallback.get(), toolCall, toolContextData );
             var command = scopedToolTaskResult.command();
 
             if( command.gotoNodeSafe().isPresent() ) {
@@ -1,6 +1,7 @@
 package org.bsc.langgraph4j.spring.ai;
 
 import org.bsc.langgraph4j.action.Command;
+import org.bsc.langgraph4j.agent.ToolExecutionPolicy;
 import org.bsc.langgraph4j.spring.ai.tool.SpringAIToolResponseBuilder;
 import org.bsc.langgraph4j.spring.ai.tool.SpringAIToolService;
 import org.bsc.langgraph4j.utils.TypeRef;
@@ -15,6 +16,9 @@ import org.springframework.ai.tool.annotation.ToolParam;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.*;
@@ -182,4 +186,38 @@ public class ToolTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCallToolsConcurrently() {
+        var tools = ToolCallbacks.from( new Tools() );
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var toolService = new SpringAIToolService( List.of(tools), ToolExecutionPolicy.builder()
+                    .executor(executor)
+                    .build() );
+
+            var toolCalls = IntStream.range(0, 4)
+                    .mapToObj( i -> new AssistantMessage.ToolCall( "call_" + i, "function", "execTest", format("{ \"arg0\": \"test%d\"}", i)) )
+                    .toList();
+
+            Command callResult = toolService.executeFunctions(toolCalls, Map.of()).join();
+
+            var message = new TypeRef<ToolResponseMessage>() {}.cast(callResult.update().get("messages"));
+            assertTrue(message.isPresent());
+            // merged in request order
+            assertEquals( List.of("call_0", "call_1", "call_2", "call_3"),
+                    message.get().getResponses().stream().map(ToolResponseMessage.ToolResponse::id).toList());
+            assertEquals("\"test tool ('test3') executed\"", message.get().getResponses().get(3).responseData());
+
+            // the goto node conflict is still detected
+            var conflict = List.of(
+                    new AssistantMessage.ToolCall( "call_1", "function", "execTest2", "{ \"arg0\": \"test1\"}"),
+                    new AssistantMessage.ToolCall( "call_2", "function", "execTest2", "{ \"arg0\": \"test2\"}"));
+            var exception = assertThrows(CompletionException.class, () -> toolService.executeFunctions(conflict, Map.of()).join());
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
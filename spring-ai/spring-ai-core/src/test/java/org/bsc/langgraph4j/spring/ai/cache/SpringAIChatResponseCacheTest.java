@@ -0,0 +1,134 @@
+package org.bsc.langgraph4j.spring.ai.cache;
+
+import org.bsc.langgraph4j.cache.FileSystemNodeCache;
+import org.bsc.langgraph4j.cache.ResponseCachePolicy;
+import org.bsc.langgraph4j.spring.ai.serializer.std.SpringAIStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpringAIChatResponseCacheTest {
+
+    static final String CONTEXT = SpringAIChatResponseCache.contextOf("You are a helpful assistant",
+            List.of(ToolDefinition.builder().name("weather").description("get the weather").inputSchema("{}").build()),
+            ChatOptions.builder().model("test-model").temperature(0.0).build());
+
+    static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    @Test
+    public void cacheKey() {
+        var messages = List.<Message>of(new UserMessage("hi"));
+
+        assertEquals(SpringAIChatResponseCache.keyOf(messages, CONTEXT),
+                SpringAIChatResponseCache.keyOf(List.of(new UserMessage("hi")), CONTEXT));
+        assertNotEquals(SpringAIChatResponseCache.keyOf(messages, CONTEXT),
+                SpringAIChatResponseCache.keyOf(List.of(new UserMessage("hello")), CONTEXT));
+        assertNotEquals(SpringAIChatResponseCache.keyOf(messages, CONTEXT),
+                SpringAIChatResponseCache.keyOf(messages, SpringAIChatResponseCache.contextOf("You are a helpful assistant",
+                        List.of(),
+                        ChatOptions.builder().model("test-model").temperature(0.0).build())));
+        assertNotEquals(SpringAIChatResponseCache.keyOf(messages, CONTEXT),
+                SpringAIChatResponseCache.keyOf(messages, SpringAIChatResponseCache.contextOf("You are a helpful assistant",
+                        List.of(ToolDefinition.builder().name("weather").description("get the weather").inputSchema("{}").build()),
+                        ChatOptions.builder().model("test-model").temperature(0.7).build())));
+    }
+
+    @Test
+    public void callIsCached() {
+        var calls = new AtomicInteger();
+        var cache = new SpringAIChatResponseCache();
+        var key = SpringAIChatResponseCache.keyOf(List.of(new UserMessage("hi")), CONTEXT);
+
+        for (int i = 0; i < 3; ++i) {
+            var response = cache.call(key, () -> {
+                calls.incrementAndGet();
+                return response("hello!");
+            });
+            assertEquals("hello!", response.getResult().getOutput().getText());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(2, cache.stats().hits());
+    }
+
+    @Test
+    public void streamIsAggregatedAndCoalesced() {
+        var calls = new AtomicInteger();
+        var cache = new SpringAIChatResponseCache();
+        var key = SpringAIChatResponseCache.keyOf(List.of(new UserMessage("hi")), CONTEXT);
+        var sink = Sinks.many().unicast().<ChatResponse>onBackpressureBuffer();
+
+        var leader = cache.stream(key, () -> {
+            calls.incrementAndGet();
+            return sink.asFlux();
+        });
+        var leaderResponses = leader.collectList().toFuture();
+
+        // an identical request while the first one is streaming
+        var follower = cache.stream(key, () -> {
+            calls.incrementAndGet();
+            return Flux.just(response("never called"));
+        }).collectList().toFuture();
+        assertEquals(1, cache.coalesced());
+        assertFalse(follower.isDone());
+
+        sink.tryEmitNext(response("hello "));
+        sink.tryEmitNext(response("world"));
+        sink.tryEmitComplete();
+
+        assertEquals(2, leaderResponses.join().size());
+        var followerResponses = follower.join();
+        assertEquals(1, followerResponses.size());
+        assertEquals("hello world", followerResponses.get(0).getResult().getOutput().getText());
+
+        var cached = cache.stream(key, () -> {
+            calls.incrementAndGet();
+            return Flux.just(response("never called"));
+        }).collectList().block();
+        assertNotNull(cached);
+        assertEquals("hello world", cached.get(0).getResult().getOutput().getText());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void fileSystemStore(@TempDir Path folder) {
+        var serializer = new SpringAIStateSerializer<>(AgentState::new);
+        var calls = new AtomicInteger();
+        var key = SpringAIChatResponseCache.keyOf(List.of(new UserMessage("hi")), CONTEXT);
+
+        new SpringAIChatResponseCache(ResponseCachePolicy.builder()
+                .cache(new FileSystemNodeCache(folder, serializer))
+                .build()).call(key, () -> {
+                    calls.incrementAndGet();
+                    return response("hello!");
+                });
+
+        // a new cache on the same folder, e.g. in the next evaluation run
+        var cache = new SpringAIChatResponseCache(ResponseCachePolicy.builder()
+                .cache(new FileSystemNodeCache(folder, serializer))
+                .build());
+        var response = cache.call(key, () -> {
+            calls.incrementAndGet();
+            return response("never called");
+        });
+
+        assertEquals("hello!", response.getResult().getOutput().getText());
+        assertEquals(1, calls.get());
+    }
+}
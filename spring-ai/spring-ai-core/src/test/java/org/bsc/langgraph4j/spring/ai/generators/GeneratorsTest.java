@@ -1,13 +1,22 @@
 package org.bsc.langgraph4j.spring.ai.generators;
 
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.streaming.StreamingChunk;
+import org.bsc.langgraph4j.streaming.StreamingChunkPolicy;
 import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
 import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 public class GeneratorsTest {
@@ -75,4 +84,33 @@ public class GeneratorsTest {
                 () -> System.out.println(result2.get()) );
 
     }
+
+    @Test
+    public void chunkPolicyTest() {
+        var responses = Stream.of("a", "b", "c", "d", "e")
+                .map(text -> new ChatResponse(List.of(new Generation(new AssistantMessage(text)))))
+                .toList();
+
+        var generator = StreamingChatGenerator.<AgentState>builder()
+                .startingNode("agent")
+                .startingState(new AgentState(Map.of()))
+                .mapResult(response -> Map.of("messages", response.getResult().getOutput()))
+                .chunkPolicy(StreamingChunkPolicy.builder()
+                        .capacity(1)
+                        .maxChunkTokens(2)
+                        .withState(false)
+                        .build())
+                .build(Flux.fromIterable(responses));
+
+        var chunks = new ArrayList<String>();
+        generator.forEachAsync(output -> {
+            var chunk = assertInstanceOf(StreamingChunk.class, output);
+            assertNull(chunk.state());
+            chunks.add(chunk.chunk());
+        }).join();
+
+        assertEquals(List.of("ab", "cd", "e"), chunks);
+        var result = (Map<?, ?>) ((AsyncGenerator.HasResultValue) generator).resultValue().orElseThrow();
+        assertEquals("abcde", ((AssistantMessage) result.get("messages")).getText());
+    }
 }
@@ -26,10 +26,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -160,24 +159,214 @@ public interface LangGraphStudioServer {
 
     class CacheEntry {
         final CompiledGraph<? extends AgentState> compiledGraph;
-        AsyncGenerator.Cancellable<? extends NodeOutput<? extends AgentState>> generator;
+        volatile AsyncGenerator.Cancellable<? extends NodeOutput<? extends AgentState>> generator;
+        private volatile long lastAccess = System.nanoTime();
 
         public CacheEntry(CompiledGraph<? extends AgentState> compiledGraph) {
             this.compiledGraph = compiledGraph;
         }
+
+        /**
+         * Marks the entry as used, called by the {@link SessionCache} that also updates its access order
+         */
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+
+        /**
+         * Cancels the running generator, if any
+         */
+        void cancel() {
+            var running = generator;
+            if( running != null && !running.isCancelled() ) {
+                running.cancel(true);
+            }
+        }
     }
 
+    /**
+     * Cache of the browser sessions of an {@link Instance}.
+     * <p>
+     * The graph is compiled once and the {@link CompiledGraph} is shared by all the sessions, the entries keep the
+     * generator of the running execution. The entries are at most {@code maxSessions}, the least recently used one
+     * is evicted when the limit is reached, and an entry not used for {@code sessionTtl} expires.
+     * The generator of an evicted or expired entry is cancelled.
+     * </p>
+     */
+    class SessionCache {
+        public static final int DEFAULT_MAX_SESSIONS = 100;
+        public static final Duration DEFAULT_SESSION_TTL = Duration.ofMinutes(30);
+
+        private final StateGraph<? extends AgentState> graph;
+        private final CompileConfig compileConfig;
+        private final int maxSessions;
+        private final long sessionTtlNanos;
+        // access order, so the eldest entry is the least recently used
+        private final Map<PersistentConfig, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private volatile CompiledGraph<? extends AgentState> compiledGraph;
+
+        public SessionCache(StateGraph<? extends AgentState> graph, CompileConfig compileConfig, int maxSessions, Duration sessionTtl) {
+            this.graph = requireNonNull(graph, "graph cannot be null");
+            this.compileConfig = requireNonNull(compileConfig, "compileConfig cannot be null");
+            if( maxSessions <= 0 ) {
+                throw new IllegalArgumentException("maxSessions must be > 0!");
+            }
+            this.maxSessions = maxSessions;
+            if( requireNonNull(sessionTtl, "sessionTtl cannot be null").isNegative() || sessionTtl.isZero() ) {
+                throw new IllegalArgumentException("sessionTtl must be > 0!");
+            }
+            this.sessionTtlNanos = sessionTtl.toNanos();
+        }
+
+        /**
+         * Returns the compiled graph shared by the sessions, compiling it on first use
+         *
+         * @return the compiled graph
+         * @throws GraphStateException if the graph cannot be compiled
+         */
+        public CompiledGraph<? extends AgentState> compiledGraph() throws GraphStateException {
+            var result = compiledGraph;
+            if( result == null ) {
+                synchronized (this) {
+                    result = compiledGraph;
+                    if( result == null ) {
+                        result = compiledGraph = graph.compile(compileConfig);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the entry of the session
+         *
+         * @param config the session
+         * @return the entry, null if not found or expired
+         */
+        public synchronized CacheEntry get(PersistentConfig config) {
+            evictExpired();
+            var entry = entries.get(config);
+            if( entry != null ) {
+                entry.touch();
+            }
+            return entry;
+        }
+
+        /**
+         * Marks the entry of the session as used, e.g. when its generator produces an output, so that it becomes
+         * the most recently used one and its time to live restarts
+         *
+         * @param config the session
+         */
+        public synchronized void touch(PersistentConfig config) {
+            // in an access ordered map the lookup moves the entry to the end
+            var entry = entries.get(config);
+            if( entry != null ) {
+                entry.touch();
+            }
+        }
+
+        /**
+         * Returns a snapshot of the cached sessions, from the least to the most recently used
+         *
+         * @return a read-only copy of the entries
+         */
+        public synchronized Map<PersistentConfig, CacheEntry> asMap() {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(entries));
+        }
+
+        /**
+         * Returns the entry of the session, creating it if needed
+         *
+         * @param config the session
+         * @return the entry
+         * @throws GraphStateException if the graph cannot be compiled
+         */
+        public synchronized CacheEntry getOrCreate(PersistentConfig config) throws GraphStateException {
+            var entry = get(config);
+            if( entry == null ) {
+                entry = new CacheEntry(compiledGraph());
+                entries.put(config, entry);
+
+                if( entries.size() > maxSessions ) {
+                    var eldest = entries.entrySet().iterator().next();
+                    log.debug("evict session {}", eldest.getKey());
+                    entries.remove(eldest.getKey());
+                    eldest.getValue().cancel();
+                }
+            }
+            return entry;
+        }
+
+        /**
+         * Removes the entry of the session, cancelling its generator
+         *
+         * @param config the session
+         */
+        public synchronized void remove(PersistentConfig config) {
+            var entry = entries.remove(config);
+            if( entry != null ) {
+                entry.cancel();
+            }
+        }
+
+        /**
+         * Returns the number of cached sessions
+         *
+         * @return the number of sessions
+         */
+        public synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * Removes the expired entries, cancelling their generators
+         */
+        public synchronized void evictExpired() {
+            final var now = System.nanoTime();
+            var iterator = entries.entrySet().iterator();
+            while( iterator.hasNext() ) {
+                var entry = iterator.next();
+                if( now - entry.getValue().lastAccess >= sessionTtlNanos ) {
+                    log.debug("session {} expired", entry.getKey());
+                    iterator.remove();
+                    entry.getValue().cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * A graph hosted by the server.
+     * <p>
+     * The sessions are kept by a {@link SessionCache}, the {@code sessions} component replaces the former
+     * {@code Map<PersistentConfig, CacheEntry> cache} one, so the canonical constructor takes a {@link SessionCache}
+     * and {@link #cache()} returns a read-only snapshot of the sessions.
+     * </p>
+     */
     record Instance( String title,
                      StateGraph<? extends AgentState> graph,
                      CompileConfig compileConfig,
                      List<ArgumentMetadata> args,
                      ObjectMapper objectMapper,
-                     Map<PersistentConfig, CacheEntry> cache
+                     SessionCache sessions
     ) {
         public Instance {
             requireNonNull(graph, "graph cannot be null");
             requireNonNull(compileConfig, "compileConfig cannot be null");
             requireNonNull(args, "args cannot be null");
+            requireNonNull(sessions, "sessions cannot be null");
+        }
+
+        /**
+         * Returns the cached sessions
+         *
+         * @return a read-only snapshot of the sessions, changes must go through {@link #sessions()}
+         * @deprecated use {@link #sessions()}
+         */
+        @Deprecated
+        public Map<PersistentConfig, CacheEntry> cache() {
+            return sessions.asMap();
         }
 
         private static ObjectMapper objectMapperFromGraph(StateGraph<? extends AgentState> graph) {
@@ -202,14 +391,14 @@ public interface LangGraphStudioServer {
                         StateGraph<? extends AgentState> graph,
                         CompileConfig compileConfig,
                         List<ArgumentMetadata> args) {
-            this(title, graph, compileConfig, args, objectMapperFromGraph(graph), new ConcurrentHashMap<>());
+            this(title, graph, compileConfig, args, objectMapperFromGraph(graph),
+                    new SessionCache(graph, compileConfig, SessionCache.DEFAULT_MAX_SESSIONS, SessionCache.DEFAULT_SESSION_TTL));
         }
 
         public InitGraphData toInitGraphData(String id) {
             requireNonNull(id, "id cannot be null");
             try {
-                var compiledGraph = graph.compile();
-                var graph = compiledGraph.getGraph(GraphRepresentation.Type.MERMAID, /*initData.title()*/ null, false);
+                var graph = sessions.compiledGraph().getGraph(GraphRepresentation.Type.MERMAID, /*initData.title()*/ null, false);
 
                 return new InitGraphData(id, title(), graph.content(), args());
 
@@ -232,6 +421,8 @@ public interface LangGraphStudioServer {
             private String title = null;
             private CompileConfig compileConfig;
             private StateGraph<? extends AgentState> graph;
+            private int maxSessions = SessionCache.DEFAULT_MAX_SESSIONS;
+            private Duration sessionTtl = SessionCache.DEFAULT_SESSION_TTL;
 
 
             /**
@@ -327,6 +518,30 @@ public interface LangGraphStudioServer {
                 return this;
             }
 
+            /**
+             * Sets the max number of browser sessions kept by the server, the least recently used one is evicted
+             * (and its running execution cancelled) when the limit is reached.
+             *
+             * @param maxSessions the max number of sessions, by default {@link SessionCache#DEFAULT_MAX_SESSIONS}
+             * @return the Builder instance
+             */
+            public Builder maxSessions(int maxSessions) {
+                this.maxSessions = maxSessions;
+                return this;
+            }
+
+            /**
+             * Sets how long an idle browser session is kept by the server, its running execution is cancelled
+             * when it expires.
+             *
+             * @param sessionTtl the time to live of an idle session, by default {@link SessionCache#DEFAULT_SESSION_TTL}
+             * @return the Builder instance
+             */
+            public Builder sessionTtl(Duration sessionTtl) {
+                this.sessionTtl = sessionTtl;
+                return this;
+            }
+
             public Instance build() {
 
                 if( compileConfig != null  ) {
@@ -345,7 +560,9 @@ public interface LangGraphStudioServer {
                         ofNullable(title).orElse("LangGraph Studio"),
                         graph,
                         compileConfig,
-                        inputArgs
+                        inputArgs,
+                        objectMapperFromGraph(graph),
+                        new SessionCache(graph, compileConfig, maxSessions, sessionTtl)
                         );
             }
         }
@@ -451,16 +668,6 @@ public interface LangGraphStudioServer {
             super.init(config);
         }
 
-        /**
-         * Compiles the configuration for the given persistent configuration.
-         *
-         * @param config the persistent configuration.
-         * @return the compiled configuration.
-         */
-        private CompileConfig compileConfig( Instance instance, PersistentConfig config) {
-            return instance.compileConfig();
-        }
-
         /**
          * Creates a runnable configuration based on the persistent configuration.
          *
@@ -474,25 +681,6 @@ public interface LangGraphStudioServer {
                     .build();
         }
 
-        /**
-         * Serializes the output to the given writer.
-         *
-         * @param writer the writer to serialize to.
-         * @param threadId the ID of the thread.
-         * @param output the output to serialize.
-         */
-        private void serializeOutput( Instance instance, PrintWriter writer, String threadId, NodeOutput<? extends AgentState> output) {
-            try {
-                writer.printf("[ \"%s\",", threadId);
-                writer.println();
-                var outputAsString = instance.objectMapper().writeValueAsString(output);
-                writer.println(outputAsString);
-                writer.println("]");
-            } catch (IOException e) {
-                log.warn("error serializing state", e);
-            }
-        }
-
         private Optional<String> instanceIdFromRequest( HttpServletRequest request ) {
 
             return ofNullable(request.getPathInfo())
@@ -517,7 +705,7 @@ public interface LangGraphStudioServer {
 
             var persistentConfig = new PersistentConfig( session.getId(), instanceId, threadId);
 
-            var cacheEntry = instance.cache().get(persistentConfig);
+            var cacheEntry = instance.sessions().get(persistentConfig);
 
             if( cacheEntry == null ) {
                 log.warn( "cache for instanceId: {} and threadId: {} not found!", instanceId, threadId);
@@ -538,11 +726,9 @@ public interface LangGraphStudioServer {
             log.info( "cancel generator requested for instanceId: {} and threadId: {} with result: {}", instanceId, threadId, result);
         }
 
-        private void cacheGeneratorCleanUp(  LangGraphStudioServer.Instance instance, PersistentConfig config ) {
-            var cacheEntry = requireNonNull(instance, "instance cannot be null")
-                                .cache()
-                                .get( requireNonNull(config, "config cannot be null") );
-            if( cacheEntry != null ) {
+        private void cacheGeneratorCleanUp( CacheEntry cacheEntry, AsyncGenerator.Cancellable<? extends NodeOutput<? extends AgentState>> generator ) {
+            // a new request could have already replaced the generator
+            if( cacheEntry.generator == generator ) {
                 cacheEntry.generator = null;
             }
         }
@@ -550,6 +736,13 @@ public interface LangGraphStudioServer {
 
         /**
          * Handles POST requests to stream graph data.
+         * <p>
+         * The outputs are written as soon as they are produced, in the format requested by the {@code format}
+         * parameter ({@code text}, {@code ndjson} or {@code sse}) or by the {@code Accept} header
+         * ({@code application/x-ndjson} or {@code text/event-stream}), an unsupported {@code format} is rejected with
+         * status 400. The {@code text} format is the default.
+         * With the {@code delta=true} parameter each output contains only the state changes since the previous one.
+         * </p>
          *
          * @param req the HTTP req.
          * @param resp the HTTP resp.
@@ -558,9 +751,22 @@ public interface LangGraphStudioServer {
          */
         @Override
         protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            final NodeOutputStreamWriter.Format format;
+            try {
+                format = NodeOutputStreamWriter.Format.of(req.getParameter("format"), req.getHeader("Accept"));
+            } catch (IllegalArgumentException e) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+            final var delta = ofNullable(req.getParameter("delta"))
+                    .map(Boolean::parseBoolean).orElse(false);
+
             resp.setHeader("Accept", "application/json");
-            resp.setContentType("text/plain");
+            resp.setContentType(format.contentType);
             resp.setCharacterEncoding("UTF-8");
+            if( format == NodeOutputStreamWriter.Format.SSE ) {
+                resp.setHeader("Cache-Control", "no-cache");
+            }
 
             final var instanceId = instanceIdFromRequest( req )
                                 .orElseThrow( () -> new ServletException("instance id is not found in req"));
@@ -576,6 +782,7 @@ public interface LangGraphStudioServer {
                     .map(Boolean::parseBoolean).orElse(false);
 
             final PrintWriter writer = resp.getWriter();
+            final var outputWriter = new NodeOutputStreamWriter(instance.objectMapper(), writer, format, delta, threadId);
 
             // Start asynchronous processing
             var asyncContext = req.startAsync();
@@ -585,7 +792,7 @@ public interface LangGraphStudioServer {
                 final var persistentConfig = new PersistentConfig( session.getId(), instanceId, threadId);
 
 
-                var cacheEntry = instance.cache().get(persistentConfig);
+                final var cacheEntry = instance.sessions().getOrCreate(persistentConfig);
 
                 final Map<String, Object> candidateDataMap;
                 if ( /*resume && */ instance.graph().getStateSerializer() instanceof PlainTextStateSerializer<? extends AgentState> textSerializer) {
@@ -607,10 +814,6 @@ public interface LangGraphStudioServer {
                 if (resume) {
                     log.trace("RESUME REQUEST PREPARE");
 
-                    if (cacheEntry.compiledGraph == null) {
-                        throw new IllegalStateException("Missing CompiledGraph in session!");
-                    }
-
                     var checkpointId = ofNullable(req.getParameter("checkpoint"))
                             .orElseThrow(() -> new IllegalStateException("Missing checkpoint id!"));
 
@@ -639,21 +842,16 @@ public interface LangGraphStudioServer {
 
                     log.trace("dataMap: {}", dataMap);
 
-                    if (cacheEntry == null) {
-                        cacheEntry = new CacheEntry( instance.graph().compile( compileConfig(instance, persistentConfig)) ) ;
-                        instance.cache().put(persistentConfig, cacheEntry);
-                    }
-
                     cacheEntry.generator  = cacheEntry.compiledGraph.streamSnapshots(dataMap, runnableConfig(persistentConfig));
                 }
 
-                cacheEntry.generator.forEachAsync(s -> {
+                final var generator = cacheEntry.generator;
+
+                generator.forEachAsync(s -> {
                             try {
-                                serializeOutput(instance, writer, threadId, s);
-                                writer.println();
-                                writer.flush();
-                                TimeUnit.SECONDS.sleep(1);
-                            } catch (InterruptedException e) {
+                                instance.sessions().touch(persistentConfig);
+                                outputWriter.write(s);
+                            } catch (IOException e) {
                                 throw new CompletionException(e);
                             }
                         })
@@ -666,7 +864,7 @@ public interface LangGraphStudioServer {
                             }
                             writer.close();
                             asyncContext.complete();
-                            cacheGeneratorCleanUp( instance, persistentConfig );
+                            cacheGeneratorCleanUp( cacheEntry, generator );
                         })
                         ;
 
@@ -41,9 +41,29 @@ class NodeOutputSerializer extends StdSerializer<NodeOutput> {
             IOException {
         log.trace( "NodeOutputSerializer start! {}", nodeOutput.getClass() );
         gen.writeStartObject();
+        writeHeader(nodeOutput, gen);
+
+        // serializerProvider.defaultSerializeField("state", nodeOutput.state().data(), gen);
+
+        // a StreamingChunk doesn't carry the state
+        if( nodeOutput.state() != null ) {
+            gen.writeObjectField("state", nodeOutput.state().data());
+        }
+
+        writeTrailer(nodeOutput, gen);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes the fields that precede the state: the checkpoint (if any), the node and the subgraph node
+     *
+     * @param nodeOutput the NodeOutput instance to serialize
+     * @param gen the JsonGenerator used to write JSON
+     * @throws IOException if an I/O error occurs during serialization
+     */
+    static void writeHeader(NodeOutput<?> nodeOutput, JsonGenerator gen) throws IOException {
         if( nodeOutput instanceof StateSnapshot<?> snapshot) {
             var checkpoint = snapshot.config().checkPointId();
-            log.trace( "checkpoint: {}", checkpoint );
             if( checkpoint.isPresent() ) {
                 gen.writeStringField("checkpoint", checkpoint.get());
             }
@@ -58,14 +78,18 @@ class NodeOutputSerializer extends StdSerializer<NodeOutput> {
 
             gen.writeStringField("subgraphNode", node.concat(subgraph.subGraphId()) );
         }
+    }
 
-        // serializerProvider.defaultSerializeField("state", nodeOutput.state().data(), gen);
-
-        gen.writeObjectField("state", nodeOutput.state().data());
-
+    /**
+     * Writes the fields that follow the state: the next node of a snapshot
+     *
+     * @param nodeOutput the NodeOutput instance to serialize
+     * @param gen the JsonGenerator used to write JSON
+     * @throws IOException if an I/O error occurs during serialization
+     */
+    static void writeTrailer(NodeOutput<?> nodeOutput, JsonGenerator gen) throws IOException {
         if( nodeOutput instanceof StateSnapshot<?> snapshot ) {
             gen.writeObjectField("next", snapshot.next() );
         }
-        gen.writeEndObject();
     }
 }
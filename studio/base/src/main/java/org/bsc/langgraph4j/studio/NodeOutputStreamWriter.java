@@ -0,0 +1,215 @@
+package org.bsc.langgraph4j.studio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the outputs of a graph execution straight to the response, using the Jackson streaming generator,
+ * and flushes each of them.
+ * <p>
+ * Each output is written as the array {@code [ "<thread id>", <node output> ]}, framed according to the
+ * {@link Format}. When the {@code delta} mode is enabled the node output doesn't contain the whole {@code state}
+ * but the {@code delta} object, with the values changed since the previous output, the {@code appended} object,
+ * with the elements added at the end of the list values (e.g. the new messages), and the {@code removed} array,
+ * with the keys removed since the previous output. The first output contains the whole state as delta.
+ * </p>
+ */
+class NodeOutputStreamWriter {
+
+    /**
+     * The framing of the outputs in the response
+     */
+    enum Format {
+        /**
+         * The format expected by the bundled web UI: each output is followed by an empty line
+         */
+        TEXT("text/plain"),
+        /**
+         * Newline delimited JSON: each output is on a single line
+         */
+        NDJSON("application/x-ndjson"),
+        /**
+         * Server-sent events: each output is the data of an event
+         */
+        SSE("text/event-stream");
+
+        final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * Resolves the format from the {@code format} parameter (text, ndjson or sse) or, if missing,
+         * from the {@code Accept} header
+         *
+         * @param format the value of the format parameter, may be null
+         * @param accept the value of the Accept header, may be null
+         * @return the format, {@link #TEXT} by default
+         * @throws IllegalArgumentException if the format parameter is not supported
+         */
+        static Format of(String format, String accept) {
+            if (format != null) {
+                for (var f : values()) {
+                    if (f.name().equalsIgnoreCase(format)) {
+                        return f;
+                    }
+                }
+                throw new IllegalArgumentException(String.format("unsupported format '%s', expected text, ndjson or sse!", format));
+            }
+            return Optional.ofNullable(accept)
+                    .flatMap(value -> {
+                        for (var f : values()) {
+                            if (f != TEXT && value.contains(f.contentType)) {
+                                return Optional.of(f);
+                            }
+                        }
+                        return Optional.empty();
+                    })
+                    .orElse(TEXT);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator gen;
+    private final Format format;
+    private final boolean delta;
+    private final String threadId;
+    private Map<String, JsonNode> lastState;
+
+    /**
+     * Creates the writer
+     *
+     * @param objectMapper the object mapper of the instance
+     * @param writer the writer of the response, it is not closed by this writer
+     * @param format the framing of the outputs
+     * @param delta true to write the state changes instead of the whole state
+     * @param threadId the ID of the thread
+     * @throws IOException if the generator cannot be created
+     */
+    NodeOutputStreamWriter(ObjectMapper objectMapper, Writer writer, Format format, boolean delta, String threadId) throws IOException {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper cannot be null");
+        this.format = requireNonNull(format, "format cannot be null");
+        this.delta = delta;
+        this.threadId = requireNonNull(threadId, "threadId cannot be null");
+        this.gen = objectMapper.getFactory()
+                .createGenerator(requireNonNull(writer, "writer cannot be null"))
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    /**
+     * Writes the output and flushes it to the client
+     *
+     * @param output the output of the graph
+     * @throws IOException if an I/O error occurs
+     */
+    void write(NodeOutput<? extends AgentState> output) throws IOException {
+        if (format == Format.SSE) {
+            gen.writeRaw("data: ");
+        }
+        gen.writeStartArray();
+        gen.writeString(threadId);
+
+        if (delta && output.state() != null) {
+            writeDelta(output);
+        } else {
+            gen.writeObject(output);
+        }
+
+        gen.writeEndArray();
+        gen.writeRaw(format == Format.NDJSON ? "\n" : "\n\n");
+        gen.flush();
+    }
+
+    private void writeDelta(NodeOutput<? extends AgentState> output) throws IOException {
+        final var state = new HashMap<String, JsonNode>();
+        for (var entry : output.state().data().entrySet()) {
+            // the tree is a copy, so a value updated in place is detected at the next output
+            state.put(entry.getKey(), objectMapper.valueToTree(entry.getValue()));
+        }
+
+        gen.writeStartObject();
+        NodeOutputSerializer.writeHeader(output, gen);
+
+        final var appended = new HashMap<String, ArrayNode>();
+        gen.writeObjectFieldStart("delta");
+        for (var entry : state.entrySet()) {
+            final var last = (lastState != null) ? lastState.get(entry.getKey()) : null;
+            if (entry.getValue().equals(last)) {
+                continue;
+            }
+            final var tail = appendedTail(last, entry.getValue());
+            if (tail != null) {
+                appended.put(entry.getKey(), tail);
+            } else {
+                gen.writeFieldName(entry.getKey());
+                gen.writeTree(entry.getValue());
+            }
+        }
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("appended");
+        for (var entry : appended.entrySet()) {
+            gen.writeFieldName(entry.getKey());
+            gen.writeTree(entry.getValue());
+        }
+        gen.writeEndObject();
+
+        final var removed = new ArrayList<String>();
+        if (lastState != null) {
+            for (var key : lastState.keySet()) {
+                if (!state.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+        }
+        gen.writeArrayFieldStart("removed");
+        for (var key : removed) {
+            gen.writeString(key);
+        }
+        gen.writeEndArray();
+
+        NodeOutputSerializer.writeTrailer(output, gen);
+        gen.writeEndObject();
+
+        lastState = state;
+    }
+
+    /**
+     * Returns the elements added at the end of a list value
+     *
+     * @param last the previous value, may be null
+     * @param value the current value
+     * @return the added elements, null if the value is not the previous list with some elements added
+     */
+    private static ArrayNode appendedTail(JsonNode last, JsonNode value) {
+        if (!(last instanceof ArrayNode lastArray) || !(value instanceof ArrayNode array) || array.size() <= lastArray.size()) {
+            return null;
+        }
+        for (int i = 0; i < lastArray.size(); ++i) {
+            if (!lastArray.get(i).equals(array.get(i))) {
+                return null;
+            }
+        }
+        final var tail = array.arrayNode(array.size() - lastArray.size());
+        for (int i = lastArray.size(); i < array.size(); ++i) {
+            tail.add(array.get(i));
+        }
+        return tail;
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.bsc.langgraph4j.studio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channels;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeOutputStreamWriterTest {
+
+    static LangGraphStudioServer.Instance instance() throws Exception {
+        var workflow = new StateGraph<>(Map.of("messages", Channels.appender(ArrayList::new)), AgentState::new)
+                .addNode("agent", node_async(state -> Map.of("messages", "hello", "step", 1)))
+                .addNode("action", node_async(state -> Map.of("messages", "world")))
+                .addEdge(START, "agent")
+                .addEdge("agent", "action")
+                .addEdge("action", END);
+
+        return LangGraphStudioServer.Instance.builder()
+                .graph(workflow)
+                .build();
+    }
+
+    static List<JsonNode> stream(LangGraphStudioServer.Instance instance, NodeOutputStreamWriter.Format format, boolean delta) throws Exception {
+        var compiledGraph = instance.graph().compile(instance.compileConfig());
+        var response = new StringWriter();
+        var outputWriter = new NodeOutputStreamWriter(instance.objectMapper(), response, format, delta, "T1");
+
+        for (var output : compiledGraph.streamSnapshots(Map.of("input", "hi"), RunnableConfig.builder().threadId("T1").build())) {
+            outputWriter.write(output);
+        }
+
+        var mapper = new ObjectMapper();
+        var result = new ArrayList<JsonNode>();
+        var text = response.toString();
+        var lines = format == NodeOutputStreamWriter.Format.NDJSON ? text.split("\n") : text.split("\n\n");
+        for (var line : lines) {
+            assertFalse(line.isBlank());
+            var json = format == NodeOutputStreamWriter.Format.SSE ? line.substring("data: ".length()) : line;
+            var element = mapper.readTree(json);
+            assertEquals("T1", element.get(0).asText());
+            result.add(element.get(1));
+        }
+        return result;
+    }
+
+    @Test
+    public void formatFromRequest() {
+        assertEquals(NodeOutputStreamWriter.Format.TEXT, NodeOutputStreamWriter.Format.of(null, null));
+        assertEquals(NodeOutputStreamWriter.Format.TEXT, NodeOutputStreamWriter.Format.of(null, "*/*"));
+        assertEquals(NodeOutputStreamWriter.Format.SSE, NodeOutputStreamWriter.Format.of(null, "text/event-stream"));
+        assertEquals(NodeOutputStreamWriter.Format.NDJSON, NodeOutputStreamWriter.Format.of("ndjson", "text/event-stream"));
+        assertEquals(NodeOutputStreamWriter.Format.SSE, NodeOutputStreamWriter.Format.of("SSE", null));
+        assertThrows(IllegalArgumentException.class, () -> NodeOutputStreamWriter.Format.of("xml", null));
+    }
+
+    @Test
+    public void fullState() throws Exception {
+        var instance = instance();
+
+        for (var format : NodeOutputStreamWriter.Format.values()) {
+            var outputs = stream(instance, format, false);
+
+            assertEquals(List.of("__START__", "agent", "action", "__END__"),
+                    outputs.stream().map(output -> output.get("node").asText()).toList());
+            var last = outputs.get(outputs.size() - 1);
+            assertEquals("[\"hello\",\"world\"]", last.get("state").get("messages").toString());
+            assertTrue(outputs.get(2).has("checkpoint"));
+            assertEquals("__END__", outputs.get(2).get("next").asText());
+        }
+    }
+
+    @Test
+    public void stateDelta() throws Exception {
+        var outputs = stream(instance(), NodeOutputStreamWriter.Format.NDJSON, true);
+
+        assertEquals(4, outputs.size());
+        // the first output contains the whole state
+        assertEquals("hi", outputs.get(0).get("delta").get("input").asText());
+        assertFalse(outputs.get(0).has("state"));
+
+        var agent = outputs.get(1).get("delta");
+        assertEquals(1, agent.size());
+        assertEquals(1, agent.get("step").asInt());
+        // the messages list of the initial state is empty
+        assertEquals("[\"hello\"]", outputs.get(1).get("appended").get("messages").toString());
+
+        // only the elements appended to the list are written
+        assertEquals(0, outputs.get(2).get("delta").size());
+        var action = outputs.get(2).get("appended");
+        assertEquals(1, action.size());
+        assertEquals("[\"world\"]", action.get("messages").toString());
+        assertTrue(outputs.get(2).has("checkpoint"));
+        assertEquals("__END__", outputs.get(2).get("next").asText());
+
+        assertEquals(0, outputs.get(3).get("delta").size());
+        assertEquals(0, outputs.get(3).get("appended").size());
+        assertEquals(0, outputs.get(3).get("removed").size());
+    }
+}
@@ -0,0 +1,100 @@
+package org.bsc.langgraph4j.studio;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionCacheTest {
+
+    static LangGraphStudioServer.SessionCache sessionCache(int maxSessions, Duration sessionTtl) throws Exception {
+        var workflow = new StateGraph<>(AgentState::new)
+                .addNode("agent", node_async(state -> Map.of("output", "hello")))
+                .addEdge(START, "agent")
+                .addEdge("agent", END);
+
+        var compileConfig = CompileConfig.builder()
+                .checkpointSaver(new MemorySaver())
+                .build();
+
+        return new LangGraphStudioServer.SessionCache(workflow, compileConfig, maxSessions, sessionTtl);
+    }
+
+    static LangGraphStudioServer.PersistentConfig session(String sessionId) {
+        return new LangGraphStudioServer.PersistentConfig(sessionId, "default", "T1");
+    }
+
+    @Test
+    public void compiledGraphIsShared() throws Exception {
+        var cache = sessionCache(10, Duration.ofMinutes(1));
+
+        var entry1 = cache.getOrCreate(session("S1"));
+        var entry2 = cache.getOrCreate(session("S2"));
+
+        assertNotSame(entry1, entry2);
+        assertSame(entry1.compiledGraph, entry2.compiledGraph);
+        assertSame(cache.compiledGraph(), entry1.compiledGraph);
+        assertSame(entry1, cache.getOrCreate(session("S1")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedSessionIsEvicted() throws Exception {
+        var cache = sessionCache(2, Duration.ofMinutes(1));
+
+        var entry1 = cache.getOrCreate(session("S1"));
+        var entry2 = cache.getOrCreate(session("S2"));
+        entry2.generator = entry2.compiledGraph.stream(Map.of(), RunnableConfig.builder().threadId("T1").build());
+        // S1 is used again, so S2 is the least recently used
+        assertSame(entry1, cache.get(session("S1")));
+
+        cache.getOrCreate(session("S3"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(session("S2")));
+        assertSame(entry1, cache.get(session("S1")));
+        // the abandoned generator is cancelled on eviction
+        assertTrue(entry2.generator.isCancelled());
+    }
+
+    @Test
+    public void touchedSessionIsNotEvicted() throws Exception {
+        var cache = sessionCache(2, Duration.ofMinutes(1));
+
+        var entry1 = cache.getOrCreate(session("S1"));
+        cache.getOrCreate(session("S2"));
+        // an output of the S1 generator makes it the most recently used
+        cache.touch(session("S1"));
+        assertEquals(List.of(session("S2"), session("S1")), List.copyOf(cache.asMap().keySet()));
+
+        cache.getOrCreate(session("S3"));
+
+        assertNull(cache.get(session("S2")));
+        assertSame(entry1, cache.get(session("S1")));
+    }
+
+    @Test
+    public void idleSessionExpires() throws Exception {
+        var cache = sessionCache(10, Duration.ofMillis(50));
+
+        var entry = cache.getOrCreate(session("S1"));
+        entry.generator = entry.compiledGraph.stream(Map.of(), RunnableConfig.builder().threadId("T1").build());
+
+        Thread.sleep(100);
+
+        assertNull(cache.get(session("S1")));
+        assertEquals(0, cache.size());
+        assertTrue(entry.generator.isCancelled());
+    }
+}
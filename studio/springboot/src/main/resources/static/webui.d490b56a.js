@@ -1,4 +1,4 @@
-var t=globalThis,e={},a={},s=t.parcelRequire0031;null==s&&((s=function(t){if(t in e)return e[t].exports;if(t in a){var s=a[t];delete a[t];var i={id:t,exports:{}};return e[t]=i,s.call(i.exports,i,i.exports),i.exports}var r=Error("Cannot find module '"+t+"'");throw r.code="MODULE_NOT_FOUND",r}).register=function(t,e){a[t]=e},t.parcelRequire0031=s),s.register;var i=s("hNeh9"),r=s("800sp");const n=(0,s("8uVid").debug)({on:!0,topic:"LG4JExecutor"});async function*o(t){let e=t.body?.getReader(),a=new TextDecoder,s="";for(;e;){let{done:t,value:i}=await e.read();if(t)break;try{s+=a.decode(i);let t=JSON.parse(s);s="",yield t}catch(t){console.warn("JSON parse error:",t)}}}class l extends r.LitElement{static styles=[i.default,(0,r.css)`
+var t=globalThis,e={},a={},s=t.parcelRequire0031;null==s&&((s=function(t){if(t in e)return e[t].exports;if(t in a){var s=a[t];delete a[t];var i={id:t,exports:{}};return e[t]=i,s.call(i.exports,i,i.exports),i.exports}var r=Error("Cannot find module '"+t+"'");throw r.code="MODULE_NOT_FOUND",r}).register=function(t,e){a[t]=e},t.parcelRequire0031=s),s.register;var i=s("hNeh9"),r=s("800sp");const n=(0,s("8uVid").debug)({on:!0,topic:"LG4JExecutor"});async function*o(t){let e=t.body?.getReader(),a=new TextDecoder,s="";for(;e;){let{done:t,value:i}=await e.read();if(t)break;s+=a.decode(i,{stream:!0});let r;for(;(r=s.indexOf("\n"))>=0;){let t=s.substring(0,r).trim();if(s=s.substring(r+1),0!==t.length)try{yield JSON.parse(t)}catch(t){console.warn("JSON parse error:",t)}}}}class l extends r.LitElement{static styles=[i.default,(0,r.css)`
     .container {
       display: flex;
       flex-direction: column;
@@ -63,5 +63,5 @@ var t=globalThis,e={},a={},s=t.parcelRequire0031;null==s&&((s=function(t){if(t i
           </div>
           </div>
         </dialog>        
-        `}#u(t){let e=this.shadowRoot?.getElementById("error_dialog");if(e&&"showModal"in e){let a=e.querySelector("#error_message");a&&(a.textContent=t),e.showModal()}}async #l(){let t=await fetch(`${this.#s}/init${window.location.search}`,{method:"GET",credentials:"include"});if(!t.ok)return this.#u(t.statusText),null;let e=await t.json();n("initData",e),this.dispatchEvent(new CustomEvent("init",{detail:e,bubbles:!0,composed:!0,cancelable:!0})),this.#a=e.id,this.formMetaData=e.args,this.requestUpdate()}async #c(){this.#i();let t=null;try{t=await this.#p()}catch(e){e instanceof Error&&(this.#u(e.message),t=e)}finally{this.#r(t)}}async #p(){let t=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}&resume=true&node=${this.#e?.node}&checkpoint=${this.#e?.checkpoint}`,{method:"POST",headers:{"Content-Type":"application/json"},body:JSON.stringify(this.#e?.data)});if(!t.ok)throw Error(t.statusText);this.#e=null;let e=null;for await(let a of o(t))n(a),e=a,this.dispatchEvent(new CustomEvent("result",{detail:a,bubbles:!0,composed:!0,cancelable:!0}));return e}async #d(){this.#i();let t=null;try{t=await this.#m()}catch(e){e instanceof Error&&(this.#u(e.message),t=e)}finally{this.#r(t)}}async #h(){if(!this._executing)return;let t=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}&cancel=true`,{method:"DELETE"});if(!t.ok)throw Error(t.statusText);let e=new CustomEvent("result",{detail:[this.#t,{cancelled:!0}],bubbles:!0,composed:!0,cancelable:!0});this.dispatchEvent(e)}async #m(){let t=this.formMetaData.reduce((t,e)=>{let{name:a,type:s}=e,i=this.shadowRoot?.getElementById(a);switch(s){case"STRING":case"IMAGE":t[a]=i?.value}return t},{}),e=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}`,{method:"POST",headers:{"Content-Type":"application/json"},body:JSON.stringify(t)});if(!e.ok)throw Error(e.statusText);let a=null;for await(let t of o(e)){n("SUBMIT RESULT",t),a=t;let e=new CustomEvent("result",{detail:t,bubbles:!0,composed:!0,cancelable:!0});this.dispatchEvent(e)}return a}}window.customElements.define("lg4j-executor",l);
+        `}#u(t){let e=this.shadowRoot?.getElementById("error_dialog");if(e&&"showModal"in e){let a=e.querySelector("#error_message");a&&(a.textContent=t),e.showModal()}}async #l(){let t=await fetch(`${this.#s}/init${window.location.search}`,{method:"GET",credentials:"include"});if(!t.ok)return this.#u(t.statusText),null;let e=await t.json();n("initData",e),this.dispatchEvent(new CustomEvent("init",{detail:e,bubbles:!0,composed:!0,cancelable:!0})),this.#a=e.id,this.formMetaData=e.args,this.requestUpdate()}async #c(){this.#i();let t=null;try{t=await this.#p()}catch(e){e instanceof Error&&(this.#u(e.message),t=e)}finally{this.#r(t)}}async #p(){let t=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}&resume=true&node=${this.#e?.node}&checkpoint=${this.#e?.checkpoint}`,{method:"POST",headers:{"Content-Type":"application/json",Accept:"application/x-ndjson"},body:JSON.stringify(this.#e?.data)});if(!t.ok)throw Error(t.statusText);this.#e=null;let e=null;for await(let a of o(t))n(a),e=a,this.dispatchEvent(new CustomEvent("result",{detail:a,bubbles:!0,composed:!0,cancelable:!0}));return e}async #d(){this.#i();let t=null;try{t=await this.#m()}catch(e){e instanceof Error&&(this.#u(e.message),t=e)}finally{this.#r(t)}}async #h(){if(!this._executing)return;let t=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}&cancel=true`,{method:"DELETE"});if(!t.ok)throw Error(t.statusText);let e=new CustomEvent("result",{detail:[this.#t,{cancelled:!0}],bubbles:!0,composed:!0,cancelable:!0});this.dispatchEvent(e)}async #m(){let t=this.formMetaData.reduce((t,e)=>{let{name:a,type:s}=e,i=this.shadowRoot?.getElementById(a);switch(s){case"STRING":case"IMAGE":t[a]=i?.value}return t},{}),e=await fetch(`${this.#s}/stream/${this.#a}?thread=${this.#t}`,{method:"POST",headers:{"Content-Type":"application/json",Accept:"application/x-ndjson"},body:JSON.stringify(t)});if(!e.ok)throw Error(e.statusText);let a=null;for await(let t of o(e)){n("SUBMIT RESULT",t),a=t;let e=new CustomEvent("result",{detail:t,bubbles:!0,composed:!0,cancelable:!0});this.dispatchEvent(e)}return a}}window.customElements.define("lg4j-executor",l);
 //# sourceMappingURL=webui.d490b56a.js.map
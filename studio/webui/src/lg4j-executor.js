@@ -29,11 +29,12 @@ const _DBG = debug( { on: true, topic: 'LG4JExecutor' } )
 const delay = async (ms) => (new Promise(resolve => setTimeout(resolve, ms)));
 
 /**
- * Asynchronously fetches data from a given fetch call and yields the data in chunks.
+ * Asynchronously fetches data from a given fetch call and yields the data line by line.
+ * The response must be in newline delimited JSON format (application/x-ndjson).
  * @async
  * @generator
  * @param {Response} response
- * @yields {Promise<string>} The decoded text chunk from the response stream.
+ * @yields {Promise<any>} The parsed JSON of each line of the response stream.
  */
 async function* streamingResponse(response) {
   // Attach Reader
@@ -48,16 +49,20 @@ async function* streamingResponse(response) {
     // check if stream is done
     if (done) break;
 
-    try {
-      buffer += decoder.decode(value);
-      const data = JSON.parse(buffer);
-      buffer = '';
-      yield data;
-    } catch (err) {
-      console.warn('JSON parse error:', err );
+    buffer += decoder.decode(value, { stream: true });
+
+    // a chunk can contain many lines, or a part of a line
+    let newline
+    while( (newline = buffer.indexOf('\n')) >= 0 ) {
+      const line = buffer.substring(0, newline).trim()
+      buffer = buffer.substring(newline + 1)
+      if( line.length === 0 ) continue
+      try {
+        yield JSON.parse(line);
+      } catch (err) {
+        console.warn('JSON parse error:', err );
+      }
     }
-    // Decodes data chunk and yields it
-    // yield (new TextDecoder().decode(value));
   }
 }
 
@@ -412,7 +417,8 @@ export class LG4JExecutorElement extends LitElement {
     const execResponse = await fetch(`${this.#contextPath}/stream/${this.#instanceId}?thread=${this.#selectedThread}&resume=true&node=${this.#updatedState?.node}&checkpoint=${this.#updatedState?.checkpoint}`, {
       method: 'POST', // *GET, POST, PUT, DELETE, etc.
       headers: {
-        'Content-Type': 'application/json'
+        'Content-Type': 'application/json',
+        'Accept': 'application/x-ndjson'
       },
       body: JSON.stringify( this.#updatedState?.data )
     });
@@ -523,7 +529,8 @@ export class LG4JExecutorElement extends LitElement {
     const execResponse = await fetch(`${this.#contextPath}/stream/${this.#instanceId}?thread=${this.#selectedThread}`, {
         method: 'POST', // *GET, POST, PUT, DELETE, etc.
       headers: {
-        'Content-Type': 'application/json'
+        'Content-Type': 'application/json',
+        'Accept': 'application/x-ndjson'
       },
       body: JSON.stringify(data)
     });